@@ -7,6 +7,8 @@ CREATE TABLE bars
     longitude          DECIMAL(10, 7) NOT NULL,
     base_category_name VARCHAR(50)    NULL,
     open_information   TEXT           NULL,
+    open_info_summary  VARCHAR(120)   NULL,
+    open_info_summary_source_at DATETIME NULL,
     menu               json           NULL,
 
     created_at         DATETIME       NOT NULL DEFAULT CURRENT_TIMESTAMP,
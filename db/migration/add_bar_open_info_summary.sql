@@ -0,0 +1,13 @@
+-- Migration script for existing database
+-- open_information 요약 컬럼 추가 (프롬프트/ES 인덱싱용)
+
+-- open_info_summary          : 영업시간/휴무/라스트오더 정규화 요약
+-- open_info_summary_source_at: 요약한 시점의 bars.updated_at (다르면 다시 요약)
+use sulmap;
+ALTER TABLE bars
+    ADD COLUMN open_info_summary VARCHAR(120) NULL AFTER open_information,
+    ADD COLUMN open_info_summary_source_at DATETIME NULL AFTER open_info_summary;
+
+-- Elasticsearch 기존 인덱스에는 매핑만 추가
+-- curl -X PUT "$ES_URL/bars/_mapping" -H "Content-Type: application/json" \
+--   -d '{"properties":{"open_info_summary":{"type":"keyword","index":false}}}'
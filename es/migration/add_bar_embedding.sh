@@ -0,0 +1,15 @@
+#!/bin/sh
+set -e
+
+# 기존 bars 인덱스에 후보 kNN 검색용 임베딩 매핑 추가
+# - dims는 ai.recommend.embedding.dims 와 같아야 한다
+# - 문서 임베딩은 앱의 임베딩 배치(ai.recommend.embedding.job.enabled=true)가 채운다
+ES_URL="${ES_URL:-http://localhost:9200}"
+INDEX_NAME="${INDEX_NAME:-bars}"
+
+curl -s -X PUT "$ES_URL/$INDEX_NAME/_mapping" \
+  -H "Content-Type: application/json" \
+  -d '{"properties":{"embedding":{"type":"dense_vector","dims":256,"index":true,"similarity":"cosine"},"embedding_model":{"type":"keyword"}}}'
+
+echo
+echo "임베딩 매핑 추가 완료"
@@ -0,0 +1,50 @@
+package com.ssafy.sulmap.api.config;
+
+import com.ssafy.sulmap.core.model.AiPipelineSettings;
+import com.ssafy.sulmap.core.service.AiPipelineSettingsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * AI 추천 파이프라인 크기 조회/변경: GET/POST /api/actuator/aipipeline
+ * - POST 본문: {"fetchCandidates":150,"stage2Max":30} 처럼 바꿀 항목만
+ * - 트래픽이 몰릴 때 후보/배치/풀 크기를 줄여 지연을 낮추는 용도 (재시작하면 프로퍼티 값으로 돌아감)
+ * - ADMIN 권한만 (SecurityConfig), 변경/거부는 누가 했는지와 함께 로그에 남긴다
+ */
+@Component
+@Endpoint(id = "aipipeline")
+@RequiredArgsConstructor
+public class AiPipelineSettingsEndpoint {
+
+    private final AiPipelineSettingsService _pipelineSettingsService;
+
+    @ReadOperation
+    public AiPipelineSettings settings() {
+        return _pipelineSettingsService.current();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> update(@Nullable Principal principal,
+                                              @Nullable Integer fetchCandidates,
+                                              @Nullable Integer batchSize,
+                                              @Nullable Integer maxStage1Batches,
+                                              @Nullable Integer stage2Max,
+                                              @Nullable Integer finalTopK) {
+        String actor = principal == null ? "anonymous" : principal.getName();
+        var result = _pipelineSettingsService.update(actor, fetchCandidates, batchSize, maxStage1Batches, stage2Max,
+                finalTopK);
+        if (result.isFailure()) {
+            var error = result.getSingleErrorOrThrow();
+            return new WebEndpointResponse<>(Map.of("message", error.getMessage()), error.getCode());
+        }
+        return new WebEndpointResponse<>(result.getOrThrow());
+    }
+}
@@ -0,0 +1,222 @@
+package com.ssafy.sulmap.api.config;
+
+import com.openai.springboot.OpenAIClientCustomizer;
+import com.ssafy.sulmap.core.model.AiShadowConfig;
+import com.ssafy.sulmap.core.model.enums.PreRankMode;
+import com.ssafy.sulmap.core.service.impl.AiRecommendServiceImpl;
+import com.ssafy.sulmap.infra.external.embedding.HashingTextEmbedder;
+import com.ssafy.sulmap.infra.external.embedding.TextEmbedder;
+import com.ssafy.sulmap.infra.external.openai.GptCallGuard;
+import com.ssafy.sulmap.infra.external.openai.GptModelRouter;
+import com.ssafy.sulmap.infra.external.openai.GptStage;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AI 추천 빈 설정
+ * - 여기 ExecutorService 빈들은 모두 이름(@Qualifier)으로만 주입한다
+ * - Executor 빈이 하나라도 있으면 Boot가 applicationTaskExecutor를 만들지 않으므로
+ *   spring.task.execution.mode=force 로 @Async/MVC 비동기는 계속 Boot 기본 executor를 쓰게 한다
+ */
+@Configuration
+public class AiRecommendConfig {
+
+    /**
+     * 후보 kNN 검색용 로컬 임베더. dims는 ES bars.embedding 매핑과 같아야 한다
+     * - 다른 임베더를 쓰려면 @Primary TextEmbedder 빈을 등록한다 (이름이 바뀌면 문서 임베딩은 배치가 다시 계산)
+     */
+    @Bean
+    public TextEmbedder textEmbedder(@Value("${ai.recommend.embedding.dims:256}") int dims) {
+        return new HashingTextEmbedder(dims);
+    }
+
+    /**
+     * AI 추천 파이프라인 전용 executor (후보/사용자 조회, 1차 배치 fan-out)
+     * - 스레드/큐 모두 상한을 둔다. 큐가 가득 차면 RejectedExecutionException -> 호출부에서 폴백
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService aiRecommendExecutor(
+            @Value("${ai.recommend.executor.pool-size:16}") int poolSize,
+            @Value("${ai.recommend.executor.queue-capacity:64}") int queueCapacity
+    ) {
+        return boundedExecutor("ai-recommend-", poolSize, queueCapacity);
+    }
+
+    /**
+     * SSE 스트리밍 추천 전용 executor (요청 하나당 작업 하나, 내부 fan-out은 aiRecommendExecutor)
+     * - 같은 풀에서 바깥 작업이 안쪽 작업을 기다리며 풀을 잠그지 않도록 분리
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService aiRecommendStreamExecutor(
+            @Value("${ai.recommend.stream.pool-size:8}") int poolSize,
+            @Value("${ai.recommend.stream.queue-capacity:16}") int queueCapacity
+    ) {
+        return boundedExecutor("ai-recommend-stream-", poolSize, queueCapacity);
+    }
+
+    /**
+     * 비동기 추천 작업(job) 전용 executor
+     * - 큐가 가득 차면 제출 시점에 429(Retry-After)로 거절해 요청 스레드를 붙잡지 않는다
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService aiRecommendJobExecutor(
+            @Value("${ai.recommend.job.pool-size:8}") int poolSize,
+            @Value("${ai.recommend.job.queue-capacity:32}") int queueCapacity
+    ) {
+        return boundedExecutor("ai-recommend-job-", poolSize, queueCapacity);
+    }
+
+    /**
+     * shadow 평가 전용 executor (요청 하나당 작업 하나). 가득 차면 그 요청은 shadow 없이 넘어간다
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService aiRecommendShadowExecutor(
+            @Value("${ai.recommend.shadow.pool-size:2}") int poolSize,
+            @Value("${ai.recommend.shadow.queue-capacity:4}") int queueCapacity
+    ) {
+        return boundedExecutor("ai-recommend-shadow-", poolSize, queueCapacity);
+    }
+
+    /**
+     * shadow 실행 안의 조회/1차 배치/2차 호출 fan-out 전용 executor
+     * - primary 풀(aiRecommendExecutor)을 나눠 쓰지 않고, 바깥 shadow 작업과도 풀을 분리한다
+     * - 가득 차면 primary와 같은 규칙으로 폴백 (조회는 호출 스레드에서, 1차는 거리순, 2차는 로컬)
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService aiRecommendShadowFanOutExecutor(
+            @Value("${ai.recommend.shadow.fan-out.pool-size:4}") int poolSize,
+            @Value("${ai.recommend.shadow.fan-out.queue-capacity:16}") int queueCapacity
+    ) {
+        return boundedExecutor("ai-recommend-shadow-fan-out-", poolSize, queueCapacity);
+    }
+
+    /**
+     * shadow 평가 설정: sample-rate 비율의 요청을 다른 1차 방식/파이프라인 크기로 한 번 더 돌려 비교한다
+     * - 비운 항목은 primary 설정을 그대로 쓴다
+     */
+    @Bean
+    public AiShadowConfig aiShadowConfig(
+            @Value("${ai.recommend.shadow.sample-rate:0}") double sampleRate,
+            @Value("${ai.recommend.shadow.pre-rank-mode:}") String preRankMode,
+            @Value("${ai.recommend.shadow.fetch-candidates:}") Integer fetchCandidates,
+            @Value("${ai.recommend.shadow.batch-size:}") Integer batchSize,
+            @Value("${ai.recommend.shadow.max-stage1-batches:}") Integer maxStage1Batches,
+            @Value("${ai.recommend.shadow.stage2-max:}") Integer stage2Max,
+            @Value("${ai.recommend.shadow.final-top-k:}") Integer finalTopK
+    ) {
+        return new AiShadowConfig(sampleRate,
+                preRankMode.isBlank() ? null : PreRankMode.fromString(preRankMode),
+                fetchCandidates, batchSize, maxStage1Batches, stage2Max, finalTopK);
+    }
+
+    /**
+     * GPT hedge 요청용 executor (hedge가 켜져 있을 때만 사용)
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService gptHedgeExecutor(
+            @Value("${ai.recommend.gpt.hedge.pool-size:16}") int poolSize,
+            @Value("${ai.recommend.gpt.hedge.queue-capacity:16}") int queueCapacity
+    ) {
+        return boundedExecutor("gpt-hedge-", poolSize, queueCapacity);
+    }
+
+    /**
+     * OpenAI 호출 보호막: 단계별 타임아웃 + 서킷 브레이커 + (선택) hedge
+     * - 1차 타임아웃은 파이프라인 1차 마감(STAGE1_DEADLINE_MS)보다 길 수 없다: 마감 뒤까지 기다린 호출은 어차피 버려진다
+     */
+    @Bean
+    public GptCallGuard gptCallGuard(
+            @Qualifier("gptHedgeExecutor") ExecutorService gptHedgeExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${ai.recommend.gpt.stage1.timeout-ms:10000}") long stage1TimeoutMs,
+            @Value("${ai.recommend.gpt.stage2.timeout-ms:30000}") long stage2TimeoutMs,
+            @Value("${ai.recommend.gpt.breaker.window-size:20}") int breakerWindowSize,
+            @Value("${ai.recommend.gpt.breaker.minimum-calls:10}") int breakerMinimumCalls,
+            @Value("${ai.recommend.gpt.breaker.failure-rate-threshold:0.5}") double breakerFailureRateThreshold,
+            @Value("${ai.recommend.gpt.breaker.open-ms:30000}") long breakerOpenMs,
+            @Value("${ai.recommend.gpt.hedge.enabled:false}") boolean hedgeEnabled,
+            @Value("${ai.recommend.gpt.hedge.percentile:0.95}") double hedgePercentile,
+            @Value("${ai.recommend.gpt.hedge.min-samples:20}") int hedgeMinSamples
+    ) {
+        var settings = new GptCallGuard.Settings(
+                Duration.ofMillis(Math.min(stage1TimeoutMs, AiRecommendServiceImpl.STAGE1_DEADLINE_MS)),
+                Duration.ofMillis(stage2TimeoutMs),
+                breakerWindowSize,
+                breakerMinimumCalls,
+                breakerFailureRateThreshold,
+                Duration.ofMillis(breakerOpenMs),
+                hedgeEnabled,
+                hedgePercentile,
+                hedgeMinSamples);
+        return new GptCallGuard(settings, gptHedgeExecutor, meterRegistry);
+    }
+
+    /**
+     * 단계별 GPT 모델 선택: 1차(후보 축소)는 primary p95/오류율이 임계를 넘으면 더 빠른 모델로 돌린다
+     * - fallback-model을 비우면 해당 단계는 전환 없이 primary만 사용
+     * - 스트리밍 2차는 2차 설정을 같이 쓴다
+     */
+    @Bean
+    public GptModelRouter gptModelRouter(
+            MeterRegistry meterRegistry,
+            @Value("${ai.recommend.gpt.stage1.model:gpt-5.2}") String stage1Model,
+            @Value("${ai.recommend.gpt.stage1.fallback-model:}") String stage1FallbackModel,
+            @Value("${ai.recommend.gpt.stage2.model:gpt-5.2}") String stage2Model,
+            @Value("${ai.recommend.gpt.stage2.fallback-model:}") String stage2FallbackModel,
+            @Value("${ai.recommend.gpt.router.p95-threshold-ms:8000}") long p95ThresholdMs,
+            @Value("${ai.recommend.gpt.router.error-rate-threshold:0.3}") double errorRateThreshold,
+            @Value("${ai.recommend.gpt.router.window-size:50}") int windowSize,
+            @Value("${ai.recommend.gpt.router.min-samples:10}") int minSamples,
+            @Value("${ai.recommend.gpt.router.probe-every:10}") int probeEvery
+    ) {
+        var stage1 = new GptModelRouter.StageModels(stage1Model, stage1FallbackModel);
+        var stage2 = new GptModelRouter.StageModels(stage2Model, stage2FallbackModel);
+        Map<GptStage, GptModelRouter.StageModels> models = new EnumMap<>(GptStage.class);
+        models.put(GptStage.STAGE1, stage1);
+        models.put(GptStage.STAGE2, stage2);
+        models.put(GptStage.STAGE2_STREAM, stage2);
+        var settings = new GptModelRouter.Settings(models, p95ThresholdMs, errorRateThreshold, windowSize, minSamples,
+                probeEvery);
+        return new GptModelRouter(settings, meterRegistry);
+    }
+
+    /**
+     * 재시도는 GptCallGuard(hedge/폴백)가 담당하므로 SDK 자체 재시도는 끈다
+     * (켜 두면 타임아웃마다 재시도가 붙어 단계 마감을 넘김)
+     */
+    @Bean
+    public OpenAIClientCustomizer openAIClientRetryCustomizer(
+            @Value("${ai.recommend.gpt.max-retries:0}") int maxRetries
+    ) {
+        return builder -> builder.maxRetries(maxRetries);
+    }
+
+    private static ExecutorService boundedExecutor(String threadPrefix, int poolSize, int queueCapacity) {
+        AtomicInteger seq = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, threadPrefix + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ssafy.sulmap.api.config;
+
+import com.ssafy.sulmap.core.service.BarEmbeddingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * 술집 문서 임베딩 배치 스케줄 (ai.recommend.embedding.job.enabled=true 일 때만)
+ * - 로컬 임베더라 외부 호출이 없어 짧은 주기로 돌려도 된다. 바뀐 문서가 없으면 검색 한 번으로 끝난다
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "ai.recommend.embedding.job.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class BarEmbeddingJobConfig {
+
+    private final BarEmbeddingService _barEmbeddingService;
+
+    @Scheduled(initialDelayString = "${ai.recommend.embedding.job.initial-delay-ms:10000}",
+            fixedDelayString = "${ai.recommend.embedding.job.fixed-delay-ms:300000}")
+    public void indexStale() {
+        var result = _barEmbeddingService.indexStale();
+        if (result.isFailure()) log.warn("bar embedding job failed: {}", result.getErrors());
+    }
+}
@@ -0,0 +1,31 @@
+package com.ssafy.sulmap.api.config;
+
+import com.ssafy.sulmap.core.service.BarOpenInfoSummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * 영업정보 오프라인 요약 배치 스케줄 (ai.recommend.open-info.job.enabled=true 일 때만)
+ * - 기동 후 initial-delay 뒤 한 번, 이후 이전 실행이 끝나고 fixed-delay마다
+ * - 로컬 모델 스텁으로 돌리려면 ai.recommend.open-info.base-url 에 OpenAI 호환 주소를 준다
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "ai.recommend.open-info.job.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class OpenInfoSummaryJobConfig {
+
+    private final BarOpenInfoSummaryService _barOpenInfoSummaryService;
+
+    @Scheduled(initialDelayString = "${ai.recommend.open-info.job.initial-delay-ms:60000}",
+            fixedDelayString = "${ai.recommend.open-info.job.fixed-delay-ms:3600000}")
+    public void summarizeStale() {
+        var result = _barOpenInfoSummaryService.summarizeStale();
+        if (result.isFailure()) log.warn("open info summary job failed: {}", result.getErrors());
+    }
+}
@@ -1,24 +1,50 @@
 package com.ssafy.sulmap.api.controller;
 
 import com.ssafy.sulmap.api.dto.request.GetRecommendedBarsRequest;
+import com.ssafy.sulmap.api.dto.response.RecommendJobResponse;
 import com.ssafy.sulmap.api.dto.response.RecommendedBarItemResponse;
 import com.ssafy.sulmap.api.security.model.UserDetail;
+import com.ssafy.sulmap.core.model.RecommendJobModel;
+import com.ssafy.sulmap.core.model.enums.PreRankMode;
 import com.ssafy.sulmap.core.model.query.GetRecommenedBarsQuery;
+import com.ssafy.sulmap.core.service.AIRecommendJobService;
 import com.ssafy.sulmap.core.service.AIRecommendService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/ai")
+@Slf4j
 public class AIRecommendController {
 
+    private static final long STREAM_TIMEOUT_MS = 60_000;
+    private static final String RETRY_AFTER_SECONDS = "5";
+    // long-poll 최대 대기 (프록시 idle timeout보다 짧게)
+    private static final long MAX_JOB_WAIT_MS = 25_000;
+
     private final AIRecommendService aiRecommendService;
+    private final AIRecommendJobService aiRecommendJobService;
+    @Qualifier("aiRecommendStreamExecutor")
+    private final ExecutorService aiRecommendStreamExecutor;
 
     /**
      * POST /api/ai/recommend-bars
@@ -26,13 +52,7 @@ public class AIRecommendController {
     @PostMapping("/recommend-bars")
     public ResponseEntity<?> recommendBars(@Valid @RequestBody GetRecommendedBarsRequest req,
                                            @AuthenticationPrincipal UserDetail userDetail) {
-        GetRecommenedBarsQuery query = new GetRecommenedBarsQuery();
-        query.setLat(req.lat());
-        query.setLon(req.lon());
-        query.setUserId(userDetail.userModel().getId());
-        query.setMaxDistance(req.maxDistance());
-        query.setUserPrompt(req.userPrompt());
-        var result = aiRecommendService.getRecommendedBars(query);
+        var result = aiRecommendService.getRecommendedBars(toQuery(req, userDetail));
         if (result.isFailure()) {
             // 너희 Result 에러 구조에 맞춰서 그대로 내려주거나, 표준 에러 응답으로 변환하면 됨.
             // 여기선 단순히 errors를 내려줌.
@@ -43,4 +63,127 @@ public class AIRecommendController {
                 .collect(Collectors.toList());
         return ResponseEntity.ok(items);
     }
+
+    /**
+     * POST /api/ai/recommend-bars/stream (text/event-stream)
+     * - event: item     -> 확정된 추천 하나 (RecommendedBarItemResponse)
+     * - event: fallback -> 마지막 이벤트. GPT가 채우지 못한 자리(fill-in/폴백) 목록 (없으면 [])
+     * - event: error    -> 조회 실패 시 errors
+     */
+    @PostMapping(value = "/recommend-bars/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamRecommendBars(@Valid @RequestBody GetRecommendedBarsRequest req,
+                                                          @AuthenticationPrincipal UserDetail userDetail) {
+        GetRecommenedBarsQuery query = toQuery(req, userDetail);
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        try {
+            aiRecommendStreamExecutor.execute(() -> streamTo(emitter, query));
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * POST /api/ai/recommend-bars/jobs
+     * - 202 + Location: 작업 id를 바로 반환, 결과는 GET /api/ai/recommend-bars/jobs/{jobId}
+     * - 429 + Retry-After: 작업 대기열이 가득 참
+     */
+    @PostMapping("/recommend-bars/jobs")
+    public ResponseEntity<?> submitRecommendJob(@Valid @RequestBody GetRecommendedBarsRequest req,
+                                                @AuthenticationPrincipal UserDetail userDetail) {
+        var result = aiRecommendJobService.submit(toQuery(req, userDetail));
+        if (result.isFailure()) {
+            var status = result.getSingleErrorOrThrow().getStatus();
+            if (status == HttpStatus.TOO_MANY_REQUESTS) return tooManyRequests();
+            return ResponseEntity.status(status).body(result.getErrors());
+        }
+
+        var job = result.getOrThrow();
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(RecommendJobResponse.fromModel(job));
+    }
+
+    /**
+     * GET /api/ai/recommend-bars/jobs/{jobId}?waitMs=
+     * - waitMs 없으면 현재 상태를 바로 반환 (poll)
+     * - waitMs > 0 이면 완료되거나 waitMs(최대 25초)가 지날 때까지 기다렸다 반환 (long-poll, 요청 스레드는 반납)
+     */
+    @GetMapping("/recommend-bars/jobs/{jobId}")
+    public DeferredResult<ResponseEntity<?>> getRecommendJob(@PathVariable("jobId") String jobId,
+                                                             @RequestParam(value = "waitMs", defaultValue = "0") long waitMs,
+                                                             @AuthenticationPrincipal UserDetail userDetail) {
+        var result = aiRecommendJobService.findJob(jobId, userDetail.userModel().getId());
+        if (result.isFailure()) {
+            DeferredResult<ResponseEntity<?>> notFound = new DeferredResult<>();
+            notFound.setResult(ResponseEntity.status(result.getSingleErrorOrThrow().getStatus()).build());
+            return notFound;
+        }
+
+        RecommendJobModel job = result.getOrThrow();
+        long wait = Math.min(Math.max(waitMs, 0), MAX_JOB_WAIT_MS);
+        if (wait == 0 || job.getCompletion().isDone()) {
+            DeferredResult<ResponseEntity<?>> now = new DeferredResult<>();
+            now.setResult(ResponseEntity.ok(RecommendJobResponse.fromModel(job)));
+            return now;
+        }
+
+        // 시간 안에 끝나지 않으면 그 시점 상태(PENDING/RUNNING)를 반환
+        DeferredResult<ResponseEntity<?>> deferred = new DeferredResult<>(wait,
+                () -> ResponseEntity.ok(RecommendJobResponse.fromModel(job)));
+        job.getCompletion().whenComplete((r, e) ->
+                deferred.setResult(ResponseEntity.ok(RecommendJobResponse.fromModel(job))));
+        return deferred;
+    }
+
+    private void streamTo(SseEmitter emitter, GetRecommenedBarsQuery query) {
+        try {
+            var result = aiRecommendService.streamRecommendedBars(query,
+                    item -> send(emitter, "item", RecommendedBarItemResponse.fromModel(item)));
+            if (result.isFailure()) {
+                send(emitter, "error", result.getErrors());
+            } else {
+                send(emitter, "fallback", result.getOrThrow().stream()
+                        .map(RecommendedBarItemResponse::fromModel)
+                        .collect(Collectors.toList()));
+            }
+            emitter.complete();
+        } catch (UncheckedIOException e) {
+            // 클라이언트가 먼저 끊음
+            log.debug("recommend stream closed by client: {}", e.getMessage());
+            emitter.completeWithError(e);
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static <T> ResponseEntity<T> tooManyRequests() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .build();
+    }
+
+    private static void send(SseEmitter emitter, String eventName, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static GetRecommenedBarsQuery toQuery(GetRecommendedBarsRequest req, UserDetail userDetail) {
+        GetRecommenedBarsQuery query = new GetRecommenedBarsQuery();
+        query.setLat(req.lat());
+        query.setLon(req.lon());
+        query.setUserId(userDetail.userModel().getId());
+        query.setUserGender(userDetail.userModel().getGender());
+        query.setUserBirthday(userDetail.userModel().getBirthday());
+        query.setMaxDistance(req.maxDistance());
+        query.setUserPrompt(req.userPrompt());
+        query.setPreRankMode(PreRankMode.fromString(req.preRank()));
+        return query;
+    }
 }
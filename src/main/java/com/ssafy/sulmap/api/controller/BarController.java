@@ -1,31 +1,66 @@
 package com.ssafy.sulmap.api.controller;
 
+import com.ssafy.sulmap.api.dto.request.FindBarClustersRequest;
 import com.ssafy.sulmap.api.dto.request.FindNearByBarRequest;
 import com.ssafy.sulmap.api.dto.response.GetBarResponse;
-import com.ssafy.sulmap.core.model.BarListItemModel;
+import com.ssafy.sulmap.core.model.enums.BarProjection;
+import com.ssafy.sulmap.core.model.query.BarClustersQuery;
 import com.ssafy.sulmap.core.model.query.NearbyBarsQuery;
 import com.ssafy.sulmap.core.service.BarService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequiredArgsConstructor
 public class BarController {
 
     private final BarService barService;
 
+    // 다음 페이지 커서 응답 헤더 (마지막 페이지면 없음). 본문은 기존처럼 목록 그대로
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     /**
      * 문서: POST /api/bars/nearby :contentReference[oaicite:12]{index=12}
+     * - 다음 페이지: 같은 조건 + cursor(응답의 X-Next-Cursor 헤더 값)
+     * - projection 없으면 기존처럼 전체 필드(full). 목록/지도 화면은 list로 가볍게 받는다
      */
     @PostMapping("/bars/nearby")
-    public List<BarListItemModel> findNearby(@Valid @RequestBody FindNearByBarRequest req) {
-        NearbyBarsQuery query = new NearbyBarsQuery(req.latitude(), req.longitude(), req.radiusMeters(), req.count(), req.keyword(), req.category(), req.sort());
+    public ResponseEntity<?> findNearby(@Valid @RequestBody FindNearByBarRequest req) {
+        NearbyBarsQuery query = new NearbyBarsQuery(req.latitude(), req.longitude(), req.radiusMeters(), req.count(),
+                req.keyword(), req.category(), req.sort(), null,
+                BarProjection.fromString(req.projection(), BarProjection.FULL), req.cursor());
+
+        var result = barService.findNearbyBarsPage(query);
+        if (result.isFailure()) {
+            var error = result.getSingleErrorOrThrow();
+            if (error.getStatus().is4xxClientError()) return ResponseEntity.status(error.getStatus()).body(result.getErrors());
+            return ResponseEntity.status(error.getStatus()).build();
+        }
+
+        var page = result.getOrThrow();
+        var response = ResponseEntity.ok();
+        if (page.hasNext()) response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        return response.body(page.bars());
+    }
+
+    /**
+     * POST /api/bars/clusters: 낮은 줌에서 점 대신 칸별 개수/무게중심만 (술집 문서는 조회하지 않음)
+     */
+    @PostMapping("/bars/clusters")
+    public ResponseEntity<?> findClusters(@Valid @RequestBody FindBarClustersRequest req) {
+        BarClustersQuery query = new BarClustersQuery(req.topLatitude(), req.leftLongitude(),
+                req.bottomLatitude(), req.rightLongitude(), req.zoom(), req.category());
 
-        return barService.findNearbyBars(query).getOrThrow();
+        var result = barService.findBarClusters(query);
+        if (result.isFailure()) {
+            var error = result.getSingleErrorOrThrow();
+            if (error.getStatus().is4xxClientError()) return ResponseEntity.status(error.getStatus()).body(result.getErrors());
+            return ResponseEntity.status(error.getStatus()).build();
+        }
+        return ResponseEntity.ok(result.getOrThrow());
     }
 
     /**
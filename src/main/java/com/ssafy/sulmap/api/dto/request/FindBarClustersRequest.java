@@ -0,0 +1,24 @@
+package com.ssafy.sulmap.api.dto.request;
+
+import jakarta.validation.constraints.*;
+
+public record FindBarClustersRequest(
+        @NotNull @DecimalMin("-90") @DecimalMax("90")
+        Double topLatitude,
+
+        @NotNull @DecimalMin("-180") @DecimalMax("180")
+        Double leftLongitude,
+
+        @NotNull @DecimalMin("-90") @DecimalMax("90")
+        Double bottomLatitude,
+
+        @NotNull @DecimalMin("-180") @DecimalMax("180")
+        Double rightLongitude,
+
+        @NotNull
+        @Min(0) @Max(22)
+        Integer zoom,          // 지도 줌 레벨
+
+        String category        // optional: 주점/이자카야 등
+) {
+}
@@ -21,7 +21,13 @@ public record FindNearByBarRequest(
         String category,       // optional: 주점/이자카야 등
 
         @Pattern(regexp = "^(distance|recommended|rating)?$", message = "sort must be one of distance|recommended|rating")
-        String sort // optional: distance|recommended|rating ...
+        String sort, // optional: distance|recommended|rating ...
+
+        @Pattern(regexp = "^(?i)(list|full)?$", message = "projection must be one of list|full")
+        String projection, // optional: full(기본, 전체 필드) | list(menu/영업정보 원문 제외, 목록/지도용)
+
+        @Size(max = 512)
+        String cursor // optional: 이전 응답의 X-Next-Cursor (다음 페이지)
 ) {
 
 
@@ -0,0 +1,36 @@
+package com.ssafy.sulmap.api.dto.response;
+
+import com.ssafy.sulmap.core.model.RecommendJobModel;
+import com.ssafy.sulmap.share.result.error.ResultError;
+
+import java.util.List;
+
+/**
+ * 추천 작업 상태
+ * - items: SUCCEEDED 일 때만
+ * - errors: FAILED 일 때만
+ */
+public record RecommendJobResponse(
+        String jobId,
+        String status,
+        List<RecommendedBarItemResponse> items,
+        List<ResultError> errors
+) {
+    public static RecommendJobResponse fromModel(RecommendJobModel job) {
+        var result = job.getResult();
+        if (result == null) {
+            return new RecommendJobResponse(job.getId(), job.getStatus().name(), null, null);
+        }
+        if (result.isFailure()) {
+            return new RecommendJobResponse(job.getId(), job.getStatus().name(), null, result.getErrors());
+        }
+        return new RecommendJobResponse(
+                job.getId(),
+                job.getStatus().name(),
+                result.getOrThrow().stream()
+                        .map(RecommendedBarItemResponse::fromModel)
+                        .toList(),
+                null
+        );
+    }
+}
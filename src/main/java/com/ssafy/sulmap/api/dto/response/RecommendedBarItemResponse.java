@@ -11,7 +11,8 @@ public record RecommendedBarItemResponse(
         String baseCategoryName,
         String openInformation,
         int recommendRank,
-        String recommendReason
+        String recommendReason,
+        String rankedBy
 ) {
     public static RecommendedBarItemResponse fromModel(RecommendedBarModel m) {
         return new RecommendedBarItemResponse(
@@ -23,7 +24,8 @@ public record RecommendedBarItemResponse(
                 m.getBaseCategoryName(),
                 m.getOpenInformation(),
                 m.getRecommendRank(),
-                m.getRecommendReason()
+                m.getRecommendReason(),
+                m.getRankedBy() == null ? null : m.getRankedBy().name()
         );
     }
 }
@@ -1,8 +1,10 @@
 package com.ssafy.sulmap.api.security;
 
+import com.ssafy.sulmap.api.controller.BarController;
 import com.ssafy.sulmap.api.security.model.UserDetail;
 import com.ssafy.sulmap.core.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -23,6 +25,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.List;
+import java.util.Set;
 
 @RequiredArgsConstructor
 @Configuration
@@ -36,6 +39,10 @@ public class SecurityConfig {
 
         private final UserService userService; // 이미 구현된 서비스
 
+        // 운영 권한(ADMIN) 로그인 ID 목록. 비어 있으면 actuator는 아무도 못 쓴다 (회원가입은 공개라 인증만으로는 부족)
+        @Value("${security.admin-login-ids:}")
+        private final Set<String> adminLoginIds;
+
         // swagger / springdoc 경로 화이트리스트
         private static final String[] _SWAGGER_WHITELIST = {
                         "/v3/api-docs/**",
@@ -54,7 +61,8 @@ public class SecurityConfig {
                         // username = loginId
                         var findUserResult = userService.findUserByLoginId(username);
                         return new UserDetail(findUserResult.getOrThrow(
-                                        new UsernameNotFoundException("User not found: " + username)));
+                                        new UsernameNotFoundException("User not found: " + username)),
+                                        adminLoginIds.contains(username));
                 };
         }
 
@@ -92,6 +100,8 @@ public class SecurityConfig {
                                                 .requestMatchers(HttpMethod.GET, "/health", "/docs/**").permitAll()
                                                 .requestMatchers(_SWAGGER_WHITELIST).permitAll()
                                                 .requestMatchers("/error").permitAll()
+                                                // 파이프라인 크기 변경 등 운영 엔드포인트
+                                                .requestMatchers("/actuator/**").hasAuthority(UserDetail.ADMIN_AUTHORITY)
                                                 .anyRequest().authenticated())
 
                                 // 로그아웃 엔드포인트
@@ -117,6 +127,8 @@ public class SecurityConfig {
 
                 // 헤더들
                 config.setAllowedHeaders(List.of("*"));
+                // 브라우저에서 읽을 응답 헤더 (주변 검색 다음 페이지 커서)
+                config.setExposedHeaders(List.of(BarController.NEXT_CURSOR_HEADER));
 
                 // 세션/쿠키 쓸 거면 true
                 config.setAllowCredentials(true);
@@ -8,8 +8,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 public class SecurityUtils {
     public static Authentication getrefreshedAuthentication(UserModel refreshedUser) {
-        UserDetail newPrincipal = new UserDetail(refreshedUser);
         Authentication currentAuth = SecurityContextHolder.getContext().getAuthentication();
+        boolean admin = currentAuth.getPrincipal() instanceof UserDetail current && current.admin();
+        UserDetail newPrincipal = new UserDetail(refreshedUser, admin);
 
         //  새 Authentication 만들기 (principal만 교체, credentials/authorities 유지)
         return new UsernamePasswordAuthenticationToken(
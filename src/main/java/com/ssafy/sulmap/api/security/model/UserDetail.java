@@ -3,16 +3,27 @@ package com.ssafy.sulmap.api.security.model;
 import com.ssafy.sulmap.core.model.UserModel;
 import com.ssafy.sulmap.core.model.enums.UserStatus;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+
+/**
+ * @param admin 운영 권한 (security.admin-login-ids 에 있는 로그인 ID만). actuator 접근에 필요
+ */
+public record UserDetail(UserModel userModel, boolean admin) implements UserDetails {
+    public static final String ADMIN_AUTHORITY = "ADMIN";
+
+    public UserDetail(UserModel userModel) {
+        this(userModel, false);
+    }
 
-public record UserDetail(UserModel userModel) implements UserDetails {
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         // 권한 시스템 사용 시 여기에 매핑
-
+        if (admin) return List.of(new SimpleGrantedAuthority(ADMIN_AUTHORITY));
         return Collections.emptyList();
     }
 
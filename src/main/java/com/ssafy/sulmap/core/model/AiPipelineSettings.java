@@ -0,0 +1,61 @@
+package com.ssafy.sulmap.core.model;
+
+/**
+ * AI 추천 파이프라인 크기 설정 (런타임 변경 가능, 요청마다 한 번 읽은 값을 끝까지 쓴다)
+ *
+ * @param fetchCandidates  후보 조회 수 (ES)
+ * @param batchSize        1차 배치 하나의 최대 술집 수 (실제 크기는 토큰 예산으로 결정)
+ * @param maxStage1Batches 1차 배치 최대 개수 (배치당 pick = ceil(stage2Max / 배치 수))
+ * @param stage2Max        2차 후보 풀 크기 (후보가 이보다 적으면 1차 생략)
+ * @param finalTopK        최종 추천 수
+ */
+public record AiPipelineSettings(
+        int fetchCandidates,
+        int batchSize,
+        int maxStage1Batches,
+        int stage2Max,
+        int finalTopK
+) {
+    // ES 기본 max_result_window
+    public static final int MAX_FETCH_CANDIDATES = 10_000;
+    // 배치 하나가 토큰 예산(ai.recommend.batch.token-budget) 안에 들 수 있는 정도
+    public static final int MAX_BATCH_SIZE = 500;
+    // 요청 하나가 동시에 띄우는 1차 GPT 호출 수 (aiRecommendExecutor pool-size 기본값)
+    public static final int MAX_STAGE1_BATCHES = 16;
+
+    public AiPipelineSettings {
+        if (fetchCandidates < 1 || fetchCandidates > MAX_FETCH_CANDIDATES) {
+            throw new IllegalArgumentException("fetchCandidates must be in [1, " + MAX_FETCH_CANDIDATES + "]");
+        }
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("batchSize must be in [1, " + MAX_BATCH_SIZE + "]");
+        }
+        if (maxStage1Batches < 1 || maxStage1Batches > MAX_STAGE1_BATCHES) {
+            throw new IllegalArgumentException("maxStage1Batches must be in [1, " + MAX_STAGE1_BATCHES + "]");
+        }
+        if (stage2Max < 1 || stage2Max > fetchCandidates) {
+            throw new IllegalArgumentException("stage2Max must be in [1, fetchCandidates]");
+        }
+        if (finalTopK < 1 || finalTopK > stage2Max) {
+            throw new IllegalArgumentException("finalTopK must be in [1, stage2Max]");
+        }
+    }
+
+    public static AiPipelineSettings defaults() {
+        return new AiPipelineSettings(200, 100, 4, 40, 10);
+    }
+
+    /**
+     * null이 아닌 값만 바꾼 새 설정 (검증 실패 시 IllegalArgumentException)
+     */
+    public AiPipelineSettings with(Integer fetchCandidates, Integer batchSize, Integer maxStage1Batches,
+                                   Integer stage2Max, Integer finalTopK) {
+        return new AiPipelineSettings(
+                fetchCandidates == null ? this.fetchCandidates : fetchCandidates,
+                batchSize == null ? this.batchSize : batchSize,
+                maxStage1Batches == null ? this.maxStage1Batches : maxStage1Batches,
+                stage2Max == null ? this.stage2Max : stage2Max,
+                finalTopK == null ? this.finalTopK : finalTopK
+        );
+    }
+}
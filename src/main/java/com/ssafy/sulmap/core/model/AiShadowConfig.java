@@ -0,0 +1,47 @@
+package com.ssafy.sulmap.core.model;
+
+import com.ssafy.sulmap.core.model.enums.PreRankMode;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * AI 추천 shadow 평가 설정: 요청 일부를 다른 파이프라인 설정으로 한 번 더 돌려 본다 (응답에는 쓰지 않음)
+ * - null 항목은 primary(요청 시점의 AiPipelineSettings / 요청의 preRankMode)를 그대로 따른다
+ *
+ * @param sampleRate  shadow로 돌릴 요청 비율 [0, 1], 0이면 끔
+ * @param preRankMode 1차 방식 (LOCAL/HYBRID/GPT)
+ */
+public record AiShadowConfig(
+        double sampleRate,
+        PreRankMode preRankMode,
+        Integer fetchCandidates,
+        Integer batchSize,
+        Integer maxStage1Batches,
+        Integer stage2Max,
+        Integer finalTopK
+) {
+
+    public AiShadowConfig {
+        if (sampleRate < 0 || sampleRate > 1) throw new IllegalArgumentException("sampleRate must be in [0, 1]");
+    }
+
+    public static AiShadowConfig disabled() {
+        return new AiShadowConfig(0, null, null, null, null, null, null);
+    }
+
+    public boolean isEnabled() {
+        return sampleRate > 0;
+    }
+
+    public boolean sample() {
+        return isEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    public AiPipelineSettings apply(AiPipelineSettings primary) {
+        return primary.with(fetchCandidates, batchSize, maxStage1Batches, stage2Max, finalTopK);
+    }
+
+    public PreRankMode preRankMode(PreRankMode primary) {
+        return preRankMode == null ? primary : preRankMode;
+    }
+}
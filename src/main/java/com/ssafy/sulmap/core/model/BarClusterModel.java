@@ -0,0 +1,22 @@
+package com.ssafy.sulmap.core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 지도 클러스터 한 칸 (web mercator 타일 단위)
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BarClusterModel {
+    // 타일 키 "zoom/x/y"
+    private String tile;
+    private Long count;
+    // 칸 안 술집 좌표의 무게중심 (마커 위치)
+    private Double latitude;
+    private Double longitude;
+}
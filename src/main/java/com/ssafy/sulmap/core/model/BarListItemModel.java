@@ -23,6 +23,8 @@ public class BarListItemModel {
     private String menuJsonString;
     private String baseCategoryName;
     private String openInformation;
+    // 영업정보 정규화 요약 (프롬프트용, 없으면 openInformation을 잘라서 사용)
+    private String openInfoSummary;
     private Date createdAt;
     private Date updatedAt;
     private Date deletedAt;
@@ -0,0 +1,17 @@
+package com.ssafy.sulmap.core.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * 영업정보 요약 대상 (원문 + 원문을 읽은 시점의 updatedAt)
+ */
+@Getter
+@Builder
+public class BarOpenInfoModel {
+    private Long barId;
+    private String openInformation;
+    private Date updatedAt;
+}
@@ -0,0 +1,16 @@
+package com.ssafy.sulmap.core.model;
+
+import java.util.List;
+
+/**
+ * 주변 술집 검색 한 페이지
+ *
+ * @param bars       이번 페이지 결과 (정렬 순)
+ * @param nextCursor 다음 페이지 조회용 커서 (NearbyBarsQuery.cursor). 마지막 페이지면 null
+ */
+public record NearbyBarsPage(List<BarListItemModel> bars, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,111 @@
+package com.ssafy.sulmap.core.model;
+
+import com.ssafy.sulmap.core.model.enums.PreRankMode;
+import com.ssafy.sulmap.core.model.enums.UserGender;
+import com.ssafy.sulmap.core.model.query.GetRecommenedBarsQuery;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * AI 추천 결과 캐시 키
+ * - 위치: maxDistance 구간에 비례한 격자(cell)로 스냅
+ * - 요청문: 정규화(NFKC/소문자/구두점·공백 정리) 후 해시
+ * - 날씨 키, 시간대 구간(3시간 단위)
+ * - 1차 방식(preRankMode): 방식이 다르면 결과도 다르므로 분리
+ * - 사용자 속성: 프롬프트에 성별/나이가 들어가므로 성별 + 연령대(10살 단위)로 분리
+ */
+public record RecommendCacheKey(
+        int radiusBucket,
+        long latCell,
+        long lonCell,
+        String promptHash,
+        String weatherKey,
+        int timeBucket,
+        PreRankMode preRankMode,
+        String demographic
+) {
+    private static final int[] RADIUS_BUCKETS = {250, 500, 1000, 2000, 5000, 10000, 20000};
+    // 격자 한 변 = 반경 구간 / CELL_DIVISOR (반경 1km -> 200m 격자)
+    private static final int CELL_DIVISOR = 5;
+    private static final int MIN_CELL_METERS = 50;
+    private static final double METERS_PER_DEGREE = 111_320d;
+    private static final int TIME_BUCKET_HOURS = 3;
+    private static final int AGE_BUCKET_YEARS = 10;
+
+    public static RecommendCacheKey of(GetRecommenedBarsQuery query, ZonedDateTime requestTime) {
+        int radius = query.getMaxDistance() == null ? 0 : query.getMaxDistance();
+        int radiusBucket = radiusBucket(radius);
+        double cellMeters = Math.max(MIN_CELL_METERS, radiusBucket / (double) CELL_DIVISOR);
+
+        double cellLatDeg = cellMeters / METERS_PER_DEGREE;
+        long latCell = (long) Math.floor(query.getLat() / cellLatDeg);
+        // 경도 폭은 위도에 따라 달라지므로 스냅된 행(row)의 위도로 계산 -> 같은 행은 같은 폭
+        double rowLat = latCell * cellLatDeg;
+        double cellLonDeg = cellMeters / (METERS_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(rowLat))));
+        long lonCell = (long) Math.floor(query.getLon() / cellLonDeg);
+
+        String weather = query.getWeatherKey() == null || query.getWeatherKey().isBlank()
+                ? "-" : query.getWeatherKey().trim().toLowerCase(Locale.ROOT);
+
+        return new RecommendCacheKey(
+                radiusBucket,
+                latCell,
+                lonCell,
+                hashPrompt(normalizePrompt(query.getUserPrompt())),
+                weather,
+                requestTime.getHour() / TIME_BUCKET_HOURS,
+                query.getPreRankMode() == null ? PreRankMode.GPT : query.getPreRankMode(),
+                demographic(query, requestTime)
+        );
+    }
+
+    /**
+     * 요청문 정규화: NFKC -> 소문자 -> 구두점/기호 제거 -> 공백 하나로
+     */
+    public static String normalizePrompt(String prompt) {
+        if (prompt == null) return "";
+        String s = Normalizer.normalize(prompt, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        s = s.replaceAll("[\\p{P}\\p{S}]+", " ");
+        return s.replaceAll("\\s+", " ").trim();
+    }
+
+    /**
+     * 성별(M/F/U) + 연령대: 프롬프트 CTX 의 g=/a= 와 같은 기준 (모르면 U / ?)
+     */
+    private static String demographic(GetRecommenedBarsQuery query, ZonedDateTime requestTime) {
+        UserGender gender = query.getUserGender();
+        String g = gender == UserGender.MALE ? "M" : gender == UserGender.FEMALE ? "F" : "U";
+
+        Date birthday = query.getUserBirthday();
+        if (birthday == null) return g + "|?";
+        LocalDate birth = birthday.toInstant().atZone(requestTime.getZone()).toLocalDate();
+        int years = Period.between(birth, requestTime.toLocalDate()).getYears();
+        if (years < 0 || years > 130) return g + "|?";
+        return g + "|" + (years / AGE_BUCKET_YEARS) * AGE_BUCKET_YEARS;
+    }
+
+    private static int radiusBucket(int radius) {
+        for (int b : RADIUS_BUCKETS) {
+            if (radius <= b) return b;
+        }
+        return RADIUS_BUCKETS[RADIUS_BUCKETS.length - 1];
+    }
+
+    private static String hashPrompt(String normalized) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ssafy.sulmap.core.model;
+
+import com.ssafy.sulmap.core.model.enums.RecommendJobStatus;
+import com.ssafy.sulmap.share.result.Result;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 비동기 AI 추천 작업
+ * - 제출 즉시 id를 돌려주고, 결과는 completion이 완료되면 채워진다
+ * - 소유자(userId)만 조회할 수 있다
+ */
+@Getter
+@Builder
+public class RecommendJobModel {
+    private final String id;
+    private final Long userId;
+    private final LocalDateTime createdAt;
+    @Builder.Default
+    private final CompletableFuture<Result<List<RecommendedBarModel>>> completion = new CompletableFuture<>();
+    private volatile boolean started;
+
+    public void markStarted() {
+        started = true;
+    }
+
+    public RecommendJobStatus getStatus() {
+        if (!completion.isDone()) return started ? RecommendJobStatus.RUNNING : RecommendJobStatus.PENDING;
+        var result = completion.getNow(null);
+        return result != null && result.isSuccess() ? RecommendJobStatus.SUCCEEDED : RecommendJobStatus.FAILED;
+    }
+
+    /** 완료 전이면 null */
+    public Result<List<RecommendedBarModel>> getResult() {
+        return completion.getNow(null);
+    }
+}
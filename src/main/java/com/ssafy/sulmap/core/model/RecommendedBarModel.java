@@ -1,5 +1,6 @@
 package com.ssafy.sulmap.core.model;
 
+import com.ssafy.sulmap.core.model.enums.RecommendRanker;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
@@ -11,4 +12,29 @@ import lombok.experimental.SuperBuilder;
 public class RecommendedBarModel extends MinorRecommendedBarModel {
     private int recommendRank;
     private String recommendReason;
+    private RecommendRanker rankedBy;
+
+    /**
+     * 후보 술집 정보 + 추천 결과 (GPT 응답, 캐시 hit 모두 이걸로 만든다)
+     */
+    public static RecommendedBarModel of(BarListItemModel src, int rank, String reason, RecommendRanker rankedBy) {
+        return RecommendedBarModel.builder()
+                // 상속 필드(BarListItemModel)
+                .id(src.getId())
+                .name(src.getName())
+                .address(src.getAddress())
+                .latitude(src.getLatitude())
+                .longitude(src.getLongitude())
+                .baseCategoryName(src.getBaseCategoryName())
+                .openInformation(src.getOpenInformation())
+                .openInfoSummary(src.getOpenInfoSummary())
+                .createdAt(src.getCreatedAt())
+                .updatedAt(src.getUpdatedAt())
+                .deletedAt(src.getDeletedAt())
+                // 추가 필드
+                .recommendRank(rank)
+                .recommendReason(reason)
+                .rankedBy(rankedBy)
+                .build();
+    }
 }
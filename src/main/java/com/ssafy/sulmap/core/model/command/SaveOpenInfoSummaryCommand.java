@@ -0,0 +1,15 @@
+package com.ssafy.sulmap.core.model.command;
+
+import lombok.Builder;
+
+import java.util.Date;
+
+/**
+ * @param sourceUpdatedAt 요약한 원문의 bars.updated_at (그 사이 수정됐으면 저장하지 않음)
+ */
+@Builder
+public record SaveOpenInfoSummaryCommand(
+        Long barId,
+        String summary,
+        Date sourceUpdatedAt) {
+}
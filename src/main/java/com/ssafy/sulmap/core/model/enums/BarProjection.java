@@ -0,0 +1,18 @@
+package com.ssafy.sulmap.core.model.enums;
+
+import java.util.Arrays;
+
+/**
+ * 주변 술집 검색 결과에 담을 필드 범위
+ */
+public enum BarProjection {
+    LIST, // 목록/지도 표시용: id, 이름, 주소, 좌표, 카테고리, 영업정보 요약 (menu/영업정보 원문/일시 제외)
+    FULL; // 전체 필드 (AI 추천 프롬프트 등). 임베딩 벡터는 어느 쪽이든 내려받지 않음
+
+    public static BarProjection fromString(String value, BarProjection defaultValue) {
+        return Arrays.stream(values())
+                .filter(v -> v.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElse(defaultValue);
+    }
+}
@@ -0,0 +1,19 @@
+package com.ssafy.sulmap.core.model.enums;
+
+import java.util.Arrays;
+
+/**
+ * AI 추천 1차(후보 축소) 방식
+ */
+public enum PreRankMode {
+    GPT, // 배치별 GPT 1차 추천 (기존)
+    LOCAL, // 로컬 휴리스틱만으로 2차 풀 구성 (GPT 1차 생략)
+    HYBRID; // 로컬 휴리스틱으로 한 배치 크기까지 줄인 뒤 GPT 1차 한 번
+
+    public static PreRankMode fromString(String value) {
+        return Arrays.stream(values())
+                .filter(v -> v.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElse(GPT);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ssafy.sulmap.core.model.enums;
+
+public enum RecommendJobStatus {
+    PENDING,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
@@ -0,0 +1,11 @@
+package com.ssafy.sulmap.core.model.enums;
+
+/**
+ * 최종 추천 순위를 만든 랭커
+ * - GPT   : 2차 GPT 응답
+ * - LOCAL : 로컬 휴리스틱 (GPT가 예산 안에 끝나지 않았거나 실패)
+ */
+public enum RecommendRanker {
+    GPT,
+    LOCAL
+}
@@ -0,0 +1,15 @@
+package com.ssafy.sulmap.core.model.query;
+
+/**
+ * 지도 화면(bounding box) 안 술집 클러스터 조회
+ * - left > right 이면 날짜변경선을 넘는 화면
+ */
+public record BarClustersQuery(
+        double topLatitude,
+        double leftLongitude,
+        double bottomLatitude,
+        double rightLongitude,
+        int zoom,              // 지도 줌 레벨 (클러스터 셀 크기 기준)
+        String category        // optional: 주점/이자카야 등
+) {
+}
@@ -1,19 +1,35 @@
 package com.ssafy.sulmap.core.model.query;
 
+import com.ssafy.sulmap.core.model.enums.PreRankMode;
+import com.ssafy.sulmap.core.model.enums.UserGender;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
+import java.util.Date;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class GetRecommenedBarsQuery {
     private double lat;
     private double lon;
     private Long userId;
+    // 프롬프트 CTX(g=/a=)에 들어가는 사용자 속성: 캐시/single-flight 키에 성별+연령대로 포함
+    private UserGender userGender;
+    private Date userBirthday;
     private Integer maxDistance;
     private String weatherKey = "-";
     private String userPrompt;
+    // null 이면 GPT
+    private PreRankMode preRankMode;
+    // shadow 평가 실행 (응답/캐시에 쓰지 않음, 지표는 pipeline=shadow)
+    private boolean shadow;
+    // GPT 호출 마감 (System.nanoTime 기준). 서비스가 단계별로 채우고, 호출 타임아웃을 남은 시간으로 줄인다
+    // 호출마다 달라지는 값이라 동등성 비교에서는 뺀다
+    @EqualsAndHashCode.Exclude
+    private Long gptDeadlineNanos;
 }
@@ -1,5 +1,7 @@
 package com.ssafy.sulmap.core.model.query;
 
+import com.ssafy.sulmap.core.model.enums.BarProjection;
+
 public record NearbyBarsQuery(
         double latitude,
         double longitude,
@@ -7,6 +9,29 @@ public record NearbyBarsQuery(
         int count,
         String keyword,        // optional: 상호/카테고리/태그 검색
         String category,       // optional: 주점/이자카야 등
-        String sort            // optional: distance|recommended|rating ...
+        String sort,           // optional: distance|recommended|rating ...
+        String semanticText,   // optional: 임베딩 kNN으로 관련도순 정렬할 문장 (AI 추천의 userPrompt)
+        BarProjection projection, // optional: 결과 필드 범위 (null이면 FULL)
+        String cursor          // optional: 이전 페이지 응답의 nextCursor (search_after), 같은 조건일 때만 유효
 ) {
+
+    public NearbyBarsQuery {
+        if (projection == null) projection = BarProjection.FULL;
+    }
+
+    public NearbyBarsQuery(double latitude, double longitude, int radiusMeters, int count,
+                           String keyword, String category, String sort, String semanticText) {
+        this(latitude, longitude, radiusMeters, count, keyword, category, sort, semanticText, BarProjection.FULL);
+    }
+
+    public NearbyBarsQuery(double latitude, double longitude, int radiusMeters, int count,
+                           String keyword, String category, String sort, String semanticText,
+                           BarProjection projection) {
+        this(latitude, longitude, radiusMeters, count, keyword, category, sort, semanticText, projection, null);
+    }
+
+    public NearbyBarsQuery(double latitude, double longitude, int radiusMeters, int count,
+                           String keyword, String category, String sort) {
+        this(latitude, longitude, radiusMeters, count, keyword, category, sort, null);
+    }
 }
@@ -3,15 +3,32 @@ package com.ssafy.sulmap.core.repository;
 import com.ssafy.sulmap.core.model.BarListItemModel;
 import com.ssafy.sulmap.core.model.MinorRecommendedBarModel;
 import com.ssafy.sulmap.core.model.RecommendedBarModel;
+import com.ssafy.sulmap.core.model.ReviewSummaryModel;
 import com.ssafy.sulmap.core.model.UserModel;
 import com.ssafy.sulmap.core.model.query.GetRecommenedBarsQuery;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface AiRecommendRepository {
     //1차 추천
     List<MinorRecommendedBarModel> getMinorRecommend(List<BarListItemModel> models, UserModel user, GetRecommenedBarsQuery query, int topK);
 
+    //1차 배치 구성: 입력 순서대로 토큰 예산 단위로 나눔 (배치당 최대 maxBatchSize개, 최대 maxBatches개)
+    List<List<BarListItemModel>> splitByTokenBudget(List<BarListItemModel> models, int maxBatchSize, int maxBatches);
+
+    //1차 추천(로컬): GPT 없이 휴리스틱 점수 상위 topK
+    List<MinorRecommendedBarModel> preRank(List<BarListItemModel> models, GetRecommenedBarsQuery query, int topK);
+
     //2차 추천
     List<RecommendedBarModel> getRecommend(List<BarListItemModel> models, UserModel user, GetRecommenedBarsQuery query, int topK);
+
+    //2차 추천(로컬): GPT 없이 휴리스틱 점수(요청 일치/거리/영업 중/리뷰) 순위 + 템플릿 이유, rankedBy=LOCAL
+    List<RecommendedBarModel> localRecommend(List<BarListItemModel> models, GetRecommenedBarsQuery query,
+                                             Map<Long, ReviewSummaryModel> reviewStats, int topK);
+
+    //2차 추천(스트리밍): 확정된 항목은 onItem으로 바로 내보내고, 채우지 못한 자리(fill-in)를 반환
+    List<RecommendedBarModel> streamRecommend(List<BarListItemModel> models, UserModel user, GetRecommenedBarsQuery query, int topK,
+                                              Consumer<RecommendedBarModel> onItem);
 }
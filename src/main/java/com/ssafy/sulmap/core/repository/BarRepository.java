@@ -1,7 +1,12 @@
 package com.ssafy.sulmap.core.repository;
 
+import com.ssafy.sulmap.core.model.BarClusterModel;
 import com.ssafy.sulmap.core.model.BarListItemModel;
 import com.ssafy.sulmap.core.model.BarModel;
+import com.ssafy.sulmap.core.model.BarOpenInfoModel;
+import com.ssafy.sulmap.core.model.NearbyBarsPage;
+import com.ssafy.sulmap.core.model.command.SaveOpenInfoSummaryCommand;
+import com.ssafy.sulmap.core.model.query.BarClustersQuery;
 import com.ssafy.sulmap.core.model.query.NearbyBarsQuery;
 
 import java.io.IOException;
@@ -13,4 +18,35 @@ public interface BarRepository {
      * FR2(+FR1): 현재 위치 기준 주변 술집 검색 (반경/필터/정렬/키워드 포함 가능)
      */
     List<BarListItemModel> findNearby(NearbyBarsQuery query) throws IOException;
+
+    /**
+     * findNearby의 페이지 버전: query.cursor 다음부터 count개 + 다음 페이지 커서
+     *
+     * @throws IllegalArgumentException 커서가 잘못됐거나 다른 검색 조건의 커서
+     */
+    NearbyBarsPage findNearbyPage(NearbyBarsQuery query) throws IOException;
+
+    /**
+     * 지도 화면 안 술집 클러스터 (칸별 개수 + 무게중심, 술집 목록은 조회하지 않음)
+     */
+    List<BarClusterModel> findClusters(BarClustersQuery query) throws IOException;
+
+    /**
+     * 영업정보 요약이 없거나, 요약 후 updated_at이 바뀐 술집 (id 순)
+     */
+    List<BarOpenInfoModel> findOpenInfoSummaryTargets(int limit);
+
+    /**
+     * 요약 저장 (ES 문서 먼저, 그다음 DB). updated_at은 건드리지 않는다.
+     *
+     * @return DB에 저장된 수 (요약 중 술집이 수정됐으면 제외)
+     */
+    int saveOpenInfoSummaries(List<SaveOpenInfoSummaryCommand> commands) throws IOException;
+
+    /**
+     * 임베딩이 없거나 현재 임베더와 다른 모델로 계산된 술집 문서를 limit개까지 다시 임베딩해 저장
+     *
+     * @return 저장된 문서 수
+     */
+    int indexStaleEmbeddings(int limit) throws IOException;
 }
@@ -0,0 +1,17 @@
+package com.ssafy.sulmap.core.repository;
+
+import com.ssafy.sulmap.core.model.BarOpenInfoModel;
+
+import java.util.List;
+import java.util.Map;
+
+public interface OpenInfoSummaryRepository {
+    /**
+     * 영업정보 원문 -> 짧은 정규화 요약 (영업시간 / 휴무 / 라스트오더)
+     * - 모델이 요약하지 못한 술집은 원문을 잘라서라도 채운다 (다음 수정 전까지 다시 요약하지 않도록)
+     * - 모델 호출 자체가 실패한 술집은 결과에서 빠진다 (다음 실행에서 다시)
+     *
+     * @return barId -> 요약
+     */
+    Map<Long, String> summarize(List<BarOpenInfoModel> bars);
+}
@@ -0,0 +1,19 @@
+package com.ssafy.sulmap.core.repository;
+
+import com.ssafy.sulmap.core.model.BarListItemModel;
+import com.ssafy.sulmap.core.model.RecommendCacheKey;
+import com.ssafy.sulmap.core.model.RecommendedBarModel;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RecommendCacheRepository {
+    /**
+     * 캐시된 추천 결과 조회
+     * - 캐시된 barId가 현재 후보(candidates)에 모두 있어야 hit
+     * - 결과는 현재 후보의 최신 정보로 다시 만든다
+     */
+    Optional<List<RecommendedBarModel>> find(RecommendCacheKey key, List<BarListItemModel> candidates);
+
+    void save(RecommendCacheKey key, List<RecommendedBarModel> recommended);
+}
@@ -0,0 +1,14 @@
+package com.ssafy.sulmap.core.repository;
+
+import com.ssafy.sulmap.core.model.RecommendJobModel;
+
+import java.util.Optional;
+
+public interface RecommendJobRepository {
+    /**
+     * 작업 저장 (다시 저장하면 보관 기간이 그 시점부터 다시 시작)
+     */
+    void save(RecommendJobModel job);
+
+    Optional<RecommendJobModel> findById(String jobId);
+}
@@ -5,6 +5,7 @@ import com.ssafy.sulmap.core.model.ReviewReportModel;
 import com.ssafy.sulmap.core.model.ReviewSummaryModel;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -41,6 +42,11 @@ public interface ReviewRepository {
      */
     ReviewSummaryModel getSummary(Long barId);
 
+    /**
+     * 여러 술집의 리뷰 개수/평균 별점 (별점 분포 제외, 리뷰 없는 술집은 빠짐)
+     */
+    Map<Long, ReviewSummaryModel> getSummaries(List<Long> barIds);
+
     /**
      * 리뷰 신고 저장
      */
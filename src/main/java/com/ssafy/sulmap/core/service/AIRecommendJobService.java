@@ -0,0 +1,18 @@
+package com.ssafy.sulmap.core.service;
+
+import com.ssafy.sulmap.core.model.RecommendJobModel;
+import com.ssafy.sulmap.core.model.query.GetRecommenedBarsQuery;
+import com.ssafy.sulmap.share.result.Result;
+
+public interface AIRecommendJobService {
+    /**
+     * 추천 작업을 전용 executor에 제출하고 바로 반환한다
+     * - 대기열이 가득 차면 429 실패
+     */
+    Result<RecommendJobModel> submit(GetRecommenedBarsQuery query);
+
+    /**
+     * 작업 조회 (없거나, 만료됐거나, 다른 사용자의 작업이면 404)
+     */
+    Result<RecommendJobModel> findJob(String jobId, Long userId);
+}
@@ -5,7 +5,14 @@ import com.ssafy.sulmap.core.model.query.GetRecommenedBarsQuery;
 import com.ssafy.sulmap.share.result.Result;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface AIRecommendService {
     Result<List<RecommendedBarModel>> getRecommendedBars(GetRecommenedBarsQuery query);
+
+    /**
+     * 스트리밍 추천: 확정된 항목은 onItem으로 즉시 전달하고,
+     * GPT가 채우지 못한 자리(fill-in/폴백)는 결과로 반환
+     */
+    Result<List<RecommendedBarModel>> streamRecommendedBars(GetRecommenedBarsQuery query, Consumer<RecommendedBarModel> onItem);
 }
@@ -0,0 +1,20 @@
+package com.ssafy.sulmap.core.service;
+
+import com.ssafy.sulmap.core.model.AiPipelineSettings;
+import com.ssafy.sulmap.share.result.Result;
+
+public interface AiPipelineSettingsService {
+    /**
+     * 현재 설정. 요청 하나는 시작할 때 한 번 읽은 값을 끝까지 쓴다
+     */
+    AiPipelineSettings current();
+
+    /**
+     * null이 아닌 항목만 바꿔 한 번에 교체한다 (진행 중인 요청에는 영향 없음)
+     *
+     * @param actor 변경한 사람 (로그용 로그인 ID)
+     * @return 바뀐 설정, 검증 실패 시 400
+     */
+    Result<AiPipelineSettings> update(String actor, Integer fetchCandidates, Integer batchSize,
+                                      Integer maxStage1Batches, Integer stage2Max, Integer finalTopK);
+}
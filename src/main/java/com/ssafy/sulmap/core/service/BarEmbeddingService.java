@@ -0,0 +1,12 @@
+package com.ssafy.sulmap.core.service;
+
+import com.ssafy.sulmap.share.result.Result;
+
+public interface BarEmbeddingService {
+    /**
+     * 임베딩이 없거나 다른 모델로 계산된 술집 문서를 다시 임베딩해 저장한다
+     *
+     * @return 저장한 문서 수
+     */
+    Result<Integer> indexStale();
+}
@@ -0,0 +1,12 @@
+package com.ssafy.sulmap.core.service;
+
+import com.ssafy.sulmap.share.result.Result;
+
+public interface BarOpenInfoSummaryService {
+    /**
+     * 요약이 없거나 요약 후 수정된 술집의 영업정보를 다시 요약해 저장한다
+     *
+     * @return 저장한 술집 수
+     */
+    Result<Integer> summarizeStale();
+}
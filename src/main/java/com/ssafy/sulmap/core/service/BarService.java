@@ -1,7 +1,10 @@
 package com.ssafy.sulmap.core.service;
 
+import com.ssafy.sulmap.core.model.BarClusterModel;
 import com.ssafy.sulmap.core.model.BarListItemModel;
 import com.ssafy.sulmap.core.model.BarModel;
+import com.ssafy.sulmap.core.model.NearbyBarsPage;
+import com.ssafy.sulmap.core.model.query.BarClustersQuery;
 import com.ssafy.sulmap.core.model.query.NearbyBarsQuery;
 import com.ssafy.sulmap.share.result.Result;
 
@@ -13,5 +16,15 @@ public interface BarService {
      */
     Result<List<BarListItemModel>> findNearbyBars(NearbyBarsQuery query);
 
+    /**
+     * 주변 술집 검색 (커서 페이지). 잘못된 커서는 400
+     */
+    Result<NearbyBarsPage> findNearbyBarsPage(NearbyBarsQuery query);
+
+    /**
+     * 지도 화면(bounding box) 안 술집 클러스터. 화면 범위가 잘못됐으면 400
+     */
+    Result<List<BarClusterModel>> findBarClusters(BarClustersQuery query);
+
     Result<BarModel> findBarById(long id);
 }
@@ -8,6 +8,7 @@ import com.ssafy.sulmap.core.model.command.UpdateReviewCommand;
 import com.ssafy.sulmap.share.result.Result;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 리뷰 서비스 인터페이스
@@ -18,6 +19,11 @@ public interface ReviewService {
      */
     Result<ReviewSummaryModel> getSummary(Long barId);
 
+    /**
+     * 여러 술집의 리뷰 개수/평균 별점 한 번에 조회 (별점 분포 제외, 리뷰 없는 술집은 빠짐)
+     */
+    Result<Map<Long, ReviewSummaryModel>> getSummaries(List<Long> barIds);
+
     /**
      * 술집의 리뷰 목록 조회
      */
@@ -0,0 +1,71 @@
+package com.ssafy.sulmap.core.service.impl;
+
+import com.ssafy.sulmap.core.model.AiPipelineSettings;
+import com.ssafy.sulmap.core.service.AiPipelineSettingsService;
+import com.ssafy.sulmap.share.result.Result;
+import com.ssafy.sulmap.share.result.error.impl.SimpleError;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * AI 추천 파이프라인 크기 설정 보관
+ * - 초기값은 ai.recommend.pipeline.*, 이후 actuator(aipipeline)로 변경
+ * - 설정 전체를 AtomicReference로 통째 교체하므로 요청은 항상 일관된 조합만 본다
+ * - 재시작하면 프로퍼티 값으로 돌아간다
+ */
+@Service
+@Slf4j
+public class AiPipelineSettingsServiceImpl implements AiPipelineSettingsService {
+
+    private final AtomicReference<AiPipelineSettings> _settings;
+
+    @Autowired
+    public AiPipelineSettingsServiceImpl(
+            @Value("${ai.recommend.pipeline.fetch-candidates:200}") int fetchCandidates,
+            @Value("${ai.recommend.pipeline.batch-size:100}") int batchSize,
+            @Value("${ai.recommend.pipeline.max-stage1-batches:4}") int maxStage1Batches,
+            @Value("${ai.recommend.pipeline.stage2-max:40}") int stage2Max,
+            @Value("${ai.recommend.pipeline.final-top-k:10}") int finalTopK
+    ) {
+        this(new AiPipelineSettings(fetchCandidates, batchSize, maxStage1Batches, stage2Max, finalTopK));
+    }
+
+    public AiPipelineSettingsServiceImpl(AiPipelineSettings initial) {
+        _settings = new AtomicReference<>(initial);
+        log.info("ai pipeline settings: {}", initial);
+    }
+
+    @Override
+    public AiPipelineSettings current() {
+        return _settings.get();
+    }
+
+    @Override
+    public Result<AiPipelineSettings> update(String actor, Integer fetchCandidates, Integer batchSize,
+                                             Integer maxStage1Batches, Integer stage2Max, Integer finalTopK) {
+        while (true) {
+            var prev = _settings.get();
+            AiPipelineSettings next;
+            try {
+                next = prev.with(fetchCandidates, batchSize, maxStage1Batches, stage2Max, finalTopK);
+            } catch (IllegalArgumentException e) {
+                log.warn("ai pipeline settings rejected: by={}, {} (current={})", actor, e.getMessage(), prev);
+                return Result.fail(SimpleError.builder()
+                        .code(HttpStatus.BAD_REQUEST.value())
+                        .message(e.getMessage())
+                        .cause(e)
+                        .build());
+            }
+            // 동시에 다른 변경이 들어왔으면 그 값을 기준으로 다시 병합
+            if (_settings.compareAndSet(prev, next)) {
+                if (!prev.equals(next)) log.warn("ai pipeline settings changed: by={}, {} -> {}", actor, prev, next);
+                return Result.ok(next);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ssafy.sulmap.core.service.impl;
+
+import com.ssafy.sulmap.core.model.RecommendJobModel;
+import com.ssafy.sulmap.core.model.RecommendedBarModel;
+import com.ssafy.sulmap.core.model.query.GetRecommenedBarsQuery;
+import com.ssafy.sulmap.core.repository.RecommendJobRepository;
+import com.ssafy.sulmap.core.service.AIRecommendJobService;
+import com.ssafy.sulmap.core.service.AIRecommendService;
+import com.ssafy.sulmap.share.result.Result;
+import com.ssafy.sulmap.share.result.error.impl.NotFoundError;
+import com.ssafy.sulmap.share.result.error.impl.SimpleError;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+@SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AiRecommendJobServiceImpl implements AIRecommendJobService {
+
+    private final AIRecommendService _aiRecommendService;
+    private final RecommendJobRepository _recommendJobRepository;
+    @Qualifier("aiRecommendJobExecutor")
+    private final ExecutorService _aiRecommendJobExecutor;
+    private final MeterRegistry _meterRegistry;
+
+    @Override
+    public Result<RecommendJobModel> submit(GetRecommenedBarsQuery query) {
+        var job = RecommendJobModel.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(query.getUserId())
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        try {
+            _aiRecommendJobExecutor.execute(() -> run(job, query));
+        } catch (RejectedExecutionException e) {
+            _meterRegistry.counter("ai.recommend.jobs", "outcome", "rejected").increment();
+            return Result.fail(SimpleError.builder()
+                    .code(HttpStatus.TOO_MANY_REQUESTS.value())
+                    .message("Too many recommendation jobs")
+                    .cause(e)
+                    .build());
+        }
+
+        // 거절된 작업은 저장하지 않는다 (id를 받기 전이라 먼저 끝나도 조회될 일은 없음)
+        _recommendJobRepository.save(job);
+        _meterRegistry.counter("ai.recommend.jobs", "outcome", "submitted").increment();
+        return Result.ok(job);
+    }
+
+    @Override
+    public Result<RecommendJobModel> findJob(String jobId, Long userId) {
+        var job = _recommendJobRepository.findById(jobId)
+                // 다른 사용자의 작업은 존재 여부도 알리지 않는다
+                .filter(j -> Objects.equals(j.getUserId(), userId));
+        if (job.isEmpty()) return Result.fail(new NotFoundError("RecommendJob", jobId));
+        return Result.ok(job.get());
+    }
+
+    private void run(RecommendJobModel job, GetRecommenedBarsQuery query) {
+        job.markStarted();
+        Result<List<RecommendedBarModel>> result;
+        try {
+            result = _aiRecommendService.getRecommendedBars(query);
+        } catch (RuntimeException e) {
+            log.error(e.getMessage(), e);
+            result = Result.fail(SimpleError.builder()
+                    .code(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                    .message("Recommendation failed")
+                    .cause(e)
+                    .build());
+        }
+        job.getCompletion().complete(result);
+        // 보관 기간을 완료 시점부터 다시 센다
+        _recommendJobRepository.save(job);
+    }
+}
@@ -1,76 +1,657 @@
 package com.ssafy.sulmap.core.service.impl;
 
+import com.ssafy.sulmap.core.model.AiPipelineSettings;
+import com.ssafy.sulmap.core.model.AiShadowConfig;
 import com.ssafy.sulmap.core.model.BarListItemModel;
-import com.ssafy.sulmap.core.model.MinorRecommendedBarModel;
+import com.ssafy.sulmap.core.model.RecommendCacheKey;
 import com.ssafy.sulmap.core.model.RecommendedBarModel;
+import com.ssafy.sulmap.core.model.ReviewSummaryModel;
+import com.ssafy.sulmap.core.model.UserModel;
+import com.ssafy.sulmap.core.model.enums.PreRankMode;
+import com.ssafy.sulmap.core.model.enums.RecommendRanker;
 import com.ssafy.sulmap.core.model.query.GetRecommenedBarsQuery;
 import com.ssafy.sulmap.core.model.query.NearbyBarsQuery;
 import com.ssafy.sulmap.core.repository.AiRecommendRepository;
+import com.ssafy.sulmap.core.repository.RecommendCacheRepository;
 import com.ssafy.sulmap.core.service.AIRecommendService;
+import com.ssafy.sulmap.core.service.AiPipelineSettingsService;
 import com.ssafy.sulmap.core.service.BarService;
+import com.ssafy.sulmap.core.service.ReviewService;
 import com.ssafy.sulmap.core.service.UserService;
 import com.ssafy.sulmap.share.result.Result;
+import com.ssafy.sulmap.share.result.error.impl.SimpleError;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+/**
+ * AI 추천 파이프라인: 후보/사용자 조회 -> 캐시 -> 1차 축소(GPT 배치) -> 2차 최종 순위(GPT vs 로컬)
+ * - 후보/배치/풀 크기는 AiPipelineSettingsService에서 요청 시작 시 한 번 읽는다 (런타임 변경 가능)
+ * - 단계별 지연: ai.recommend.pipeline.latency{pipeline,stage=retrieval|user_lookup|stage1_batch|stage2|total, outcome}
+ * - 파이프라인 폴백: ai.recommend.fallback{pipeline,stage=stage1|stage2, reason}
+ *   (GPT 호출 자체의 실패는 AiRecommendRepository가 같은 이름으로 reason=ai_error|circuit_open을 남긴다)
+ * - shadow 평가: 캐시를 거치지 않고 새로 계산한 요청 중 일부를 AiShadowConfig 설정으로 비동기 재실행
+ *   응답/캐시에는 쓰지 않고, 지표(pipeline=shadow)와 primary 대비 순위 겹침(ai.recommend.shadow.overlap)만 남긴다
+ *   내부 fan-out도 shadow 전용 풀에서 돌리고, GPT 호출은 primary의 서킷 브레이커/모델 라우터 통계에 넣지 않는다
+ */
 @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AiRecommendServiceImpl implements AIRecommendService {
+    private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+
+    // 조회 + 1차 배치 전체 마감 (넘기면 남은 배치는 거리순 폴백). GPT 1차 호출 타임아웃은 이 값을 넘지 않게 잘린다
+    public static final long STAGE1_DEADLINE_MS = 12_000;
+    // 같은 키로 진행 중인 계산을 기다리는 후속 요청의 개별 대기 한도 (선행 계산에는 영향 없음)
+    private static final long FOLLOWER_WAIT_MS = 30_000;
+
     private final AiRecommendRepository _aiRecommendRepository;
+    private final RecommendCacheRepository _recommendCacheRepository;
     private final BarService _barService;
     private final UserService _userService;
+    private final ReviewService _reviewService;
+    private final AiPipelineSettingsService _pipelineSettingsService;
+    private final AiShadowConfig _shadowConfig;
+    @Qualifier("aiRecommendExecutor")
+    private final ExecutorService _aiRecommendExecutor;
+    @Qualifier("aiRecommendShadowExecutor")
+    private final ExecutorService _aiRecommendShadowExecutor;
+    // shadow 실행 안의 조회/1차 배치/2차 호출: primary 풀을 나눠 쓰지 않는다
+    @Qualifier("aiRecommendShadowFanOutExecutor")
+    private final ExecutorService _aiRecommendShadowFanOutExecutor;
+    private final MeterRegistry _meterRegistry;
+    // 요청 시작부터 최종 결과까지의 지연 예산: 넘기면 GPT 2차 대신 로컬 랭커 결과
+    @Value("${ai.recommend.latency-budget-ms:25000}")
+    private final long _latencyBudgetMs;
+
+    // single-flight: 캐시 키가 같은 요청은 진행 중인 계산 하나를 공유 (후속 요청은 자기 후보로 다시 검증)
+    // 키에 성별/연령대가 들어 있으므로 프롬프트 CTX 가 다른 사용자끼리는 합쳐지지 않는다
+    private final ConcurrentHashMap<RecommendCacheKey, CompletableFuture<Result<List<RecommendedBarModel>>>> _inFlight =
+            new ConcurrentHashMap<>();
 
     @Override
     public Result<List<RecommendedBarModel>> getRecommendedBars(GetRecommenedBarsQuery query) {
-        final int FETCH_CANDIDATES = 200;
-        final int STAGE2_MAX = 40;
-        final int BATCH_SIZE = 100;
-        final int STAGE1_PICK = 20;
-        final int FINAL_TOPK = 10;
-
-        var findBarsResult = _barService.findNearbyBars(
-                new NearbyBarsQuery(query.getLat(), query.getLon(), query.getMaxDistance(),
-                        FETCH_CANDIDATES, null, null, "distance")
-        );
-        if (findBarsResult.isFailure()) return Result.fail(findBarsResult.getErrors());
+        var cacheKey = RecommendCacheKey.of(query, ZonedDateTime.now(ZONE));
+
+        CompletableFuture<Result<List<RecommendedBarModel>>> flight = new CompletableFuture<>();
+        var leader = _inFlight.putIfAbsent(cacheKey, flight);
+        if (leader != null) {
+            var shared = awaitLeader(leader);
+            if (shared != null) {
+                if (shared.isFailure()) return shared;
+                var adopted = adoptShared(query, shared.getOrThrow());
+                if (adopted.isPresent()) return Result.ok(adopted.get());
+            }
+            // 선행 계산이 실패(사용자 조회 실패 등 요청별 사유일 수 있음)했거나 이 요청 후보와 맞지 않음: 직접 계산
+            return computeRecommendedBars(query, cacheKey);
+        }
+
+        _meterRegistry.counter("ai.recommend.flights").increment();
+        try {
+            var result = timed(query, "total", () -> computeRecommendedBars(query, cacheKey));
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            _inFlight.remove(cacheKey, flight);
+        }
+    }
+
+    private Result<List<RecommendedBarModel>> computeRecommendedBars(GetRecommenedBarsQuery query,
+                                                                     RecommendCacheKey cacheKey) {
+        final long start = System.nanoTime();
+        final long budgetDeadline = start + TimeUnit.MILLISECONDS.toNanos(_latencyBudgetMs);
+        var settings = _pipelineSettingsService.current();
+        var prepareResult = prepareStage2(query, cacheKey, settings, _aiRecommendExecutor);
+        if (prepareResult.isFailure()) return Result.fail(prepareResult.getErrors());
+
+        var prepared = prepareResult.getOrThrow();
+        if (prepared.cached() != null) return Result.ok(prepared.cached());
+        if (prepared.candidates().isEmpty()) return Result.ok(List.of());
+
+        // 2차: 최종 Top 10 + 이유 생성 (GPT vs 로컬 랭커, 예산 안에 끝난 GPT 우선)
+        var finalResult = rankFinal(prepared, query, budgetDeadline, _aiRecommendExecutor);
+
+        // AI 실패 폴백/로컬 결과는 캐시하지 않는다
+        if (!isAiFallback(finalResult)) {
+            _recommendCacheRepository.save(prepared.cacheKey(), finalResult);
+        }
+
+        if (_shadowConfig.sample()) submitShadow(query, settings, finalResult, System.nanoTime() - start);
+        return Result.ok(finalResult);
+    }
+
+    /**
+     * shadow 평가 제출. executor가 가득 차면 이번 요청은 건너뛴다 (응답 경로를 막지 않음)
+     */
+    private void submitShadow(GetRecommenedBarsQuery query, AiPipelineSettings primarySettings,
+                              List<RecommendedBarModel> primary, long primaryNanos) {
+        AiPipelineSettings settings;
+        try {
+            settings = _shadowConfig.apply(primarySettings);
+        } catch (IllegalArgumentException e) {
+            // primary가 바뀌어 shadow 조합이 무효가 된 경우
+            log.warn("shadow settings invalid against {}: {}", primarySettings, e.getMessage());
+            shadowRun("invalid_settings");
+            return;
+        }
+        var shadowQuery = query.toBuilder()
+                .preRankMode(_shadowConfig.preRankMode(query.getPreRankMode()))
+                .shadow(true)
+                .build();
+        try {
+            _aiRecommendShadowExecutor.execute(() -> runShadow(shadowQuery, settings, primary, primaryNanos));
+        } catch (RejectedExecutionException e) {
+            shadowRun("skipped");
+        }
+    }
+
+    private void runShadow(GetRecommenedBarsQuery query, AiPipelineSettings settings,
+                           List<RecommendedBarModel> primary, long primaryNanos) {
+        try {
+            long start = System.nanoTime();
+            long budgetDeadline = start + TimeUnit.MILLISECONDS.toNanos(_latencyBudgetMs);
+            var shadow = timed(query, "total", () -> {
+                // 캐시 조회/저장 없이 같은 파이프라인을 shadow 설정으로 (fan-out은 shadow 전용 풀)
+                var prepareResult = prepareStage2(query, null, settings, _aiRecommendShadowFanOutExecutor);
+                if (prepareResult.isFailure()) return Result.<List<RecommendedBarModel>>fail(prepareResult.getErrors());
+                var prepared = prepareResult.getOrThrow();
+                if (prepared.candidates().isEmpty()) return Result.ok(List.<RecommendedBarModel>of());
+                return Result.ok(rankFinal(prepared, query, budgetDeadline, _aiRecommendShadowFanOutExecutor));
+            });
+            long shadowNanos = System.nanoTime() - start;
+            if (shadow.isFailure()) {
+                shadowRun("failure");
+                return;
+            }
+
+            double overlap = overlapPercent(primary, shadow.getOrThrow());
+            DistributionSummary.builder("ai.recommend.shadow.overlap")
+                    .baseUnit("percent")
+                    .register(_meterRegistry)
+                    .record(overlap);
+            shadowRun("success");
+            log.info("shadow: primary={}ms, shadow={}ms, overlap={}%, preRankMode={}, settings={}",
+                    TimeUnit.NANOSECONDS.toMillis(primaryNanos), TimeUnit.NANOSECONDS.toMillis(shadowNanos),
+                    Math.round(overlap), query.getPreRankMode(), settings);
+        } catch (RuntimeException e) {
+            log.warn("shadow run failed: {}", e.getMessage());
+            shadowRun("failure");
+        }
+    }
+
+    private void shadowRun(String outcome) {
+        _meterRegistry.counter("ai.recommend.shadow.runs", "outcome", outcome).increment();
+    }
+
+    // primary 추천 id 중 shadow 결과에도 있는 비율 (%)
+    static double overlapPercent(List<RecommendedBarModel> primary, List<RecommendedBarModel> shadow) {
+        if (primary.isEmpty()) return shadow.isEmpty() ? 100 : 0;
+        Set<Long> shadowIds = shadow.stream().map(RecommendedBarModel::getId).collect(Collectors.toSet());
+        long hit = primary.stream().map(RecommendedBarModel::getId).filter(shadowIds::contains).count();
+        return 100.0 * hit / primary.size();
+    }
+
+    @Override
+    public Result<List<RecommendedBarModel>> streamRecommendedBars(GetRecommenedBarsQuery query,
+                                                                   Consumer<RecommendedBarModel> onItem) {
+        var cacheKey = RecommendCacheKey.of(query, ZonedDateTime.now(ZONE));
+
+        // 같은 키의 일반 요청이 진행 중이면 그 결과를 받아 한꺼번에 내보낸다
+        var leader = _inFlight.get(cacheKey);
+        if (leader != null) {
+            var shared = awaitLeader(leader);
+            if (shared != null) {
+                if (shared.isFailure()) return Result.fail(shared.getErrors());
+                var adopted = adoptShared(query, shared.getOrThrow());
+                if (adopted.isPresent()) {
+                    adopted.get().forEach(onItem);
+                    return Result.ok(List.of());
+                }
+            }
+        }
+
+        var prepareResult = prepareStage2(query, cacheKey, _pipelineSettingsService.current(), _aiRecommendExecutor);
+        if (prepareResult.isFailure()) return Result.fail(prepareResult.getErrors());
+
+        var prepared = prepareResult.getOrThrow();
+        if (prepared.cached() != null) {
+            prepared.cached().forEach(onItem);
+            return Result.ok(List.of());
+        }
+        if (prepared.candidates().isEmpty()) return Result.ok(List.of());
+
+        // 2차(스트리밍): 확정되는 대로 내보내고, 남은 자리는 fill-in으로 반환
+        int topK = prepared.settings().finalTopK();
+        List<RecommendedBarModel> streamed = new ArrayList<>(topK);
+        var fillIns = _aiRecommendRepository.streamRecommend(prepared.candidates(), prepared.user(), query, topK,
+                item -> {
+                    streamed.add(item);
+                    onItem.accept(item);
+                });
+
+        List<RecommendedBarModel> finalResult = new ArrayList<>(streamed);
+        finalResult.addAll(fillIns);
+        if (!isAiFallback(finalResult)) {
+            _recommendCacheRepository.save(prepared.cacheKey(), finalResult);
+        }
+
+        return Result.ok(fillIns);
+    }
+
+    /**
+     * 후보/사용자 조회 -> 캐시 확인 -> 1차 축소까지 수행해 2차 입력을 만든다
+     *
+     * @param executor 조회/1차 배치 fan-out을 돌릴 풀 (primary와 shadow가 다르다)
+     */
+    private Result<Stage2Input> prepareStage2(GetRecommenedBarsQuery query, RecommendCacheKey cacheKey,
+                                              AiPipelineSettings settings, ExecutorService executor) {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STAGE1_DEADLINE_MS);
+
+        // 후보 술집 / 사용자 조회는 서로 독립적이므로 동시에 실행
+        var barsFuture = submitOrRunInline(() -> timed(query, "retrieval",
+                () -> _barService.findNearbyBars(candidateQuery(query, settings))), executor);
+        var userFuture = submitOrRunInline(() -> timed(query, "user_lookup",
+                () -> _userService.findUserById(query.getUserId())), executor);
+
+        Result<List<BarListItemModel>> findBarsResult;
+        Result<UserModel> findUserResult;
+        try {
+            findBarsResult = awaitUntil(barsFuture, deadline);
+            findUserResult = awaitUntil(userFuture, deadline);
+        } catch (TimeoutException e) {
+            barsFuture.cancel(true);
+            userFuture.cancel(true);
+            return Result.fail(SimpleError.builder()
+                    .code(HttpStatus.GATEWAY_TIMEOUT.value())
+                    .message("Recommendation lookup timed out")
+                    .cause(e)
+                    .build());
+        } catch (ExecutionException e) {
+            return Result.fail(SimpleError.builder()
+                    .code(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                    .message("Internal server error")
+                    .cause(e.getCause())
+                    .build());
+        }
 
-        var findUserResult = _userService.findUserById(query.getUserId());
+        if (findBarsResult.isFailure()) return Result.fail(findBarsResult.getErrors());
         if (findUserResult.isFailure()) return Result.fail(findUserResult.getErrors());
 
         var bars = findBarsResult.getOrThrow();
         var userModel = findUserResult.getOrThrow();
 
         if (bars.isEmpty()) {
-            return Result.ok(List.of());
+            return Result.ok(new Stage2Input(userModel, List.of(), null, null, settings));
+        }
+
+        // 같은 동네/비슷한 요청이면 캐시 결과 재사용 (현재 후보에 모두 있을 때만, shadow는 cacheKey 없음)
+        var cached = cacheKey == null ? Optional.<List<RecommendedBarModel>>empty()
+                : _recommendCacheRepository.find(cacheKey, bars);
+        if (cached.isPresent()) {
+            return Result.ok(new Stage2Input(userModel, bars, cacheKey, cached.get(), settings));
         }
 
         // 2차에 들어갈 후보 풀
         List<BarListItemModel> stage2Candidates;
 
-        if (bars.size() <= STAGE2_MAX) {
+        if (bars.size() <= settings.stage2Max()) {
             stage2Candidates = bars;
         } else {
-            stage2Candidates = new ArrayList<>(STAGE2_MAX);
-
-            for (int start = 0; start < bars.size() && stage2Candidates.size() < STAGE2_MAX; start += BATCH_SIZE) {
-                int end = Math.min(start + BATCH_SIZE, bars.size());
-                var batch = new ArrayList<>(bars.subList(start, end)); // subList view 방지
-                // 1차: 배치당 Top 5 (강제)
-                var picked = _aiRecommendRepository.getMinorRecommend(batch, userModel, query, STAGE1_PICK);
-                // 혹시라도 5개 초과로 오면 자름(안전장치)
-                for (int i = 0; i < picked.size() && i < STAGE1_PICK && stage2Candidates.size() < STAGE2_MAX; i++) {
-                    stage2Candidates.add(picked.get(i));
+            var mode = query.getPreRankMode() == null ? PreRankMode.GPT : query.getPreRankMode();
+            stage2Candidates = switch (mode) {
+                // 로컬 점수만으로 2차 풀 구성 (GPT 1차 없음)
+                case LOCAL -> new ArrayList<>(_aiRecommendRepository.preRank(bars, query, settings.stage2Max()));
+                // 로컬 점수로 한 배치까지 줄이고, 그 배치에서 GPT가 2차 풀 전체를 고른다
+                case HYBRID -> runStage1(_aiRecommendRepository.splitByTokenBudget(
+                        new ArrayList<>(_aiRecommendRepository.preRank(bars, query, settings.batchSize())),
+                                settings.batchSize(), 1),
+                        bars, userModel, query, settings, deadline, executor);
+                // 토큰 예산으로 배치 수 결정 (짧은 후보면 배치가 적고, 긴 후보면 배치가 많아짐)
+                case GPT -> runStage1(_aiRecommendRepository.splitByTokenBudget(bars, settings.batchSize(),
+                                settings.maxStage1Batches()),
+                        bars, userModel, query, settings, deadline, executor);
+            };
+        }
+
+        return Result.ok(new Stage2Input(userModel, stage2Candidates, cacheKey, null, settings));
+    }
+
+    private static NearbyBarsQuery candidateQuery(GetRecommenedBarsQuery query, AiPipelineSettings settings) {
+        return new NearbyBarsQuery(query.getLat(), query.getLon(), query.getMaxDistance(),
+                settings.fetchCandidates(), null, null, "distance", query.getUserPrompt());
+    }
+
+    // cached != null 이면 캐시 hit (candidates는 사용하지 않음)
+    private record Stage2Input(
+            UserModel user,
+            List<BarListItemModel> candidates,
+            RecommendCacheKey cacheKey,
+            List<RecommendedBarModel> cached,
+            AiPipelineSettings settings
+    ) {}
+
+    // -------------------------
+    // Helpers
+    // -------------------------
+
+    /**
+     * GPT 1차: 배치별 Top pick을 동시에 요청하고 배치 순서대로 합쳐 2차 풀(최대 stage2Max)을 만든다
+     * - pick = ceil(stage2Max / 배치 수)
+     */
+    private List<BarListItemModel> runStage1(List<List<BarListItemModel>> batches, List<BarListItemModel> bars,
+                                             UserModel userModel, GetRecommenedBarsQuery query,
+                                             AiPipelineSettings settings, long deadline,
+                                             ExecutorService executor) {
+        int stage2Max = settings.stage2Max();
+        if (batches.isEmpty()) return distanceOrder(bars, stage2Max);
+        int pick = (stage2Max + batches.size() - 1) / batches.size();
+
+        // 1차: 배치별 Top N을 동시에 요청
+        List<CompletableFuture<List<BarListItemModel>>> futures = new ArrayList<>(batches.size());
+        for (var batch : batches) {
+            futures.add(submitMinorRecommend(batch, userModel, query, pick, deadline, executor));
+        }
+
+        // 배치 순서대로 합친다 (마감 초과/실패 배치는 거리순 상위로 대체)
+        List<BarListItemModel> stage2Candidates = new ArrayList<>(stage2Max);
+        for (int i = 0; i < batches.size() && stage2Candidates.size() < stage2Max; i++) {
+            var picked = awaitOrDistanceOrder(futures.get(i), batches.get(i), query, pick, deadline);
+            // 혹시라도 N개 초과로 오면 자름(안전장치)
+            for (int j = 0; j < picked.size() && j < pick && stage2Candidates.size() < stage2Max; j++) {
+                stage2Candidates.add(picked.get(j));
+            }
+        }
+        return stage2Candidates;
+    }
+
+    /**
+     * 2차: GPT 호출과 로컬 랭커를 동시에 돌린다
+     * - deadline 안에 GPT가 정상 결과를 내면 GPT, 아니면(초과/실패/포화) 로컬
+     * - 어느 쪽이 이겼는지는 항목의 rankedBy와 ai.recommend.ranked_by{ranker,outcome}으로 남긴다
+     */
+    private List<RecommendedBarModel> rankFinal(Stage2Input prepared, GetRecommenedBarsQuery query, long deadline,
+                                                ExecutorService executor) {
+        var candidates = prepared.candidates();
+        int topK = prepared.settings().finalTopK();
+
+        CompletableFuture<List<RecommendedBarModel>> gptFuture = null;
+        String outcome = "budget_exhausted";
+        if (System.nanoTime() < deadline) {
+            try {
+                // cancel 은 실행 중인 호출을 끊지 못하므로 SDK 타임아웃을 남은 예산으로 줄인다
+                var gptQuery = withGptDeadline(query, deadline);
+                gptFuture = CompletableFuture.supplyAsync(
+                        () -> timed(query, "stage2",
+                                () -> _aiRecommendRepository.getRecommend(candidates, prepared.user(), gptQuery, topK)),
+                        executor);
+            } catch (RejectedExecutionException e) {
+                log.warn("{} executor saturated, final ranking falls back to local ranker", pipeline(query));
+                outcome = "saturated";
+            }
+        }
+
+        // 로컬 랭커는 GPT 응답을 기다리는 동안 계산
+        var local = _aiRecommendRepository.localRecommend(candidates, query, reviewStats(candidates), topK);
+        var result = local;
+
+        if (gptFuture != null) {
+            try {
+                var gpt = awaitUntil(gptFuture, deadline);
+                if (gpt != null && !gpt.isEmpty() && !isAiFallback(gpt)) {
+                    rankedBy(query, RecommendRanker.GPT, "in_budget");
+                    return gpt;
                 }
+                outcome = "ai_fail";
+                // 로컬 결과가 없으면 저장소의 AI 폴백 목록이라도 (폴백으로 집계는 같게)
+                if (local.isEmpty() && gpt != null) result = gpt;
+            } catch (TimeoutException e) {
+                // 스레드를 끊지는 못한다: 호출 자체는 SDK 타임아웃(남은 예산)에 끝난다
+                gptFuture.cancel(true);
+                log.warn("final ranking missed latency budget ({}ms), using local ranker", _latencyBudgetMs);
+                outcome = "timeout";
+            } catch (ExecutionException e) {
+                log.error(e.getMessage(), e.getCause());
+                outcome = "ai_fail";
             }
         }
 
-        // 2차: 최종 Top 10 + 이유 생성 (강제)
-        var finalResult = _aiRecommendRepository.getRecommend(stage2Candidates, userModel, query, FINAL_TOPK);
+        rankedBy(query, RecommendRanker.LOCAL, outcome);
+        fallback(query, "stage2", outcome);
+        return result;
+    }
+
+    // 리뷰 통계 없이도 로컬 순위는 만들 수 있으므로 실패는 빈 통계로
+    private Map<Long, ReviewSummaryModel> reviewStats(List<BarListItemModel> candidates) {
+        List<Long> ids = candidates.stream()
+                .map(BarListItemModel::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        try {
+            var result = _reviewService.getSummaries(ids);
+            return result.isSuccess() && result.getOrThrow() != null ? result.getOrThrow() : Map.of();
+        } catch (RuntimeException e) {
+            log.warn("review stats lookup failed, ranking without reviews: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private void rankedBy(GetRecommenedBarsQuery query, RecommendRanker ranker, String outcome) {
+        _meterRegistry.counter("ai.recommend.ranked_by",
+                "pipeline", pipeline(query),
+                "ranker", ranker.name().toLowerCase(Locale.ROOT),
+                "outcome", outcome).increment();
+    }
 
-        return Result.ok(finalResult);
+    private void fallback(GetRecommenedBarsQuery query, String stage, String reason) {
+        _meterRegistry.counter("ai.recommend.fallback",
+                "pipeline", pipeline(query),
+                "stage", stage,
+                "reason", reason).increment();
+    }
+
+    private static String pipeline(GetRecommenedBarsQuery query) {
+        return query.isShadow() ? "shadow" : "primary";
+    }
+
+    /**
+     * task 실행 시간을 단계별 timer에 남긴다 (실패 Result/예외는 outcome=failure)
+     */
+    private <T> T timed(GetRecommenedBarsQuery query, String stage, Supplier<T> task) {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            T out = task.get();
+            if (!(out instanceof Result<?> r) || r.isSuccess()) outcome = "success";
+            return out;
+        } finally {
+            Timer.builder("ai.recommend.pipeline.latency")
+                    .tag("pipeline", pipeline(query))
+                    .tag("stage", stage)
+                    .tag("outcome", outcome)
+                    .register(_meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 선행 계산 결과를 기다린다 (대기 한도는 후속 요청마다 따로)
+     * @return 공유할 성공 결과, 선행 계산이 실패했으면 null
+     */
+    private Result<List<RecommendedBarModel>> awaitLeader(CompletableFuture<Result<List<RecommendedBarModel>>> leader) {
+        try {
+            var result = leader.get(FOLLOWER_WAIT_MS, TimeUnit.MILLISECONDS);
+            if (result.isSuccess()) return result;
+            coalesced("leader_failed");
+            return null;
+        } catch (TimeoutException e) {
+            coalesced("timeout");
+            return Result.fail(SimpleError.builder()
+                    .code(HttpStatus.GATEWAY_TIMEOUT.value())
+                    .message("Recommendation timed out")
+                    .cause(e)
+                    .build());
+        } catch (ExecutionException e) {
+            coalesced("leader_failed");
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.fail(SimpleError.builder()
+                    .code(HttpStatus.SERVICE_UNAVAILABLE.value())
+                    .message("Recommendation interrupted")
+                    .cause(e)
+                    .build());
+        }
+    }
+
+    /**
+     * 선행 계산 결과를 이 요청의 후보로 다시 만든다 (키가 200m 셀/반경 구간 단위라 위치가 조금씩 다르다)
+     * - 캐시 hit와 같은 규칙: 추천 술집이 모두 이 요청의 후보에 있어야 하고, 술집 정보는 이 요청 후보 기준
+     *
+     * @return 후보 조회가 실패했거나 후보에서 빠진 술집이 있으면 empty (호출부가 직접 계산)
+     */
+    private Optional<List<RecommendedBarModel>> adoptShared(GetRecommenedBarsQuery query,
+                                                            List<RecommendedBarModel> shared) {
+        var candidatesResult = timed(query, "retrieval",
+                () -> _barService.findNearbyBars(candidateQuery(query, _pipelineSettingsService.current())));
+        if (candidatesResult.isFailure()) {
+            coalesced("stale");
+            return Optional.empty();
+        }
+
+        var candidates = candidatesResult.getOrThrow();
+        if (shared.isEmpty() && !candidates.isEmpty()) {
+            coalesced("stale");
+            return Optional.empty();
+        }
+
+        Map<Long, BarListItemModel> byId = new HashMap<>(candidates.size() * 2);
+        for (BarListItemModel c : candidates) {
+            if (c != null && c.getId() != null) byId.putIfAbsent(c.getId(), c);
+        }
+
+        List<RecommendedBarModel> adopted = new ArrayList<>(shared.size());
+        for (RecommendedBarModel pick : shared) {
+            BarListItemModel src = byId.get(pick.getId());
+            if (src == null) {
+                coalesced("stale");
+                return Optional.empty();
+            }
+            adopted.add(RecommendedBarModel.of(src, pick.getRecommendRank(), pick.getRecommendReason(),
+                    pick.getRankedBy()));
+        }
+        coalesced("shared");
+        return Optional.of(adopted);
+    }
+
+    private void coalesced(String outcome) {
+        _meterRegistry.counter("ai.recommend.coalesced", "outcome", outcome).increment();
+    }
+
+    private <T> CompletableFuture<T> submitOrRunInline(Supplier<T> task, ExecutorService executor) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            // executor 포화: 조회는 가벼우니 요청 스레드에서 그대로 수행
+            log.warn("pipeline executor saturated, running lookup inline");
+            return CompletableFuture.completedFuture(task.get());
+        }
+    }
+
+    private CompletableFuture<List<BarListItemModel>> submitMinorRecommend(
+            List<BarListItemModel> batch, UserModel user, GetRecommenedBarsQuery query, int topK,
+            long deadline, ExecutorService executor) {
+        // 고를 것보다 후보가 적으면 GPT 호출 없이 그대로 통과
+        if (batch.size() <= topK) return CompletableFuture.completedFuture(batch);
+        // 마감 뒤 cancel 로는 호출이 멈추지 않으므로 SDK 타임아웃을 1차 마감까지로 줄인다
+        var gptQuery = withGptDeadline(query, deadline);
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> timed(query, "stage1_batch", () -> new ArrayList<BarListItemModel>(
+                            _aiRecommendRepository.getMinorRecommend(batch, user, gptQuery, topK))),
+                    executor);
+        } catch (RejectedExecutionException e) {
+            // executor 포화: GPT 호출을 더 쌓지 않고 거리순으로 대체
+            log.warn("{} executor saturated, stage-1 batch falls back to distance order", pipeline(query));
+            fallback(query, "stage1", "saturated");
+            return CompletableFuture.completedFuture(distanceOrder(batch, topK));
+        }
+    }
+
+    private List<BarListItemModel> awaitOrDistanceOrder(
+            CompletableFuture<List<BarListItemModel>> future,
+            List<BarListItemModel> batch,
+            GetRecommenedBarsQuery query,
+            int topK,
+            long deadline) {
+        try {
+            var picked = awaitUntil(future, deadline);
+            return picked == null ? distanceOrder(batch, topK) : picked;
+        } catch (TimeoutException e) {
+            // 호출은 SDK 타임아웃(1차 마감까지)에 끝난다
+            future.cancel(true);
+            log.warn("stage-1 batch missed deadline, falling back to distance order (batchSize={})", batch.size());
+            fallback(query, "stage1", "timeout");
+            return distanceOrder(batch, topK);
+        } catch (ExecutionException e) {
+            log.error(e.getMessage(), e.getCause());
+            fallback(query, "stage1", "error");
+            return distanceOrder(batch, topK);
+        }
+    }
+
+    private static GetRecommenedBarsQuery withGptDeadline(GetRecommenedBarsQuery query, long deadline) {
+        return query.toBuilder().gptDeadlineNanos(deadline).build();
+    }
+
+    private static <T> T awaitUntil(Future<T> future, long deadline) throws TimeoutException, ExecutionException {
+        long remaining = deadline - System.nanoTime();
+        try {
+            return future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("interrupted while waiting");
+        }
+    }
+
+    private static boolean isAiFallback(List<RecommendedBarModel> result) {
+        return result.stream().anyMatch(m -> m.getRankedBy() == RecommendRanker.LOCAL
+                || (m.getRecommendReason() != null && m.getRecommendReason().startsWith("fallback:")));
+    }
+
+    // 후보는 거리순으로 들어오므로 앞에서부터 topK
+    private static List<BarListItemModel> distanceOrder(List<BarListItemModel> batch, int topK) {
+        return batch.subList(0, Math.min(topK, batch.size()));
     }
 }
@@ -0,0 +1,50 @@
+package com.ssafy.sulmap.core.service.impl;
+
+import com.ssafy.sulmap.core.repository.BarRepository;
+import com.ssafy.sulmap.core.service.BarEmbeddingService;
+import com.ssafy.sulmap.share.result.Result;
+import com.ssafy.sulmap.share.result.error.impl.SimpleError;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+/**
+ * 술집 문서 임베딩 배치 (후보 kNN 검색용)
+ * - batch-size개씩 다시 임베딩, 한 번 실행에 max-batches까지
+ * - 진척이 없으면(ES 장애 등) 다음 실행으로 미룬다
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BarEmbeddingServiceImpl implements BarEmbeddingService {
+
+    private final BarRepository _barRepository;
+    @Value("${ai.recommend.embedding.batch-size:500}")
+    private final int _batchSize;
+    @Value("${ai.recommend.embedding.max-batches:100}")
+    private final int _maxBatches;
+
+    @Override
+    public Result<Integer> indexStale() {
+        int saved = 0;
+        try {
+            for (int batch = 0; batch < _maxBatches; batch++) {
+                int savedInBatch = _barRepository.indexStaleEmbeddings(_batchSize);
+                saved += savedInBatch;
+                if (savedInBatch < _batchSize) break;
+            }
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+            return Result.fail(SimpleError.builder()
+                    .code(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                    .message("술집 임베딩 저장 실패")
+                    .cause(e)
+                    .build());
+        }
+
+        if (saved > 0) log.info("bar embedding: saved={}", saved);
+        return Result.ok(saved);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ssafy.sulmap.core.service.impl;
+
+import com.ssafy.sulmap.core.model.BarOpenInfoModel;
+import com.ssafy.sulmap.core.model.command.SaveOpenInfoSummaryCommand;
+import com.ssafy.sulmap.core.repository.BarRepository;
+import com.ssafy.sulmap.core.repository.OpenInfoSummaryRepository;
+import com.ssafy.sulmap.core.service.BarOpenInfoSummaryService;
+import com.ssafy.sulmap.share.result.Result;
+import com.ssafy.sulmap.share.result.error.impl.SimpleError;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 영업정보 오프라인 요약 배치
+ * - 요약이 없거나 요약 뒤 updated_at이 바뀐 술집만 batch-size개씩 읽어 요약 -> ES/DB 저장
+ * - 한 번 실행에 max-batches까지. 진척이 없으면(모델 장애 등) 다음 실행으로 미룬다
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BarOpenInfoSummaryServiceImpl implements BarOpenInfoSummaryService {
+
+    private final BarRepository _barRepository;
+    private final OpenInfoSummaryRepository _openInfoSummaryRepository;
+    @Value("${ai.recommend.open-info.batch-size:100}")
+    private final int _batchSize;
+    @Value("${ai.recommend.open-info.max-batches:50}")
+    private final int _maxBatches;
+
+    @Override
+    public Result<Integer> summarizeStale() {
+        int saved = 0;
+        try {
+            for (int batch = 0; batch < _maxBatches; batch++) {
+                List<BarOpenInfoModel> targets = _barRepository.findOpenInfoSummaryTargets(_batchSize);
+                if (targets.isEmpty()) break;
+
+                Map<Long, String> summaries = _openInfoSummaryRepository.summarize(targets);
+                List<SaveOpenInfoSummaryCommand> commands = new ArrayList<>(summaries.size());
+                for (BarOpenInfoModel target : targets) {
+                    String summary = summaries.get(target.getBarId());
+                    if (summary == null) continue;
+                    commands.add(SaveOpenInfoSummaryCommand.builder()
+                            .barId(target.getBarId())
+                            .summary(summary)
+                            .sourceUpdatedAt(target.getUpdatedAt())
+                            .build());
+                }
+
+                int savedInBatch = _barRepository.saveOpenInfoSummaries(commands);
+                saved += savedInBatch;
+                // 같은 대상만 다시 읽게 되므로 멈춤
+                if (savedInBatch == 0) break;
+                if (targets.size() < _batchSize) break;
+            }
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+            return Result.fail(SimpleError.builder()
+                    .code(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                    .message("영업정보 요약 저장 실패")
+                    .cause(e)
+                    .build());
+        }
+
+        log.info("open info summary: saved={}", saved);
+        return Result.ok(saved);
+    }
+}
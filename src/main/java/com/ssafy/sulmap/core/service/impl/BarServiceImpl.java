@@ -1,7 +1,10 @@
 package com.ssafy.sulmap.core.service.impl;
 
+import com.ssafy.sulmap.core.model.BarClusterModel;
 import com.ssafy.sulmap.core.model.BarListItemModel;
 import com.ssafy.sulmap.core.model.BarModel;
+import com.ssafy.sulmap.core.model.NearbyBarsPage;
+import com.ssafy.sulmap.core.model.query.BarClustersQuery;
 import com.ssafy.sulmap.core.model.query.NearbyBarsQuery;
 import com.ssafy.sulmap.core.repository.BarRepository;
 import com.ssafy.sulmap.core.service.BarService;
@@ -39,6 +42,50 @@ public class BarServiceImpl implements BarService {
         }
     }
 
+    @Override
+    public Result<NearbyBarsPage> findNearbyBarsPage(NearbyBarsQuery query) {
+        try {
+            return Result.ok(_barRepository.findNearbyPage(query));
+        }
+        catch (IllegalArgumentException e) {
+            return Result.fail(SimpleError.builder()
+                    .code(HttpStatus.BAD_REQUEST.value())
+                    .message(e.getMessage())
+                    .cause(e)
+                    .build());
+        }
+        catch (Exception e) {
+            return Result.fail(SimpleError.builder()
+                    .code(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                    .message("Internal server error")
+                    .metadata(Map.of("exception", e.getClass().getSimpleName()))
+                    .cause(e)
+                    .build());
+        }
+    }
+
+    @Override
+    public Result<List<BarClusterModel>> findBarClusters(BarClustersQuery query) {
+        // 위/아래가 뒤집힌 화면 (좌우는 날짜변경선을 넘으면 left > right 가 정상)
+        if (query.topLatitude() < query.bottomLatitude()) {
+            return Result.fail(SimpleError.builder()
+                    .code(HttpStatus.BAD_REQUEST.value())
+                    .message("topLatitude must be >= bottomLatitude")
+                    .build());
+        }
+        try {
+            return Result.ok(_barRepository.findClusters(query));
+        }
+        catch (Exception e) {
+            return Result.fail(SimpleError.builder()
+                    .code(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                    .message("Internal server error")
+                    .metadata(Map.of("exception", e.getClass().getSimpleName()))
+                    .cause(e)
+                    .build());
+        }
+    }
+
     @Override
     public Result<BarModel> findBarById(long id) {
         var result =  _barRepository.findById(id);
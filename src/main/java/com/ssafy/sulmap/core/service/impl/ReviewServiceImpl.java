@@ -19,6 +19,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -36,6 +37,12 @@ public class ReviewServiceImpl implements ReviewService {
         return Result.ok(summary);
     }
 
+    @Override
+    public Result<Map<Long, ReviewSummaryModel>> getSummaries(List<Long> barIds) {
+        if (barIds == null || barIds.isEmpty()) return Result.ok(Map.of());
+        return Result.ok(_reviewRepository.getSummaries(barIds));
+    }
+
     @Override
     public Result<List<ReviewModel>> listReviews(Long barId, String sort, int page, int size) {
         int offset = page * size;
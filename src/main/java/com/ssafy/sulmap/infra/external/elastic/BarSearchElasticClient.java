@@ -1,27 +1,38 @@
 package com.ssafy.sulmap.infra.external.elastic;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
 import co.elastic.clients.elasticsearch._types.DistanceUnit;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.GeoBounds;
+import co.elastic.clients.elasticsearch._types.GeoLocation;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch._types.GeoDistanceSort;
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.GeoTileGridBucket;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.JsonData;
+import com.ssafy.sulmap.core.model.enums.BarProjection;
+import com.ssafy.sulmap.core.model.query.BarClustersQuery;
 import com.ssafy.sulmap.core.model.query.NearbyBarsQuery;
+import com.ssafy.sulmap.infra.model.BarSearchDocument;
 import com.ssafy.sulmap.infra.model.BarSearchElasticEntity;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.OffsetDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -30,198 +41,331 @@ import java.util.Map;
 public class BarSearchElasticClient {
 
     private final ElasticsearchClient _elasticsearchClient;
-    private final ObjectMapper _objectMapper;
     private final String _indexName = "bars";
 
+    static final String EMBEDDING_FIELD = "embedding";
+    static final String EMBEDDING_MODEL_FIELD = "embedding_model";
+    // kNN 후보 탐색 폭 (HNSW num_candidates = k * factor, 최소/최대 제한)
+    private static final int KNN_CANDIDATE_FACTOR = 2;
+    private static final int MIN_KNN_CANDIDATES = 100;
+    private static final int MAX_KNN_CANDIDATES = 10_000;
+    // LIST projection에서 내려받는 _source 필드 (menu/open_information/일시 제외)
+    static final List<String> LIST_FIELDS = List.of(
+            "id", "name", "address", "latitude", "longitude", "base_category_name", "open_info_summary");
+    // 클러스터: 지도 줌보다 몇 단계 작은 타일로 묶을지, 최대 칸 수
+    static final int CLUSTER_PRECISION_OFFSET = 2;
+    private static final int MAX_GEOTILE_PRECISION = 29;
+    private static final int MAX_CLUSTERS = 2000;
+    private static final String CLUSTERS_AGG = "clusters";
+    private static final String CENTROID_AGG = "centroid";
 
-    public List<BarSearchElasticEntity> findNearby(NearbyBarsQuery query) throws IOException {
-        int size = Math.max(1, query.count());
-        String distance = Math.max(1, query.radiusMeters()) + "m";
 
-        SearchResponse<Map> resp = _elasticsearchClient.search(s -> s
-                        .index(_indexName)
-                        .size(size)
-                        .query(q -> q.bool(b -> {
-                            // 1) geo_distance filter (반경)
-                            b.filter(f -> f.geoDistance(g -> g
-                                    .field("location")
-                                    .distance(distance)
-                                    .location(loc -> loc.latlon(ll -> ll
-                                            .lat(query.latitude())
-                                            .lon(query.longitude())
-                                    ))
-                            ));
+    public List<BarSearchElasticEntity> findNearby(NearbyBarsQuery query) throws IOException {
+        return findNearby(query, null);
+    }
 
-                            // 2) soft delete 제외 (deleted_at 존재하면 제외)
-                            b.mustNot(mn -> mn.exists(e -> e.field("deleted_at")));
-
-                            // 3) category 필터 (base_category_name)
-                            if (hasText(query.category())) {
-                                b.filter(f -> f.term(t -> t
-                                        .field("base_category_name")
-                                        .value(query.category())
-                                ));
-                            }
-
-                            // 4) keyword 검색 (name/address/open_information)
-                            if (hasText(query.keyword())) {
-                                b.must(m -> m.multiMatch(mm -> mm
-                                        .query(query.keyword())
-                                        .fields("name^3", "address^1.5", "open_information")
-                                        .operator(Operator.And)
-                                ));
-                            }
-
-                            return b;
-                        }))
-                        // 정렬
-                        .sort(sort -> {
-                            String sortKey = query.sort() == null ? "distance" : query.sort().trim().toLowerCase();
-
-                            if ("distance".equals(sortKey)) {
-                                // 거리 오름차순
-                                sort.geoDistance(g -> g
-                                        .field("location")
-                                        .location(loc -> loc.latlon(ll -> ll
-                                                .lat(query.latitude())
-                                                .lon(query.longitude())
-                                        ))
-                                        .order(SortOrder.Asc)
-                                        .unit(DistanceUnit.Meters)
-                                );
-                            } else {
-                                // keyword 있으면 _score 우선
-                                sort.score(sc -> sc.order(SortOrder.Desc));
-
-                                // keyword 없으면 보조로 거리라도 안정적으로
-                                if (!hasText(query.keyword())) {
-                                    sort.geoDistance(g -> g
-                                            .field("location")
-                                            .location(loc -> loc.latlon(ll -> ll
-                                                    .lat(query.latitude())
-                                                    .lon(query.longitude())
-                                            ))
-                                            .order(SortOrder.Asc)
-                                            .unit(DistanceUnit.Meters)
-                                    );
-                                }
-                            }
-                            return sort;
-                        }),
-                Map.class
-        );
+    /**
+     * @param queryVector semanticText 임베딩. 주면 반경 안 kNN 상위 count개를 관련도순으로 앞에 두고,
+     *                    나머지(임베딩 없는 문서 포함)는 거리순으로 채운다 (query.sort는 무시)
+     */
+    public List<BarSearchElasticEntity> findNearby(NearbyBarsQuery query, float[] queryVector) throws IOException {
+        return findNearbyPage(query, queryVector).bars();
+    }
 
-        List<BarSearchElasticEntity> out = new ArrayList<>();
-        for (Hit<Map> hit : resp.hits().hits()) {
-            Map<String, Object> source = hit.source();
+    /**
+     * query.cursor가 있으면 그 다음부터 count개 (search_after라 몇 번째 페이지든 비용이 같다)
+     * - 다음 페이지가 있을 수 있으면(count개를 꽉 채웠으면) 마지막 hit의 sort 값으로 nextCursor를 만든다
+     * - kNN 하이브리드는 상위 k개 한 번뿐이라 커서를 쓰지 않는다 (nextCursor 항상 null)
+     *
+     * @throws IllegalArgumentException 커서가 깨졌거나 다른 검색 조건의 커서
+     */
+    public NearbyPage findNearbyPage(NearbyBarsQuery query, float[] queryVector) throws IOException {
+        SearchRequest request = nearbyRequest(query, queryVector);
+        int distanceSortIndex = distanceSortIndex(query, queryVector);
+
+        SearchResponse<BarSearchDocument> resp = _elasticsearchClient.search(request, BarSearchDocument.class);
+
+        List<Hit<BarSearchDocument>> hits = resp.hits().hits();
+        List<BarSearchElasticEntity> out = new ArrayList<>(hits.size());
+        for (Hit<BarSearchDocument> hit : hits) {
+            BarSearchDocument source = hit.source();
             if (source == null) continue;
 
-            BarSearchElasticEntity entity = mapSourceToEntity(source);
-
-            // distanceMeters: geo_distance sort 걸었을 때 hit.sort() 첫 값으로 보통 들어옴
-            entity.setDistanceMeters(extractDistanceMeters(hit));
-
-            out.add(entity);
+            // distanceMeters: geo_distance sort 걸었을 때 hit.sort()의 해당 위치 값
+            out.add(source.toEntity(extractDistanceMeters(hit, distanceSortIndex)));
         }
 
-        return out;
+        String nextCursor = null;
+        if (queryVector == null && !hits.isEmpty() && hits.size() >= request.size()) {
+            List<FieldValue> lastSort = hits.get(hits.size() - 1).sort();
+            if (lastSort != null && !lastSort.isEmpty()) nextCursor = NearbyCursor.encode(query, lastSort);
+        }
+        return new NearbyPage(out, nextCursor);
     }
 
-    private BarSearchElasticEntity mapSourceToEntity(Map<String, Object> s) {
-        BarSearchElasticEntity e = new BarSearchElasticEntity();
-
-        e.setId(asLong(s.get("id")));
-        e.setName(asString(s.get("name")));
-        e.setAddress(asString(s.get("address")));
-
-        // ES: base_category_name -> Java: baseCategoryName
-        e.setBaseCategoryName(asString(s.get("base_category_name")));
-
-        // ES: open_information -> Java: openInfo
-        e.setOpenInfo(asString(s.get("open_information")));
-
-        e.setLatitude(asDouble(s.get("latitude")));
-        e.setLongitude(asDouble(s.get("longitude")));
+    SearchRequest nearbyRequest(NearbyBarsQuery query, float[] queryVector) {
+        int size = Math.max(1, query.count());
+        boolean hybrid = queryVector != null;
+
+        return SearchRequest.of(s -> {
+            s.index(_indexName)
+                    .size(size)
+                    // 필요한 필드만 (임베딩 벡터는 어느 projection이든 제외)
+                    .source(src -> src.filter(f -> query.projection() == BarProjection.LIST
+                            ? f.includes(LIST_FIELDS)
+                            : f.excludes(EMBEDDING_FIELD)))
+                    .query(q -> q.bool(b -> {
+                        // 1) geo_distance(반경) + soft delete 제외 + category
+                        b.filter(candidateFilters(query));
+
+                        // 2) keyword 검색 (name/address/open_information)
+                        if (hasText(query.keyword())) {
+                            b.must(m -> m.multiMatch(mm -> mm
+                                    .query(query.keyword())
+                                    .fields("name^3", "address^1.5", "open_information")
+                                    .operator(Operator.And)
+                            ));
+                        }
+
+                        return b;
+                    }));
+
+            // 3) kNN: 같은 필터 안에서 임베딩이 가까운 순. 점수가 query 점수에 더해져 앞으로 온다
+            if (hybrid) {
+                int numCandidates = Math.min(MAX_KNN_CANDIDATES, Math.max(size * KNN_CANDIDATE_FACTOR, MIN_KNN_CANDIDATES));
+                List<Float> vector = new ArrayList<>(queryVector.length);
+                for (float v : queryVector) vector.add(v);
+                s.knn(k -> k
+                        .field(EMBEDDING_FIELD)
+                        .queryVector(vector)
+                        .k(Math.min(size, numCandidates))
+                        .numCandidates(numCandidates)
+                        .filter(candidateFilters(query)));
+            }
+
+            // 정렬
+            List<SortOptions> sorts = new ArrayList<>(3);
+            int distanceSortIndex = distanceSortIndex(query, queryVector);
+            if (distanceSortIndex != 0) {
+                // keyword/kNN 있으면 _score 우선
+                sorts.add(SortOptions.of(so -> so.score(sc -> sc.order(SortOrder.Desc))));
+            }
+            if (distanceSortIndex >= 0) {
+                // 거리 오름차순 (_score 뒤라면 keyword 없을 때/kNN 밖 후보를 안정적으로)
+                sorts.add(SortOptions.of(so -> so.geoDistance(distanceSort(query))));
+            }
+            if (!hybrid) {
+                // 같은 점수/거리끼리 순서 고정 (search_after가 경계에서 건너뛰거나 중복되지 않도록)
+                sorts.add(SortOptions.of(so -> so.field(f -> f.field("id").order(SortOrder.Asc))));
+                if (hasText(query.cursor())) {
+                    List<FieldValue> after = NearbyCursor.decode(query, query.cursor());
+                    if (after.size() != sorts.size()) throw new IllegalArgumentException("invalid cursor");
+                    s.searchAfter(after);
+                }
+            }
+            return s.sort(sorts);
+        });
+    }
 
-        // menu: object(enabled:false) 이지만 _source에는 남아있음 -> JSON 문자열로 변환
-        Object menu = s.get("menu");
-        e.setMenuJsonString(toJsonString(menu));
+    private List<Query> candidateFilters(NearbyBarsQuery query) {
+        String distance = Math.max(1, query.radiusMeters()) + "m";
+        List<Query> filters = new ArrayList<>(3);
+
+        filters.add(Query.of(f -> f.geoDistance(g -> g
+                .field("location")
+                .distance(distance)
+                .location(loc -> loc.latlon(ll -> ll
+                        .lat(query.latitude())
+                        .lon(query.longitude())
+                ))
+        )));
+        addBarFilters(filters, query.category());
+        return filters;
+    }
 
-        // created_at / updated_at / deleted_at
-        e.setCreatedAt(parseToDate(s.get("created_at")));
-        e.setUpdatedAt(parseToDate(s.get("updated_at")));
-        e.setDeletedAt(parseToDate(s.get("deleted_at")));
+    // soft delete 제외 (deleted_at 존재하면 제외) + category
+    private static void addBarFilters(List<Query> filters, String category) {
+        filters.add(Query.of(f -> f.bool(b -> b.mustNot(mn -> mn.exists(e -> e.field("deleted_at"))))));
 
-        return e;
+        if (hasText(category)) {
+            filters.add(Query.of(f -> f.term(t -> t
+                    .field("base_category_name")
+                    .value(category)
+            )));
+        }
     }
 
-    private Double extractDistanceMeters(Hit<?> hit) {
-        if (hit.sort() == null || hit.sort().isEmpty()) return null;
-        Object v = hit.sort().get(0);
-        if (v instanceof Number n) return n.doubleValue();
-        return null;
+    /**
+     * 화면 안 술집을 web mercator 타일 칸으로 묶은 개수 + 무게중심 (문서는 내려받지 않음, size 0)
+     * - 칸 크기: 지도 줌 + CLUSTER_PRECISION_OFFSET (지도 타일 하나를 4x4 칸으로)
+     * - 필터는 nearby와 같다 (soft delete 제외 + category)
+     */
+    public List<BarCluster> findClusters(BarClustersQuery query) throws IOException {
+        SearchResponse<Void> resp = _elasticsearchClient.search(clustersRequest(query), Void.class);
+
+        Aggregate clusters = resp.aggregations() == null ? null : resp.aggregations().get(CLUSTERS_AGG);
+        if (clusters == null || !clusters.isGeotileGrid()) return List.of();
+
+        List<GeoTileGridBucket> buckets = clusters.geotileGrid().buckets().array();
+        List<BarCluster> out = new ArrayList<>(buckets.size());
+        for (GeoTileGridBucket bucket : buckets) {
+            Aggregate centroid = bucket.aggregations().get(CENTROID_AGG);
+            GeoLocation location = centroid == null || !centroid.isGeoCentroid() ? null : centroid.geoCentroid().location();
+            if (location == null || !location.isLatlon()) continue;
+            out.add(new BarCluster(bucket.key(), bucket.docCount(), location.latlon().lat(), location.latlon().lon()));
+        }
+        return out;
     }
 
-    private String toJsonString(Object v) {
-        if (v == null) return null;
-        try {
-            return _objectMapper.writeValueAsString(v);
-        } catch (Exception ex) {
-            // 혹시 serialize 실패하면 fallback
-            return String.valueOf(v);
-        }
+    SearchRequest clustersRequest(BarClustersQuery query) {
+        int precision = Math.min(MAX_GEOTILE_PRECISION, Math.max(0, query.zoom() + CLUSTER_PRECISION_OFFSET));
+
+        List<Query> filters = new ArrayList<>(3);
+        filters.add(Query.of(f -> f.geoBoundingBox(g -> g
+                .field("location")
+                .boundingBox(bounds(query)))));
+        addBarFilters(filters, query.category());
+
+        return SearchRequest.of(s -> s
+                .index(_indexName)
+                .size(0)
+                .trackTotalHits(t -> t.enabled(false))
+                .query(q -> q.bool(b -> b.filter(filters)))
+                .aggregations(CLUSTERS_AGG, a -> a
+                        .geotileGrid(g -> g
+                                .field("location")
+                                .precision(precision)
+                                .size(MAX_CLUSTERS)
+                                // 화면 밖 칸은 만들지 않는다
+                                .bounds(bounds(query)))
+                        .aggregations(CENTROID_AGG, c -> c.geoCentroid(gc -> gc.field("location")))));
     }
 
-    private static boolean hasText(String s) {
-        return s != null && !s.trim().isEmpty();
+    private static GeoBounds bounds(BarClustersQuery query) {
+        return GeoBounds.of(b -> b.tlbr(t -> t
+                .topLeft(tl -> tl.latlon(ll -> ll.lat(query.topLatitude()).lon(query.leftLongitude())))
+                .bottomRight(br -> br.latlon(ll -> ll.lat(query.bottomLatitude()).lon(query.rightLongitude())))));
     }
 
-    private static String asString(Object v) {
-        return v == null ? null : String.valueOf(v);
+    private static GeoDistanceSort distanceSort(NearbyBarsQuery query) {
+        return GeoDistanceSort.of(g -> g
+                .field("location")
+                .location(loc -> loc.latlon(ll -> ll
+                        .lat(query.latitude())
+                        .lon(query.longitude())
+                ))
+                .order(SortOrder.Asc)
+                .unit(DistanceUnit.Meters)
+        );
     }
 
-    private static Long asLong(Object v) {
-        if (v == null) return null;
-        if (v instanceof Number n) return n.longValue();
-        try { return Long.parseLong(String.valueOf(v)); } catch (Exception e) { return null; }
+    // hit.sort()에서 거리 값 위치. 거리 정렬이 없으면 -1
+    private static int distanceSortIndex(NearbyBarsQuery query, float[] queryVector) {
+        String sortKey = query.sort() == null ? "distance" : query.sort().trim().toLowerCase();
+        if (queryVector == null && "distance".equals(sortKey)) return 0;
+        if (queryVector == null && hasText(query.keyword())) return -1;
+        return 1;
     }
 
-    private static Double asDouble(Object v) {
-        if (v == null) return null;
-        if (v instanceof Number n) return n.doubleValue();
-        try { return Double.parseDouble(String.valueOf(v)); } catch (Exception e) { return null; }
+    /**
+     * 영업정보 요약을 문서에 반영 (문서 _id와 무관하게 id 필드로 찾는다)
+     *
+     * @param summaries barId -> 요약
+     * @return 갱신된 문서 수
+     */
+    public long updateOpenInfoSummaries(Map<Long, String> summaries) throws IOException {
+        if (summaries == null || summaries.isEmpty()) return 0;
+
+        List<FieldValue> ids = new ArrayList<>(summaries.size());
+        Map<String, String> byId = new HashMap<>(summaries.size());
+        summaries.forEach((id, summary) -> {
+            ids.add(FieldValue.of(id));
+            byId.put(String.valueOf(id), summary);
+        });
+
+        var resp = _elasticsearchClient.updateByQuery(u -> u
+                .index(_indexName)
+                .conflicts(Conflicts.Proceed)
+                .query(q -> q.terms(t -> t.field("id").terms(tv -> tv.value(ids))))
+                .script(sc -> sc
+                        // 임베딩 텍스트가 바뀌므로 embedding_model을 지워 다시 계산 대상으로
+                        .source("ctx._source.open_info_summary = params.s[String.valueOf(ctx._source.id)];"
+                                + " ctx._source.remove('" + EMBEDDING_MODEL_FIELD + "')")
+                        .params("s", JsonData.of(byId))));
+        return resp.updated() == null ? 0 : resp.updated();
     }
 
-    private static final DateTimeFormatter FMT1 = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    private static Date parseToDate(Object v) {
-        if (v == null) return null;
+    /**
+     * 임베딩이 없거나 다른 모델로 계산된 문서 (id 순)
+     *
+     * @param model 현재 임베더 이름 (TextEmbedder.name)
+     */
+    public List<EmbeddingTarget> findEmbeddingTargets(String model, int size) throws IOException {
+        SearchResponse<BarSearchDocument> resp = _elasticsearchClient.search(s -> s
+                        .index(_indexName)
+                        .size(Math.max(1, size))
+                        .query(q -> q.bool(b -> b
+                                .mustNot(mn -> mn.term(t -> t.field(EMBEDDING_MODEL_FIELD).value(model)))
+                                .mustNot(mn -> mn.exists(e -> e.field("deleted_at")))))
+                        .sort(so -> so.field(f -> f.field("id").order(SortOrder.Asc)))
+                        .source(src -> src.filter(f -> f.excludes(EMBEDDING_FIELD))),
+                BarSearchDocument.class
+        );
 
-        // epoch millis
-        if (v instanceof Number n) {
-            return new Date(n.longValue());
+        List<EmbeddingTarget> out = new ArrayList<>();
+        for (Hit<BarSearchDocument> hit : resp.hits().hits()) {
+            if (hit.source() == null || hit.id() == null) continue;
+            out.add(new EmbeddingTarget(hit.id(), hit.source().toEntity(null)));
         }
+        return out;
+    }
 
-        String s = String.valueOf(v).trim();
-        if (s.isEmpty() || "null".equalsIgnoreCase(s)) return null;
+    /**
+     * 문서별 임베딩 저장 (bulk, 반영 후 반환). 벡터가 null이면 embedding 필드를 지우고 모델만 기록한다.
+     *
+     * @return 실패 없이 갱신된 문서 수
+     */
+    public int updateEmbeddings(String model, Map<String, float[]> vectorsByDocId) throws IOException {
+        if (vectorsByDocId == null || vectorsByDocId.isEmpty()) return 0;
+
+        List<BulkOperation> ops = new ArrayList<>(vectorsByDocId.size());
+        vectorsByDocId.forEach((docId, vector) -> {
+            Map<String, JsonData> params = new HashMap<>();
+            params.put("m", JsonData.of(model));
+            if (vector != null) params.put("v", JsonData.of(vector));
+            ops.add(BulkOperation.of(op -> op.update(u -> u
+                    .index(_indexName)
+                    .id(docId)
+                    .action(a -> a.script(sc -> sc
+                            .source("ctx._source." + EMBEDDING_MODEL_FIELD + " = params.m;"
+                                    + " if (params.v == null) { ctx._source.remove('" + EMBEDDING_FIELD + "') }"
+                                    + " else { ctx._source." + EMBEDDING_FIELD + " = params.v }")
+                            .params(params))))));
+        });
+
+        BulkResponse resp = _elasticsearchClient.bulk(b -> b.refresh(Refresh.WaitFor).operations(ops));
+        int updated = 0;
+        for (BulkResponseItem item : resp.items()) {
+            if (item.error() == null) updated++;
+        }
+        return updated;
+    }
 
-        // "yyyy-MM-dd HH:mm:ss"
-        try {
-            LocalDateTime ldt = LocalDateTime.parse(s, FMT1);
-            return Date.from(ldt.atZone(ZoneId.systemDefault()).toInstant());
-        } catch (DateTimeParseException ignore) {}
+    public record EmbeddingTarget(String docId, BarSearchElasticEntity bar) {}
 
-        // ISO-8601 계열 (strict_date_optional_time 등)
-        try {
-            Instant inst = Instant.parse(s);
-            return Date.from(inst);
-        } catch (DateTimeParseException ignore) {}
+    public record NearbyPage(List<BarSearchElasticEntity> bars, String nextCursor) {}
 
-        // 마지막 fallback: ZonedDateTime / OffsetDateTime
-        try {
-            return Date.from(OffsetDateTime.parse(s).toInstant());
-        } catch (Exception ignore) {}
+    public record BarCluster(String tile, long count, double latitude, double longitude) {}
 
+    private Double extractDistanceMeters(Hit<?> hit, int sortIndex) {
+        if (sortIndex < 0 || hit.sort() == null || hit.sort().size() <= sortIndex) return null;
+        FieldValue v = hit.sort().get(sortIndex);
+        if (v.isDouble()) return v.doubleValue();
+        if (v.isLong()) return (double) v.longValue();
         return null;
     }
-}
 
+    private static boolean hasText(String s) {
+        return s != null && !s.trim().isEmpty();
+    }
+}
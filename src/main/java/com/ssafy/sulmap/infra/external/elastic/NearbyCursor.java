@@ -0,0 +1,78 @@
+package com.ssafy.sulmap.infra.external.elastic;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import com.ssafy.sulmap.core.model.query.NearbyBarsQuery;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * nearby 검색 search_after 커서 (클라이언트에는 불투명한 문자열)
+ * - 내용: 검색 조건 fingerprint + 마지막 hit의 sort 값 (_score/거리 double, id long)
+ * - 조건(좌표/반경/keyword/category/sort)이 다른 요청에 쓰면 거부한다. count/projection은 바꿔도 된다
+ */
+final class NearbyCursor {
+
+    private static final String VERSION = "1";
+
+    private NearbyCursor() {}
+
+    static String encode(NearbyBarsQuery query, List<FieldValue> sortValues) {
+        StringBuilder sb = new StringBuilder(64)
+                .append(VERSION).append('|').append(Integer.toHexString(fingerprint(query))).append('|');
+        for (int i = 0; i < sortValues.size(); i++) {
+            FieldValue v = sortValues.get(i);
+            if (i > 0) sb.append(',');
+            if (v.isLong()) sb.append('l').append(v.longValue());
+            else if (v.isDouble()) sb.append('d').append(v.doubleValue());
+            else throw new IllegalArgumentException("unsupported sort value: " + v._kind());
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException 형식이 깨졌거나 다른 검색 조건의 커서
+     */
+    static List<FieldValue> decode(NearbyBarsQuery query, String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid cursor", e);
+        }
+
+        String[] parts = raw.split("\\|", -1);
+        if (parts.length != 3 || !VERSION.equals(parts[0]) || parts[2].isEmpty()) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+        if (!Integer.toHexString(fingerprint(query)).equals(parts[1])) {
+            throw new IllegalArgumentException("cursor does not match the search conditions");
+        }
+
+        String[] tokens = parts[2].split(",");
+        List<FieldValue> values = new ArrayList<>(tokens.length);
+        try {
+            for (String token : tokens) {
+                if (token.length() < 2) throw new IllegalArgumentException("invalid cursor");
+                String value = token.substring(1);
+                switch (token.charAt(0)) {
+                    case 'l' -> values.add(FieldValue.of(Long.parseLong(value)));
+                    case 'd' -> values.add(FieldValue.of(Double.parseDouble(value)));
+                    default -> throw new IllegalArgumentException("invalid cursor");
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid cursor", e);
+        }
+        return values;
+    }
+
+    // 정렬 순서에 영향을 주는 조건만
+    private static int fingerprint(NearbyBarsQuery query) {
+        return Objects.hash(query.latitude(), query.longitude(), query.radiusMeters(),
+                query.keyword(), query.category(), query.sort());
+    }
+}
@@ -0,0 +1,223 @@
+package com.ssafy.sulmap.infra.external.elastic;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ssafy.sulmap.core.model.enums.BarProjection;
+import com.ssafy.sulmap.core.model.query.NearbyBarsQuery;
+import com.ssafy.sulmap.infra.model.BarSearchElasticEntity;
+import com.ssafy.sulmap.infra.utils.GeoHash;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 주변 검색 타일 캐시: 지도 이동 중 거의 같은 좌표로 오는 요청을 ES 한 번으로
+ * - 키: 조회 좌표가 속한 geohash 셀(정밀도는 반경에 맞춰) + 반경/category/keyword/sort/projection
+ * - 값: 셀 안 어디서 조회해도 반경 안에 들 수 있는 술집 전체 (셀 중심 + 반경 + 셀 반대각선)
+ *   요청마다 실제 좌표로 거리/반경/정렬/개수를 다시 계산한다
+ * - superset이 상한(superset-max)에 걸리면 잘렸을 수 있으므로 그 셀은 캐시하지 않고 ES로 직접 (밀집 지역 + 큰 반경)
+ * - 거리순 첫 페이지만 (cursor 다음 페이지, 점수순 keyword 검색, kNN은 ES로 직접)
+ * - 목록 조회(findList, 커서 없음): superset을 채워 가며 가까운 count개를 바로 돌려준다
+ * - 페이지 조회(findPage, 커서 필요): 이미 채워진 셀에서 반경 안이 count 이하(다음 페이지 없음)일 때만 답한다
+ *   커서는 ES 정렬값(sort)으로만 만든다 (로컬 haversine 거리로 만든 커서는 ES 거리와 미세하게 달라
+ *   search_after에서 항목이 빠지거나 겹칠 수 있음). 페이지 조회로는 superset을 읽지 않는다:
+ *   다음 페이지가 있어 어차피 ES로 가야 하는 요청이 superset까지 읽으면 ES를 두 번 부르게 된다
+ * - Caffeine(W-TinyLFU)이라 한 번 스친 셀이 자주 쓰이는 셀을 밀어내지 않는다. TTL은 짧게 (외부 색인 갱신은 TTL로 반영)
+ * - 지표: cache.gets{cache=nearbyTile,result=hit|miss} 등
+ *   + bars.nearby.cache.bypass{reason=query|truncated|cold|full} (cold/full 은 페이지 조회만)
+ */
+@Component
+@Slf4j
+public class NearbyTileCache {
+
+    private static final String CACHE_NAME = "nearbyTile";
+    // 셀 크기 범위: 4 ≈ 39km x 20km, 8 ≈ 38m x 19m
+    private static final int MIN_PRECISION = 4;
+    private static final int MAX_PRECISION = 8;
+    // 경계에서의 반올림 여유
+    private static final double MARGIN_METERS = 1;
+
+    private final BarSearchElasticClient _barSearchElasticClient;
+    private final boolean _enabled;
+    private final int _supersetMax;
+    private final Cache<TileKey, TileEntry> _cache;
+    private final Counter _bypassQuery;
+    private final Counter _bypassTruncated;
+    private final Counter _bypassCold;
+    private final Counter _bypassFull;
+
+    @Autowired
+    public NearbyTileCache(
+            BarSearchElasticClient barSearchElasticClient,
+            MeterRegistry meterRegistry,
+            @Value("${bars.nearby.cache.enabled:true}") boolean enabled,
+            @Value("${bars.nearby.cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${bars.nearby.cache.max-size:2000}") long maxSize,
+            @Value("${bars.nearby.cache.superset-max:500}") int supersetMax
+    ) {
+        _barSearchElasticClient = barSearchElasticClient;
+        _enabled = enabled;
+        _supersetMax = supersetMax;
+        _cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, _cache, CACHE_NAME);
+        _bypassQuery = bypassCounter(meterRegistry, "query");
+        _bypassTruncated = bypassCounter(meterRegistry, "truncated");
+        _bypassCold = bypassCounter(meterRegistry, "cold");
+        _bypassFull = bypassCounter(meterRegistry, "full");
+    }
+
+    private static Counter bypassCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("bars.nearby.cache.bypass")
+                .description("Nearby searches sent straight to Elasticsearch instead of the tile cache")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 커서 없는 목록 조회: 실제 좌표 기준 가까운 count개 (필요하면 superset을 ES에서 읽어 채운다)
+     *
+     * @return 캐시 대상이 아니거나 superset이 잘린 셀이면 empty (호출부가 ES로 직접 조회)
+     */
+    public Optional<List<BarSearchElasticEntity>> findList(NearbyBarsQuery query) throws IOException {
+        var tile = tile(query);
+        if (tile == null) return Optional.empty();
+
+        TileEntry entry;
+        try {
+            entry = _cache.get(tile.key(), k -> load(k, tile.cell()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (!entry.complete()) {
+            _bypassTruncated.increment();
+            return Optional.empty();
+        }
+        var within = within(query, tile.key().radiusMeters(), entry.bars());
+        return Optional.of(withDistance(within.subList(0, Math.min(within.size(), Math.max(1, query.count())))));
+    }
+
+    /**
+     * 커서가 필요한 페이지 조회: 이미 채워진 셀에서 다음 페이지가 없을 때만 답한다 (superset은 읽지 않음)
+     *
+     * @return 캐시 대상이 아니거나, 셀이 비어 있거나 잘렸거나, 다음 페이지가 있으면 empty (호출부가 ES로 직접 조회)
+     */
+    public Optional<BarSearchElasticClient.NearbyPage> findPage(NearbyBarsQuery query) {
+        var tile = tile(query);
+        if (tile == null) return Optional.empty();
+
+        TileEntry entry = _cache.getIfPresent(tile.key());
+        if (entry == null) {
+            _bypassCold.increment();
+            return Optional.empty();
+        }
+        if (!entry.complete()) {
+            _bypassTruncated.increment();
+            return Optional.empty();
+        }
+        var within = within(query, tile.key().radiusMeters(), entry.bars());
+        if (within.size() > Math.max(1, query.count())) {
+            _bypassFull.increment();
+            return Optional.empty();
+        }
+        return Optional.of(new BarSearchElasticClient.NearbyPage(withDistance(within), null));
+    }
+
+    /** 술집 정보가 바뀌었을 때 (영업정보 요약 반영 등) */
+    public void invalidateAll() {
+        _cache.invalidateAll();
+    }
+
+    // 캐시 대상이면 조회 좌표의 셀과 키, 아니면 null
+    private Tile tile(NearbyBarsQuery query) {
+        if (!_enabled) return null;
+        if (!cacheable(query)) {
+            _bypassQuery.increment();
+            return null;
+        }
+        int radius = Math.max(1, query.radiusMeters());
+        int precision = GeoHash.precisionFor(radius, query.latitude(), MIN_PRECISION, MAX_PRECISION);
+        GeoHash.Cell cell = GeoHash.cell(query.latitude(), query.longitude(), precision);
+        TileKey key = new TileKey(cell.hash(), radius, blankToNull(query.category()), blankToNull(query.keyword()),
+                "distance", query.projection());
+        return new Tile(key, cell);
+    }
+
+    // 거리순 첫 페이지만: 다음 페이지는 ES search_after, 점수순은 셀 단위로 재현할 수 없다
+    private static boolean cacheable(NearbyBarsQuery query) {
+        if (query.cursor() != null && !query.cursor().isBlank()) return false;
+        String sort = query.sort() == null ? "distance" : query.sort().trim().toLowerCase();
+        return "distance".equals(sort);
+    }
+
+    private TileEntry load(TileKey key, GeoHash.Cell cell) {
+        int supersetRadius = (int) Math.ceil(key.radiusMeters() + cell.halfDiagonalMeters() + MARGIN_METERS);
+        var supersetQuery = new NearbyBarsQuery(cell.centerLat(), cell.centerLon(), supersetRadius, _supersetMax,
+                key.keyword(), key.category(), key.sort(), null, key.projection());
+        try {
+            var result = _barSearchElasticClient.findNearbyPage(supersetQuery, null);
+            // 상한만큼 꽉 찼으면(nextCursor 있음) 셀 안 일부 좌표에서 반경 안 술집이 빠졌을 수 있다
+            boolean complete = result.nextCursor() == null;
+            if (!complete) log.debug("nearby tile superset truncated: key={}, max={}", key, _supersetMax);
+            return new TileEntry(complete ? List.copyOf(result.bars()) : List.of(), complete);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 실제 좌표 기준 거리 -> 반경 필터 -> 거리/id 순 (ES 정렬과 같게)
+    private static List<Within> within(NearbyBarsQuery query, int radius, List<BarSearchElasticEntity> superset) {
+        List<Within> within = new ArrayList<>();
+        for (BarSearchElasticEntity bar : superset) {
+            if (bar.getLatitude() == null || bar.getLongitude() == null) continue;
+            double d = GeoHash.distanceMeters(query.latitude(), query.longitude(), bar.getLatitude(), bar.getLongitude());
+            if (d <= radius) within.add(new Within(bar, d));
+        }
+        within.sort(Comparator.comparingDouble(Within::distanceMeters)
+                .thenComparing(w -> w.bar().getId(), Comparator.nullsLast(Comparator.naturalOrder())));
+        return within;
+    }
+
+    // 캐시에 든 객체는 공유되므로 복사해서 거리만 채운다
+    private static List<BarSearchElasticEntity> withDistance(List<Within> within) {
+        List<BarSearchElasticEntity> bars = new ArrayList<>(within.size());
+        for (Within w : within) {
+            bars.add(w.bar().toBuilder().distanceMeters(w.distanceMeters()).build());
+        }
+        return bars;
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s;
+    }
+
+    long size() {
+        _cache.cleanUp();
+        return _cache.estimatedSize();
+    }
+
+    private record TileKey(String geohash, int radiusMeters, String category, String keyword, String sort,
+                           BarProjection projection) {}
+
+    private record Tile(TileKey key, GeoHash.Cell cell) {}
+
+    private record TileEntry(List<BarSearchElasticEntity> bars, boolean complete) {}
+
+    private record Within(BarSearchElasticEntity bar, double distanceMeters) {}
+}
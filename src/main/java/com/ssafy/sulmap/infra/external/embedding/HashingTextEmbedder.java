@@ -0,0 +1,69 @@
+package com.ssafy.sulmap.infra.external.embedding;
+
+import com.ssafy.sulmap.core.model.RecommendCacheKey;
+
+/**
+ * 외부 모델 없이 동작하는 feature hashing 임베더
+ * - 정규화(RecommendCacheKey.normalizePrompt) 후 토큰 + 토큰 내 글자 바이그램을 signed hashing으로 dims 차원에 누적
+ * - 바이그램은 조사/어미가 붙은 한글 토큰("이자카야에서", "사케나")도 원형과 겹치게 하려는 것
+ * - 의미 유사도까지는 못 잡지만, 요청문에 나온 카테고리/메뉴/분위기 단어와 겹치는 술집을 앞으로 당기기엔 충분하다
+ */
+public class HashingTextEmbedder implements TextEmbedder {
+
+    private static final float TOKEN_WEIGHT = 1.0f;
+    private static final float BIGRAM_WEIGHT = 0.5f;
+
+    private final int _dimensions;
+
+    public HashingTextEmbedder(int dimensions) {
+        if (dimensions <= 0) throw new IllegalArgumentException("dimensions must be positive");
+        _dimensions = dimensions;
+    }
+
+    @Override
+    public String name() {
+        return "hash-v1-" + _dimensions;
+    }
+
+    @Override
+    public int dimensions() {
+        return _dimensions;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[_dimensions];
+        String normalized = RecommendCacheKey.normalizePrompt(text);
+        if (normalized.isEmpty()) return vector;
+
+        for (String token : normalized.split(" ")) {
+            add(vector, "t:" + token, TOKEN_WEIGHT);
+            for (int i = 0; i + 1 < token.length(); i++) {
+                add(vector, "b:" + token.substring(i, i + 2), BIGRAM_WEIGHT);
+            }
+        }
+        normalize(vector);
+        return vector;
+    }
+
+    private void add(float[] vector, String feature, float weight) {
+        long h = mix(feature.hashCode());
+        int index = (int) Math.floorMod(h, (long) _dimensions);
+        vector[index] += (h >>> 63) == 0 ? weight : -weight;
+    }
+
+    // String.hashCode는 비슷한 문자열끼리 하위 비트가 몰리므로 한 번 섞는다 (splitmix64 finalizer)
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+
+    private static void normalize(float[] vector) {
+        double sum = 0;
+        for (float v : vector) sum += v * v;
+        if (sum == 0) return;
+        float norm = (float) Math.sqrt(sum);
+        for (int i = 0; i < vector.length; i++) vector[i] /= norm;
+    }
+}
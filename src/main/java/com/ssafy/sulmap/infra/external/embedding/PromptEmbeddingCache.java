@@ -0,0 +1,151 @@
+package com.ssafy.sulmap.infra.external.embedding;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ssafy.sulmap.core.model.RecommendCacheKey;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 요청문(userPrompt) 임베딩 캐시. 요청문을 벡터로 바꾸는 곳은 모두 이 빈을 거친다
+ * - 키: 정규화한 요청문 (NFKC/소문자/구두점 제거/공백 하나 + 홀로 쓰인 자모 제거)
+ *   정규화한 텍스트를 임베딩하므로 키가 같으면 벡터도 같다
+ * - 크기 상한(max-size)을 넘으면 Caffeine이 덜 쓰인 항목부터 내보낸다
+ * - path를 주면 종료 시 자주 쓰인 순서로 파일에 저장하고, 기동 시 같은 임베더로 만든 파일이면 다시 읽는다
+ * - 지표: cache.gets{cache=promptEmbedding,result=hit|miss} 등 + ai.recommend.embedding.cache.hit.ratio
+ *
+ * 술집 문서 임베딩은 거의 반복되지 않으므로 여기를 거치지 않는다.
+ */
+@Component
+@Slf4j
+public class PromptEmbeddingCache {
+
+    private static final String CACHE_NAME = "promptEmbedding";
+    private static final int FILE_VERSION = 1;
+    // 한글 호환 자모(ㄱ-ㅎ, ㅏ-ㅣ): "ㅋㅋ", "ㅠㅠ" 같은 감탄 표현. NFKC 전에 지워야 옆 자모와 음절로 합쳐지지 않는다
+    private static final Pattern COMPATIBILITY_JAMO = Pattern.compile("[\\u3130-\\u318F]+");
+    // NFKC 뒤에도 음절로 합쳐지지 못하고 남은 조합형 자모
+    private static final Pattern CONJOINING_JAMO = Pattern.compile("[\\u1100-\\u11FF]+");
+
+    private final TextEmbedder _textEmbedder;
+    private final Cache<String, float[]> _cache;
+    private final long _maxSize;
+    private final Path _path;
+
+    public PromptEmbeddingCache(
+            TextEmbedder textEmbedder,
+            MeterRegistry meterRegistry,
+            @Value("${ai.recommend.embedding.cache.max-size:10000}") long maxSize,
+            @Value("${ai.recommend.embedding.cache.path:}") String path
+    ) {
+        _textEmbedder = textEmbedder;
+        _maxSize = maxSize;
+        _path = path == null || path.isBlank() ? null : Path.of(path);
+        _cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, _cache, CACHE_NAME);
+        Gauge.builder("ai.recommend.embedding.cache.hit.ratio", _cache, c -> c.stats().hitRate())
+                .description("Prompt embedding cache hit ratio since startup")
+                .register(meterRegistry);
+
+        load();
+    }
+
+    /**
+     * 정규화한 요청문의 임베딩. 캐시에 든 배열을 그대로 돌려주므로 호출부에서 고치면 안 된다.
+     * 정규화 후 빈 문장이면 영벡터 (캐시하지 않음)
+     */
+    public float[] embed(String prompt) {
+        String key = normalize(prompt);
+        if (key.isEmpty()) return new float[_textEmbedder.dimensions()];
+        return _cache.get(key, _textEmbedder::embed);
+    }
+
+    public static String normalize(String prompt) {
+        if (prompt == null) return "";
+        String s = COMPATIBILITY_JAMO.matcher(prompt).replaceAll(" ");
+        s = RecommendCacheKey.normalizePrompt(s);
+        s = CONJOINING_JAMO.matcher(s).replaceAll(" ");
+        return s.replaceAll("\\s+", " ").trim();
+    }
+
+    long size() {
+        _cache.cleanUp();
+        return _cache.estimatedSize();
+    }
+
+    /**
+     * 자주 쓰인 항목부터 max-size개까지 파일로 (임시 파일에 쓰고 교체)
+     */
+    @PreDestroy
+    public void save() {
+        if (_path == null) return;
+
+        Map<String, float[]> hottest = _cache.policy().eviction()
+                .map(e -> e.hottest((int) Math.min(Integer.MAX_VALUE, _maxSize)))
+                .orElseGet(() -> new LinkedHashMap<>(_cache.asMap()));
+        try {
+            Path parent = _path.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, _path.getFileName().toString(), ".tmp");
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(FILE_VERSION);
+                out.writeUTF(_textEmbedder.name());
+                out.writeInt(_textEmbedder.dimensions());
+                out.writeInt(hottest.size());
+                for (Map.Entry<String, float[]> e : hottest.entrySet()) {
+                    out.writeUTF(e.getKey());
+                    for (float v : e.getValue()) out.writeFloat(v);
+                }
+            }
+            Files.move(tmp, _path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("prompt embedding cache saved: path={}, entries={}", _path, hottest.size());
+        } catch (IOException e) {
+            log.warn("prompt embedding cache save failed: path={}", _path, e);
+        }
+    }
+
+    // 없거나, 다른 임베더로 만든 파일이거나, 깨졌으면 빈 캐시로 시작
+    private void load() {
+        if (_path == null || !Files.isRegularFile(_path)) return;
+
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(_path)))) {
+            if (in.readInt() != FILE_VERSION) return;
+            String model = in.readUTF();
+            int dims = in.readInt();
+            if (!model.equals(_textEmbedder.name()) || dims != _textEmbedder.dimensions()) {
+                log.info("prompt embedding cache ignored: file model={}, current={}", model, _textEmbedder.name());
+                return;
+            }
+
+            int count = in.readInt();
+            int loaded = 0;
+            for (int i = 0; i < count && loaded < _maxSize; i++, loaded++) {
+                String key = in.readUTF();
+                float[] vector = new float[dims];
+                for (int d = 0; d < dims; d++) vector[d] = in.readFloat();
+                _cache.put(key, vector);
+            }
+            log.info("prompt embedding cache loaded: path={}, entries={}", _path, loaded);
+        } catch (IOException e) {
+            _cache.invalidateAll();
+            log.warn("prompt embedding cache load failed: path={}", _path, e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ssafy.sulmap.infra.external.embedding;
+
+/**
+ * 로컬 텍스트 임베더 (후보 kNN 검색용)
+ * - 술집 문서와 요청문을 같은 구현으로 임베딩해야 한다
+ * - dimensions()는 ES bars.embedding 매핑의 dims와 같아야 한다
+ * - name()이 바뀌면 (모델/차원 변경) 기존 문서 임베딩은 모두 다시 계산 대상이 된다
+ *
+ * 기본은 HashingTextEmbedder. 다른 모델(ONNX 등)을 쓰려면 @Primary 빈으로 등록한다.
+ */
+public interface TextEmbedder {
+
+    /**
+     * 모델 식별자 (ES embedding_model 필드에 기록)
+     */
+    String name();
+
+    int dimensions();
+
+    /**
+     * 길이 1로 정규화된 벡터. 쓸 만한 내용이 없으면 영벡터
+     */
+    float[] embed(String text);
+
+    static boolean isZero(float[] vector) {
+        if (vector == null) return true;
+        for (float v : vector) {
+            if (v != 0f) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,220 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import com.openai.core.RequestOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * OpenAI 호출 보호막
+ * - 단계별 타임아웃: RequestOptions.timeout 으로 호출마다 전달. GptCallScope 에 마감이 있으면 남은 시간으로 줄인다
+ *   (이미 지났으면 호출하지 않음, 줄인 타임아웃에 걸린 실패는 GPT 건강과 무관하므로 브레이커 창에 넣지 않는다)
+ * - 서킷 브레이커: 단계별. 열려 있으면 호출 없이 GptCircuitOpenException -> 호출부의 기존 폴백 순서
+ * - hedge(선택): 최근 성공 지연의 p 백분위까지 응답이 없으면 같은 요청을 한 번 더 보내고 먼저 성공한 쪽을 사용
+ *
+ * SDK 자체 재시도는 끄고(maxRetries=0) 여기서만 제어한다.
+ * shadow 호출(GptCallScope)은 서킷이 닫혀 있을 때만 보내고, 결과/지연은 기록하지 않는다 (hedge도 없음).
+ */
+@Slf4j
+public class GptCallGuard {
+
+    private static final int LATENCY_SAMPLES = 256;
+
+    public record Settings(
+            Duration stage1Timeout,
+            Duration stage2Timeout,
+            int breakerWindowSize,
+            int breakerMinimumCalls,
+            double breakerFailureRateThreshold,
+            Duration breakerOpenDuration,
+            boolean hedgeEnabled,
+            double hedgePercentile,
+            int hedgeMinSamples
+    ) {}
+
+    private final Settings _settings;
+    private final ExecutorService _hedgeExecutor;
+    private final Map<GptStage, GptCircuitBreaker> _breakers = new EnumMap<>(GptStage.class);
+    private final Map<GptStage, GptLatencyTracker> _latencies = new EnumMap<>(GptStage.class);
+    private final Map<GptStage, Counter> _shortCircuited = new EnumMap<>(GptStage.class);
+    private final Map<GptStage, Counter> _hedged = new EnumMap<>(GptStage.class);
+
+    public GptCallGuard(Settings settings, ExecutorService hedgeExecutor, MeterRegistry meterRegistry) {
+        this(settings, hedgeExecutor, meterRegistry, System::nanoTime);
+    }
+
+    GptCallGuard(Settings settings, ExecutorService hedgeExecutor, MeterRegistry meterRegistry, LongSupplier clock) {
+        _settings = settings;
+        _hedgeExecutor = hedgeExecutor;
+        for (GptStage stage : GptStage.values()) {
+            _breakers.put(stage, new GptCircuitBreaker(
+                    settings.breakerWindowSize(),
+                    settings.breakerMinimumCalls(),
+                    settings.breakerFailureRateThreshold(),
+                    settings.breakerOpenDuration().toNanos(),
+                    clock));
+            _latencies.put(stage, new GptLatencyTracker(LATENCY_SAMPLES));
+            _shortCircuited.put(stage, Counter.builder("ai.recommend.gpt.short_circuited")
+                    .tag("stage", stage.tag())
+                    .register(meterRegistry));
+            _hedged.put(stage, Counter.builder("ai.recommend.gpt.hedged")
+                    .tag("stage", stage.tag())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * call에 단계 타임아웃이 담긴 RequestOptions를 넘겨 실행한다.
+     * 응답 파싱까지 call 안에서 끝내야 형식이 깨진 응답도 실패로 집계된다.
+     */
+    public <T> T call(GptStage stage, Function<RequestOptions, T> call) {
+        GptCircuitBreaker breaker = _breakers.get(stage);
+        Duration timeout = timeoutOf(stage);
+        if (GptCallScope.isShadow()) return callShadow(stage, breaker, call, timeout);
+        if (!breaker.tryAcquire()) {
+            _shortCircuited.get(stage).increment();
+            throw new GptCircuitOpenException(stage);
+        }
+
+        boolean clamped = timeout.compareTo(stageTimeout(stage)) < 0;
+        RequestOptions options = RequestOptions.builder().timeout(timeout).build();
+        long start = System.nanoTime();
+        // Error 등 어떤 이유로 빠져나가도 결과는 반드시 기록한다 (HALF_OPEN 탐침이 걸린 채 남지 않도록)
+        boolean succeeded = false;
+        try {
+            T out = shouldHedge(stage)
+                    ? callHedged(stage, () -> call.apply(options), timeout)
+                    : call.apply(options);
+            succeeded = true;
+            _latencies.get(stage).record(System.nanoTime() - start);
+            return out;
+        } catch (GptStreamConsumerException e) {
+            // 응답은 정상적으로 오고 있었다: 실패로 세지 않고 지연 표본에도 넣지 않는다 (끊긴 시점까지라 짧음)
+            succeeded = true;
+            throw e;
+        } finally {
+            if (succeeded) breaker.onSuccess();
+            else if (clamped && System.nanoTime() - start >= timeout.toNanos()) breaker.onAbandoned();
+            else breaker.onFailure();
+        }
+    }
+
+    // HALF_OPEN 탐침 자리를 차지하지 않도록 상태만 보고, 실패가 primary 창에 섞이지 않게 기록하지 않는다
+    private <T> T callShadow(GptStage stage, GptCircuitBreaker breaker, Function<RequestOptions, T> call,
+                             Duration timeout) {
+        if (breaker.state() != GptCircuitBreaker.State.CLOSED) {
+            throw new GptCircuitOpenException(stage);
+        }
+        return call.apply(RequestOptions.builder().timeout(timeout).build());
+    }
+
+    GptCircuitBreaker.State state(GptStage stage) {
+        return _breakers.get(stage).state();
+    }
+
+    /**
+     * 단계 타임아웃과 마감까지 남은 시간 중 짧은 쪽. 마감이 지났으면 호출하지 않는다
+     */
+    private Duration timeoutOf(GptStage stage) {
+        Duration timeout = stageTimeout(stage);
+        Duration remaining = GptCallScope.remaining();
+        if (remaining == null || remaining.compareTo(timeout) >= 0) return timeout;
+        if (remaining.compareTo(Duration.ofMillis(1)) < 0) throw new GptDeadlineExceededException(stage);
+        return remaining;
+    }
+
+    private Duration stageTimeout(GptStage stage) {
+        return stage == GptStage.STAGE1 ? _settings.stage1Timeout() : _settings.stage2Timeout();
+    }
+
+    private boolean shouldHedge(GptStage stage) {
+        return _settings.hedgeEnabled() && stage.hedgeable() && _hedgeExecutor != null;
+    }
+
+    private <T> T callHedged(GptStage stage, Callable<T> attempt, Duration timeout) {
+        long hedgeDelay = _latencies.get(stage).percentile(_settings.hedgePercentile(), _settings.hedgeMinSamples());
+        // 표본이 부족하면 기준 지연을 모르니 hedge 없이
+        if (hedgeDelay < 0) return callUnchecked(attempt);
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+
+        Future<?> primary;
+        try {
+            primary = _hedgeExecutor.submit(() -> complete(winner, pending, attempt));
+        } catch (RejectedExecutionException e) {
+            return callUnchecked(attempt);
+        }
+
+        Future<?> backup = null;
+        try {
+            return winner.get(hedgeDelay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException slow) {
+            try {
+                backup = _hedgeExecutor.submit(() -> complete(winner, pending, attempt));
+                _hedged.get(stage).increment();
+                log.debug("gpt hedge: stage={}, after={}ms", stage.tag(), TimeUnit.NANOSECONDS.toMillis(hedgeDelay));
+            } catch (RejectedExecutionException e) {
+                // 보조 요청을 못 띄우면 원 요청만 기다림
+                pending.decrementAndGet();
+            }
+            return await(winner, deadline);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for GPT", e);
+        } finally {
+            primary.cancel(true);
+            if (backup != null) backup.cancel(true);
+        }
+    }
+
+    // 먼저 성공한 결과를 채택, 둘 다 실패해야 실패
+    private static <T> void complete(CompletableFuture<T> winner, AtomicInteger pending, Callable<T> attempt) {
+        try {
+            winner.complete(attempt.call());
+        } catch (Exception e) {
+            if (pending.decrementAndGet() <= 0) winner.completeExceptionally(e);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> winner, long deadline) {
+        try {
+            // SDK 타임아웃이 먼저 나야 정상. 여기는 안전망
+            return winner.get(Math.max(0, deadline - System.nanoTime()) + TimeUnit.SECONDS.toNanos(1), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("GPT call timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for GPT", e);
+        }
+    }
+
+    private static <T> T callUnchecked(Callable<T> attempt) {
+        try {
+            return attempt.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException re) return re;
+        return new IllegalStateException(cause);
+    }
+}
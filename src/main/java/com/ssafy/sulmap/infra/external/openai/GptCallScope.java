@@ -0,0 +1,60 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * 지금 스레드의 GPT 호출 문맥
+ * - shadow: shadow 평가 호출. GPT를 실제로 부르지만, primary 트래픽의 건강 판단에는 넣지 않는다
+ *   (GptCallGuard 서킷 브레이커 창/지연 표본, GptModelRouter 통계/탐침 순번)
+ * - 마감(deadline): 파이프라인이 결과를 기다리는 시각. 보호막이 호출 타임아웃을 남은 시간으로 줄인다
+ *   (Future.cancel 로는 실행 중인 SDK 호출이 멈추지 않는다)
+ * - 저장소가 요청(query.isShadow / query.gptDeadlineNanos) 기준으로 감싸고, 보호막/라우터는 여기만 본다
+ */
+public final class GptCallScope {
+
+    private static final ThreadLocal<Boolean> SHADOW = ThreadLocal.withInitial(() -> false);
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private GptCallScope() {}
+
+    /**
+     * shadow면 표시를 켠 채로 call을 실행한다 (끝나면 이전 값으로)
+     */
+    public static <T> T run(boolean shadow, Supplier<T> call) {
+        if (!shadow || SHADOW.get()) return call.get();
+        SHADOW.set(true);
+        try {
+            return call.get();
+        } finally {
+            SHADOW.remove();
+        }
+    }
+
+    /**
+     * run(shadow, call) + 마감(System.nanoTime 기준, null이면 단계 타임아웃만)
+     */
+    public static <T> T run(boolean shadow, Long deadlineNanos, Supplier<T> call) {
+        if (deadlineNanos == null) return run(shadow, call);
+        Long previous = DEADLINE.get();
+        DEADLINE.set(deadlineNanos);
+        try {
+            return run(shadow, call);
+        } finally {
+            if (previous == null) DEADLINE.remove();
+            else DEADLINE.set(previous);
+        }
+    }
+
+    static boolean isShadow() {
+        return SHADOW.get();
+    }
+
+    /**
+     * 마감까지 남은 시간 (마감이 없으면 null, 지났으면 0 이하)
+     */
+    static Duration remaining() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? null : Duration.ofNanos(deadline - System.nanoTime());
+    }
+}
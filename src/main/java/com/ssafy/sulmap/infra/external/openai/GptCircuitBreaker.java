@@ -0,0 +1,112 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 최근 N회 호출 결과(count 기반 슬라이딩 윈도우)로 판단하는 서킷 브레이커
+ * - CLOSED: 실패율이 임계치 이상이면(최소 호출 수 충족 시) OPEN
+ * - OPEN: openNanos 동안 호출 차단 -> 이후 HALF_OPEN
+ * - HALF_OPEN: 탐침 호출 1건만 허용. 성공하면 CLOSED, 실패하면 다시 OPEN
+ */
+final class GptCircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int _minimumCalls;
+    private final double _failureRateThreshold;
+    private final long _openNanos;
+    private final LongSupplier _clock;
+
+    // true = 실패
+    private final boolean[] _window;
+    private int _index;
+    private int _count;
+    private int _failures;
+
+    private State _state = State.CLOSED;
+    private long _openedAt;
+    private boolean _probeInFlight;
+
+    GptCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openNanos, LongSupplier clock) {
+        if (windowSize <= 0) throw new IllegalArgumentException("windowSize must be positive");
+        _window = new boolean[windowSize];
+        _minimumCalls = Math.min(Math.max(1, minimumCalls), windowSize);
+        _failureRateThreshold = failureRateThreshold;
+        _openNanos = openNanos;
+        _clock = clock;
+    }
+
+    /**
+     * 호출해도 되는지. true면 반드시 onSuccess/onFailure/onAbandoned 중 하나를 호출해야 한다.
+     */
+    synchronized boolean tryAcquire() {
+        if (_state == State.OPEN) {
+            if (_clock.getAsLong() - _openedAt < _openNanos) return false;
+            _state = State.HALF_OPEN;
+            _probeInFlight = false;
+        }
+        if (_state == State.HALF_OPEN) {
+            if (_probeInFlight) return false;
+            _probeInFlight = true;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        switch (_state) {
+            case HALF_OPEN -> close();
+            case CLOSED -> record(false);
+            case OPEN -> {
+                // 열리기 전에 시작된 호출의 뒤늦은 결과는 무시
+            }
+        }
+    }
+
+    synchronized void onFailure() {
+        switch (_state) {
+            case HALF_OPEN -> open();
+            case CLOSED -> {
+                record(true);
+                if (_count >= _minimumCalls && (double) _failures / _count >= _failureRateThreshold) open();
+            }
+            case OPEN -> {
+            }
+        }
+    }
+
+    /**
+     * 결과를 판단할 수 없는 호출(호출부 마감으로 잘림): 창에 넣지 않고 HALF_OPEN 탐침 자리만 돌려준다
+     */
+    synchronized void onAbandoned() {
+        if (_state == State.HALF_OPEN) _probeInFlight = false;
+    }
+
+    synchronized State state() {
+        return _state;
+    }
+
+    private void record(boolean failure) {
+        if (_count == _window.length) {
+            if (_window[_index]) _failures--;
+        } else {
+            _count++;
+        }
+        _window[_index] = failure;
+        if (failure) _failures++;
+        _index = (_index + 1) % _window.length;
+    }
+
+    private void open() {
+        _state = State.OPEN;
+        _openedAt = _clock.getAsLong();
+        _probeInFlight = false;
+    }
+
+    private void close() {
+        _state = State.CLOSED;
+        _probeInFlight = false;
+        _index = 0;
+        _count = 0;
+        _failures = 0;
+    }
+}
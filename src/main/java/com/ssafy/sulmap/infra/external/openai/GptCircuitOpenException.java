@@ -0,0 +1,10 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+/**
+ * 서킷이 열려 GPT 호출 없이 실패 처리됨 (호출부는 기존 폴백 순서로 대체)
+ */
+public class GptCircuitOpenException extends RuntimeException {
+    public GptCircuitOpenException(GptStage stage) {
+        super("GPT circuit open: stage=" + stage.tag());
+    }
+}
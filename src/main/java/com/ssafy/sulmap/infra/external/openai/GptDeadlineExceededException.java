@@ -0,0 +1,10 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+/**
+ * 파이프라인 마감이 이미 지나 GPT 호출 없이 실패 처리됨 (결과를 기다리는 쪽이 없다)
+ */
+public class GptDeadlineExceededException extends RuntimeException {
+    public GptDeadlineExceededException(GptStage stage) {
+        super("GPT deadline exceeded before call: stage=" + stage.tag());
+    }
+}
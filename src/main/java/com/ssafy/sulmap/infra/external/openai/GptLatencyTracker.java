@@ -0,0 +1,37 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import java.util.Arrays;
+
+/**
+ * 최근 성공 호출 지연(ns) 링버퍼. hedge 지연(백분위) 계산용
+ */
+final class GptLatencyTracker {
+
+    private final long[] _samples;
+    private int _index;
+    private int _count;
+
+    GptLatencyTracker(int capacity) {
+        _samples = new long[capacity];
+    }
+
+    synchronized void record(long nanos) {
+        _samples[_index] = nanos;
+        _index = (_index + 1) % _samples.length;
+        if (_count < _samples.length) _count++;
+    }
+
+    /**
+     * @return p 백분위 (0~1), 표본이 minSamples 미만이면 -1
+     */
+    long percentile(double p, int minSamples) {
+        long[] copy;
+        synchronized (this) {
+            if (_count == 0 || _count < minSamples) return -1;
+            copy = Arrays.copyOf(_samples, _count);
+        }
+        Arrays.sort(copy);
+        int idx = (int) Math.ceil(p * copy.length) - 1;
+        return copy[Math.max(0, Math.min(copy.length - 1, idx))];
+    }
+}
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import com.openai.client.OpenAIClient;
 import com.openai.models.responses.ResponseCreateParams;
 import com.openai.models.responses.StructuredResponseCreateParams;
+import com.ssafy.sulmap.infra.utils.GptBatchText;
+import com.ssafy.sulmap.infra.utils.GptTokenEstimator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -15,18 +17,22 @@ import java.util.regex.Pattern;
 @RequiredArgsConstructor
 public class GptMinorRecommendClient {
 
-    private static final String MODEL = "gpt-5.2";
     private static final long MAX_OUTPUT_TOKENS = 5000;
 
-    // batch 라인 포맷: "B|id=123|..."
-    private static final Pattern BATCH_ID_PATTERN = Pattern.compile("(?m)^B\\|id=(\\d+)\\b");
+    // batch 라인 포맷: "B|id=123|..." (LEGACY) / "B|3|..." (COMPACT, 순번)
+    private static final Pattern BATCH_ID_PATTERN = Pattern.compile("(?m)^B\\|(?:id=)?(\\d+)\\b");
 
     private final OpenAIClient _OpenAIClient;
+    private final GptTokenUsageRecorder _tokenUsageRecorder;
+    private final GptCallGuard _gptCallGuard;
+    private final GptReplayStore _gptReplayStore;
+    private final GptModelRouter _gptModelRouter;
 
     /**
      * 1차(배치) 토너먼트: 후보(batch) 안에서 topK개 barId만 선택
+     * COMPACT 배치면 GPT는 순번을 고르고, 반환값은 barId로 되돌린 값
      */
-    public MinorRankerOutput rank(int topK, String ctx, String batch) {
+    public MinorRankerOutput rank(int topK, String ctx, GptBatchText batch) {
         if (topK <= 0) throw new IllegalArgumentException("topK must be positive");
         Objects.requireNonNull(ctx, "ctx");
         Objects.requireNonNull(batch, "batch");
@@ -36,47 +42,54 @@ public class GptMinorRecommendClient {
             throw new IllegalArgumentException("No barIds found in batch. Expected lines like: B|id=123|...");
         }
 
-        String input = stageInstructions(topK, ctx, batch);
+        String instructions = batch.isCompact() ? COMPACT_INSTRUCTIONS : LEGACY_INSTRUCTIONS;
+        String input = stageInput(topK, ctx, batch);
+        _tokenUsageRecorder.recordEncoding(GptStage.STAGE1.tag(), batch);
 
+        String model = _gptModelRouter.select(GptStage.STAGE1);
         StructuredResponseCreateParams<MinorRankerOutput> params = ResponseCreateParams.builder()
-                .model(MODEL)
-                .instructions(systemInstructions())
+                .model(model)
+                .instructions(instructions)
                 .input(input)
+                .promptCacheKey(GptPromptFormat.cacheKey(GptStage.STAGE1.tag(), batch))
      //           .maxOutputTokens(MAX_OUTPUT_TOKENS)
                 .text(MinorRankerOutput.class)
                 .build();
 
-        var response = _OpenAIClient.responses().create(params);
-
-        MinorRankerOutput out = response.output().stream()
-                .flatMap(item -> item.message().stream())
-                .flatMap(msg -> msg.content().stream())
-                .flatMap(content -> content.outputText().stream())
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException("No structured output returned"));
-
-        return normalize(out, topK, allowed);
+        int estimatedInputTokens = GptTokenEstimator.estimate(instructions) + GptTokenEstimator.estimate(input);
+        MinorRankerOutput out = _gptCallGuard.call(GptStage.STAGE1, options ->
+                _gptModelRouter.observe(GptStage.STAGE1, model, () ->
+                        _gptReplayStore.call(GptStage.STAGE1, instructions, input, options, MinorRankerOutput.class, () -> {
+                            var response = _OpenAIClient.responses().create(params, options);
+                            _tokenUsageRecorder.record(GptStage.STAGE1.tag(), model, estimatedInputTokens, response.usage());
+
+                            return response.output().stream()
+                                    .flatMap(item -> item.message().stream())
+                                    .flatMap(msg -> msg.content().stream())
+                                    .flatMap(content -> content.outputText().stream())
+                                    .findFirst()
+                                    .orElseThrow(() -> new IllegalStateException("No structured output returned"));
+                        })));
+
+        return normalize(out, topK, allowed, batch, model);
     }
 
     // ===== Prompt =====
 
-    private String stageInstructions(int topK, String ctx, String batch) {
+    // 정적 프롬프트는 인코딩별 상수: 호출마다 바이트 단위로 같아야 provider prompt cache의 prefix가 맞는다
+    static final String LEGACY_INSTRUCTIONS = systemInstructions(false);
+    static final String COMPACT_INSTRUCTIONS = systemInstructions(true);
+
+    /**
+     * 요청마다 바뀌는 부분만 (정적 지시 뒤에 붙는다).
+     * 같은 요청의 배치들은 TASK/CTX까지 같으므로 B 라인 앞까지 prefix가 더 길게 맞는다.
+     */
+    private String stageInput(int topK, String ctx, GptBatchText batch) {
         return String.join("\n",
-                "아래 CTX와 후보(B 라인)만 보고, 이 배치에서 Top " + topK + "의 barId를 선택해라.",
-                "",
+                "[TASK] K=" + topK + ": 이 배치에서 Top " + topK + "의 barId를 선택해라.",
                 "[INPUT]",
                 ctx,
-                batch,
-                "",
-                "[OUTPUT JSON]",
-                "{ \"selected\": [123, 456, 789] }",
-                "",
-                "제약:",
-                "- selected는 정확히 " + topK + "개",
-                "- barId 중복 금지",
-                "- 반드시 B 라인에 존재하는 barId만 선택",
-                "- JSON만 출력(설명/마크다운 금지)",
-                "- selected의 순서는 추천 순위(앞이 더 추천)"
+                batch.text()
         );
     }
 
@@ -84,7 +97,7 @@ public class GptMinorRecommendClient {
      * ✅ 여기서 “외부 지식/상식으로 보완”을 허용.
      * 단, 후보 밖 생성 금지/후보 라인 기반 판단 우선은 유지.
      */
-    private String systemInstructions() {
+    private static String systemInstructions(boolean compact) {
         return String.join("\n",
                 "너는 \"후보 축소\" 전용 랭커다.",
                 "반드시 입력으로 주어진 B 라인(후보) 안에서만 선택한다.",
@@ -99,7 +112,19 @@ public class GptMinorRecommendClient {
                 "4) rt 높음, rc 많음 순",
                 "힌트:",
                 "- 사용 가능한 후보 정보는 B 라인의 c(카테고리), oi(영업정보요약), n(이름요약), menu(메뉴) 뿐이다.",
-                "- CTX의 q(요청), w(날씨), ts(시간)를 반영해 취향/상황 적합도를 판단하라."
+                "- CTX의 q(요청), w(날씨), ts(시간)를 반영해 취향/상황 적합도를 판단하라.",
+                "",
+                "[OUTPUT JSON]",
+                "{ \"selected\": [123, 456, 789] }",
+                "",
+                "제약:",
+                "- selected는 정확히 TASK의 K개",
+                "- barId 중복 금지",
+                "- 반드시 B 라인에 존재하는 barId만 선택",
+                "- JSON만 출력(설명/마크다운 금지)",
+                "- selected의 순서는 추천 순위(앞이 더 추천)",
+                compact ? GptPromptFormat.COMPACT_GUIDE : "",
+                "입력은 [TASK] 한 줄, [INPUT] 아래 CTX 한 줄과 후보(B 라인)로 주어진다."
         );
     }
 
@@ -115,25 +140,34 @@ public class GptMinorRecommendClient {
 
     // ===== Normalization / Validation =====
 
-    private MinorRankerOutput normalize(MinorRankerOutput out, int topK, List<Long> allowedInOrder) {
+    private MinorRankerOutput normalize(MinorRankerOutput out, int topK, List<Long> allowedInOrder, GptBatchText batch,
+                                        String model) {
         Set<Long> allowedSet = new HashSet<>(allowedInOrder);
 
-        // 1) 후보 밖 제거 + 중복 제거 + 순서 유지
+        // 1) 라인 키 -> barId + 후보 밖 제거 + 중복 제거 + 순서 유지
         LinkedHashSet<Long> uniq = new LinkedHashSet<>();
         List<Long> selected = (out == null || out.selected == null) ? List.of() : out.selected;
-
-        for (Long id : selected) {
-            if (id == null) continue;
-            if (!allowedSet.contains(id)) continue;
-            uniq.add(id);
+        int unknown = 0;
+        int duplicate = 0;
+
+        for (Long key : selected) {
+            if (key == null) continue;
+            Long id = batch.toBarId(key);
+            if (id == null || !allowedSet.contains(id)) {
+                unknown++;
+                continue;
+            }
+            if (!uniq.add(id)) duplicate++;
             if (uniq.size() >= topK) break;
         }
 
         // 2) 부족하면 배치 순서대로 채우기(폴백)
+        int filled = 0;
         for (Long id : allowedInOrder) {
             if (uniq.size() >= topK) break;
-            uniq.add(id);
+            if (uniq.add(id)) filled++;
         }
+        _tokenUsageRecorder.recordNormalized(GptStage.STAGE1.tag(), model, unknown, duplicate, filled);
 
         // 3) topK로 자르기
         List<Long> normalized = new ArrayList<>(topK);
@@ -147,11 +181,13 @@ public class GptMinorRecommendClient {
         return new MinorRankerOutput(normalized);
     }
 
-    private List<Long> extractBarIds(String batch) {
-        Matcher m = BATCH_ID_PATTERN.matcher(batch);
+    // 라인 순서대로 barId (COMPACT면 순번을 barId로 되돌림)
+    private List<Long> extractBarIds(GptBatchText batch) {
+        Matcher m = BATCH_ID_PATTERN.matcher(batch.text());
         LinkedHashSet<Long> ids = new LinkedHashSet<>();
         while (m.find()) {
-            ids.add(Long.parseLong(m.group(1)));
+            Long id = batch.toBarId(Long.parseLong(m.group(1)));
+            if (id != null) ids.add(id);
         }
         return new ArrayList<>(ids);
     }
@@ -0,0 +1,198 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 단계별 GPT 모델 선택
+ * - 단계마다 기본(primary) 모델과 선택적 대체(fallback) 모델을 둔다
+ * - (단계, 모델)별 최근 성공 지연 p95 / 오류율을 관찰해, primary가 임계를 넘으면 fallback으로 돌린다
+ *   (fallback도 오류율 임계를 넘었으면 돌리지 않는다)
+ * - 돌린 동안에도 probeEvery건마다 1건은 primary로 보내 회복 여부를 계속 본다
+ * - 지표: ai.recommend.gpt.model.latency{stage,model,outcome}, ai.recommend.gpt.model.routed{stage,model,reason}
+ *
+ * 서킷 브레이커/타임아웃은 단계 단위로 GptCallGuard가 맡고, 여기서는 모델 선택만 한다.
+ * shadow 호출(GptCallScope)은 현재 판단대로 모델만 받고 통계/탐침 순번/지표에는 남기지 않는다.
+ */
+@Slf4j
+public class GptModelRouter {
+
+    private static final double LATENCY_PERCENTILE = 0.95;
+
+    public record StageModels(String primary, String fallback) {
+
+        public StageModels {
+            if (primary == null || primary.isBlank()) throw new IllegalArgumentException("primary model is required");
+            fallback = (fallback == null || fallback.isBlank() || fallback.equals(primary)) ? null : fallback;
+        }
+
+        boolean canShift() {
+            return fallback != null;
+        }
+    }
+
+    public record Settings(
+            Map<GptStage, StageModels> models,
+            long p95ThresholdMs,
+            double errorRateThreshold,
+            int windowSize,
+            int minSamples,
+            int probeEvery
+    ) {}
+
+    private final Settings _settings;
+    private final MeterRegistry _meterRegistry;
+    private final Map<GptStage, Map<String, ModelStats>> _stats = new EnumMap<>(GptStage.class);
+    private final Map<GptStage, AtomicLong> _shifted = new EnumMap<>(GptStage.class);
+
+    public GptModelRouter(Settings settings, MeterRegistry meterRegistry) {
+        for (GptStage stage : GptStage.values()) {
+            if (!settings.models().containsKey(stage)) throw new IllegalArgumentException("no model for " + stage);
+            _stats.put(stage, new ConcurrentHashMap<>());
+            _shifted.put(stage, new AtomicLong());
+        }
+        _settings = settings;
+        _meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 모든 단계가 같은 모델 하나만 쓰는 라우터 (전환 없음)
+     */
+    public static GptModelRouter fixed(String model, MeterRegistry meterRegistry) {
+        Map<GptStage, StageModels> models = new EnumMap<>(GptStage.class);
+        for (GptStage stage : GptStage.values()) models.put(stage, new StageModels(model, null));
+        return new GptModelRouter(new Settings(models, Long.MAX_VALUE, 1.0, 1, 1, 1), meterRegistry);
+    }
+
+    /**
+     * 이번 호출에 쓸 모델. hedge 보조 요청도 같은 모델을 쓰도록 논리 호출당 한 번만 고른다.
+     */
+    public String select(GptStage stage) {
+        StageModels models = _settings.models().get(stage);
+        String model = models.primary();
+        String reason = "primary";
+
+        if (models.canShift()) {
+            String degraded = degradation(stage, models.primary());
+            if (degraded != null && !isFailing(stage, models.fallback())) {
+                // shadow는 탐침 순번을 쓰지 않고 현재 판단대로
+                if (GptCallScope.isShadow()) return models.fallback();
+                if (_shifted.get(stage).incrementAndGet() % Math.max(1, _settings.probeEvery()) == 0) {
+                    reason = "probe";
+                } else {
+                    model = models.fallback();
+                    reason = degraded;
+                    log.debug("gpt model shift: stage={}, {} -> {}, reason={}", stage.tag(), models.primary(), model, reason);
+                }
+            }
+        }
+
+        if (GptCallScope.isShadow()) return model;
+        Counter.builder("ai.recommend.gpt.model.routed")
+                .tag("stage", stage.tag())
+                .tag("model", model)
+                .tag("reason", reason)
+                .register(_meterRegistry)
+                .increment();
+        return model;
+    }
+
+    /**
+     * call 실행 시간과 성공 여부를 (단계, 모델) 통계에 반영한다
+     */
+    public <T> T observe(GptStage stage, String model, Supplier<T> call) {
+        if (GptCallScope.isShadow()) return call.get();
+        long start = System.nanoTime();
+        try {
+            T out = call.get();
+            record(stage, model, System.nanoTime() - start, true);
+            return out;
+        } catch (GptStreamConsumerException e) {
+            // 받는 쪽 실패는 모델 오류율/지연에 넣지 않는다
+            throw e;
+        } catch (RuntimeException e) {
+            record(stage, model, System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+
+    void record(GptStage stage, String model, long nanos, boolean success) {
+        stats(stage, model).record(nanos, success);
+        Timer.builder("ai.recommend.gpt.model.latency")
+                .tag("stage", stage.tag())
+                .tag("model", model)
+                .tag("outcome", success ? "success" : "failure")
+                .register(_meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // primary를 피해야 하는 이유 (없으면 null)
+    private String degradation(GptStage stage, String model) {
+        ModelStats stats = _stats.get(stage).get(model);
+        if (stats == null) return null;
+        if (stats.errorRate(_settings.minSamples()) >= _settings.errorRateThreshold()) return "error_rate";
+        long p95 = stats.latency().percentile(LATENCY_PERCENTILE, _settings.minSamples());
+        if (p95 > TimeUnit.MILLISECONDS.toNanos(_settings.p95ThresholdMs())) return "latency";
+        return null;
+    }
+
+    private boolean isFailing(GptStage stage, String model) {
+        ModelStats stats = _stats.get(stage).get(model);
+        return stats != null && stats.errorRate(_settings.minSamples()) >= _settings.errorRateThreshold();
+    }
+
+    private ModelStats stats(GptStage stage, String model) {
+        return _stats.get(stage).computeIfAbsent(model, m -> new ModelStats(_settings.windowSize()));
+    }
+
+    /**
+     * 최근 windowSize건의 성공 지연과 성공/실패 (count 기반 슬라이딩 윈도우)
+     */
+    private static final class ModelStats {
+        private final GptLatencyTracker _latency;
+        // true = 실패
+        private final boolean[] _outcomes;
+        private int _index;
+        private int _count;
+        private int _failures;
+
+        ModelStats(int windowSize) {
+            if (windowSize <= 0) throw new IllegalArgumentException("windowSize must be positive");
+            _latency = new GptLatencyTracker(windowSize);
+            _outcomes = new boolean[windowSize];
+        }
+
+        GptLatencyTracker latency() {
+            return _latency;
+        }
+
+        void record(long nanos, boolean success) {
+            if (success) _latency.record(nanos);
+            synchronized (this) {
+                if (_count == _outcomes.length) {
+                    if (_outcomes[_index]) _failures--;
+                } else {
+                    _count++;
+                }
+                _outcomes[_index] = !success;
+                if (!success) _failures++;
+                _index = (_index + 1) % _outcomes.length;
+            }
+        }
+
+        /** 표본이 minSamples 미만이면 0 */
+        synchronized double errorRate(int minSamples) {
+            if (_count == 0 || _count < minSamples) return 0;
+            return (double) _failures / _count;
+        }
+    }
+}
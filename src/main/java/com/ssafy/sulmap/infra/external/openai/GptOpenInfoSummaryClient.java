@@ -0,0 +1,189 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.openai.client.OpenAIClient;
+import com.openai.client.okhttp.OpenAIOkHttpClient;
+import com.openai.core.RequestOptions;
+import com.openai.models.responses.ResponseCreateParams;
+import com.openai.models.responses.StructuredResponseCreateParams;
+import com.ssafy.sulmap.infra.utils.GptTokenEstimator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * 영업정보(open_information) 원문 -> 정규화 요약 (오프라인 배치용)
+ * - 출력 형식: "{영업시간} / 휴무 {요일,..} / LO {HH:mm}" (없는 항목은 생략)
+ * - base-url을 주면 그 주소(OpenAI 호환 로컬 모델/스텁)로 호출하고, 비우면 기본 OpenAI 클라이언트를 쓴다
+ * - 추천 요청 경로가 아니므로 GptCallGuard/라우터를 거치지 않고 호출 타임아웃만 둔다
+ */
+@Component
+@Slf4j
+public class GptOpenInfoSummaryClient {
+
+    public static final String STAGE = "open_info";
+    static final int MAX_SUMMARY_LENGTH = 60;
+    private static final int MAX_SOURCE_LENGTH = 300;
+    private static final Pattern TIME_PATTERN = Pattern.compile("([01]?\\d|2[0-9]):[0-5]\\d");
+    private static final Set<String> DAYS = Set.of("월", "화", "수", "목", "금", "토", "일", "공휴일", "연중무휴");
+
+    private final OpenAIClient _OpenAIClient;
+    private final GptTokenUsageRecorder _tokenUsageRecorder;
+    private final String _model;
+    private final Duration _timeout;
+
+    @Autowired
+    public GptOpenInfoSummaryClient(
+            OpenAIClient openAIClient,
+            GptTokenUsageRecorder tokenUsageRecorder,
+            @Value("${ai.recommend.open-info.base-url:}") String baseUrl,
+            @Value("${ai.recommend.open-info.api-key:local}") String apiKey,
+            @Value("${ai.recommend.open-info.model:gpt-5-mini}") String model,
+            @Value("${ai.recommend.open-info.timeout-ms:60000}") long timeoutMs
+    ) {
+        this(baseUrl.isBlank()
+                        ? openAIClient
+                        : OpenAIOkHttpClient.builder().baseUrl(baseUrl).apiKey(apiKey).maxRetries(0).build(),
+                tokenUsageRecorder, model, Duration.ofMillis(timeoutMs));
+        if (!baseUrl.isBlank()) log.info("open info summary client: baseUrl={}, model={}", baseUrl, model);
+    }
+
+    public GptOpenInfoSummaryClient(OpenAIClient openAIClient, GptTokenUsageRecorder tokenUsageRecorder,
+                                    String model, Duration timeout) {
+        _OpenAIClient = openAIClient;
+        _tokenUsageRecorder = tokenUsageRecorder;
+        _model = model;
+        _timeout = timeout;
+    }
+
+    /**
+     * @param openInfos barId -> 원문 (한 번에 20개 안팎)
+     * @return barId -> 요약. 모델이 빠뜨렸거나 쓸 만한 항목이 없는 술집은 빠진다.
+     * 호출 자체가 실패하면 예외 (호출부에서 다음 실행으로 미룸)
+     */
+    public Map<Long, String> summarize(Map<Long, String> openInfos) {
+        Objects.requireNonNull(openInfos, "openInfos");
+        if (openInfos.isEmpty()) return Map.of();
+
+        String instructions = systemInstructions();
+        String input = inputLines(openInfos);
+        StructuredResponseCreateParams<OpenInfoOutput> params = ResponseCreateParams.builder()
+                .model(_model)
+                .instructions(instructions)
+                .input(input)
+                .text(OpenInfoOutput.class)
+                .build();
+
+        var response = _OpenAIClient.responses().create(params, RequestOptions.builder().timeout(_timeout).build());
+        _tokenUsageRecorder.record(STAGE, _model,
+                GptTokenEstimator.estimate(instructions) + GptTokenEstimator.estimate(input), response.usage());
+
+        OpenInfoOutput out = response.output().stream()
+                .flatMap(item -> item.message().stream())
+                .flatMap(msg -> msg.content().stream())
+                .flatMap(content -> content.outputText().stream())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No structured output returned"));
+
+        Map<Long, String> summaries = new LinkedHashMap<>();
+        for (Item it : out.items == null ? List.<Item>of() : out.items) {
+            if (it == null || !openInfos.containsKey(it.barId) || summaries.containsKey(it.barId)) continue;
+            String summary = format(it);
+            if (summary != null) summaries.put(it.barId, summary);
+        }
+        return summaries;
+    }
+
+    // ===== Prompt =====
+
+    private String inputLines(Map<Long, String> openInfos) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Long, String> e : openInfos.entrySet()) {
+            if (!sb.isEmpty()) sb.append('\n');
+            sb.append("B|id=").append(e.getKey()).append("|oi=").append(sanitize(e.getValue(), MAX_SOURCE_LENGTH));
+        }
+        return sb.toString();
+    }
+
+    private String systemInstructions() {
+        return String.join("\n",
+                "너는 술집 영업정보(oi) 원문을 정규화하는 도구다.",
+                "입력의 B 라인마다 items에 하나씩, 같은 id로 출력한다.",
+                "원문에 없는 내용은 추측하지 말고 빈 값으로 둔다.",
+                "- hours: 영업시간 HH:mm-HH:mm. 요일별로 다르면 '평일 18:00-02:00, 주말 17:00-03:00' 처럼 짧게. 24시간이면 '24시간'",
+                "- closedDays: 정기 휴무 요일(월,화,수,목,금,토,일,공휴일). 휴무가 없다고 명시돼 있으면 ['연중무휴']",
+                "- lastOrder: 라스트오더 시각 HH:mm",
+                "출력은 반드시 JSON만."
+        );
+    }
+
+    // ===== Structured Output schema =====
+
+    public static final class OpenInfoOutput {
+        @JsonPropertyDescription("One item per input B line.")
+        public List<Item> items;
+
+        public OpenInfoOutput() {}
+        public OpenInfoOutput(List<Item> items) { this.items = items; }
+    }
+
+    public static final class Item {
+        @JsonPropertyDescription("The id of the B line.")
+        public long barId;
+
+        @JsonPropertyDescription("Opening hours, e.g. '17:00-02:00' or '평일 18:00-02:00, 주말 17:00-03:00'. Empty if unknown.")
+        public String hours;
+
+        @JsonPropertyDescription("Regular closed days among 월,화,수,목,금,토,일,공휴일, or ['연중무휴']. Empty if unknown.")
+        public List<String> closedDays;
+
+        @JsonPropertyDescription("Last order time HH:mm. Empty if unknown.")
+        public String lastOrder;
+
+        public Item() {}
+        public Item(long barId, String hours, List<String> closedDays, String lastOrder) {
+            this.barId = barId;
+            this.hours = hours;
+            this.closedDays = closedDays;
+            this.lastOrder = lastOrder;
+        }
+    }
+
+    // ===== Normalization =====
+
+    /**
+     * "{hours} / 휴무 {days} / LO {HH:mm}", 쓸 항목이 없으면 null
+     */
+    static String format(Item it) {
+        List<String> parts = new ArrayList<>(3);
+
+        String hours = sanitize(it.hours, 40);
+        if (!hours.isBlank()) parts.add(hours);
+
+        LinkedHashSet<String> days = new LinkedHashSet<>();
+        for (String day : it.closedDays == null ? List.<String>of() : it.closedDays) {
+            String d = sanitize(day, 4).replace("요일", "");
+            if (DAYS.contains(d)) days.add(d);
+        }
+        if (days.contains("연중무휴")) parts.add("연중무휴");
+        else if (!days.isEmpty()) parts.add("휴무 " + String.join(",", days));
+
+        String lastOrder = sanitize(it.lastOrder, 5);
+        if (TIME_PATTERN.matcher(lastOrder).matches()) parts.add("LO " + lastOrder);
+
+        if (parts.isEmpty()) return null;
+        String summary = String.join(" / ", parts);
+        return summary.length() <= MAX_SUMMARY_LENGTH ? summary : summary.substring(0, MAX_SUMMARY_LENGTH);
+    }
+
+    private static String sanitize(String s, int maxLen) {
+        if (s == null) return "";
+        String out = s.replace('|', ' ').replace('\n', ' ').replace('\r', ' ').trim();
+        return out.length() <= maxLen ? out : out.substring(0, maxLen);
+    }
+}
@@ -0,0 +1,28 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import com.ssafy.sulmap.infra.utils.GptBatchText;
+
+import java.util.Locale;
+
+/**
+ * 프롬프트 공용 조각
+ * - COMPACT_GUIDE: 후보 텍스트 포맷 설명 (COMPACT일 때만 정적 지시 끝에 붙인다)
+ * - cacheKey: provider prompt cache 라우팅 키. 같은 정적 prefix를 쓰는 호출끼리 같은 키
+ */
+final class GptPromptFormat {
+
+    static final String COMPACT_GUIDE = String.join("\n",
+            "",
+            "[후보 포맷]",
+            "- D|코드=값: 이 입력에서만 쓰는 사전. B 라인의 C*/O*/M* 코드는 사전 값으로 읽어라.",
+            "- B|번호|c(카테고리)|oi(영업정보 구절, 쉼표 구분)|n(이름)|menu(메뉴 이름, 쉼표 구분)",
+            "- barId/selected에는 B 라인의 번호를 그대로 쓴다.",
+            ""
+    );
+
+    static String cacheKey(String stage, GptBatchText batch) {
+        return "sulmap-" + stage + "-" + batch.encoding().name().toLowerCase(Locale.ROOT);
+    }
+
+    private GptPromptFormat() {}
+}
@@ -3,11 +3,19 @@ package com.ssafy.sulmap.infra.external.openai;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import com.openai.client.OpenAIClient;
 import com.openai.models.responses.ResponseCreateParams;
+import com.openai.models.responses.ResponseStreamEvent;
+import com.openai.models.responses.ResponseUsage;
 import com.openai.models.responses.StructuredResponseCreateParams;
+import com.ssafy.sulmap.infra.utils.GptBatchText;
+import com.ssafy.sulmap.infra.utils.GptTokenEstimator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -15,22 +23,25 @@ import java.util.regex.Pattern;
 @RequiredArgsConstructor
 public class GptRecommendClient {
 
-    private static final String MODEL = "gpt-5.2";
     private static final long MAX_OUTPUT_TOKENS = 800;
 
-    // pool 라인 포맷: "B|id=123|..."
-    private static final Pattern ID_PATTERN = Pattern.compile("(?m)^B\\|id=(\\d+)\\b");
+    // pool 라인 포맷: "B|id=123|..." (LEGACY) / "B|3|..." (COMPACT, 순번)
+    private static final Pattern ID_PATTERN = Pattern.compile("(?m)^B\\|(?:id=)?(\\d+)\\b");
 
     private final OpenAIClient _OpenAIClient;
+    private final GptTokenUsageRecorder _tokenUsageRecorder;
+    private final GptCallGuard _gptCallGuard;
+    private final GptReplayStore _gptReplayStore;
+    private final GptModelRouter _gptModelRouter;
 
     /**
      * 2차 최종 추천: 후보 풀(pool) 안에서 topK개를 순위대로 뽑고 reasons를 반환
      *
      * @param topK 보통 10
      * @param ctx  "CTX|g=...|a=...|ts=...|w=...|md=...|q=..." 한 줄
-     * @param pool "B|id=...|c=...|oi=...|n=..." 여러 줄 (보통 30~50)
+     * @param pool "B|id=...|c=...|oi=...|n=..." 여러 줄 (보통 30~50), COMPACT면 사전 + 순번 라인
      */
-    public RecommendOutput rankTop(int topK, String ctx, String pool) {
+    public RecommendOutput rankTop(int topK, String ctx, GptBatchText pool) {
         if (topK <= 0) throw new IllegalArgumentException("topK must be positive");
         Objects.requireNonNull(ctx, "ctx");
         Objects.requireNonNull(pool, "pool");
@@ -40,57 +51,145 @@ public class GptRecommendClient {
             throw new IllegalArgumentException("No barIds found in pool. Expected lines like: B|id=123|...");
         }
 
-        String input = stageInstructions(topK, ctx, pool);
+        String instructions = pool.isCompact() ? COMPACT_INSTRUCTIONS : LEGACY_INSTRUCTIONS;
+        String input = stageInput(topK, ctx, pool);
+        _tokenUsageRecorder.recordEncoding(GptStage.STAGE2.tag(), pool);
+        String model = _gptModelRouter.select(GptStage.STAGE2);
+        var params = buildParams(model, instructions, input, pool);
+        int estimatedInputTokens = estimateInputTokens(instructions, input);
+        RecommendOutput out = _gptCallGuard.call(GptStage.STAGE2, options ->
+                _gptModelRouter.observe(GptStage.STAGE2, model, () ->
+                        _gptReplayStore.call(GptStage.STAGE2, instructions, input, options, RecommendOutput.class, () -> {
+                            var response = _OpenAIClient.responses().create(params, options);
+                            _tokenUsageRecorder.record(GptStage.STAGE2.tag(), model, estimatedInputTokens, response.usage());
+
+                            return response.output().stream()
+                                    .flatMap(item -> item.message().stream())
+                                    .flatMap(msg -> msg.content().stream())
+                                    .flatMap(content -> content.outputText().stream())
+                                    .findFirst()
+                                    .orElseThrow(() -> new IllegalStateException("No structured output returned"));
+                        })));
+
+        return normalize(out, topK, allowed, pool, model);
+    }
+
+    /**
+     * 2차 최종 추천 (스트리밍): top 배열 원소가 완성될 때마다 normalize 규칙(후보 내/중복 제거/reason 길이)을
+     * 적용해 onItem으로 바로 넘긴다. topK가 차면 스트림을 끊는다.
+     *
+     * @return 스트림에서 채우지 못한 자리를 후보 순서대로 채운 fill-in 항목들 (onItem으로는 나가지 않음)
+     */
+    public RecommendOutput rankTopStreaming(int topK, String ctx, GptBatchText pool, Consumer<Item> onItem) {
+        if (topK <= 0) throw new IllegalArgumentException("topK must be positive");
+        Objects.requireNonNull(ctx, "ctx");
+        Objects.requireNonNull(pool, "pool");
+        Objects.requireNonNull(onItem, "onItem");
+
+        List<Long> allowed = extractBarIds(pool);
+        if (allowed.isEmpty()) {
+            throw new IllegalArgumentException("No barIds found in pool. Expected lines like: B|id=123|...");
+        }
+
+        RecommendNormalizer normalizer = new RecommendNormalizer(topK, allowed, pool);
+        GptTopItemStreamParser parser = new GptTopItemStreamParser();
+
+        String instructions = pool.isCompact() ? COMPACT_INSTRUCTIONS : LEGACY_INSTRUCTIONS;
+        String input = stageInput(topK, ctx, pool);
+        _tokenUsageRecorder.recordEncoding(GptStage.STAGE2_STREAM.tag(), pool);
+        String model = _gptModelRouter.select(GptStage.STAGE2_STREAM);
+        if (_gptReplayStore.isReplaying()) {
+            // 재생은 기록된 결과 전체를 지연 후 한 번에 흘려보낸다
+            RecommendOutput replayed = _gptCallGuard.call(GptStage.STAGE2_STREAM, options ->
+                    _gptModelRouter.observe(GptStage.STAGE2_STREAM, model, () ->
+                            _gptReplayStore.replay(GptStage.STAGE2_STREAM, instructions, input, options, RecommendOutput.class)));
+            emit(replayed.top == null ? List.of() : replayed.top, normalizer, onItem);
+            return finish(normalizer, GptStage.STAGE2_STREAM, model);
+        }
+
+        var params = buildParams(model, instructions, input, pool);
+        int estimatedInputTokens = estimateInputTokens(instructions, input);
+        List<Item> streamed = new ArrayList<>(topK);
+        long start = System.nanoTime();
+        _gptCallGuard.call(GptStage.STAGE2_STREAM, options -> _gptModelRouter.observe(GptStage.STAGE2_STREAM, model, () -> {
+            Optional<ResponseUsage> usage = Optional.empty();
+            try (var stream = _OpenAIClient.responses().createStreaming(params, options)) {
+                Iterator<ResponseStreamEvent> events = stream.stream().iterator();
+                while (!normalizer.isFull() && events.hasNext()) {
+                    ResponseStreamEvent event = events.next();
+                    if (event.isCompleted()) {
+                        usage = event.asCompleted().response().usage();
+                        continue;
+                    }
+                    if (!event.isOutputTextDelta()) continue;
+                    var parsed = parser.feed(event.asOutputTextDelta().delta());
+                    streamed.addAll(parsed);
+                    emit(parsed, normalizer, onItem);
+                }
+                if (!normalizer.isFull()) {
+                    var parsed = parser.end();
+                    streamed.addAll(parsed);
+                    emit(parsed, normalizer, onItem);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                _tokenUsageRecorder.record(GptStage.STAGE2_STREAM.tag(), model, estimatedInputTokens, usage);
+            }
+            return null;
+        }));
+        _gptReplayStore.record(GptStage.STAGE2_STREAM, instructions, input, new RecommendOutput(streamed),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        return finish(normalizer, GptStage.STAGE2_STREAM, model);
+    }
+
+    private void emit(List<Item> parsed, RecommendNormalizer normalizer, Consumer<Item> onItem) {
+        for (Item it : parsed) {
+            if (normalizer.isFull()) return;
+            Item accepted = normalizer.accept(it);
+            if (accepted == null) continue;
+            try {
+                onItem.accept(accepted);
+            } catch (RuntimeException e) {
+                // 받는 쪽 실패(클라이언트 끊김 등)는 GPT 실패가 아니다: 스트림을 닫고 그대로 전달
+                throw new GptStreamConsumerException(e);
+            }
+        }
+    }
+
+    private int estimateInputTokens(String instructions, String input) {
+        return GptTokenEstimator.estimate(instructions) + GptTokenEstimator.estimate(input);
+    }
 
-        StructuredResponseCreateParams<RecommendOutput> params = ResponseCreateParams.builder()
-                .model(MODEL)
-                .instructions(systemInstructions())
+    private StructuredResponseCreateParams<RecommendOutput> buildParams(String model, String instructions, String input,
+                                                                        GptBatchText pool) {
+        return ResponseCreateParams.builder()
+                .model(model)
+                .instructions(instructions)
                 .input(input)
+                // 일반/스트리밍 모두 같은 프롬프트라 같은 키
+                .promptCacheKey(GptPromptFormat.cacheKey(GptStage.STAGE2.tag(), pool))
 //                .maxOutputTokens(MAX_OUTPUT_TOKENS)
                 .text(RecommendOutput.class)
                 .build();
-
-        var response = _OpenAIClient.responses().create(params);
-
-        RecommendOutput out = response.output().stream()
-                .flatMap(item -> item.message().stream())
-                .flatMap(msg -> msg.content().stream())
-                .flatMap(content -> content.outputText().stream())
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException("No structured output returned"));
-
-        return normalize(out, topK, allowed);
     }
 
     // ===== Prompt =====
 
-    private String stageInstructions(int topK, String ctx, String pool) {
+    // 정적 프롬프트는 인코딩별 상수: 호출마다 바이트 단위로 같아야 provider prompt cache의 prefix가 맞는다
+    static final String LEGACY_INSTRUCTIONS = systemInstructions(false);
+    static final String COMPACT_INSTRUCTIONS = systemInstructions(true);
+
+    /**
+     * 요청마다 바뀌는 부분만 (정적 지시 뒤에 붙는다)
+     */
+    private String stageInput(int topK, String ctx, GptBatchText pool) {
         return String.join("\n",
-                "아래 CTX와 후보(B 라인)만 보고, 최종 Top " + topK + "을 순위대로 선택하고 각 항목의 reasons를 작성해라.",
-                "",
+                "[TASK] K=" + topK + ": 최종 Top " + topK + "을 순위대로 선택하고 각 항목의 reasons를 작성해라.",
                 "[INPUT]",
                 ctx,
-                pool,
-                "",
-                "[OUTPUT JSON]",
-                "{",
-                "  \"top\": [",
-                "    { \"barId\": 123, \"reasons\": [\"...\", \"...\"] }",
-                "  ]",
-                "}",
-                "",
-                "제약:",
-                "- top은 정확히 " + topK + "개",
-                "- barId 중복 금지",
-                "- 반드시 B 라인에 존재하는 barId만 선택",
-                "- reasons는 각 항목당 2~3개",
-                "- 각 reason은 45자 이내",
-                "- JSON만 출력(설명/마크다운 금지)",
-                "- top의 순서는 추천 순위(앞이 더 추천)",
-                "",
-                "힌트:",
-                "- 사용 가능한 후보 정보는 B 라인의 c(카테고리), oi(영업정보요약), n(이름요약), menu(메뉴) 뿐이다.",
-                "- CTX의 q(요청), w(날씨), ts(시간)를 반영해 취향/상황 적합도를 판단하라."
+                pool.text()
         );
     }
 
@@ -98,7 +197,7 @@ public class GptRecommendClient {
      * ✅ 외부 상식/추론은 보완적으로 허용 (너 요구 반영)
      * 단, 후보 밖 선택/새 barId 생성은 절대 금지.
      */
-    private String systemInstructions() {
+    private static String systemInstructions(boolean compact) {
         return String.join("\n",
                 "너는 \"최종 추천\" 랭커다.",
                 "반드시 입력으로 주어진 B 라인(후보) 안에서만 선택한다.",
@@ -111,7 +210,29 @@ public class GptRecommendClient {
                 "1) CTX.q(요청)과 B의 c/oi/n이 잘 맞는가",
                 "2) CTX.ts(시간대)에 맞게 oi(영업정보)상 무리 없어 보이는가",
                 "3) CTX.w(날씨)가 나쁘면 이동/대기 부담이 적을 것으로 추정되는 선택을 선호(확정 정보 없으면 과도한 단정 금지)",
-                "4) 비슷하면 다양성(카테고리/스타일)도 약간 고려"
+                "4) 비슷하면 다양성(카테고리/스타일)도 약간 고려",
+                "",
+                "[OUTPUT JSON]",
+                "{",
+                "  \"top\": [",
+                "    { \"barId\": 123, \"reasons\": [\"...\", \"...\"] }",
+                "  ]",
+                "}",
+                "",
+                "제약:",
+                "- top은 정확히 TASK의 K개",
+                "- barId 중복 금지",
+                "- 반드시 B 라인에 존재하는 barId만 선택",
+                "- reasons는 각 항목당 2~3개",
+                "- 각 reason은 45자 이내",
+                "- JSON만 출력(설명/마크다운 금지)",
+                "- top의 순서는 추천 순위(앞이 더 추천)",
+                "",
+                "힌트:",
+                "- 사용 가능한 후보 정보는 B 라인의 c(카테고리), oi(영업정보요약), n(이름요약), menu(메뉴) 뿐이다.",
+                "- CTX의 q(요청), w(날씨), ts(시간)를 반영해 취향/상황 적합도를 판단하라.",
+                compact ? GptPromptFormat.COMPACT_GUIDE : "",
+                "입력은 [TASK] 한 줄, [INPUT] 아래 CTX 한 줄과 후보(B 라인)로 주어진다."
         );
     }
 
@@ -141,43 +262,90 @@ public class GptRecommendClient {
 
     // ===== Normalization / Validation =====
 
-    private RecommendOutput normalize(RecommendOutput out, int topK, List<Long> allowedInOrder) {
-        Set<Long> allowedSet = new HashSet<>(allowedInOrder);
-
-        // 1) 후보 밖 제거 + 중복 제거 + 순서 유지
-        LinkedHashMap<Long, Item> uniq = new LinkedHashMap<>();
+    private RecommendOutput normalize(RecommendOutput out, int topK, List<Long> allowedInOrder, GptBatchText pool,
+                                      String model) {
+        RecommendNormalizer normalizer = new RecommendNormalizer(topK, allowedInOrder, pool);
         List<Item> items = (out == null || out.top == null) ? List.of() : out.top;
 
+        // 1) 후보 밖 제거 + 중복 제거 + 순서 유지
+        List<Item> normalized = new ArrayList<>(topK);
         for (Item it : items) {
-            if (it == null) continue;
-            long id = it.barId;
-            if (!allowedSet.contains(id)) continue;
-            if (uniq.containsKey(id)) continue;
-
-            uniq.put(id, new Item(id, normalizeReasons(it.reasons)));
-            if (uniq.size() >= topK) break;
+            if (normalizer.isFull()) break;
+            Item accepted = normalizer.accept(it);
+            if (accepted != null) normalized.add(accepted);
         }
 
         // 2) 부족하면 후보 순서대로 채우기(폴백)
-        for (Long id : allowedInOrder) {
-            if (uniq.size() >= topK) break;
-            if (uniq.containsKey(id)) continue;
-            uniq.put(id, new Item(id, List.of("요청 조건에 무난", "후보 내 상위")));
+        normalized.addAll(normalizer.fillIns());
+        normalizer.record(_tokenUsageRecorder, GptStage.STAGE2, model);
+
+        return new RecommendOutput(normalized);
+    }
+
+    // 스트리밍: 남은 자리 fill-in + 정리 통계 기록
+    private RecommendOutput finish(RecommendNormalizer normalizer, GptStage stage, String model) {
+        var fillIns = normalizer.fillIns();
+        normalizer.record(_tokenUsageRecorder, stage, model);
+        return new RecommendOutput(fillIns);
+    }
+
+    /**
+     * normalize 규칙을 한 항목씩 적용 (일괄/스트리밍 공용)
+     */
+    private static final class RecommendNormalizer {
+        private final int _topK;
+        private final List<Long> _allowedInOrder;
+        private final Set<Long> _allowedSet;
+        private final GptBatchText _pool;
+        private final Set<Long> _accepted = new HashSet<>();
+        private int _unknown;
+        private int _duplicate;
+        private int _filled;
+
+        RecommendNormalizer(int topK, List<Long> allowedInOrder, GptBatchText pool) {
+            _topK = topK;
+            _allowedInOrder = allowedInOrder;
+            _allowedSet = new HashSet<>(allowedInOrder);
+            _pool = pool;
         }
 
-        // 3) topK로 자르기
-        List<Item> normalized = new ArrayList<>(topK);
-        int count = 0;
-        for (Item it : uniq.values()) {
-            normalized.add(it);
-            count++;
-            if (count >= topK) break;
+        boolean isFull() {
+            return _accepted.size() >= _topK;
         }
 
-        return new RecommendOutput(normalized);
+        /** 통과하면 barId로 되돌리고 reasons까지 정리된 항목, 아니면 null */
+        Item accept(Item it) {
+            if (it == null || isFull()) return null;
+            Long id = _pool.toBarId(it.barId);
+            if (id == null || !_allowedSet.contains(id)) {
+                _unknown++;
+                return null;
+            }
+            if (!_accepted.add(id)) {
+                _duplicate++;
+                return null;
+            }
+            return new Item(id, normalizeReasons(it.reasons));
+        }
+
+        /** 남은 자리를 후보 순서대로 채운 항목들 */
+        List<Item> fillIns() {
+            List<Item> fill = new ArrayList<>();
+            for (Long id : _allowedInOrder) {
+                if (isFull()) break;
+                if (!_accepted.add(id)) continue;
+                fill.add(new Item(id, List.of("요청 조건에 무난", "후보 내 상위")));
+                _filled++;
+            }
+            return fill;
+        }
+
+        void record(GptTokenUsageRecorder recorder, GptStage stage, String model) {
+            recorder.recordNormalized(stage.tag(), model, _unknown, _duplicate, _filled);
+        }
     }
 
-    private List<String> normalizeReasons(List<String> reasons) {
+    private static List<String> normalizeReasons(List<String> reasons) {
         if (reasons == null || reasons.isEmpty()) {
             return List.of("요청 조건에 부합", "상황에 적합");
         }
@@ -212,11 +380,13 @@ public class GptRecommendClient {
         return out;
     }
 
-    private List<Long> extractBarIds(String pool) {
-        Matcher m = ID_PATTERN.matcher(pool);
+    // 라인 순서대로 barId (COMPACT면 순번을 barId로 되돌림)
+    private List<Long> extractBarIds(GptBatchText pool) {
+        Matcher m = ID_PATTERN.matcher(pool.text());
         LinkedHashSet<Long> ids = new LinkedHashSet<>();
         while (m.find()) {
-            ids.add(Long.parseLong(m.group(1)));
+            Long id = pool.toBarId(Long.parseLong(m.group(1)));
+            if (id != null) ids.add(id);
         }
         return new ArrayList<>(ids);
     }
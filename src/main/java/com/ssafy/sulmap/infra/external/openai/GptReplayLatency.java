@@ -0,0 +1,67 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * replay 모드에서 주입할 응답 지연 분포 (ms)
+ * - none                  : 지연 없음
+ * - fixed:800             : 항상 800ms
+ * - uniform:200-1500      : 200~1500ms 균등
+ * - lognormal:800:0.5     : 중앙값 800ms, sigma 0.5 로그정규 (GPT 응답 지연의 긴 꼬리 흉내)
+ * - recorded              : fixture에 기록된 지연 그대로
+ */
+public final class GptReplayLatency {
+
+    private enum Kind { NONE, FIXED, UNIFORM, LOGNORMAL, RECORDED }
+
+    private final Kind _kind;
+    private final double _a;
+    private final double _b;
+
+    private GptReplayLatency(Kind kind, double a, double b) {
+        _kind = kind;
+        _a = a;
+        _b = b;
+    }
+
+    public static GptReplayLatency parse(String spec) {
+        if (spec == null || spec.isBlank()) return new GptReplayLatency(Kind.NONE, 0, 0);
+
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        try {
+            return switch (parts[0]) {
+                case "none" -> new GptReplayLatency(Kind.NONE, 0, 0);
+                case "recorded" -> new GptReplayLatency(Kind.RECORDED, 0, 0);
+                case "fixed" -> new GptReplayLatency(Kind.FIXED, Double.parseDouble(parts[1]), 0);
+                case "uniform" -> {
+                    String[] range = parts[1].split("-");
+                    double min = Double.parseDouble(range[0]);
+                    double max = Double.parseDouble(range[1]);
+                    if (max < min) throw new IllegalArgumentException("uniform max < min");
+                    yield new GptReplayLatency(Kind.UNIFORM, min, max);
+                }
+                case "lognormal" -> new GptReplayLatency(Kind.LOGNORMAL,
+                        Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default -> throw new IllegalArgumentException("unknown latency kind: " + parts[0]);
+            };
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("invalid replay latency spec: " + spec, e);
+        }
+    }
+
+    /**
+     * @param recordedMillis fixture에 기록된 지연 (없으면 음수)
+     */
+    public long sampleMillis(long recordedMillis) {
+        var random = ThreadLocalRandom.current();
+        double ms = switch (_kind) {
+            case NONE -> 0;
+            case RECORDED -> Math.max(0, recordedMillis);
+            case FIXED -> _a;
+            case UNIFORM -> _a + random.nextDouble() * (_b - _a);
+            case LOGNORMAL -> _a * Math.exp(_b * random.nextGaussian());
+        };
+        return Math.max(0, Math.round(ms));
+    }
+}
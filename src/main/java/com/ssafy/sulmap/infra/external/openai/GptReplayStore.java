@@ -0,0 +1,184 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.openai.core.RequestOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * GPT 호출 기록/재생 (부하 테스트용, 실제 GPT 비용 없이 파이프라인 측정)
+ * - OFF    : 그대로 호출
+ * - RECORD : 실제 호출 결과(structured output)와 지연을 {dir}/{stage}/{hash}.json 으로 저장
+ * - REPLAY : 저장된 결과를 돌려준다. 없으면 {dir}/{stage}/default.json, 그것도 없으면 실패(-> 호출부 폴백)
+ *            지연은 단계별 분포(GptReplayLatency)로 주입하며 단계 타임아웃을 넘기면 타임아웃으로 실패
+ *
+ * hash 키는 instructions + input 이며 CTX의 ts(요청 시각)는 빼고 계산한다 (기록한 요청을 나중에 재생할 수 있도록).
+ * 스트리밍 2차도 STAGE2 기록을 같이 쓴다.
+ */
+@Component
+@Slf4j
+public class GptReplayStore {
+
+    public enum Mode { OFF, RECORD, REPLAY }
+
+    private static final ObjectMapper OM = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final Pattern CTX_TIMESTAMP = Pattern.compile("\\|ts=[^|\\n]*");
+    private static final String DEFAULT_FIXTURE = "default";
+
+    private final Mode _mode;
+    private final Path _dir;
+    private final Map<GptStage, GptReplayLatency> _latencies = new EnumMap<>(GptStage.class);
+
+    @Autowired
+    public GptReplayStore(
+            @Value("${ai.recommend.gpt.replay.mode:off}") String mode,
+            @Value("${ai.recommend.gpt.replay.dir:replay}") String dir,
+            @Value("${ai.recommend.gpt.replay.latency.stage1:recorded}") String stage1Latency,
+            @Value("${ai.recommend.gpt.replay.latency.stage2:recorded}") String stage2Latency
+    ) {
+        this(Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT)), Path.of(dir),
+                GptReplayLatency.parse(stage1Latency), GptReplayLatency.parse(stage2Latency));
+    }
+
+    public GptReplayStore(Mode mode, Path dir, GptReplayLatency stage1Latency, GptReplayLatency stage2Latency) {
+        _mode = mode;
+        _dir = dir;
+        _latencies.put(GptStage.STAGE1, stage1Latency);
+        _latencies.put(GptStage.STAGE2, stage2Latency);
+        _latencies.put(GptStage.STAGE2_STREAM, stage2Latency);
+        if (mode != Mode.OFF) log.warn("gpt replay store: mode={}, dir={}", mode, dir.toAbsolutePath());
+    }
+
+    public static GptReplayStore disabled() {
+        return new GptReplayStore(Mode.OFF, Path.of("."), GptReplayLatency.parse("none"), GptReplayLatency.parse("none"));
+    }
+
+    public boolean isReplaying() {
+        return _mode == Mode.REPLAY;
+    }
+
+    /**
+     * 모드에 따라 live를 그대로 부르거나(OFF), 부르고 기록하거나(RECORD), 기록을 재생한다(REPLAY)
+     */
+    public <T> T call(GptStage stage, String instructions, String input, RequestOptions options,
+                      Class<T> type, Supplier<T> live) {
+        return switch (_mode) {
+            case OFF -> live.get();
+            case RECORD -> {
+                long start = System.nanoTime();
+                T out = live.get();
+                record(stage, instructions, input, out, Duration.ofNanos(System.nanoTime() - start).toMillis());
+                yield out;
+            }
+            case REPLAY -> replay(stage, instructions, input, options, type);
+        };
+    }
+
+    /**
+     * RECORD 모드에서만 저장 (스트리밍처럼 live 결과를 호출부가 직접 모으는 경우)
+     */
+    public void record(GptStage stage, String instructions, String input, Object output, long latencyMillis) {
+        if (_mode != Mode.RECORD || output == null) return;
+
+        ObjectNode node = OM.createObjectNode();
+        node.put("stage", fixtureStage(stage).tag());
+        node.put("recordedLatencyMs", latencyMillis);
+        node.set("output", OM.valueToTree(output));
+        Path file = fixturePath(stage, key(instructions, input));
+        try {
+            Files.createDirectories(file.getParent());
+            OM.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), node);
+        } catch (IOException e) {
+            // 기록 실패가 실제 호출 결과를 막지 않도록
+            log.warn("gpt replay record failed: {}", file, e);
+        }
+    }
+
+    /**
+     * 기록 재생 (REPLAY 모드 전용)
+     */
+    public <T> T replay(GptStage stage, String instructions, String input, RequestOptions options, Class<T> type) {
+        JsonNode fixture = load(fixturePath(stage, key(instructions, input)));
+        if (fixture == null) fixture = load(fixturePath(stage, DEFAULT_FIXTURE));
+        if (fixture == null) {
+            throw new IllegalStateException("no replay fixture for stage " + stage.tag() + " in " + _dir);
+        }
+
+        long recorded = fixture.path("recordedLatencyMs").asLong(-1);
+        long latency = _latencies.get(stage).sampleMillis(recorded);
+        long timeout = timeoutMillis(options);
+        sleep(Math.min(latency, timeout));
+        if (latency > timeout) {
+            throw new IllegalStateException("replayed GPT call timed out after " + timeout + "ms");
+        }
+
+        try {
+            return OM.treeToValue(fixture.path("output"), type);
+        } catch (IOException e) {
+            throw new IllegalStateException("malformed replay fixture for stage " + stage.tag(), e);
+        }
+    }
+
+    private JsonNode load(Path file) {
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            return OM.readTree(file.toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path fixturePath(GptStage stage, String name) {
+        return _dir.resolve(fixtureStage(stage).tag()).resolve(name + ".json");
+    }
+
+    private static GptStage fixtureStage(GptStage stage) {
+        return stage == GptStage.STAGE2_STREAM ? GptStage.STAGE2 : stage;
+    }
+
+    static String key(String instructions, String input) {
+        String normalized = instructions + "\n" + CTX_TIMESTAMP.matcher(input).replaceAll("");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long timeoutMillis(RequestOptions options) {
+        if (options == null || options.getTimeout() == null) return Long.MAX_VALUE;
+        return options.getTimeout().request().toMillis();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while replaying GPT call", e);
+        }
+    }
+}
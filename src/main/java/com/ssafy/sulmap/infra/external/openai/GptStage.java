@@ -0,0 +1,26 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+/**
+ * GPT 호출 단계 (단계별로 타임아웃/서킷 브레이커/hedge를 따로 둔다)
+ */
+public enum GptStage {
+    STAGE1("stage1", true), // 1차 배치 후보 축소
+    STAGE2("stage2", true), // 2차 최종 추천
+    STAGE2_STREAM("stage2_stream", false); // 2차 스트리밍 (이미 내보낸 항목이 있어 재시도/hedge 불가)
+
+    private final String _tag;
+    private final boolean _hedgeable;
+
+    GptStage(String tag, boolean hedgeable) {
+        _tag = tag;
+        _hedgeable = hedgeable;
+    }
+
+    public String tag() {
+        return _tag;
+    }
+
+    public boolean hedgeable() {
+        return _hedgeable;
+    }
+}
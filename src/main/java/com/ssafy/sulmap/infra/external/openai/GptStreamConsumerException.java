@@ -0,0 +1,17 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+/**
+ * 스트리밍 중 항목을 받는 쪽(SSE 클라이언트 쓰기 등)이 실패함
+ * - GPT 응답 자체는 정상이므로 서킷 브레이커/모델 라우터의 실패로 집계하지 않는다
+ * - 스트림은 그 자리에서 닫히고(남은 응답 취소) 원래 예외는 cause로 전달된다
+ */
+public class GptStreamConsumerException extends RuntimeException {
+    public GptStreamConsumerException(RuntimeException cause) {
+        super("GPT stream consumer failed: " + cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized RuntimeException getCause() {
+        return (RuntimeException) super.getCause();
+    }
+}
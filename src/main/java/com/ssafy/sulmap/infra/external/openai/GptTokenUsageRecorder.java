@@ -0,0 +1,107 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import com.openai.models.responses.ResponseUsage;
+import com.ssafy.sulmap.infra.utils.GptBatchText;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * GPT 호출별 추정 입력 토큰 vs 실제 사용량(usage), 출력 정리 결과 기록 (단계/모델 태그)
+ * - ai.recommend.tokens.input.estimated / ai.recommend.tokens.input / ai.recommend.tokens.output
+ * - ai.recommend.tokens.estimate.ratio: 실제/추정 (%) -> GptTokenEstimator 보정 기준
+ * - ai.recommend.tokens.input.cached / ai.recommend.tokens.input.cached.ratio: provider prompt cache에서 읽은 입력 토큰 (수, %)
+ * - ai.recommend.tokens.candidates.saved: COMPACT 후보 텍스트가 LEGACY 대비 줄인 추정 토큰
+ * - ai.recommend.gpt.normalize.dropped{reason=unknown|duplicate} / ai.recommend.gpt.normalize.filled:
+ *   normalize가 버린 id 수, 모자라 후보 순서로 채운 수
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GptTokenUsageRecorder {
+
+    private final MeterRegistry _meterRegistry;
+
+    public void record(String stage, String model, int estimatedInputTokens, Optional<ResponseUsage> usage) {
+        summary("ai.recommend.tokens.input.estimated", stage, model, "tokens").record(estimatedInputTokens);
+
+        if (usage.isEmpty()) {
+            // 스트림을 중간에 끊으면 usage가 오지 않음
+            log.debug("gpt usage missing: stage={}, model={}, estimatedInput={}", stage, model, estimatedInputTokens);
+            return;
+        }
+
+        long input = usage.get().inputTokens();
+        long output = usage.get().outputTokens();
+        long cached = cachedTokens(usage.get());
+        summary("ai.recommend.tokens.input", stage, model, "tokens").record(input);
+        summary("ai.recommend.tokens.output", stage, model, "tokens").record(output);
+        summary("ai.recommend.tokens.input.cached", stage, model, "tokens").record(cached);
+        if (input > 0) {
+            summary("ai.recommend.tokens.input.cached.ratio", stage, model, "percent")
+                    .record(cached * 100.0 / input);
+        }
+        if (estimatedInputTokens > 0) {
+            summary("ai.recommend.tokens.estimate.ratio", stage, model, "percent")
+                    .record(input * 100.0 / estimatedInputTokens);
+        }
+
+        log.debug("gpt usage: stage={}, model={}, estimatedInput={}, input={}, cached={}, output={}",
+                stage, model, estimatedInputTokens, input, cached, output);
+    }
+
+    /**
+     * 후보 텍스트 인코딩 절감량 (LEGACY는 기록하지 않음)
+     */
+    public void recordEncoding(String stage, GptBatchText batch) {
+        if (batch == null || !batch.isCompact()) return;
+        DistributionSummary.builder("ai.recommend.tokens.candidates.saved")
+                .baseUnit("tokens")
+                .tag("stage", stage)
+                .register(_meterRegistry)
+                .record(batch.savedTokens());
+        log.debug("gpt candidate encoding: stage={}, legacy={}, compact={}, saved={}",
+                stage, batch.legacyTokens(), batch.tokens(), batch.savedTokens());
+    }
+
+    /**
+     * normalize 결과: 후보 밖/모르는 키(unknown), 중복(duplicate)으로 버린 수와 후보 순서로 채운 수
+     */
+    public void recordNormalized(String stage, String model, int unknown, int duplicate, int filled) {
+        normalizeCounter("ai.recommend.gpt.normalize.dropped", stage, model, "unknown").increment(unknown);
+        normalizeCounter("ai.recommend.gpt.normalize.dropped", stage, model, "duplicate").increment(duplicate);
+        normalizeCounter("ai.recommend.gpt.normalize.filled", stage, model, null).increment(filled);
+        if (unknown + duplicate > 0) {
+            log.debug("gpt output normalized: stage={}, model={}, unknown={}, duplicate={}, filled={}",
+                    stage, model, unknown, duplicate, filled);
+        }
+    }
+
+    private Counter normalizeCounter(String name, String stage, String model, String reason) {
+        var builder = Counter.builder(name)
+                .tag("stage", stage)
+                .tag("model", model);
+        if (reason != null) builder.tag("reason", reason);
+        return builder.register(_meterRegistry);
+    }
+
+    // OpenAI 호환 로컬 서버는 input_tokens_details를 안 줄 수 있음
+    private static long cachedTokens(ResponseUsage usage) {
+        return usage._inputTokensDetails().asKnown()
+                .flatMap(details -> details._cachedTokens().asKnown())
+                .orElse(0L);
+    }
+
+    private DistributionSummary summary(String name, String stage, String model, String baseUnit) {
+        return DistributionSummary.builder(name)
+                .baseUnit(baseUnit)
+                .tag("stage", stage)
+                .tag("model", model)
+                .register(_meterRegistry);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 스트리밍 structured output { "top": [ {barId, reasons}, ... ] } 을 조각(delta) 단위로 받아서
+ * top 배열의 원소 하나가 닫히는 즉시 Item으로 돌려준다.
+ * - 전체 응답을 기다리지 않으므로 첫 결과까지의 시간이 "첫 원소 생성 시간"이 된다
+ * - 타입이 맞지 않는 원소는 버린다 (normalize 단계에서 어차피 걸러짐)
+ */
+final class GptTopItemStreamParser {
+
+    private static final ObjectMapper OM = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // 루트 객체(1) -> top 배열(2) -> 원소 객체(3)
+    private static final int TOP_ARRAY_DEPTH = 2;
+
+    private final JsonParser _parser;
+    private final ByteArrayFeeder _feeder;
+
+    private int _depth;
+    private String _rootField;
+    private boolean _inTop;
+    private TokenBuffer _item;
+
+    GptTopItemStreamParser() {
+        try {
+            _parser = OM.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        _feeder = (ByteArrayFeeder) _parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * delta를 먹이고, 이번 조각으로 완성된 원소들을 반환
+     */
+    List<GptRecommendClient.Item> feed(String delta) throws IOException {
+        if (delta == null || delta.isEmpty()) return List.of();
+        byte[] bytes = delta.getBytes(StandardCharsets.UTF_8);
+        _feeder.feedInput(bytes, 0, bytes.length);
+        return drain();
+    }
+
+    /**
+     * 스트림 종료: 남은 토큰을 마저 처리
+     */
+    List<GptRecommendClient.Item> end() throws IOException {
+        _feeder.endOfInput();
+        return drain();
+    }
+
+    private List<GptRecommendClient.Item> drain() throws IOException {
+        List<GptRecommendClient.Item> completed = new ArrayList<>(1);
+        JsonToken t;
+        while ((t = _parser.nextToken()) != null && t != JsonToken.NOT_AVAILABLE) {
+            handle(t, completed);
+        }
+        return completed;
+    }
+
+    private void handle(JsonToken t, List<GptRecommendClient.Item> completed) throws IOException {
+        if (_item != null) {
+            _item.copyCurrentEvent(_parser);
+            if (t.isStructStart()) {
+                _depth++;
+            } else if (t.isStructEnd()) {
+                _depth--;
+                if (_depth == TOP_ARRAY_DEPTH) {
+                    toItem(_item, completed);
+                    _item = null;
+                }
+            }
+            return;
+        }
+
+        switch (t) {
+            case FIELD_NAME -> {
+                if (_depth == 1) _rootField = _parser.currentName();
+            }
+            case START_ARRAY -> {
+                _depth++;
+                if (_depth == TOP_ARRAY_DEPTH && "top".equals(_rootField)) _inTop = true;
+            }
+            case START_OBJECT -> {
+                _depth++;
+                if (_inTop && _depth == TOP_ARRAY_DEPTH + 1) {
+                    _item = new TokenBuffer(OM, false);
+                    _item.copyCurrentEvent(_parser);
+                }
+            }
+            case END_ARRAY, END_OBJECT -> {
+                if (_depth == TOP_ARRAY_DEPTH) _inTop = false;
+                _depth--;
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static void toItem(TokenBuffer buffer, List<GptRecommendClient.Item> completed) throws IOException {
+        try (JsonParser p = buffer.asParser()) {
+            completed.add(OM.readValue(p, GptRecommendClient.Item.class));
+        } catch (JsonProcessingException ignore) {
+            // 형식이 깨진 원소는 건너뜀
+        }
+    }
+}
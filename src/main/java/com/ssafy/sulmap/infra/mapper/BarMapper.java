@@ -5,6 +5,7 @@ import com.ssafy.sulmap.infra.model.BarEntity;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +13,8 @@ import java.util.Optional;
 public interface BarMapper {
     Optional<BarEntity> selectById(@Param("id") long id);
     List<BarCategoryEntity> selectBarCategory(@Param("bar_id") long barId);
+    List<BarEntity> selectOpenInfoSummaryTargets(@Param("limit") int limit);
+    int updateOpenInfoSummary(@Param("barId") long barId,
+                              @Param("summary") String summary,
+                              @Param("sourceUpdatedAt") Date sourceUpdatedAt);
 }
@@ -48,6 +48,8 @@ public interface ReviewMapper {
 
     List<Map<String, Object>> ratingDistributionByBarId(@Param("barId") Long barId);
 
+    List<Map<String, Object>> summaryByBarIds(@Param("barIds") List<Long> barIds);
+
     // ***** 리뷰 신고 *****
     int insertReviewReport(ReviewReportEntity entity);
 }
@@ -2,6 +2,7 @@
 package com.ssafy.sulmap.infra.model;
 
 import com.ssafy.sulmap.core.model.BarModel;
+import com.ssafy.sulmap.core.model.BarOpenInfoModel;
 import com.ssafy.sulmap.infra.utils.MenuJsonHelper;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -48,4 +49,12 @@ public class BarEntity {
                 .deletedAt(this.getDeletedAt())
                 .build();
     }
+
+    public BarOpenInfoModel toBarOpenInfoModel() {
+        return BarOpenInfoModel.builder()
+                .barId(this.getId())
+                .openInformation(this.getOpenInformation())
+                .updatedAt(this.getUpdatedAt())
+                .build();
+    }
 }
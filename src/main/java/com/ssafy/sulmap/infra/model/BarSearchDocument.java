@@ -0,0 +1,146 @@
+package com.ssafy.sulmap.infra.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * ES bars 인덱스 _source (검색 hit를 Map 없이 바로 디코딩)
+ * - menu: object(enabled:false) 원문 JSON을 문자열 그대로 (중간 Map/재직렬화 없음)
+ * - 날짜: 매핑 포맷 yyyy-MM-dd HH:mm:ss 또는 epoch millis, 예외 없이 한 번에 파싱 (그 외 형식은 null)
+ * - 모르는 필드(embedding 등)는 건너뛴다
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BarSearchDocument {
+    private Long id;
+    private String name;
+    private String address;
+    @JsonProperty("base_category_name")
+    private String baseCategoryName;
+    @JsonProperty("open_information")
+    private String openInformation;
+    @JsonProperty("open_info_summary")
+    private String openInfoSummary;
+    private Double latitude;
+    private Double longitude;
+    @JsonDeserialize(using = RawJsonDeserializer.class)
+    private String menu;
+    @JsonProperty("created_at")
+    @JsonDeserialize(using = EsDateDeserializer.class)
+    private Date createdAt;
+    @JsonProperty("updated_at")
+    @JsonDeserialize(using = EsDateDeserializer.class)
+    private Date updatedAt;
+    @JsonProperty("deleted_at")
+    @JsonDeserialize(using = EsDateDeserializer.class)
+    private Date deletedAt;
+
+    public BarSearchElasticEntity toEntity(Double distanceMeters) {
+        return BarSearchElasticEntity.builder()
+                .id(id)
+                .name(name)
+                .address(address)
+                .baseCategoryName(baseCategoryName)
+                .openInfo(openInformation)
+                .openInfoSummary(openInfoSummary)
+                .latitude(latitude)
+                .longitude(longitude)
+                .menuJsonString(menu)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .deletedAt(deletedAt)
+                .distanceMeters(distanceMeters)
+                .build();
+    }
+
+    /**
+     * 하위 구조를 토큰 단위로 그대로 복사한 JSON 문자열. 문자열 값이면 그 문자열
+     */
+    public static final class RawJsonDeserializer extends JsonDeserializer<String> {
+        private static final JsonFactory FACTORY = new JsonFactory();
+
+        @Override
+        public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_STRING) return p.getText();
+            StringWriter out = new StringWriter(256);
+            try (JsonGenerator g = FACTORY.createGenerator(out)) {
+                g.copyCurrentStructure(p);
+            }
+            return out.toString();
+        }
+
+        @Override
+        public String getNullValue(DeserializationContext ctxt) {
+            return null;
+        }
+    }
+
+    /**
+     * yyyy-MM-dd HH:mm:ss (시스템 타임존) 또는 epoch millis
+     */
+    public static final class EsDateDeserializer extends JsonDeserializer<Date> {
+        private static final ZoneId ZONE = ZoneId.systemDefault();
+
+        @Override
+        public Date deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT) return new Date(p.getLongValue());
+            if (token != JsonToken.VALUE_STRING) {
+                p.skipChildren();
+                return null;
+            }
+            return parse(p.getText());
+        }
+
+        static Date parse(String s) {
+            if (s == null || s.length() != 19
+                    || s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(10) != ' '
+                    || s.charAt(13) != ':' || s.charAt(16) != ':') {
+                return null;
+            }
+            int year = digits(s, 0, 4);
+            int month = digits(s, 5, 7);
+            int day = digits(s, 8, 10);
+            int hour = digits(s, 11, 13);
+            int minute = digits(s, 14, 16);
+            int second = digits(s, 17, 19);
+            if (year < 0 || month < 1 || month > 12 || day < 1 || day > YearMonth.of(year, month).lengthOfMonth()
+                    || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                return null;
+            }
+            return Date.from(LocalDateTime.of(year, month, day, hour, minute, second).atZone(ZONE).toInstant());
+        }
+
+        // 숫자가 아니면 -1
+        private static int digits(String s, int from, int to) {
+            int v = 0;
+            for (int i = from; i < to; i++) {
+                char c = s.charAt(i);
+                if (c < '0' || c > '9') return -1;
+                v = v * 10 + (c - '0');
+            }
+            return v;
+        }
+    }
+}
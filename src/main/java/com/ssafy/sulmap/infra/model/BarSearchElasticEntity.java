@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
 import java.util.Date;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class BarSearchElasticEntity {
@@ -20,6 +20,7 @@ public class BarSearchElasticEntity {
     private Double latitude;
     private Double longitude;
     private String openInfo;
+    private String openInfoSummary;
     private String menuJsonString;
     private Date createdAt;
     private Date updatedAt;
@@ -37,6 +38,7 @@ public class BarSearchElasticEntity {
                 .distanceMeters(this.getDistanceMeters())
                 .baseCategoryName(this.getBaseCategoryName())
                 .openInformation(this.getOpenInfo())
+                .openInfoSummary(this.getOpenInfoSummary())
                 .createdAt(this.getCreatedAt())
                 .updatedAt(this.getUpdatedAt())
                 .deletedAt(this.getDeletedAt())
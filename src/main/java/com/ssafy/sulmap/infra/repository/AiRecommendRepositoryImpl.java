@@ -3,19 +3,33 @@ package com.ssafy.sulmap.infra.repository;
 import com.ssafy.sulmap.core.model.BarListItemModel;
 import com.ssafy.sulmap.core.model.MinorRecommendedBarModel;
 import com.ssafy.sulmap.core.model.RecommendedBarModel;
+import com.ssafy.sulmap.core.model.ReviewSummaryModel;
 import com.ssafy.sulmap.core.model.UserModel;
+import com.ssafy.sulmap.core.model.enums.RecommendRanker;
 import com.ssafy.sulmap.core.model.query.GetRecommenedBarsQuery;
 import com.ssafy.sulmap.core.repository.AiRecommendRepository;
+import com.ssafy.sulmap.infra.external.openai.GptCallScope;
+import com.ssafy.sulmap.infra.external.openai.GptCircuitOpenException;
+import com.ssafy.sulmap.infra.external.openai.GptDeadlineExceededException;
 import com.ssafy.sulmap.infra.external.openai.GptMinorRecommendClient;
 import com.ssafy.sulmap.infra.external.openai.GptRecommendClient;
+import com.ssafy.sulmap.infra.external.openai.GptStreamConsumerException;
+import com.ssafy.sulmap.infra.utils.BarHeuristicScorer;
+import com.ssafy.sulmap.infra.utils.GptBatchText;
 import com.ssafy.sulmap.infra.utils.GptBatchTextBuilder;
+import com.ssafy.sulmap.infra.utils.GptTokenEstimator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
@@ -28,6 +42,13 @@ public class AiRecommendRepositoryImpl implements AiRecommendRepository {
 
     private final GptMinorRecommendClient _gptMinorRecommendClient;
     private final GptRecommendClient _gptRecommendClient;
+    private final MeterRegistry _meterRegistry;
+    // 1차 배치 하나의 B라인 추정 토큰 상한
+    @Value("${ai.recommend.batch.token-budget:8000}")
+    private final int _batchTokenBudget;
+    // 후보 텍스트 포맷 (COMPACT: 사전 + 순번 id)
+    @Value("${ai.recommend.prompt.encoding:legacy}")
+    private final GptBatchTextBuilder.Encoding _promptEncoding;
 
     @Override
     public List<MinorRecommendedBarModel> getMinorRecommend(
@@ -43,14 +64,17 @@ public class AiRecommendRepositoryImpl implements AiRecommendRepository {
         if (byId.isEmpty()) return List.of();
 
         String ctx = GptBatchTextBuilder.buildCtx(user, query, ZonedDateTime.now(ZONE));
-        String batch = GptBatchTextBuilder.buildBatchLines(models);
+        var batch = GptBatchTextBuilder.buildBatch(models, _promptEncoding);
+        recordRequestedTokens(query, "stage1", ctx, batch);
 
         List<Long> selectedIds;
         try {
-            var out = _gptMinorRecommendClient.rank(topK, ctx, batch); // { selected: [id,...] }
+            // shadow 호출은 primary의 서킷 브레이커/모델 라우터 통계에 넣지 않는다
+            var out = GptCallScope.run(isShadow(query), query.getGptDeadlineNanos(),
+                    () -> _gptMinorRecommendClient.rank(topK, ctx, batch)); // { selected: [id,...] }
             selectedIds = (out == null || out.selected == null) ? List.of() : out.selected;
         } catch (Exception e) {
-            log.error(e.getMessage(), e);
+            logAiFailure(query, "stage1", e);
             // AI 실패 폴백: 입력 순서대로 topK
             selectedIds = models.stream()
                     .map(BarListItemModel::getId)
@@ -90,6 +114,29 @@ public class AiRecommendRepositoryImpl implements AiRecommendRepository {
         return result;
     }
 
+    @Override
+    public List<List<BarListItemModel>> splitByTokenBudget(List<BarListItemModel> models, int maxBatchSize, int maxBatches) {
+        return GptBatchTextBuilder.splitByTokenBudget(models, _batchTokenBudget, maxBatchSize, maxBatches);
+    }
+
+    @Override
+    public List<MinorRecommendedBarModel> preRank(
+            List<BarListItemModel> models,
+            GetRecommenedBarsQuery query,
+            int topK
+    ) {
+        if (models == null || models.isEmpty() || topK <= 0) return List.of();
+
+        var ranked = BarHeuristicScorer.rank(models, query.getUserPrompt(), query.getMaxDistance(),
+                ZonedDateTime.now(ZONE), topK);
+
+        List<MinorRecommendedBarModel> result = new ArrayList<>(ranked.size());
+        for (BarListItemModel src : ranked) {
+            result.add(copyToMinor(src));
+        }
+        return result;
+    }
+
     @Override
     public List<RecommendedBarModel> getRecommend(
             List<BarListItemModel> models,
@@ -103,23 +150,18 @@ public class AiRecommendRepositoryImpl implements AiRecommendRepository {
         if (byId.isEmpty()) return List.of();
 
         String ctx = GptBatchTextBuilder.buildCtx(user, query, ZonedDateTime.now(ZONE));
-        String pool = GptBatchTextBuilder.buildBatchLines(models);
+        var pool = GptBatchTextBuilder.buildBatch(models, _promptEncoding);
+        recordRequestedTokens(query, "stage2", ctx, pool);
 
         List<GptRecommendClient.Item> picked;
         try {
-            var out = _gptRecommendClient.rankTop(topK, ctx, pool); // { top: [{barId, reasons[]}, ...] }
+            var out = GptCallScope.run(isShadow(query), query.getGptDeadlineNanos(),
+                    () -> _gptRecommendClient.rankTop(topK, ctx, pool)); // { top: [{barId, reasons[]}, ...] }
             picked = (out == null || out.top == null) ? List.of() : out.top;
         } catch (Exception e) {
-            log.error(e.getMessage(), e);
-            // AI 실패 폴백: 입력 순서대로 topK
-            List<RecommendedBarModel> fallback = new ArrayList<>();
-            int rank = 1;
-            for (BarListItemModel b : models) {
-                if (fallback.size() >= topK) break;
-                if (b == null || b.getId() == null) continue;
-                fallback.add(copyToFinal(b, rank++, "fallback:ai_fail"));
-            }
-            return fallback;
+            logAiFailure(query, "stage2", e);
+            // AI 실패 폴백: 로컬 휴리스틱 순위
+            return localRecommend(models, query, Map.of(), topK);
         }
 
         // 후보 밖/중복 제거 + 순서 유지 + topK 강제
@@ -152,9 +194,86 @@ public class AiRecommendRepositoryImpl implements AiRecommendRepository {
             BarListItemModel src = byId.get(e.getKey());
             if (src == null) continue;
 
-            result.add(copyToFinal(src, rank++, e.getValue()));
+            result.add(RecommendedBarModel.of(src, rank++, e.getValue(), RecommendRanker.GPT));
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<RecommendedBarModel> streamRecommend(
+            List<BarListItemModel> models,
+            UserModel user,
+            GetRecommenedBarsQuery query,
+            int topK,
+            Consumer<RecommendedBarModel> onItem
+    ) {
+        if (models == null || models.isEmpty() || topK <= 0) return List.of();
+
+        Map<Long, BarListItemModel> byId = indexById(models);
+        if (byId.isEmpty()) return List.of();
+
+        String ctx = GptBatchTextBuilder.buildCtx(user, query, ZonedDateTime.now(ZONE));
+        var pool = GptBatchTextBuilder.buildBatch(models, _promptEncoding);
+        recordRequestedTokens(query, "stage2_stream", ctx, pool);
+
+        // 이미 내보낸 항목 (스트림 도중 실패해도 다시 보내지 않음)
+        Set<Long> emitted = new HashSet<>();
+        AtomicInteger rank = new AtomicInteger(1);
+
+        List<GptRecommendClient.Item> fillIns;
+        try {
+            var out = _gptRecommendClient.rankTopStreaming(topK, ctx, pool, it -> {
+                BarListItemModel src = byId.get(it.barId);
+                if (src == null || !emitted.add(it.barId)) return;
+                onItem.accept(RecommendedBarModel.of(src, rank.getAndIncrement(), joinReasons(it.reasons), RecommendRanker.GPT));
+            });
+            fillIns = (out == null || out.top == null) ? List.of() : out.top;
+        } catch (GptStreamConsumerException e) {
+            // 클라이언트가 끊김: AI 실패로 기록하지 않고, 받을 사람이 없으니 폴백도 계산하지 않는다
+            throw e.getCause();
+        } catch (Exception e) {
+            logAiFailure(query, "stage2_stream", e);
+            // AI 실패 폴백: 남은 자리를 로컬 휴리스틱 순위로
+            List<RecommendedBarModel> fallback = new ArrayList<>();
+            for (RecommendedBarModel local : localRecommend(models, query, Map.of(), topK)) {
+                if (emitted.size() + fallback.size() >= topK) break;
+                if (emitted.contains(local.getId())) continue;
+                fallback.add(local.toBuilder().recommendRank(rank.getAndIncrement()).build());
+            }
+            return fallback;
         }
 
+        List<RecommendedBarModel> result = new ArrayList<>(fillIns.size());
+        for (var it : fillIns) {
+            if (emitted.size() + result.size() >= topK) break;
+            BarListItemModel src = byId.get(it.barId);
+            if (src == null || emitted.contains(it.barId)) continue;
+            result.add(RecommendedBarModel.of(src, rank.getAndIncrement(), joinReasons(it.reasons), RecommendRanker.GPT));
+        }
+        return result;
+    }
+
+    @Override
+    public List<RecommendedBarModel> localRecommend(
+            List<BarListItemModel> models,
+            GetRecommenedBarsQuery query,
+            Map<Long, ReviewSummaryModel> reviewStats,
+            int topK
+    ) {
+        if (models == null || models.isEmpty() || topK <= 0) return List.of();
+
+        ZonedDateTime now = ZonedDateTime.now(ZONE);
+        Map<Long, ReviewSummaryModel> reviews = reviewStats == null ? Map.of() : reviewStats;
+        var terms = BarHeuristicScorer.parsePrompt(query.getUserPrompt());
+        var ranked = BarHeuristicScorer.rank(models, query.getUserPrompt(), query.getMaxDistance(), now, reviews, topK);
+
+        List<RecommendedBarModel> result = new ArrayList<>(ranked.size());
+        int rank = 1;
+        for (BarListItemModel src : ranked) {
+            var reasons = BarHeuristicScorer.reasons(src, terms, now, reviews.get(src.getId()));
+            result.add(RecommendedBarModel.of(src, rank++, joinReasons(reasons), RecommendRanker.LOCAL));
+        }
         return result;
     }
 
@@ -162,6 +281,36 @@ public class AiRecommendRepositoryImpl implements AiRecommendRepository {
     // Helpers
     // -------------------------
 
+    // GPT 호출 실패로 폴백한 횟수: ai.recommend.fallback{pipeline,stage,reason=circuit_open|ai_error}
+    private void logAiFailure(GetRecommenedBarsQuery query, String stage, Exception e) {
+        // 서킷 open/마감 초과는 예상된 차단이라 스택 없이
+        String reason = e instanceof GptCircuitOpenException ? "circuit_open"
+                : e instanceof GptDeadlineExceededException ? "deadline" : "ai_error";
+        if (!reason.equals("ai_error")) log.warn(e.getMessage());
+        else log.error(e.getMessage(), e);
+        _meterRegistry.counter("ai.recommend.fallback",
+                "pipeline", pipeline(query),
+                "stage", stage,
+                "reason", reason).increment();
+    }
+
+    // 호출당 가변 입력(CTX + 후보) 추정 토큰: primary/shadow 설정별 토큰 지출 비교용
+    private void recordRequestedTokens(GetRecommenedBarsQuery query, String stage, String ctx, GptBatchText batch) {
+        DistributionSummary.builder("ai.recommend.tokens.requested")
+                .tag("pipeline", pipeline(query))
+                .tag("stage", stage)
+                .register(_meterRegistry)
+                .record(GptTokenEstimator.estimate(ctx) + batch.tokens());
+    }
+
+    private static String pipeline(GetRecommenedBarsQuery query) {
+        return isShadow(query) ? "shadow" : "primary";
+    }
+
+    private static boolean isShadow(GetRecommenedBarsQuery query) {
+        return query != null && query.isShadow();
+    }
+
     private Map<Long, BarListItemModel> indexById(List<BarListItemModel> models) {
         return models.stream()
                 .filter(Objects::nonNull)
@@ -184,31 +333,13 @@ public class AiRecommendRepositoryImpl implements AiRecommendRepository {
                 .longitude(src.getLongitude())
                 .baseCategoryName(src.getBaseCategoryName())
                 .openInformation(src.getOpenInformation())
+                .openInfoSummary(src.getOpenInfoSummary())
                 .createdAt(src.getCreatedAt())
                 .updatedAt(src.getUpdatedAt())
                 .deletedAt(src.getDeletedAt())
                 .build();
     }
 
-    private RecommendedBarModel copyToFinal(BarListItemModel src, int rank, String reason) {
-        return RecommendedBarModel.builder()
-                // 상속 필드(BarListItemModel)
-                .id(src.getId())
-                .name(src.getName())
-                .address(src.getAddress())
-                .latitude(src.getLatitude())
-                .longitude(src.getLongitude())
-                .baseCategoryName(src.getBaseCategoryName())
-                .openInformation(src.getOpenInformation())
-                .createdAt(src.getCreatedAt())
-                .updatedAt(src.getUpdatedAt())
-                .deletedAt(src.getDeletedAt())
-                // 추가 필드
-                .recommendRank(rank)
-                .recommendReason(reason)
-                .build();
-    }
-
     private String joinReasons(List<String> reasons) {
         if (reasons == null) return "요청 조건에 부합 / 상황에 적합";
         List<String> cleaned = reasons.stream()
@@ -1,27 +1,48 @@
 package com.ssafy.sulmap.infra.repository;
 
+import com.ssafy.sulmap.core.model.BarClusterModel;
 import com.ssafy.sulmap.core.model.BarListItemModel;
 import com.ssafy.sulmap.core.model.BarModel;
+import com.ssafy.sulmap.core.model.BarOpenInfoModel;
+import com.ssafy.sulmap.core.model.NearbyBarsPage;
+import com.ssafy.sulmap.core.model.command.SaveOpenInfoSummaryCommand;
+import com.ssafy.sulmap.core.model.query.BarClustersQuery;
 import com.ssafy.sulmap.core.model.query.NearbyBarsQuery;
 import com.ssafy.sulmap.core.repository.BarRepository;
 import com.ssafy.sulmap.infra.external.elastic.BarSearchElasticClient;
+import com.ssafy.sulmap.infra.external.elastic.NearbyTileCache;
+import com.ssafy.sulmap.infra.external.embedding.PromptEmbeddingCache;
+import com.ssafy.sulmap.infra.external.embedding.TextEmbedder;
 import com.ssafy.sulmap.infra.mapper.BarMapper;
+import com.ssafy.sulmap.infra.model.BarEntity;
 import com.ssafy.sulmap.infra.model.BarSearchElasticEntity;
+import com.ssafy.sulmap.infra.utils.BarEmbeddingText;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
 @RequiredArgsConstructor
+@Slf4j
 @Transactional
 public class BarRepositoryImpl implements BarRepository {
 
     private final BarMapper _barMapper;
     private final BarSearchElasticClient _barSearchElasticClient;
+    private final TextEmbedder _textEmbedder;
+    private final PromptEmbeddingCache _promptEmbeddingCache;
+    private final NearbyTileCache _nearbyTileCache;
+    // semanticText가 있는 조회를 kNN 하이브리드로 (임베딩이 아직 없는 문서는 거리순으로 뒤에 붙는다)
+    @Value("${ai.recommend.candidates.vector.enabled:false}")
+    private final boolean _vectorSearchEnabled;
 
     @Override
     public Optional<BarModel> findById(long barId) {
@@ -35,7 +56,100 @@ public class BarRepositoryImpl implements BarRepository {
 
     @Override
     public List<BarListItemModel> findNearby(NearbyBarsQuery query) throws IOException {
-        var res = _barSearchElasticClient.findNearby(query);
-        return res.stream().map(BarSearchElasticEntity::toBarListItemModel).toList();
+        float[] queryVector = queryVector(query);
+        if (queryVector != null) {
+            try {
+                return toModels(_barSearchElasticClient.findNearby(query, queryVector));
+            } catch (IOException | RuntimeException e) {
+                logHybridFailure(query, e);
+            }
+        }
+        var cached = _nearbyTileCache.findList(query);
+        if (cached.isPresent()) return toModels(cached.get());
+        return toModels(_barSearchElasticClient.findNearby(query));
+    }
+
+    @Override
+    public NearbyBarsPage findNearbyPage(NearbyBarsQuery query) throws IOException {
+        float[] queryVector = queryVector(query);
+        if (queryVector != null) {
+            try {
+                var page = _barSearchElasticClient.findNearbyPage(query, queryVector);
+                return new NearbyBarsPage(toModels(page.bars()), page.nextCursor());
+            } catch (IOException | RuntimeException e) {
+                logHybridFailure(query, e);
+            }
+        }
+        var page = _nearbyTileCache.findPage(query).orElse(null);
+        if (page == null) page = _barSearchElasticClient.findNearbyPage(query, null);
+        return new NearbyBarsPage(toModels(page.bars()), page.nextCursor());
+    }
+
+    // kNN 하이브리드가 실패하면(인덱스 매핑 없음, dims 불일치 등) 거리순으로: 후보 조회 자체는 실패시키지 않는다
+    private static void logHybridFailure(NearbyBarsQuery query, Exception e) {
+        log.warn("hybrid nearby search failed, falling back to distance-only: lat={}, lon={}, radius={}, cause={}",
+                query.latitude(), query.longitude(), query.radiusMeters(), e.toString());
+    }
+
+    @Override
+    public List<BarClusterModel> findClusters(BarClustersQuery query) throws IOException {
+        return _barSearchElasticClient.findClusters(query).stream()
+                .map(c -> BarClusterModel.builder()
+                        .tile(c.tile())
+                        .count(c.count())
+                        .latitude(c.latitude())
+                        .longitude(c.longitude())
+                        .build())
+                .toList();
+    }
+
+    private static List<BarListItemModel> toModels(List<BarSearchElasticEntity> bars) {
+        return bars.stream().map(BarSearchElasticEntity::toBarListItemModel).toList();
+    }
+
+    // semanticText 임베딩 (벡터 검색이 꺼져 있거나 임베딩 실패면 null)
+    private float[] queryVector(NearbyBarsQuery query) {
+        if (!_vectorSearchEnabled || query.semanticText() == null || query.semanticText().isBlank()) return null;
+        float[] queryVector = _promptEmbeddingCache.embed(query.semanticText());
+        return TextEmbedder.isZero(queryVector) ? null : queryVector;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BarOpenInfoModel> findOpenInfoSummaryTargets(int limit) {
+        return _barMapper.selectOpenInfoSummaryTargets(limit).stream()
+                .map(BarEntity::toBarOpenInfoModel)
+                .toList();
+    }
+
+    @Override
+    public int saveOpenInfoSummaries(List<SaveOpenInfoSummaryCommand> commands) throws IOException {
+        if (commands == null || commands.isEmpty()) return 0;
+
+        // ES가 실패하면 DB도 표시하지 않아 다음 실행에서 다시 시도
+        Map<Long, String> summaries = new LinkedHashMap<>();
+        for (var command : commands) summaries.put(command.barId(), command.summary());
+        _barSearchElasticClient.updateOpenInfoSummaries(summaries);
+        _nearbyTileCache.invalidateAll();
+
+        int saved = 0;
+        for (var command : commands) {
+            saved += _barMapper.updateOpenInfoSummary(command.barId(), command.summary(), command.sourceUpdatedAt());
+        }
+        return saved;
+    }
+
+    @Override
+    public int indexStaleEmbeddings(int limit) throws IOException {
+        String model = _textEmbedder.name();
+        var targets = _barSearchElasticClient.findEmbeddingTargets(model, limit);
+        if (targets.isEmpty()) return 0;
+
+        Map<String, float[]> vectors = new LinkedHashMap<>();
+        for (var target : targets) {
+            float[] vector = _textEmbedder.embed(BarEmbeddingText.of(target.bar()));
+            vectors.put(target.docId(), TextEmbedder.isZero(vector) ? null : vector);
+        }
+        return _barSearchElasticClient.updateEmbeddings(model, vectors);
     }
 }
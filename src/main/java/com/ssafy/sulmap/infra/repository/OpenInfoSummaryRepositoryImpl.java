@@ -0,0 +1,62 @@
+package com.ssafy.sulmap.infra.repository;
+
+import com.ssafy.sulmap.core.model.BarOpenInfoModel;
+import com.ssafy.sulmap.core.repository.OpenInfoSummaryRepository;
+import com.ssafy.sulmap.infra.external.openai.GptOpenInfoSummaryClient;
+import com.ssafy.sulmap.infra.utils.GptBatchTextBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class OpenInfoSummaryRepositoryImpl implements OpenInfoSummaryRepository {
+
+    // GPT 호출 하나에 넣는 술집 수 (원문 300자 기준 입력 ~6k 토큰)
+    private static final int CHUNK_SIZE = 20;
+
+    private final GptOpenInfoSummaryClient _gptOpenInfoSummaryClient;
+
+    @Override
+    public Map<Long, String> summarize(List<BarOpenInfoModel> bars) {
+        Map<Long, String> out = new LinkedHashMap<>();
+        if (bars == null || bars.isEmpty()) return out;
+
+        Map<Long, String> chunk = new LinkedHashMap<>();
+        for (BarOpenInfoModel bar : bars) {
+            if (bar == null || bar.getBarId() == null) continue;
+            String raw = bar.getOpenInformation();
+            // 원문이 없으면 모델에 보낼 것도 없음
+            if (raw == null || raw.isBlank()) {
+                out.put(bar.getBarId(), "-");
+                continue;
+            }
+            chunk.put(bar.getBarId(), raw);
+            if (chunk.size() >= CHUNK_SIZE) {
+                summarizeChunk(chunk, out);
+                chunk = new LinkedHashMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) summarizeChunk(chunk, out);
+        return out;
+    }
+
+    private void summarizeChunk(Map<Long, String> chunk, Map<Long, String> out) {
+        Map<Long, String> summaries;
+        try {
+            summaries = _gptOpenInfoSummaryClient.summarize(chunk);
+        } catch (Exception e) {
+            // 호출 실패: 이 묶음은 결과에서 빼서 다음 실행에서 다시
+            log.error(e.getMessage(), e);
+            return;
+        }
+        // 모델이 빠뜨렸거나 쓸 만한 항목이 없으면 기존 프롬프트처럼 원문을 잘라서
+        chunk.forEach((barId, raw) ->
+                out.put(barId, summaries.getOrDefault(barId, GptBatchTextBuilder.shortOpenInfo(raw))));
+    }
+}
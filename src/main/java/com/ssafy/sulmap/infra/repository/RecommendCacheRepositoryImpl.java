@@ -0,0 +1,84 @@
+package com.ssafy.sulmap.infra.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ssafy.sulmap.core.model.BarListItemModel;
+import com.ssafy.sulmap.core.model.RecommendCacheKey;
+import com.ssafy.sulmap.core.model.RecommendedBarModel;
+import com.ssafy.sulmap.core.model.enums.RecommendRanker;
+import com.ssafy.sulmap.core.repository.RecommendCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.*;
+
+@Repository
+public class RecommendCacheRepositoryImpl implements RecommendCacheRepository {
+
+    private final Cache<RecommendCacheKey, List<CachedPick>> _cache;
+    private final Counter _staleCounter;
+
+    public RecommendCacheRepositoryImpl(
+            MeterRegistry meterRegistry,
+            @Value("${ai.recommend.cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${ai.recommend.cache.max-size:10000}") long maxSize
+    ) {
+        _cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size ...
+        CaffeineCacheMetrics.monitor(meterRegistry, _cache, "aiRecommend");
+        // hit 이었지만 후보 검증에서 탈락한 건수 (실효 hit = hit - stale)
+        _staleCounter = Counter.builder("ai.recommend.cache.stale")
+                .description("Cached recommendations rejected because a bar is no longer a candidate")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<List<RecommendedBarModel>> find(RecommendCacheKey key, List<BarListItemModel> candidates) {
+        if (key == null || candidates == null || candidates.isEmpty()) return Optional.empty();
+
+        List<CachedPick> picks = _cache.getIfPresent(key);
+        if (picks == null || picks.isEmpty()) return Optional.empty();
+
+        Map<Long, BarListItemModel> byId = new HashMap<>(candidates.size() * 2);
+        for (BarListItemModel c : candidates) {
+            if (c != null && c.getId() != null) byId.putIfAbsent(c.getId(), c);
+        }
+
+        List<RecommendedBarModel> result = new ArrayList<>(picks.size());
+        for (CachedPick pick : picks) {
+            BarListItemModel src = byId.get(pick.barId());
+            if (src == null) {
+                // 후보에서 빠진 술집(삭제/반경 밖)이 있으면 캐시 무효
+                _staleCounter.increment();
+                _cache.invalidate(key);
+                return Optional.empty();
+            }
+            result.add(RecommendedBarModel.of(src, pick.rank(), pick.reason(), pick.rankedBy()));
+        }
+        return Optional.of(result);
+    }
+
+    @Override
+    public void save(RecommendCacheKey key, List<RecommendedBarModel> recommended) {
+        if (key == null || recommended == null || recommended.isEmpty()) return;
+
+        List<CachedPick> picks = recommended.stream()
+                .filter(Objects::nonNull)
+                .filter(m -> m.getId() != null)
+                .map(m -> new CachedPick(m.getId(), m.getRecommendRank(), m.getRecommendReason(), m.getRankedBy()))
+                .toList();
+        if (!picks.isEmpty()) _cache.put(key, picks);
+    }
+
+    // 캐시에는 id/순위/이유/랭커만 보관 (술집 정보는 hit 시점 후보로 다시 채움)
+    private record CachedPick(long barId, int rank, String reason, RecommendRanker rankedBy) {}
+}
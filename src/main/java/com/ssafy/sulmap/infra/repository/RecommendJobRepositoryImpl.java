@@ -0,0 +1,49 @@
+package com.ssafy.sulmap.infra.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ssafy.sulmap.core.model.RecommendJobModel;
+import com.ssafy.sulmap.core.repository.RecommendJobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 추천 작업 보관소 (메모리, 짧은 TTL)
+ * - 완료 시 다시 저장하므로 결과는 완료 시점부터 TTL 동안 조회 가능
+ */
+@Repository
+public class RecommendJobRepositoryImpl implements RecommendJobRepository {
+
+    private final Cache<String, RecommendJobModel> _jobs;
+
+    public RecommendJobRepositoryImpl(
+            MeterRegistry meterRegistry,
+            @Value("${ai.recommend.job.ttl-seconds:300}") long ttlSeconds,
+            @Value("${ai.recommend.job.max-size:10000}") long maxSize
+    ) {
+        _jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, _jobs, "aiRecommendJob");
+    }
+
+    @Override
+    public void save(RecommendJobModel job) {
+        if (job == null || job.getId() == null) return;
+        _jobs.put(job.getId(), job);
+    }
+
+    @Override
+    public Optional<RecommendJobModel> findById(String jobId) {
+        if (jobId == null) return Optional.empty();
+        return Optional.ofNullable(_jobs.getIfPresent(jobId));
+    }
+}
@@ -102,6 +102,22 @@ public class ReviewRepositoryImpl implements ReviewRepository {
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, ReviewSummaryModel> getSummaries(List<Long> barIds) {
+        Map<Long, ReviewSummaryModel> summaries = new HashMap<>();
+        if (barIds == null || barIds.isEmpty()) return summaries;
+
+        for (Map<String, Object> row : _reviewMapper.summaryByBarIds(barIds)) {
+            Long barId = ((Number) row.get("bar_id")).longValue();
+            summaries.put(barId, ReviewSummaryModel.builder()
+                    .totalCount(((Number) row.get("count")).longValue())
+                    .averageRating(((Number) row.get("average_rating")).doubleValue())
+                    .build());
+        }
+        return summaries;
+    }
+
     @Override
     @Transactional
     public void saveReport(ReviewReportModel report) {
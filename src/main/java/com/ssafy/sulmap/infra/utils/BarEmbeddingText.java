@@ -0,0 +1,30 @@
+package com.ssafy.sulmap.infra.utils;
+
+import com.ssafy.sulmap.infra.model.BarSearchElasticEntity;
+
+/**
+ * 술집 문서 임베딩에 넣을 텍스트
+ * - 카테고리 / 이름 / 메뉴 이름 / 영업정보 요약 (원문 영업정보는 잡음이 많아 제외)
+ * - 카테고리는 요청문과 가장 자주 겹치는 단서라 두 번 넣어 가중치를 준다
+ */
+public final class BarEmbeddingText {
+
+    private BarEmbeddingText() {}
+
+    public static String of(BarSearchElasticEntity bar) {
+        StringBuilder sb = new StringBuilder();
+        append(sb, bar.getBaseCategoryName());
+        append(sb, bar.getBaseCategoryName());
+        append(sb, bar.getName());
+        String menu = GptBatchTextBuilder.menuNames(bar.getMenuJsonString());
+        if (!"-".equals(menu)) append(sb, menu);
+        append(sb, bar.getOpenInfoSummary());
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, String s) {
+        if (s == null || s.isBlank()) return;
+        if (!sb.isEmpty()) sb.append(' ');
+        sb.append(s.trim());
+    }
+}
@@ -0,0 +1,249 @@
+package com.ssafy.sulmap.infra.utils;
+
+import com.ssafy.sulmap.core.model.BarListItemModel;
+import com.ssafy.sulmap.core.model.RecommendCacheKey;
+import com.ssafy.sulmap.core.model.ReviewSummaryModel;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.time.format.TextStyle;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * GPT 없이 후보를 점수화하는 로컬 휴리스틱.
+ * - 요청문(userPrompt) 토큰/바이그램 vs 카테고리, 이름, 메뉴, 영업정보
+ * - 영업정보(open_information) 상 현재 영업 중인지
+ * - 거리 (maxDistance 대비 비율)
+ * - 리뷰 평균 별점 (리뷰 수가 적을수록 중립 3점 쪽으로 당김)
+ *
+ * 점수는 상대 비교용이며 절대값 의미는 없다.
+ */
+public final class BarHeuristicScorer {
+
+    private static final double W_CATEGORY = 3.0;
+    private static final double W_NAME = 1.5;
+    private static final double W_MENU = 1.5;
+    private static final double W_OPEN_INFO = 0.5;
+    // 바이그램만 맞았을 때는 토큰 전체 일치의 일부만 인정
+    private static final double BIGRAM_RATIO = 0.3;
+
+    private static final double W_OPEN_NOW = 1.0;
+    private static final double W_CLOSED_NOW = -2.0;
+    private static final double W_DISTANCE = 1.5;
+    private static final double W_RATING = 1.5;
+    // 리뷰가 이만큼 있을 때 평균 별점을 절반만 믿는다
+    private static final double RATING_PRIOR_COUNT = 5;
+    private static final double NEUTRAL_RATING = 3.0;
+    // 이 정도 리뷰가 있어야 이유에 평점을 쓴다
+    private static final long MIN_REVIEWS_FOR_REASON = 3;
+    private static final int MAX_REASONS = 3;
+
+    // "17:00 - 02:00", "17:00~24:00"
+    private static final Pattern HOURS_PATTERN =
+            Pattern.compile("(\\d{1,2}):(\\d{2})\\s*[-~]\\s*(\\d{1,2}):(\\d{2})");
+
+    private BarHeuristicScorer() {}
+
+    /**
+     * 요청문을 매칭용 용어로 분해 (토큰 + 한글 토큰의 바이그램)
+     */
+    public static PromptTerms parsePrompt(String userPrompt) {
+        String normalized = RecommendCacheKey.normalizePrompt(userPrompt);
+        if (normalized.isEmpty()) return PromptTerms.EMPTY;
+
+        LinkedHashSet<String> tokens = new LinkedHashSet<>();
+        LinkedHashSet<String> bigrams = new LinkedHashSet<>();
+        for (String token : normalized.split(" ")) {
+            if (token.length() < 2) continue;
+            tokens.add(token);
+            if (token.length() > 2) {
+                for (int i = 0; i + 2 <= token.length(); i++) bigrams.add(token.substring(i, i + 2));
+            }
+        }
+        bigrams.removeAll(tokens);
+        return new PromptTerms(List.copyOf(tokens), List.copyOf(bigrams));
+    }
+
+    public static double score(BarListItemModel bar, PromptTerms terms, Integer maxDistance, ZonedDateTime requestTime) {
+        return score(bar, terms, maxDistance, requestTime, null);
+    }
+
+    public static double score(BarListItemModel bar, PromptTerms terms, Integer maxDistance, ZonedDateTime requestTime,
+                               ReviewSummaryModel reviews) {
+        if (bar == null) return Double.NEGATIVE_INFINITY;
+
+        double score = 0;
+
+        if (!terms.isEmpty()) {
+            score += W_CATEGORY * match(terms, lower(bar.getBaseCategoryName()));
+            score += W_NAME * match(terms, lower(bar.getName()));
+            score += W_MENU * match(terms, lower(bar.getMenuJsonString()));
+            score += W_OPEN_INFO * match(terms, lower(bar.getOpenInformation()));
+        }
+
+        Boolean open = openNow(bar.getOpenInformation(), requestTime);
+        if (Boolean.TRUE.equals(open)) score += W_OPEN_NOW;
+        else if (Boolean.FALSE.equals(open)) score += W_CLOSED_NOW;
+
+        if (bar.getDistanceMeters() != null && maxDistance != null && maxDistance > 0) {
+            score -= W_DISTANCE * Math.min(1.0, bar.getDistanceMeters() / maxDistance);
+        }
+
+        score += W_RATING * ratingSignal(reviews);
+
+        return score;
+    }
+
+    /**
+     * 점수 내림차순 상위 topK (동점이면 입력 순서 = 거리순 유지)
+     */
+    public static List<BarListItemModel> rank(List<BarListItemModel> models, String userPrompt, Integer maxDistance,
+                                              ZonedDateTime requestTime, int topK) {
+        return rank(models, userPrompt, maxDistance, requestTime, Map.of(), topK);
+    }
+
+    /**
+     * @param reviews barId -> 리뷰 통계 (없는 술집은 평점 영향 없음)
+     */
+    public static List<BarListItemModel> rank(List<BarListItemModel> models, String userPrompt, Integer maxDistance,
+                                              ZonedDateTime requestTime, Map<Long, ReviewSummaryModel> reviews,
+                                              int topK) {
+        if (models == null || models.isEmpty() || topK <= 0) return List.of();
+
+        PromptTerms terms = parsePrompt(userPrompt);
+        int n = models.size();
+        double[] scores = new double[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            BarListItemModel m = models.get(i);
+            scores[i] = score(m, terms, maxDistance, requestTime, m == null ? null : reviews.get(m.getId()));
+            order[i] = i;
+        }
+        // 안정 정렬이므로 동점은 입력 순서
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+
+        List<BarListItemModel> out = new ArrayList<>(Math.min(topK, n));
+        for (int i = 0; i < n && out.size() < topK; i++) {
+            BarListItemModel m = models.get(order[i]);
+            if (m != null && m.getId() != null) out.add(m);
+        }
+        return out;
+    }
+
+    /**
+     * 점수 근거를 짧은 문장 2~3개로 (요청 일치 -> 영업 중 -> 평점 -> 거리 순)
+     */
+    public static List<String> reasons(BarListItemModel bar, PromptTerms terms, ZonedDateTime requestTime,
+                                       ReviewSummaryModel reviews) {
+        List<String> out = new ArrayList<>(MAX_REASONS);
+
+        String category = bar.getBaseCategoryName();
+        String hit = firstHit(terms, lower(category));
+        if (hit != null) {
+            out.add("요청('" + hit + "')에 맞는 " + category);
+        } else if ((hit = firstHit(terms, lower(bar.getMenuJsonString()))) != null) {
+            out.add("메뉴에 '" + hit + "' 있음");
+        }
+
+        if (Boolean.TRUE.equals(openNow(bar.getOpenInformation(), requestTime))) out.add("지금 영업 중");
+
+        if (reviews != null && reviews.getTotalCount() != null && reviews.getTotalCount() >= MIN_REVIEWS_FOR_REASON
+                && reviews.getAverageRating() != null) {
+            out.add(String.format(Locale.ROOT, "평점 %.1f (리뷰 %d개)", reviews.getAverageRating(), reviews.getTotalCount()));
+        }
+
+        if (out.size() < MAX_REASONS && bar.getDistanceMeters() != null) {
+            out.add("약 " + Math.round(bar.getDistanceMeters()) + "m 거리");
+        }
+        if (out.size() < 2) out.add("후보 중 조건 무난");
+
+        return out.size() > MAX_REASONS ? out.subList(0, MAX_REASONS) : out;
+    }
+
+    /**
+     * open_information 으로 현재 영업 여부 추정
+     * @return true/false, 판단 불가면 null
+     */
+    public static Boolean openNow(String openInformation, ZonedDateTime requestTime) {
+        if (openInformation == null || openInformation.isBlank() || requestTime == null) return null;
+
+        if (isRegularHoliday(openInformation, requestTime.getDayOfWeek())) return false;
+        if (openInformation.contains("24시간")) return true;
+
+        Matcher m = HOURS_PATTERN.matcher(openInformation);
+        if (!m.find()) return null;
+
+        int open = minutes(m.group(1), m.group(2));
+        int close = minutes(m.group(3), m.group(4));
+        if (open < 0 || close < 0) return null;
+        if (close <= open) close += 24 * 60; // 자정 넘어 영업
+
+        LocalTime t = requestTime.toLocalTime();
+        int now = t.getHour() * 60 + t.getMinute();
+        // 새벽 시간은 전날 영업의 연장으로도 본다
+        return (now >= open && now < close) || (now + 24 * 60 >= open && now + 24 * 60 < close);
+    }
+
+    private static boolean isRegularHoliday(String openInformation, DayOfWeek day) {
+        String dayName = day.getDisplayName(TextStyle.SHORT, Locale.KOREAN); // "일"
+        int idx = openInformation.indexOf("휴무");
+        if (idx < 0) return false;
+        // "매주 일요일 휴무", "정기휴무 (매주 월요일)" 같이 휴무 주변에 요일이 언급된 경우만
+        int from = Math.max(0, idx - 12);
+        int to = Math.min(openInformation.length(), idx + 16);
+        return openInformation.substring(from, to).contains(dayName + "요일");
+    }
+
+    private static int minutes(String h, String m) {
+        int hour = Integer.parseInt(h);
+        int minute = Integer.parseInt(m);
+        if (hour > 24 || minute > 59) return -1;
+        return hour * 60 + minute;
+    }
+
+    // 평균 별점을 리뷰 수로 중립 쪽으로 당긴 값 [-1, 1]
+    private static double ratingSignal(ReviewSummaryModel reviews) {
+        if (reviews == null || reviews.getTotalCount() == null || reviews.getTotalCount() <= 0
+                || reviews.getAverageRating() == null) return 0;
+        double confidence = reviews.getTotalCount() / (reviews.getTotalCount() + RATING_PRIOR_COUNT);
+        return confidence * (reviews.getAverageRating() - NEUTRAL_RATING) / 2.0;
+    }
+
+    private static String firstHit(PromptTerms terms, String field) {
+        if (field.isEmpty()) return null;
+        for (String t : terms.tokens()) {
+            if (field.contains(t)) return t;
+        }
+        for (String b : terms.bigrams()) {
+            if (field.contains(b)) return b;
+        }
+        return null;
+    }
+
+    private static double match(PromptTerms terms, String field) {
+        if (field.isEmpty()) return 0;
+        double hit = 0;
+        for (String t : terms.tokens()) {
+            if (field.contains(t)) hit += 1.0;
+        }
+        for (String b : terms.bigrams()) {
+            if (field.contains(b)) hit += BIGRAM_RATIO;
+        }
+        return hit;
+    }
+
+    private static String lower(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+
+    public record PromptTerms(List<String> tokens, List<String> bigrams) {
+        static final PromptTerms EMPTY = new PromptTerms(List.of(), List.of());
+
+        boolean isEmpty() {
+            return tokens.isEmpty() && bigrams.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ssafy.sulmap.infra.utils;
+
+/**
+ * geohash 셀 계산 + ES geo_distance(arc)와 같은 방식의 거리
+ * - 셀 크기는 위도에 따라 달라지므로(경도 폭 * cos(lat)) 정밀도 선택은 조회 위치 기준으로 한다
+ */
+public final class GeoHash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    // ES GeoUtils.EARTH_MEAN_RADIUS (arc 거리 계산과 같은 값)
+    private static final double EARTH_MEAN_RADIUS = 6371008.7714;
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * EARTH_MEAN_RADIUS;
+    public static final int MAX_PRECISION = 12;
+
+    private GeoHash() {}
+
+    /**
+     * @param hash   geohash 문자열
+     * @param minLat 셀 경계 (남)
+     * @param maxLat 셀 경계 (북)
+     * @param minLon 셀 경계 (서)
+     * @param maxLon 셀 경계 (동)
+     */
+    public record Cell(String hash, double minLat, double maxLat, double minLon, double maxLon) {
+
+        public double centerLat() {
+            return (minLat + maxLat) / 2;
+        }
+
+        public double centerLon() {
+            return (minLon + maxLon) / 2;
+        }
+
+        /** 중심에서 가장 먼 꼭짓점까지 거리 (적도 쪽 변이 더 길다) */
+        public double halfDiagonalMeters() {
+            return Math.max(
+                    distanceMeters(centerLat(), centerLon(), minLat, maxLon),
+                    distanceMeters(centerLat(), centerLon(), maxLat, maxLon));
+        }
+    }
+
+    public static Cell cell(double lat, double lon, int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be in [1, " + MAX_PRECISION + "]");
+        }
+        double minLat = -90, maxLat = 90, minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean even = true;
+        int bit = 0, ch = 0;
+        while (hash.length() < precision) {
+            if (even) {
+                double mid = (minLon + maxLon) / 2;
+                if (lon >= mid) { ch = (ch << 1) | 1; minLon = mid; } else { ch <<= 1; maxLon = mid; }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) { ch = (ch << 1) | 1; minLat = mid; } else { ch <<= 1; maxLat = mid; }
+            }
+            even = !even;
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return new Cell(hash.toString(), minLat, maxLat, minLon, maxLon);
+    }
+
+    /**
+     * 셀 가로/세로 중 긴 쪽이 maxCellMeters 이하가 되는 가장 큰 셀의 정밀도 ([minPrecision, maxPrecision])
+     */
+    public static int precisionFor(double maxCellMeters, double lat, int minPrecision, int maxPrecision) {
+        double cosLat = Math.cos(Math.toRadians(lat));
+        for (int p = minPrecision; p < maxPrecision; p++) {
+            int bits = p * 5;
+            double widthMeters = 360.0 / (1L << ((bits + 1) / 2)) * METERS_PER_DEGREE * cosLat;
+            double heightMeters = 180.0 / (1L << (bits / 2)) * METERS_PER_DEGREE;
+            if (Math.max(widthMeters, heightMeters) <= maxCellMeters) return p;
+        }
+        return maxPrecision;
+    }
+
+    /** haversine (ES geo_distance arc와 같은 반지름) */
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_MEAN_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,39 @@
+package com.ssafy.sulmap.infra.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * GptBatchTextBuilder 가 쓰는 후보 B라인 캐시 (술집 id -> 라인/추정 토큰/압축 필드)
+ * - 크기 상한(max-size): 술집 수 이상이면 충분 (라인 하나 ~200자)
+ * - 지표: cache.gets{cache=gptBarLine,result=hit|miss}, cache.evictions, cache.size ...
+ *
+ * GptBatchTextBuilder 는 정적 유틸이므로 기동 시 이 빈이 만든 캐시로 교체한다.
+ * 스프링 없이 쓰는 곳(테스트/벤치마크)은 기본 크기 캐시를 그대로 쓴다.
+ */
+@Component
+public class GptBarLineCache {
+
+    static final String CACHE_NAME = "gptBarLine";
+    static final long DEFAULT_MAX_SIZE = 50_000;
+
+    public GptBarLineCache(
+            MeterRegistry meterRegistry,
+            @Value("${ai.recommend.batch.line-cache.max-size:50000}") long maxSize
+    ) {
+        Cache<Long, GptBatchTextBuilder.CachedLine> cache = newCache(maxSize);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        GptBatchTextBuilder.useBarLineCache(cache);
+    }
+
+    static Cache<Long, GptBatchTextBuilder.CachedLine> newCache(long maxSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.ssafy.sulmap.infra.utils;
+
+import java.util.List;
+
+/**
+ * GPT에 넘기는 후보 텍스트 + 라인 키 -> barId 매핑
+ * - LEGACY : B|id={barId}|... 라인 키가 곧 barId
+ * - COMPACT: 사전(D 라인) + B|{순번}|... 라인 키가 1부터 시작하는 순번
+ *
+ * tokens/legacyTokens: 이 텍스트와 같은 후보를 LEGACY로 썼을 때의 추정 토큰 (절감량 보고용)
+ */
+public record GptBatchText(
+        GptBatchTextBuilder.Encoding encoding,
+        String text,
+        List<Long> barIdsByOrdinal,
+        int tokens,
+        int legacyTokens
+) {
+
+    public static GptBatchText legacy(String text) {
+        int tokens = GptTokenEstimator.estimate(text);
+        return new GptBatchText(GptBatchTextBuilder.Encoding.LEGACY, text, List.of(), tokens, tokens);
+    }
+
+    public boolean isCompact() {
+        return encoding == GptBatchTextBuilder.Encoding.COMPACT;
+    }
+
+    /**
+     * GPT 출력/라인의 키를 barId로. 모르는 키면 null
+     */
+    public Long toBarId(long key) {
+        if (!isCompact()) return key;
+        if (key < 1 || key > barIdsByOrdinal.size()) return null;
+        return barIdsByOrdinal.get((int) key - 1);
+    }
+
+    public int savedTokens() {
+        return legacyTokens - tokens;
+    }
+}
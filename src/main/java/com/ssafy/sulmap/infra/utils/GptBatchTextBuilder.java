@@ -1,22 +1,45 @@
 package com.ssafy.sulmap.infra.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.ssafy.sulmap.core.model.BarListItemModel;
 import com.ssafy.sulmap.core.model.UserModel;
 import com.ssafy.sulmap.core.model.query.GetRecommenedBarsQuery; // 패키지 맞춰서 수정
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public final class GptBatchTextBuilder {
 
+    /**
+     * 후보 텍스트 포맷
+     * - LEGACY : B|id=..|c=..|oi=..|n=..|menu=.. (라벨/원문 반복)
+     * - COMPACT: 프롬프트별 사전 + 위치 기반 필드 + 순번 id (buildCompactBatch 참고)
+     */
+    public enum Encoding { LEGACY, COMPACT }
+
     private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
     private static final DateTimeFormatter ISO_FMT = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
 
+    // menuJsonString 안의 "name": "..." 값
+    private static final Pattern MENU_NAME_PATTERN = Pattern.compile("\"name\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)\"");
+    // 영업정보 구절 구분자
+    private static final Pattern OPEN_INFO_SPLIT = Pattern.compile("\\s*[,/]\\s*");
+
+    // 후보 라인 캐시: 크기/지표는 GptBarLineCache 빈이 기동 시 교체
+    private static volatile Cache<Long, CachedLine> barLineCache =
+            GptBarLineCache.newCache(GptBarLineCache.DEFAULT_MAX_SIZE);
+
     private GptBatchTextBuilder() {}
 
     /**
@@ -55,10 +78,97 @@ public final class GptBatchTextBuilder {
     public static String buildBatchLines(List<BarListItemModel> batchModels) {
         if (batchModels == null || batchModels.isEmpty()) return "";
 
-        return batchModels.stream()
-                .map(GptBatchTextBuilder::buildOneBarLine)
-                .filter(s -> !s.isBlank())
-                .collect(Collectors.joining("\n"));
+        // 라인을 먼저 모아 길이를 알고 한 번에 할당
+        String[] lines = new String[batchModels.size()];
+        int count = 0;
+        int totalLength = 0;
+        for (BarListItemModel bar : batchModels) {
+            String line = cachedBarLine(bar);
+            if (line.isBlank()) continue;
+            lines[count++] = line;
+            totalLength += line.length();
+        }
+        if (count == 0) return "";
+
+        StringBuilder sb = new StringBuilder(totalLength + count - 1);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append('\n');
+            sb.append(lines[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 후보 텍스트를 encoding에 맞춰 생성 (+ LEGACY 대비 추정 토큰)
+     */
+    public static GptBatchText buildBatch(List<BarListItemModel> batchModels, Encoding encoding) {
+        if (encoding == Encoding.COMPACT) return buildCompactBatch(batchModels);
+        int tokens = estimateBatchTokens(batchModels);
+        return new GptBatchText(Encoding.LEGACY, buildBatchLines(batchModels), List.of(), tokens, tokens);
+    }
+
+    /**
+     * 압축 포맷. 사전은 이 프롬프트 안에서만 유효하고, 두 번 이상 나온 값만 코드로 뺀다.
+     * <pre>
+     * D|C1=이자카야              (카테고리)
+     * D|O1=매일 17:00 - 02:00    (영업정보 구절, 쉼표/슬래시 단위)
+     * D|M1=하이볼,생맥주         (메뉴 이름 목록, 술집 안 중복 제거)
+     * B|{순번}|{c}|{oi}|{n}|{menu}
+     * </pre>
+     * 순번은 1부터, GptBatchText.toBarId로 barId로 되돌린다.
+     */
+    public static GptBatchText buildCompactBatch(List<BarListItemModel> batchModels) {
+        if (batchModels == null || batchModels.isEmpty()) {
+            return new GptBatchText(Encoding.COMPACT, "", List.of(), 0, 0);
+        }
+
+        List<Long> ids = new ArrayList<>(batchModels.size());
+        List<CompactFields> rows = new ArrayList<>(batchModels.size());
+        int legacyTokens = 0;
+        for (BarListItemModel bar : batchModels) {
+            CachedLine line = barLine(bar);
+            if (line.line().isBlank()) continue;
+            ids.add(bar.getId());
+            rows.add(line.compact());
+            legacyTokens += line.tokens();
+        }
+        if (rows.isEmpty()) return new GptBatchText(Encoding.COMPACT, "", List.of(), 0, 0);
+
+        Dictionary categories = new Dictionary("C");
+        Dictionary openInfos = new Dictionary("O");
+        Dictionary menus = new Dictionary("M");
+        for (CompactFields row : rows) {
+            categories.count(row.category());
+            row.openInfoPhrases().forEach(openInfos::count);
+            menus.count(row.menu());
+        }
+
+        StringBuilder sb = new StringBuilder(legacyTokens * 2);
+        int lines = 0;
+        for (Dictionary dict : List.of(categories, openInfos, menus)) {
+            for (Map.Entry<String, String> e : dict.entries().entrySet()) {
+                if (lines++ > 0) sb.append('\n');
+                sb.append("D|").append(e.getValue()).append('=').append(e.getKey());
+            }
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            CompactFields row = rows.get(i);
+            if (lines++ > 0) sb.append('\n');
+            sb.append("B|").append(i + 1)
+                    .append('|').append(categories.encode(row.category()))
+                    .append('|');
+            for (int p = 0; p < row.openInfoPhrases().size(); p++) {
+                if (p > 0) sb.append(',');
+                sb.append(openInfos.encode(row.openInfoPhrases().get(p)));
+            }
+            sb.append('|').append(row.name())
+                    .append('|').append(menus.encode(row.menu()));
+        }
+
+        String text = sb.toString();
+        // LEGACY와 같은 기준 (라인당 줄바꿈 1)
+        int tokens = GptTokenEstimator.estimate(text) + lines;
+        return new GptBatchText(Encoding.COMPACT, text, List.copyOf(ids), tokens, legacyTokens);
     }
 
     /**
@@ -70,14 +180,81 @@ public final class GptBatchTextBuilder {
         return ctx + "\n" + batch;
     }
 
-    private static String buildOneBarLine(BarListItemModel bar) {
+    /**
+     * 후보를 입력 순서대로 토큰 예산 단위 배치로 나눈다.
+     * - 배치당 추정 토큰 <= tokenBudget, 배치당 술집 수 <= maxBatchSize
+     * - 예산보다 큰 라인 하나는 단독 배치
+     * - 최대 maxBatches개까지만 만들고 나머지(먼 후보)는 버린다
+     */
+    public static List<List<BarListItemModel>> splitByTokenBudget(
+            List<BarListItemModel> models, int tokenBudget, int maxBatchSize, int maxBatches) {
+        if (models == null || models.isEmpty() || maxBatches <= 0) return List.of();
+
+        List<List<BarListItemModel>> batches = new ArrayList<>();
+        List<BarListItemModel> current = new ArrayList<>();
+        int currentTokens = 0;
+        for (BarListItemModel bar : models) {
+            CachedLine line = barLine(bar);
+            if (line.line().isBlank()) continue;
+
+            boolean overBudget = currentTokens + line.tokens() > tokenBudget;
+            if (!current.isEmpty() && (overBudget || current.size() >= maxBatchSize)) {
+                batches.add(current);
+                if (batches.size() >= maxBatches) return batches;
+                current = new ArrayList<>();
+                currentTokens = 0;
+            }
+            current.add(bar);
+            currentTokens += line.tokens();
+        }
+        if (!current.isEmpty()) batches.add(current);
+        return batches;
+    }
+
+    /**
+     * B라인들(buildBatchLines 결과)의 추정 토큰 수
+     */
+    public static int estimateBatchTokens(List<BarListItemModel> batchModels) {
+        if (batchModels == null) return 0;
+        int tokens = 0;
+        for (BarListItemModel bar : batchModels) tokens += barLine(bar).tokens();
+        return tokens;
+    }
+
+    static void useBarLineCache(Cache<Long, CachedLine> cache) {
+        barLineCache = Objects.requireNonNull(cache, "cache");
+    }
+
+    static String cachedBarLine(BarListItemModel bar) {
+        return barLine(bar).line();
+    }
+
+    /**
+     * 술집 id별로 만들어 둔 B라인(+추정 토큰) 재사용.
+     * updatedAt이 바뀌거나(술집 정보 수정) 영업정보 요약이 달라지면 다시 만든다 (요약 저장은 updatedAt을 바꾸지 않음).
+     * updatedAt이 없으면 검증할 수 없으니 캐시하지 않음.
+     */
+    private static CachedLine barLine(BarListItemModel bar) {
+        if (bar == null || bar.getId() == null) return CachedLine.EMPTY;
+        if (bar.getUpdatedAt() == null) return CachedLine.of(-1, bar, buildOneBarLine(bar), compactFields(bar));
+
+        long updatedAt = bar.getUpdatedAt().getTime();
+        Cache<Long, CachedLine> cache = barLineCache;
+        CachedLine cached = cache.getIfPresent(bar.getId());
+        if (cached != null && cached.updatedAt() == updatedAt
+                && Objects.equals(cached.openInfoSummary(), bar.getOpenInfoSummary())) return cached;
+
+        CachedLine built = CachedLine.of(updatedAt, bar, buildOneBarLine(bar), compactFields(bar));
+        cache.put(bar.getId(), built);
+        return built;
+    }
+
+    static String buildOneBarLine(BarListItemModel bar) {
         if (bar == null || bar.getId() == null) return "";
 
         String c = sanitize(nullToDash(bar.getBaseCategoryName()), 10);
 
-        // openInformation은 길어질 수 있으니 아주 짧게 잘라서 사용
-        // (원문을 그대로 쓰면 토큰 폭발 위험)
-        String oi = sanitize(nullToDash(bar.getOpenInformation()), 60);
+        String oi = openInfoText(bar);
 
         // 이름은 추천 품질에 도움은 되지만 길어질 수 있어 제한
         String n = sanitize(nullToDash(bar.getName()), 20);
@@ -91,6 +268,51 @@ public final class GptBatchTextBuilder {
                 + "|menu=" + menu;
     }
 
+    /**
+     * 영업정보 원문을 프롬프트용으로 자른 값 (요약이 없을 때)
+     * 원문을 그대로 쓰면 토큰 폭발 위험
+     */
+    public static String shortOpenInfo(String openInformation) {
+        return sanitize(nullToDash(openInformation), 60);
+    }
+
+    // 오프라인 요약이 있으면 요약, 없으면 원문을 잘라서
+    private static String openInfoText(BarListItemModel bar) {
+        String summary = bar.getOpenInfoSummary();
+        if (summary != null && !summary.isBlank()) return sanitize(summary, 60);
+        return shortOpenInfo(bar.getOpenInformation());
+    }
+
+    // 압축 포맷용 필드 (LEGACY와 같은 길이 제한, 사전 치환 전 값)
+    static CompactFields compactFields(BarListItemModel bar) {
+        String c = sanitize(nullToDash(bar.getBaseCategoryName()), 10);
+
+        String oi = openInfoText(bar);
+        List<String> phrases = new ArrayList<>();
+        for (String phrase : OPEN_INFO_SPLIT.split(oi)) {
+            if (!phrase.isBlank()) phrases.add(phrase.trim());
+        }
+        if (phrases.isEmpty()) phrases.add("-");
+
+        String n = sanitize(nullToDash(bar.getName()), 20);
+
+        return new CompactFields(c, List.copyOf(phrases), n, menuNames(bar.getMenuJsonString()));
+    }
+
+    // 메뉴 JSON에서 이름만 (술집 안 중복 제거). JSON이 아니면 원문을 잘라서
+    static String menuNames(String menuJson) {
+        if (menuJson == null || menuJson.isBlank()) return "-";
+
+        Set<String> names = new LinkedHashSet<>();
+        Matcher m = MENU_NAME_PATTERN.matcher(menuJson);
+        while (m.find()) {
+            String name = sanitize(m.group(1).replace(',', ' '), 20);
+            if (!name.isBlank()) names.add(name);
+        }
+        if (names.isEmpty()) return sanitize(menuJson, 60);
+        return sanitize(String.join(",", names), 60);
+    }
+
     // -------------------------
     // Utils
     // -------------------------
@@ -130,5 +352,57 @@ public final class GptBatchTextBuilder {
         return s == null || s.isBlank() ? "-" : s;
     }
 
+    // tokens: line + 줄바꿈 1
+    record CachedLine(long updatedAt, String openInfoSummary, String line, int tokens, CompactFields compact) {
+        static final CachedLine EMPTY = new CachedLine(-1, null, "", 0, null);
+
+        static CachedLine of(long updatedAt, BarListItemModel bar, String line, CompactFields compact) {
+            return new CachedLine(updatedAt, bar.getOpenInfoSummary(), line,
+                    line.isBlank() ? 0 : GptTokenEstimator.estimate(line) + 1, compact);
+        }
+    }
+
+    record CompactFields(String category, List<String> openInfoPhrases, String name, String menu) {}
+
+    /**
+     * 프롬프트 하나 안의 값 -> 코드 사전. 사전 라인(D|코드=값) 비용을 빼고도 줄어드는 값만 코드로 바꾼다.
+     */
+    private static final class Dictionary {
+        private final String _prefix;
+        private final Map<String, Integer> _counts = new LinkedHashMap<>();
+        private Map<String, String> _codes;
+
+        Dictionary(String prefix) {
+            _prefix = prefix;
+        }
+
+        void count(String value) {
+            if (value == null || value.equals("-")) return;
+            _counts.merge(value, 1, Integer::sum);
+        }
+
+        /** 값 -> 코드 (처음 나온 순서) */
+        Map<String, String> entries() {
+            if (_codes == null) {
+                _codes = new LinkedHashMap<>();
+                for (Map.Entry<String, Integer> e : _counts.entrySet()) {
+                    if (e.getValue() < 2) continue;
+                    String code = _prefix + (_codes.size() + 1);
+                    int valueTokens = GptTokenEstimator.estimate(e.getKey());
+                    int codeTokens = GptTokenEstimator.estimate(code);
+                    // D, |, =, 줄바꿈
+                    int entryTokens = valueTokens + codeTokens + 4;
+                    if (e.getValue() * (valueTokens - codeTokens) <= entryTokens) continue;
+                    _codes.put(e.getKey(), code);
+                }
+            }
+            return _codes;
+        }
+
+        String encode(String value) {
+            return entries().getOrDefault(value, value);
+        }
+    }
+
 }
 
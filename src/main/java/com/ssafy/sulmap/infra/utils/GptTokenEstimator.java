@@ -0,0 +1,43 @@
+package com.ssafy.sulmap.infra.utils;
+
+/**
+ * 토크나이저 없이 GPT 입력 토큰 수를 대략 추정한다 (배치 크기 결정용).
+ * - 한글 음절/기타 비ASCII 문자: 1자 = 1토큰
+ * - ASCII 영숫자 연속 구간: 4자 = 1토큰 (올림)
+ * - ASCII 기호(| = : , 등): 1자 = 1토큰
+ * - 공백: 다음 토큰에 붙는다고 보고 0
+ *
+ * 실제 사용량(usage.input_tokens)과의 비율은 GptTokenUsageRecorder가 기록하므로
+ * 그 값을 보고 보정한다.
+ */
+public final class GptTokenEstimator {
+
+    private static final int ASCII_CHARS_PER_TOKEN = 4;
+
+    private GptTokenEstimator() {}
+
+    public static int estimate(CharSequence text) {
+        if (text == null || text.isEmpty()) return 0;
+
+        int tokens = 0;
+        int alnumRun = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch < 0x80 && Character.isLetterOrDigit(ch)) {
+                alnumRun++;
+                continue;
+            }
+            tokens += runTokens(alnumRun);
+            alnumRun = 0;
+
+            if (Character.isWhitespace(ch)) continue;
+            if (Character.isHighSurrogate(ch)) i++; // 서로게이트 쌍은 한 글자
+            tokens++;
+        }
+        return tokens + runTokens(alnumRun);
+    }
+
+    private static int runTokens(int alnumRun) {
+        return (alnumRun + ASCII_CHARS_PER_TOKEN - 1) / ASCII_CHARS_PER_TOKEN;
+    }
+}
@@ -0,0 +1,159 @@
+package com.ssafy.sulmap.core.service.impl;
+
+import com.ssafy.sulmap.core.model.RecommendJobModel;
+import com.ssafy.sulmap.core.model.RecommendedBarModel;
+import com.ssafy.sulmap.core.model.enums.RecommendJobStatus;
+import com.ssafy.sulmap.core.model.query.GetRecommenedBarsQuery;
+import com.ssafy.sulmap.core.repository.RecommendJobRepository;
+import com.ssafy.sulmap.core.service.AIRecommendService;
+import com.ssafy.sulmap.share.result.Result;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("AiRecommendJobServiceImpl 유닛 테스트")
+@ExtendWith(MockitoExtension.class)
+class AiRecommendJobServiceImplTest {
+
+    @Mock
+    private AIRecommendService _aiRecommendService;
+
+    @Mock
+    private RecommendJobRepository _recommendJobRepository;
+
+    private ThreadPoolExecutor _executor;
+
+    private SimpleMeterRegistry _meterRegistry;
+
+    private AiRecommendJobServiceImpl _jobService;
+
+    @BeforeEach
+    void setUp() {
+        // 스레드 1 + 대기열 1
+        _executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+        _meterRegistry = new SimpleMeterRegistry();
+        _jobService = new AiRecommendJobServiceImpl(_aiRecommendService, _recommendJobRepository, _executor, _meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        _executor.shutdownNow();
+    }
+
+    private GetRecommenedBarsQuery createQuery(long userId) {
+        return GetRecommenedBarsQuery.builder()
+                .lat(37.5)
+                .lon(127.0)
+                .userId(userId)
+                .maxDistance(1000)
+                .userPrompt("조용한 이자카야")
+                .build();
+    }
+
+    @Test
+    @DisplayName("제출하면 바로 작업을 반환하고, 완료되면 결과가 채워진다")
+    void submit_runsInBackground() throws Exception {
+        var expected = List.of(RecommendedBarModel.builder().id(1L).recommendRank(1).build());
+        CountDownLatch release = new CountDownLatch(1);
+        when(_aiRecommendService.getRecommendedBars(any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Result.ok(expected);
+        });
+
+        var result = _jobService.submit(createQuery(1L));
+
+        assertTrue(result.isSuccess());
+        var job = result.getOrThrow();
+        assertNotNull(job.getId());
+        assertNotEquals(RecommendJobStatus.SUCCEEDED, job.getStatus());
+
+        release.countDown();
+        job.getCompletion().get(5, TimeUnit.SECONDS);
+
+        assertEquals(RecommendJobStatus.SUCCEEDED, job.getStatus());
+        assertEquals(expected, job.getResult().getOrThrow());
+        // 제출 시 + 완료 시(보관 기간 갱신)
+        verify(_recommendJobRepository, timeout(1000).times(2)).save(job);
+    }
+
+    @Test
+    @DisplayName("추천 중 예외가 나면 작업은 FAILED 로 끝난다")
+    void submit_serviceThrows_failed() throws Exception {
+        when(_aiRecommendService.getRecommendedBars(any())).thenThrow(new IllegalStateException("boom"));
+
+        var job = _jobService.submit(createQuery(1L)).getOrThrow();
+        job.getCompletion().get(5, TimeUnit.SECONDS);
+
+        assertEquals(RecommendJobStatus.FAILED, job.getStatus());
+        assertEquals(500, job.getResult().getSingleErrorOrThrow().getCode());
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 429로 거절하고 작업을 저장하지 않는다")
+    void submit_queueFull_rejected() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(_aiRecommendService.getRecommendedBars(any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Result.ok(List.of());
+        });
+
+        try {
+            assertTrue(_jobService.submit(createQuery(1L)).isSuccess()); // 실행 중
+            // 첫 작업이 worker에 잡힌 뒤에 제출해야 두 번째가 대기열에 들어간다 (아니면 executor와 경합)
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertTrue(_jobService.submit(createQuery(1L)).isSuccess()); // 대기열
+
+            var rejected = _jobService.submit(createQuery(1L));
+
+            assertTrue(rejected.isFailure());
+            assertEquals(429, rejected.getSingleErrorOrThrow().getCode());
+            assertEquals(1.0, _meterRegistry.get("ai.recommend.jobs").tag("outcome", "rejected").counter().count());
+            ArgumentCaptor<RecommendJobModel> saved = ArgumentCaptor.forClass(RecommendJobModel.class);
+            verify(_recommendJobRepository, times(2)).save(saved.capture());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("다른 사용자의 작업은 404")
+    void findJob_otherUser_notFound() {
+        var job = RecommendJobModel.builder().id("job-1").userId(1L).build();
+        when(_recommendJobRepository.findById("job-1")).thenReturn(Optional.of(job));
+
+        assertTrue(_jobService.findJob("job-1", 1L).isSuccess());
+        var other = _jobService.findJob("job-1", 2L);
+        assertTrue(other.isFailure());
+        assertEquals(404, other.getSingleErrorOrThrow().getCode());
+    }
+
+    @Test
+    @DisplayName("만료되었거나 없는 작업은 404")
+    void findJob_missing_notFound() {
+        when(_recommendJobRepository.findById("nope")).thenReturn(Optional.empty());
+
+        var result = _jobService.findJob("nope", 1L);
+
+        assertTrue(result.isFailure());
+        assertEquals(404, result.getSingleErrorOrThrow().getCode());
+    }
+}
@@ -0,0 +1,219 @@
+package com.ssafy.sulmap.core.service.impl;
+
+import com.openai.client.okhttp.OpenAIOkHttpClient;
+import com.ssafy.sulmap.core.model.AiPipelineSettings;
+import com.ssafy.sulmap.core.model.AiShadowConfig;
+import com.ssafy.sulmap.core.model.BarListItemModel;
+import com.ssafy.sulmap.core.model.RecommendCacheKey;
+import com.ssafy.sulmap.core.model.RecommendedBarModel;
+import com.ssafy.sulmap.core.model.UserModel;
+import com.ssafy.sulmap.core.model.query.GetRecommenedBarsQuery;
+import com.ssafy.sulmap.core.model.query.NearbyBarsQuery;
+import com.ssafy.sulmap.core.repository.RecommendCacheRepository;
+import com.ssafy.sulmap.core.service.ReviewService;
+import com.ssafy.sulmap.core.service.UserService;
+import com.ssafy.sulmap.infra.external.elastic.BarSearchElasticClient;
+import com.ssafy.sulmap.infra.external.elastic.NearbyTileCache;
+import com.ssafy.sulmap.infra.external.embedding.HashingTextEmbedder;
+import com.ssafy.sulmap.infra.external.embedding.PromptEmbeddingCache;
+import com.ssafy.sulmap.infra.external.openai.*;
+import com.ssafy.sulmap.infra.model.BarSearchElasticEntity;
+import com.ssafy.sulmap.infra.repository.AiRecommendRepositoryImpl;
+import com.ssafy.sulmap.infra.repository.BarRepositoryImpl;
+import com.ssafy.sulmap.infra.utils.GptBatchTextBuilder;
+import com.ssafy.sulmap.share.result.Result;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AI 추천 파이프라인 end-to-end 처리량/지연 측정 (GPT는 replay, ES는 stub)
+ * - 동시성 단계마다 LEVEL_SECONDS 동안 closed-loop 워커가 getRecommendedBars를 반복 호출
+ * - 요청마다 위치를 조금씩 바꿔 single-flight/캐시에 묶이지 않게 한다
+ * - 출력: 처리량(req/s), p50/p95/p99 지연, 실패 수
+ *
+ * 실행: 테스트 클래스패스로 main 실행
+ *   args[0] 동시성 목록      (기본 1,4,16,32)
+ *   args[1] 1차 지연 분포    (기본 lognormal:1500:0.4, 문법은 GptReplayLatency)
+ *   args[2] 2차 지연 분포    (기본 lognormal:4000:0.3)
+ *   args[3] replay fixture 디렉터리 (기본 classpath:fixtures/replay, 없는 키는 default.json)
+ */
+public class AiRecommendPipelineBenchmark {
+
+    private static final int LEVEL_SECONDS = 20;
+    private static final int CANDIDATES = 200;
+    private static final long ES_LATENCY_MS = 15;
+    private static final long LATENCY_BUDGET_MS = 25_000;
+    private static final String[] CATEGORIES = {"호프", "요리주점", "이자카야", "와인바", "칵테일바"};
+
+    public static void main(String[] args) throws Exception {
+        int[] levels = Arrays.stream((args.length > 0 ? args[0] : "1,4,16,32").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim()))
+                .toArray();
+        String stage1Latency = args.length > 1 ? args[1] : "lognormal:1500:0.4";
+        String stage2Latency = args.length > 2 ? args[2] : "lognormal:4000:0.3";
+        Path fixtures = args.length > 3 ? Path.of(args[3]) : new ClassPathResource("fixtures/replay").getFile().toPath();
+
+        System.out.printf("stage1=%s, stage2=%s, candidates=%d, fixtures=%s%n",
+                stage1Latency, stage2Latency, CANDIDATES, fixtures);
+        System.out.printf("%6s %10s %10s %10s %10s %8s %8s%n", "conc", "req/s", "p50", "p95", "p99", "ok", "fail");
+
+        for (int concurrency : levels) {
+            ExecutorService pipelineExecutor = Executors.newFixedThreadPool(Math.max(16, concurrency * 5));
+            ExecutorService hedgeExecutor = Executors.newFixedThreadPool(4);
+            try {
+                var service = pipeline(fixtures, stage1Latency, stage2Latency, pipelineExecutor, hedgeExecutor);
+                run(service, concurrency);
+            } finally {
+                pipelineExecutor.shutdownNow();
+                hedgeExecutor.shutdownNow();
+            }
+        }
+    }
+
+    private static void run(AiRecommendServiceImpl service, int concurrency) throws InterruptedException {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger seq = new AtomicInteger();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(LEVEL_SECONDS);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        for (int w = 0; w < concurrency; w++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < end) {
+                    var query = query(seq.incrementAndGet());
+                    long t0 = System.nanoTime();
+                    Result<List<RecommendedBarModel>> result = service.getRecommendedBars(query);
+                    long elapsed = System.nanoTime() - t0;
+                    if (result.isSuccess()) latencies.add(elapsed);
+                    else failures.incrementAndGet();
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(LEVEL_SECONDS + 120, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("%6d %10.2f %8dms %8dms %8dms %8d %8d%n",
+                concurrency,
+                sorted.length / seconds,
+                percentileMs(sorted, 0.50),
+                percentileMs(sorted, 0.95),
+                percentileMs(sorted, 0.99),
+                sorted.length,
+                failures.get());
+    }
+
+    private static AiRecommendServiceImpl pipeline(Path fixtures, String stage1Latency, String stage2Latency,
+                                                   ExecutorService pipelineExecutor, ExecutorService hedgeExecutor) {
+        var meterRegistry = new SimpleMeterRegistry();
+        var replay = new GptReplayStore(GptReplayStore.Mode.REPLAY, fixtures,
+                GptReplayLatency.parse(stage1Latency), GptReplayLatency.parse(stage2Latency));
+        var guard = new GptCallGuard(new GptCallGuard.Settings(
+                Duration.ofSeconds(15), Duration.ofSeconds(30), 20, 10, 0.5, Duration.ofSeconds(30),
+                false, 0.95, 20), hedgeExecutor, meterRegistry);
+        // replay 모드에서는 호출되지 않음
+        var openAIClient = OpenAIOkHttpClient.builder().apiKey("replay").build();
+        var usageRecorder = new GptTokenUsageRecorder(meterRegistry);
+        var router = GptModelRouter.fixed("gpt-5.2", meterRegistry);
+        var aiRecommendRepository = new AiRecommendRepositoryImpl(
+                new GptMinorRecommendClient(openAIClient, usageRecorder, guard, replay, router),
+                new GptRecommendClient(openAIClient, usageRecorder, guard, replay, router),
+                meterRegistry, 8000, GptBatchTextBuilder.Encoding.COMPACT);
+
+        var embedder = new HashingTextEmbedder(256);
+        var barClient = new StubBarSearchElasticClient();
+        var barService = new BarServiceImpl(new BarRepositoryImpl(null, barClient,
+                embedder, new PromptEmbeddingCache(embedder, meterRegistry, 1000, ""),
+                new NearbyTileCache(barClient, meterRegistry, false, 30, 1, 500), false));
+        return new AiRecommendServiceImpl(aiRecommendRepository, new NoCache(), barService, stub(UserService.class),
+                stub(ReviewService.class), new AiPipelineSettingsServiceImpl(AiPipelineSettings.defaults()),
+                AiShadowConfig.disabled(), pipelineExecutor, pipelineExecutor, pipelineExecutor, meterRegistry,
+                LATENCY_BUDGET_MS);
+    }
+
+    private static GetRecommenedBarsQuery query(int seq) {
+        return GetRecommenedBarsQuery.builder()
+                .lat(37.5012 + seq * 0.01)
+                .lon(127.0396)
+                .userId(1L)
+                .maxDistance(1000)
+                .weatherKey("-")
+                .userPrompt("조용하게 사케나 하이볼 마실 이자카야")
+                .build();
+    }
+
+    private static long percentileMs(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int idx = Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1);
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, idx)]);
+    }
+
+    // 파이프라인이 쓰는 조회만 응답 (사용자 1명, 리뷰 없음)
+    private static <T> T stub(Class<T> type) {
+        var user = UserModel.builder().id(1L).build();
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, methodArgs) -> switch (method.getName()) {
+                    case "findUserById" -> Result.ok(user);
+                    case "getSummaries" -> Result.ok(Map.of());
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+
+    /**
+     * 거리순 후보 CANDIDATES개를 ES 지연만큼 기다렸다 돌려준다
+     */
+    private static final class StubBarSearchElasticClient extends BarSearchElasticClient {
+
+        StubBarSearchElasticClient() {
+            super(null);
+        }
+
+        @Override
+        public List<BarSearchElasticEntity> findNearby(NearbyBarsQuery query) throws IOException {
+            try {
+                Thread.sleep(ES_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            int count = Math.min(query.count(), CANDIDATES);
+            List<BarSearchElasticEntity> bars = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String category = CATEGORIES[i % CATEGORIES.length];
+                bars.add(BarSearchElasticEntity.builder()
+                        .id(1000L + i)
+                        .name(category + " " + (i + 1) + "호")
+                        .address("서울 강남구 테헤란로 " + (i + 1))
+                        .baseCategoryName(category)
+                        .latitude(query.latitude())
+                        .longitude(query.longitude())
+                        .openInfo(i % 3 == 0 ? "24시간 영업" : "18:00~24:00")
+                        .menuJsonString("[{\"name\": \"하이볼\"}, {\"name\": \"생맥주\"}]")
+                        .distanceMeters(30.0 + i * 4.5)
+                        .build());
+            }
+            return bars;
+        }
+    }
+
+    private static final class NoCache implements RecommendCacheRepository {
+        @Override
+        public Optional<List<RecommendedBarModel>> find(RecommendCacheKey key, List<BarListItemModel> candidates) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void save(RecommendCacheKey key, List<RecommendedBarModel> recommended) {
+        }
+    }
+}
@@ -0,0 +1,743 @@
+package com.ssafy.sulmap.core.service.impl;
+
+import com.ssafy.sulmap.core.model.AiPipelineSettings;
+import com.ssafy.sulmap.core.model.AiShadowConfig;
+import com.ssafy.sulmap.core.model.BarListItemModel;
+import com.ssafy.sulmap.core.model.MinorRecommendedBarModel;
+import com.ssafy.sulmap.core.model.RecommendedBarModel;
+import com.ssafy.sulmap.core.model.ReviewSummaryModel;
+import com.ssafy.sulmap.core.model.UserModel;
+import com.ssafy.sulmap.core.model.enums.PreRankMode;
+import com.ssafy.sulmap.core.model.enums.RecommendRanker;
+import com.ssafy.sulmap.core.model.enums.UserGender;
+import com.ssafy.sulmap.core.model.query.GetRecommenedBarsQuery;
+import com.ssafy.sulmap.core.model.query.NearbyBarsQuery;
+import com.ssafy.sulmap.core.repository.AiRecommendRepository;
+import com.ssafy.sulmap.core.repository.RecommendCacheRepository;
+import com.ssafy.sulmap.core.service.BarService;
+import com.ssafy.sulmap.core.service.ReviewService;
+import com.ssafy.sulmap.core.service.UserService;
+import com.ssafy.sulmap.share.result.Result;
+import com.ssafy.sulmap.share.result.error.impl.NotFoundError;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("AiRecommendServiceImpl 유닛 테스트")
+@ExtendWith(MockitoExtension.class)
+class AiRecommendServiceImplTest {
+
+    @Mock
+    private AiRecommendRepository _aiRecommendRepository;
+
+    @Mock
+    private RecommendCacheRepository _recommendCacheRepository;
+
+    @Mock
+    private BarService _barService;
+
+    @Mock
+    private UserService _userService;
+
+    @Mock
+    private ReviewService _reviewService;
+
+    private AiPipelineSettingsServiceImpl _pipelineSettingsService;
+
+    private ExecutorService _executor;
+
+    private ExecutorService _shadowFanOutExecutor;
+
+    private SimpleMeterRegistry _meterRegistry;
+
+    private AiRecommendServiceImpl _aiRecommendService;
+
+    @BeforeEach
+    void setUp() {
+        _executor = Executors.newFixedThreadPool(4);
+        _shadowFanOutExecutor = Executors.newFixedThreadPool(2, r -> new Thread(r, "shadow-fan-out"));
+        _meterRegistry = new SimpleMeterRegistry();
+        _pipelineSettingsService = new AiPipelineSettingsServiceImpl(AiPipelineSettings.defaults());
+        _aiRecommendService = service(5_000);
+        lenient().when(_reviewService.getSummaries(anyList())).thenReturn(Result.ok(Map.of()));
+    }
+
+    private AiRecommendServiceImpl service(long latencyBudgetMs) {
+        return service(latencyBudgetMs, AiShadowConfig.disabled());
+    }
+
+    private AiRecommendServiceImpl service(long latencyBudgetMs, AiShadowConfig shadowConfig) {
+        return new AiRecommendServiceImpl(_aiRecommendRepository, _recommendCacheRepository, _barService, _userService,
+                _reviewService, _pipelineSettingsService, shadowConfig, _executor, _executor, _shadowFanOutExecutor,
+                _meterRegistry, latencyBudgetMs);
+    }
+
+    @AfterEach
+    void tearDown() {
+        _executor.shutdownNow();
+        _shadowFanOutExecutor.shutdownNow();
+    }
+
+    private GetRecommenedBarsQuery createQuery() {
+        return GetRecommenedBarsQuery.builder()
+                .lat(37.5)
+                .lon(127.0)
+                .userId(1L)
+                .maxDistance(1000)
+                .weatherKey("-")
+                .userPrompt("조용한 이자카야")
+                .build();
+    }
+
+    private List<BarListItemModel> createBars(int count) {
+        List<BarListItemModel> bars = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            bars.add(BarListItemModel.builder().id(id).name("bar" + id).build());
+        }
+        return bars;
+    }
+
+    private List<MinorRecommendedBarModel> toMinor(List<BarListItemModel> bars, int topK) {
+        return bars.stream()
+                .limit(topK)
+                .map(b -> (MinorRecommendedBarModel) MinorRecommendedBarModel.builder().id(b.getId()).name(b.getName()).build())
+                .toList();
+    }
+
+    private List<List<BarListItemModel>> chunk(List<BarListItemModel> bars, int size) {
+        List<List<BarListItemModel>> batches = new ArrayList<>();
+        for (int start = 0; start < bars.size(); start += size) {
+            batches.add(new ArrayList<>(bars.subList(start, Math.min(start + size, bars.size()))));
+        }
+        return batches;
+    }
+
+    private List<BarListItemModel> reversed(List<BarListItemModel> bars) {
+        List<BarListItemModel> copy = new ArrayList<>(bars);
+        Collections.reverse(copy);
+        return copy;
+    }
+
+    @Test
+    @DisplayName("후보가 2차 풀 이하이면 1차 없이 바로 2차 추천을 호출한다")
+    void getRecommendedBars_smallPool_skipsStage1() {
+        var query = createQuery();
+        var bars = createBars(10);
+        var user = UserModel.builder().id(1L).build();
+        var expected = List.of(RecommendedBarModel.builder().id(1L).recommendRank(1).build());
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(user));
+        when(_aiRecommendRepository.getRecommend(eq(bars), eq(user), eq(query), anyInt())).thenReturn(expected);
+
+        var result = _aiRecommendService.getRecommendedBars(query);
+
+        assertTrue(result.isSuccess());
+        assertEquals(expected, result.getOrThrow());
+        verify(_aiRecommendRepository, never()).getMinorRecommend(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("1차 배치들은 동시에 실행되고 배치 순서대로 2차 후보가 된다")
+    @SuppressWarnings("unchecked")
+    void getRecommendedBars_stage1BatchesRunConcurrently() {
+        var query = createQuery();
+        var bars = createBars(200);
+        var user = UserModel.builder().id(1L).build();
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(user));
+        when(_aiRecommendRepository.splitByTokenBudget(bars, 100, 4)).thenReturn(chunk(bars, 100));
+
+        // 두 배치가 모두 진입해야 풀리는 latch: 순차 실행이면 타임아웃으로 폴백된다
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(_aiRecommendRepository.getMinorRecommend(any(), eq(user), eq(query), anyInt())).thenAnswer(inv -> {
+            List<BarListItemModel> batch = inv.getArgument(0);
+            int topK = inv.getArgument(3);
+            bothStarted.countDown();
+            if (!bothStarted.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("batches ran sequentially");
+            // 배치의 뒤쪽부터 고른 것처럼 응답
+            return toMinor(reversed(batch), topK);
+        });
+        when(_aiRecommendRepository.getRecommend(any(), eq(user), eq(query), anyInt())).thenReturn(List.of());
+
+        var result = _aiRecommendService.getRecommendedBars(query);
+
+        assertTrue(result.isSuccess());
+        verify(_aiRecommendRepository, times(2)).getMinorRecommend(any(), any(), any(), anyInt());
+
+        var captor = ArgumentCaptor.forClass(List.class);
+        verify(_aiRecommendRepository).getRecommend(captor.capture(), eq(user), eq(query), anyInt());
+        List<BarListItemModel> stage2 = captor.getValue();
+        assertEquals(40, stage2.size());
+        assertEquals(100L, stage2.get(0).getId(), "첫 배치의 1차 결과가 먼저");
+        assertEquals(200L, stage2.get(20).getId(), "두번째 배치의 1차 결과가 뒤에");
+    }
+
+    @Test
+    @DisplayName("실패한 1차 배치는 거리순 상위로 대체된다")
+    @SuppressWarnings("unchecked")
+    void getRecommendedBars_failedBatch_fallsBackToDistanceOrder() {
+        var query = createQuery();
+        var bars = createBars(200);
+        var user = UserModel.builder().id(1L).build();
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(user));
+        when(_aiRecommendRepository.splitByTokenBudget(bars, 100, 4)).thenReturn(chunk(bars, 100));
+        when(_aiRecommendRepository.getMinorRecommend(any(), eq(user), eq(query), anyInt())).thenAnswer(inv -> {
+            List<BarListItemModel> batch = inv.getArgument(0);
+            if (batch.get(0).getId() == 101L) throw new IllegalStateException("boom");
+            return toMinor(reversed(batch), inv.getArgument(3));
+        });
+        when(_aiRecommendRepository.getRecommend(any(), eq(user), eq(query), anyInt())).thenReturn(List.of());
+
+        var result = _aiRecommendService.getRecommendedBars(query);
+
+        assertTrue(result.isSuccess());
+        var captor = ArgumentCaptor.forClass(List.class);
+        verify(_aiRecommendRepository).getRecommend(captor.capture(), eq(user), eq(query), anyInt());
+        List<BarListItemModel> stage2 = captor.getValue();
+        assertEquals(40, stage2.size());
+        assertEquals(100L, stage2.get(0).getId());
+        assertEquals(101L, stage2.get(20).getId(), "실패 배치는 거리순(입력 순서) 상위");
+        assertEquals(120L, stage2.get(39).getId());
+        assertEquals(1.0, _meterRegistry.get("ai.recommend.fallback")
+                .tags("stage", "stage1", "reason", "error").counter().count());
+        assertEquals(1, _meterRegistry.get("ai.recommend.pipeline.latency")
+                .tags("stage", "stage1_batch", "outcome", "success").timer().count());
+        assertEquals(1, _meterRegistry.get("ai.recommend.pipeline.latency")
+                .tags("stage", "stage1_batch", "outcome", "failure").timer().count());
+    }
+
+    @Test
+    @DisplayName("실행 중 바꾼 파이프라인 크기는 다음 요청부터 조회/배치/풀/최종 수에 적용되고, 잘못된 조합은 거부된다")
+    @SuppressWarnings("unchecked")
+    void getRecommendedBars_runtimeSettings_applyToNextRequest() {
+        var query = createQuery();
+        var bars = createBars(120);
+        var user = UserModel.builder().id(1L).build();
+
+        assertTrue(_pipelineSettingsService.update("admin", null, null, null, 5, 10).isFailure(), "finalTopK > stage2Max");
+        assertTrue(_pipelineSettingsService.update("admin", null, 5_000, null, null, null).isFailure(), "batchSize 상한");
+        assertTrue(_pipelineSettingsService.update("admin", null, null, 1_000, null, null).isFailure(),
+                "maxStage1Batches 상한");
+        var updated = _pipelineSettingsService.update("admin", 120, 60, 2, 20, 5);
+        assertEquals(new AiPipelineSettings(120, 60, 2, 20, 5), updated.getOrThrow());
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(user));
+        when(_aiRecommendRepository.splitByTokenBudget(bars, 60, 2)).thenReturn(chunk(bars, 60));
+        when(_aiRecommendRepository.getMinorRecommend(any(), eq(user), eq(query), anyInt()))
+                .thenAnswer(inv -> toMinor(inv.getArgument(0), inv.getArgument(3)));
+        when(_aiRecommendRepository.getRecommend(any(), eq(user), eq(query), anyInt())).thenReturn(List.of());
+
+        assertTrue(_aiRecommendService.getRecommendedBars(query).isSuccess());
+
+        verify(_barService).findNearbyBars(argThat(q -> q.count() == 120));
+        verify(_aiRecommendRepository, times(2)).getMinorRecommend(any(), eq(user), eq(query), eq(10));
+        var captor = ArgumentCaptor.forClass(List.class);
+        verify(_aiRecommendRepository).getRecommend(captor.capture(), eq(user), eq(query), eq(5));
+        assertEquals(20, captor.getValue().size());
+    }
+
+    @Test
+    @DisplayName("토큰 예산으로 배치가 늘어나면 배치당 pick을 줄여 2차 풀 크기를 유지한다")
+    @SuppressWarnings("unchecked")
+    void getRecommendedBars_tokenBudgetBatches_adjustPick() {
+        var query = createQuery();
+        var bars = createBars(200);
+        var user = UserModel.builder().id(1L).build();
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(user));
+        // 긴 후보: 예산 때문에 50개씩 4배치
+        when(_aiRecommendRepository.splitByTokenBudget(bars, 100, 4)).thenReturn(chunk(bars, 50));
+        when(_aiRecommendRepository.getMinorRecommend(any(), eq(user), eq(query), anyInt()))
+                .thenAnswer(inv -> toMinor(inv.getArgument(0), inv.getArgument(3)));
+        when(_aiRecommendRepository.getRecommend(any(), eq(user), eq(query), anyInt())).thenReturn(List.of());
+
+        var result = _aiRecommendService.getRecommendedBars(query);
+
+        assertTrue(result.isSuccess());
+        verify(_aiRecommendRepository, times(4)).getMinorRecommend(any(), eq(user), eq(query), eq(10));
+        var captor = ArgumentCaptor.forClass(List.class);
+        verify(_aiRecommendRepository).getRecommend(captor.capture(), eq(user), eq(query), anyInt());
+        List<BarListItemModel> stage2 = captor.getValue();
+        assertEquals(40, stage2.size());
+        assertEquals(151L, stage2.get(30).getId(), "네번째 배치의 1차 결과");
+    }
+
+    @Test
+    @DisplayName("배치가 고를 개수 이하이면 GPT 1차 없이 그대로 2차 풀에 들어간다")
+    @SuppressWarnings("unchecked")
+    void getRecommendedBars_smallBatch_skipsGptCall() {
+        var query = createQuery();
+        var bars = createBars(60);
+        var user = UserModel.builder().id(1L).build();
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(user));
+        // 55 + 5 -> pick 20: 두번째 배치(5개)는 호출할 필요 없음
+        when(_aiRecommendRepository.splitByTokenBudget(bars, 100, 4)).thenReturn(chunk(bars, 55));
+        when(_aiRecommendRepository.getMinorRecommend(any(), eq(user), eq(query), anyInt()))
+                .thenAnswer(inv -> toMinor(inv.getArgument(0), inv.getArgument(3)));
+        when(_aiRecommendRepository.getRecommend(any(), eq(user), eq(query), anyInt())).thenReturn(List.of());
+
+        var result = _aiRecommendService.getRecommendedBars(query);
+
+        assertTrue(result.isSuccess());
+        verify(_aiRecommendRepository, times(1)).getMinorRecommend(any(), any(), any(), anyInt());
+        var captor = ArgumentCaptor.forClass(List.class);
+        verify(_aiRecommendRepository).getRecommend(captor.capture(), eq(user), eq(query), anyInt());
+        List<BarListItemModel> stage2 = captor.getValue();
+        assertEquals(25, stage2.size());
+        assertEquals(56L, stage2.get(20).getId());
+    }
+
+    @Test
+    @DisplayName("LOCAL 모드는 GPT 1차 없이 로컬 점수 상위로 2차 풀을 만든다")
+    @SuppressWarnings("unchecked")
+    void getRecommendedBars_localPreRank_skipsGptStage1() {
+        var query = createQuery();
+        query.setPreRankMode(PreRankMode.LOCAL);
+        var bars = createBars(200);
+        var user = UserModel.builder().id(1L).build();
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(user));
+        when(_aiRecommendRepository.preRank(eq(bars), eq(query), eq(40))).thenReturn(toMinor(reversed(bars), 40));
+        when(_aiRecommendRepository.getRecommend(any(), eq(user), eq(query), anyInt())).thenReturn(List.of());
+
+        var result = _aiRecommendService.getRecommendedBars(query);
+
+        assertTrue(result.isSuccess());
+        verify(_aiRecommendRepository, never()).getMinorRecommend(any(), any(), any(), anyInt());
+        var captor = ArgumentCaptor.forClass(List.class);
+        verify(_aiRecommendRepository).getRecommend(captor.capture(), eq(user), eq(query), anyInt());
+        List<BarListItemModel> stage2 = captor.getValue();
+        assertEquals(40, stage2.size());
+        assertEquals(200L, stage2.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("HYBRID 모드는 로컬로 한 배치까지 줄인 뒤 GPT 1차를 한 번만 호출한다")
+    @SuppressWarnings("unchecked")
+    void getRecommendedBars_hybridPreRank_singleGptBatch() {
+        var query = createQuery();
+        query.setPreRankMode(PreRankMode.HYBRID);
+        var bars = createBars(200);
+        var user = UserModel.builder().id(1L).build();
+        var shortlisted = toMinor(reversed(bars), 100);
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(user));
+        when(_aiRecommendRepository.preRank(eq(bars), eq(query), eq(100))).thenReturn(shortlisted);
+        when(_aiRecommendRepository.splitByTokenBudget(anyList(), eq(100), eq(1)))
+                .thenReturn(List.of(new ArrayList<BarListItemModel>(shortlisted)));
+        when(_aiRecommendRepository.getMinorRecommend(any(), eq(user), eq(query), anyInt()))
+                .thenAnswer(inv -> toMinor(inv.getArgument(0), inv.getArgument(3)));
+        when(_aiRecommendRepository.getRecommend(any(), eq(user), eq(query), anyInt())).thenReturn(List.of());
+
+        var result = _aiRecommendService.getRecommendedBars(query);
+
+        assertTrue(result.isSuccess());
+        var batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(_aiRecommendRepository, times(1)).getMinorRecommend(batchCaptor.capture(), eq(user), eq(query), eq(40));
+        assertEquals(shortlisted, batchCaptor.getValue());
+
+        var captor = ArgumentCaptor.forClass(List.class);
+        verify(_aiRecommendRepository).getRecommend(captor.capture(), eq(user), eq(query), anyInt());
+        assertEquals(40, captor.getValue().size());
+    }
+
+    @Test
+    @DisplayName("캐시 hit이면 GPT 호출 없이 캐시 결과를 반환한다")
+    void getRecommendedBars_cacheHit_skipsAi() {
+        var query = createQuery();
+        var bars = createBars(200);
+        var cached = List.of(RecommendedBarModel.builder().id(7L).recommendRank(1).build());
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(UserModel.builder().id(1L).build()));
+        when(_recommendCacheRepository.find(any(), eq(bars))).thenReturn(Optional.of(cached));
+
+        var result = _aiRecommendService.getRecommendedBars(query);
+
+        assertTrue(result.isSuccess());
+        assertEquals(cached, result.getOrThrow());
+        verifyNoInteractions(_aiRecommendRepository);
+        verify(_recommendCacheRepository, never()).save(any(), any());
+    }
+
+    @Test
+    @DisplayName("AI 실패 폴백 결과는 캐시에 저장하지 않는다")
+    void getRecommendedBars_aiFallback_notCached() {
+        var query = createQuery();
+        var bars = createBars(10);
+        var user = UserModel.builder().id(1L).build();
+        var fallback = List.of(RecommendedBarModel.builder().id(1L).recommendRank(1)
+                .recommendReason("fallback:ai_fail").build());
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(user));
+        when(_aiRecommendRepository.getRecommend(any(), eq(user), eq(query), anyInt())).thenReturn(fallback);
+
+        var result = _aiRecommendService.getRecommendedBars(query);
+
+        assertTrue(result.isSuccess());
+        verify(_recommendCacheRepository, never()).save(any(), any());
+    }
+
+    @Test
+    @DisplayName("GPT 2차가 지연 예산을 넘기면 로컬 랭커 결과를 반환하고 캐시하지 않는다")
+    void getRecommendedBars_gptOverBudget_localWins() {
+        var service = service(200);
+        var query = createQuery();
+        var bars = createBars(10);
+        var user = UserModel.builder().id(1L).build();
+        var local = List.of(RecommendedBarModel.builder().id(3L).recommendRank(1)
+                .recommendReason("지금 영업 중 / 약 120m 거리").rankedBy(RecommendRanker.LOCAL).build());
+        var reviews = Map.of(3L, ReviewSummaryModel.builder().totalCount(10L).averageRating(4.5).build());
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(user));
+        when(_reviewService.getSummaries(anyList())).thenReturn(Result.ok(reviews));
+        when(_aiRecommendRepository.getRecommend(any(), eq(user), eq(query), anyInt())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(RecommendedBarModel.builder().id(1L).recommendRank(1).rankedBy(RecommendRanker.GPT).build());
+        });
+        when(_aiRecommendRepository.localRecommend(eq(bars), eq(query), eq(reviews), anyInt())).thenReturn(local);
+
+        try {
+            long start = System.nanoTime();
+            var result = service.getRecommendedBars(query);
+
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+            assertEquals(local, result.getOrThrow());
+            verify(_recommendCacheRepository, never()).save(any(), any());
+            assertEquals(1.0, _meterRegistry.get("ai.recommend.ranked_by")
+                    .tags("ranker", "local", "outcome", "timeout").counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("GPT가 실패하고 로컬 결과도 비면 저장소의 AI 폴백 목록을 쓰되 폴백으로 집계한다")
+    void getRecommendedBars_gptFailsAndLocalEmpty_recordsFallback() {
+        var query = createQuery();
+        var bars = createBars(10);
+        var user = UserModel.builder().id(1L).build();
+        var aiFallback = List.of(RecommendedBarModel.builder().id(1L).recommendRank(1)
+                .recommendReason("fallback: 거리순").build());
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(user));
+        when(_aiRecommendRepository.getRecommend(any(), eq(user), eq(query), anyInt())).thenReturn(aiFallback);
+        when(_aiRecommendRepository.localRecommend(any(), eq(query), any(), anyInt())).thenReturn(List.of());
+
+        var result = _aiRecommendService.getRecommendedBars(query);
+
+        assertEquals(aiFallback, result.getOrThrow());
+        verify(_recommendCacheRepository, never()).save(any(), any());
+        assertEquals(1.0, _meterRegistry.get("ai.recommend.ranked_by")
+                .tags("ranker", "local", "outcome", "ai_fail").counter().count());
+        assertEquals(1.0, _meterRegistry.get("ai.recommend.fallback")
+                .tags("stage", "stage2", "reason", "ai_fail").counter().count());
+    }
+
+    @Test
+    @DisplayName("2차 GPT 호출에는 지연 예산 마감이 함께 전달된다 (SDK 타임아웃을 남은 예산으로)")
+    void getRecommendedBars_stage2Call_carriesBudgetDeadline() {
+        var query = createQuery();
+        var bars = createBars(10);
+        var user = UserModel.builder().id(1L).build();
+        var gpt = List.of(RecommendedBarModel.builder().id(1L).recommendRank(1).rankedBy(RecommendRanker.GPT).build());
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(user));
+        when(_aiRecommendRepository.getRecommend(any(), eq(user), any(), anyInt())).thenReturn(gpt);
+        when(_aiRecommendRepository.localRecommend(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        long before = System.nanoTime();
+        _aiRecommendService.getRecommendedBars(query);
+        long after = System.nanoTime();
+
+        ArgumentCaptor<GetRecommenedBarsQuery> captor = ArgumentCaptor.forClass(GetRecommenedBarsQuery.class);
+        verify(_aiRecommendRepository).getRecommend(any(), eq(user), captor.capture(), anyInt());
+        Long deadline = captor.getValue().getGptDeadlineNanos();
+        assertNotNull(deadline);
+        // 기본 테스트 예산 5초
+        long budget = TimeUnit.MILLISECONDS.toNanos(5_000);
+        assertTrue(deadline >= before + budget && deadline <= after + budget);
+        assertNull(query.getGptDeadlineNanos(), "요청 query 자체는 바꾸지 않는다");
+    }
+
+    @Test
+    @DisplayName("GPT 2차가 예산 안에 끝나면 GPT 결과를 쓰고 로컬 결과는 버린다")
+    void getRecommendedBars_gptInBudget_gptWins() {
+        var query = createQuery();
+        var bars = createBars(10);
+        var user = UserModel.builder().id(1L).build();
+        var gpt = List.of(RecommendedBarModel.builder().id(1L).recommendRank(1).rankedBy(RecommendRanker.GPT).build());
+        var local = List.of(RecommendedBarModel.builder().id(3L).recommendRank(1).rankedBy(RecommendRanker.LOCAL).build());
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(user));
+        when(_aiRecommendRepository.getRecommend(any(), eq(user), eq(query), anyInt())).thenReturn(gpt);
+        when(_aiRecommendRepository.localRecommend(any(), eq(query), any(), anyInt())).thenReturn(local);
+
+        var result = _aiRecommendService.getRecommendedBars(query);
+
+        assertEquals(gpt, result.getOrThrow());
+        verify(_recommendCacheRepository).save(any(), eq(gpt));
+        assertEquals(1.0, _meterRegistry.get("ai.recommend.ranked_by")
+                .tags("ranker", "gpt", "outcome", "in_budget").counter().count());
+        for (String stage : List.of("retrieval", "user_lookup", "stage2", "total")) {
+            assertEquals(1, _meterRegistry.get("ai.recommend.pipeline.latency")
+                    .tags("stage", stage, "outcome", "success").timer().count(), stage);
+        }
+        assertTrue(_meterRegistry.find("ai.recommend.fallback").counters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("shadow: 표본 요청을 다른 설정으로 비동기 재실행해 겹침/지연만 기록하고 응답/캐시는 primary 그대로")
+    void getRecommendedBars_shadow_recordsOverlapWithoutAffectingResponse() throws Exception {
+        var service = service(5_000, new AiShadowConfig(1.0, PreRankMode.LOCAL, null, null, null, null, 5));
+        var query = createQuery();
+        var bars = createBars(10);
+        var user = UserModel.builder().id(1L).build();
+        var primary = List.of(
+                RecommendedBarModel.builder().id(1L).recommendRank(1).rankedBy(RecommendRanker.GPT).build(),
+                RecommendedBarModel.builder().id(2L).recommendRank(2).rankedBy(RecommendRanker.GPT).build());
+        var shadow = List.of(
+                RecommendedBarModel.builder().id(2L).recommendRank(1).rankedBy(RecommendRanker.GPT).build(),
+                RecommendedBarModel.builder().id(3L).recommendRank(2).rankedBy(RecommendRanker.GPT).build());
+        CountDownLatch shadowDone = new CountDownLatch(1);
+        List<String> shadowThreads = Collections.synchronizedList(new ArrayList<>());
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(user));
+        when(_aiRecommendRepository.getRecommend(any(), eq(user), argThat(q -> !q.isShadow()), eq(10))).thenReturn(primary);
+        when(_aiRecommendRepository.getRecommend(any(), eq(user),
+                argThat(q -> q.isShadow() && q.getPreRankMode() == PreRankMode.LOCAL), eq(5))).thenAnswer(inv -> {
+            shadowThreads.add(Thread.currentThread().getName());
+            return shadow;
+        });
+        when(_aiRecommendRepository.localRecommend(any(), any(), any(), anyInt())).thenAnswer(inv -> {
+            GetRecommenedBarsQuery q = inv.getArgument(1);
+            if (q.isShadow()) shadowDone.countDown();
+            return List.of();
+        });
+
+        var result = service.getRecommendedBars(query);
+
+        assertEquals(primary, result.getOrThrow());
+        assertTrue(shadowDone.await(5, TimeUnit.SECONDS));
+        // shadow 완료 기록까지 대기
+        for (int i = 0; i < 50 && _meterRegistry.counter("ai.recommend.shadow.runs", "outcome", "success").count() == 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(1.0, _meterRegistry.get("ai.recommend.shadow.runs").tag("outcome", "success").counter().count());
+        assertEquals(List.of("shadow-fan-out"), shadowThreads, "shadow 2차 호출은 shadow 전용 풀에서");
+        assertEquals(50.0, _meterRegistry.get("ai.recommend.shadow.overlap").summary().max());
+        assertEquals(1, _meterRegistry.get("ai.recommend.pipeline.latency")
+                .tags("pipeline", "shadow", "stage", "total").timer().count());
+        verify(_recommendCacheRepository).save(any(), eq(primary));
+        verify(_recommendCacheRepository, times(1)).find(any(), any());
+    }
+
+    @Test
+    @DisplayName("스트리밍: 확정 항목은 onItem으로, fill-in은 결과로 나오고 합친 결과가 캐시된다")
+    void streamRecommendedBars_emitsItemsAndReturnsFillIns() {
+        var query = createQuery();
+        var bars = createBars(10);
+        var user = UserModel.builder().id(1L).build();
+        var streamedItem = RecommendedBarModel.builder().id(3L).recommendRank(1).recommendReason("r").build();
+        var fillIn = RecommendedBarModel.builder().id(1L).recommendRank(2).recommendReason("후보 내 상위").build();
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(1L)).thenReturn(Result.ok(user));
+        when(_aiRecommendRepository.streamRecommend(eq(bars), eq(user), eq(query), anyInt(), any())).thenAnswer(inv -> {
+            Consumer<RecommendedBarModel> onItem = inv.getArgument(4);
+            onItem.accept(streamedItem);
+            return List.of(fillIn);
+        });
+
+        List<RecommendedBarModel> received = new ArrayList<>();
+        var result = _aiRecommendService.streamRecommendedBars(query, received::add);
+
+        assertTrue(result.isSuccess());
+        assertEquals(List.of(streamedItem), received);
+        assertEquals(List.of(fillIn), result.getOrThrow());
+        verify(_recommendCacheRepository).save(any(), eq(List.of(streamedItem, fillIn)));
+    }
+
+    @Test
+    @DisplayName("같은 키로 동시에 들어온 요청은 진행 중인 계산 하나를 공유한다")
+    void getRecommendedBars_concurrentSameKey_coalesced() throws Exception {
+        var query = createQuery();
+        var bars = createBars(10);
+        var user = UserModel.builder().id(1L).build();
+        var expected = List.of(RecommendedBarModel.builder().id(1L).recommendRank(1).build());
+
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(anyLong())).thenReturn(Result.ok(user));
+        when(_aiRecommendRepository.getRecommend(any(), any(), any(), anyInt())).thenAnswer(inv -> {
+            leaderStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return expected;
+        });
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            var leader = callers.submit(() -> _aiRecommendService.getRecommendedBars(query));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            // 다른 사용자지만 같은 위치/요청문/성별·연령대(둘 다 미상)
+            var otherUserQuery = createQuery();
+            otherUserQuery.setUserId(2L);
+            var follower = callers.submit(() -> _aiRecommendService.getRecommendedBars(otherUserQuery));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(expected, leader.get(5, TimeUnit.SECONDS).getOrThrow());
+            var shared = follower.get(5, TimeUnit.SECONDS).getOrThrow();
+            assertEquals(List.of(1L), shared.stream().map(RecommendedBarModel::getId).toList());
+            assertEquals("bar1", shared.get(0).getName(), "술집 정보는 후속 요청 자신의 후보 기준");
+        } finally {
+            callers.shutdownNow();
+        }
+
+        verify(_aiRecommendRepository, times(1)).getRecommend(any(), any(), any(), anyInt());
+        assertEquals(1.0, _meterRegistry.get("ai.recommend.coalesced").tag("outcome", "shared").counter().count());
+    }
+
+    @Test
+    @DisplayName("같은 위치/요청문이라도 성별/연령대가 다르면 계산을 공유하지 않는다")
+    void getRecommendedBars_concurrentDifferentDemographic_notCoalesced() throws Exception {
+        var query = createQuery();
+        query.setUserGender(UserGender.MALE);
+        query.setUserBirthday(new Date(0L)); // 1970년생
+        var bars = createBars(10);
+        var user = UserModel.builder().id(1L).build();
+        var leaderPick = List.of(RecommendedBarModel.builder().id(1L).recommendRank(1).build());
+        var followerPick = List.of(RecommendedBarModel.builder().id(2L).recommendRank(1).build());
+
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(bars));
+        when(_userService.findUserById(anyLong())).thenReturn(Result.ok(user));
+        when(_aiRecommendRepository.getRecommend(any(), any(), any(), anyInt())).thenAnswer(inv -> {
+            if (leaderStarted.getCount() == 0) return followerPick;
+            leaderStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return leaderPick;
+        });
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            var leader = callers.submit(() -> _aiRecommendService.getRecommendedBars(query));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            var otherUserQuery = query.toBuilder().userId(2L).userGender(UserGender.FEMALE).build();
+            var follower = callers.submit(() -> _aiRecommendService.getRecommendedBars(otherUserQuery));
+            // 후속 요청은 선행 계산을 기다리지 않고 직접 GPT를 부른다
+            assertEquals(followerPick, follower.get(5, TimeUnit.SECONDS).getOrThrow());
+            release.countDown();
+
+            assertEquals(leaderPick, leader.get(5, TimeUnit.SECONDS).getOrThrow());
+        } finally {
+            callers.shutdownNow();
+        }
+
+        verify(_aiRecommendRepository, times(2)).getRecommend(any(), any(), any(), anyInt());
+        assertTrue(_meterRegistry.find("ai.recommend.coalesced").counters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("공유받은 결과에 자기 후보에 없는 술집이 있으면(같은 키, 다른 위치) 직접 계산한다")
+    void getRecommendedBars_coalescedPickOutsideOwnCandidates_recomputes() throws Exception {
+        var query = createQuery();
+        var bars = createBars(10);
+        var user = UserModel.builder().id(1L).build();
+        var leaderPick = List.of(RecommendedBarModel.builder().id(10L).recommendRank(1).build());
+        var followerPick = List.of(RecommendedBarModel.builder().id(2L).recommendRank(1).build());
+
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // 후속 요청 위치에서는 10번이 반경 밖
+        when(_barService.findNearbyBars(any())).thenAnswer(inv -> Result.ok(
+                ((NearbyBarsQuery) inv.getArgument(0)).latitude() == 37.5
+                        ? bars : bars.subList(0, 9)));
+        when(_userService.findUserById(anyLong())).thenReturn(Result.ok(user));
+        when(_aiRecommendRepository.getRecommend(any(), any(), any(), anyInt())).thenAnswer(inv -> {
+            if (leaderStarted.getCount() == 0) return followerPick;
+            leaderStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return leaderPick;
+        });
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            var leader = callers.submit(() -> _aiRecommendService.getRecommendedBars(query));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            // 같은 200m 셀 안의 다른 좌표
+            var movedQuery = createQuery();
+            movedQuery.setLat(37.5001);
+            var follower = callers.submit(() -> _aiRecommendService.getRecommendedBars(movedQuery));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(leaderPick, leader.get(5, TimeUnit.SECONDS).getOrThrow());
+            assertEquals(followerPick, follower.get(5, TimeUnit.SECONDS).getOrThrow());
+        } finally {
+            callers.shutdownNow();
+        }
+
+        verify(_aiRecommendRepository, times(2)).getRecommend(any(), any(), any(), anyInt());
+        assertEquals(1.0, _meterRegistry.get("ai.recommend.coalesced").tag("outcome", "stale").counter().count());
+    }
+
+    @Test
+    @DisplayName("사용자 조회가 실패하면 추천 없이 실패를 반환한다")
+    void getRecommendedBars_userNotFound_returnsFailure() {
+        var query = createQuery();
+
+        when(_barService.findNearbyBars(any())).thenReturn(Result.ok(createBars(5)));
+        when(_userService.findUserById(1L)).thenReturn(Result.fail(new NotFoundError("userId", 1L)));
+
+        var result = _aiRecommendService.getRecommendedBars(query);
+
+        assertTrue(result.isFailure());
+        assertInstanceOf(NotFoundError.class, result.getErrors().get(0));
+        verifyNoInteractions(_aiRecommendRepository);
+    }
+}
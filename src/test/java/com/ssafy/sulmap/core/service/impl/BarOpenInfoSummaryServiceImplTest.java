@@ -0,0 +1,99 @@
+package com.ssafy.sulmap.core.service.impl;
+
+import com.ssafy.sulmap.core.model.BarOpenInfoModel;
+import com.ssafy.sulmap.core.model.command.SaveOpenInfoSummaryCommand;
+import com.ssafy.sulmap.core.repository.BarRepository;
+import com.ssafy.sulmap.core.repository.OpenInfoSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@DisplayName("BarOpenInfoSummaryServiceImpl 유닛 테스트")
+@ExtendWith(MockitoExtension.class)
+class BarOpenInfoSummaryServiceImplTest {
+
+    @Mock
+    private BarRepository _barRepository;
+
+    @Mock
+    private OpenInfoSummaryRepository _openInfoSummaryRepository;
+
+    private BarOpenInfoSummaryServiceImpl _service;
+
+    @BeforeEach
+    void setUp() {
+        // batch-size 2, max-batches 3
+        _service = new BarOpenInfoSummaryServiceImpl(_barRepository, _openInfoSummaryRepository, 2, 3);
+    }
+
+    private BarOpenInfoModel target(long barId, Date updatedAt) {
+        return BarOpenInfoModel.builder().barId(barId).openInformation("oi" + barId).updatedAt(updatedAt).build();
+    }
+
+    @Test
+    @DisplayName("요약된 술집만 원문 updated_at과 함께 저장하고, 짧은 배치가 오면 멈춘다")
+    @SuppressWarnings("unchecked")
+    void summarizeStale_savesWithSourceUpdatedAt() throws IOException {
+        Date t1 = new Date(1_000L);
+        Date t2 = new Date(2_000L);
+        Date t3 = new Date(3_000L);
+        when(_barRepository.findOpenInfoSummaryTargets(2))
+                .thenReturn(List.of(target(1L, t1), target(2L, t2)))
+                .thenReturn(List.of(target(3L, t3)));
+        when(_openInfoSummaryRepository.summarize(any()))
+                .thenReturn(Map.of(1L, "17:00-02:00"))
+                .thenReturn(Map.of(3L, "연중무휴"));
+        when(_barRepository.saveOpenInfoSummaries(any())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+        var result = _service.summarizeStale();
+
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getOrThrow());
+        ArgumentCaptor<List<SaveOpenInfoSummaryCommand>> captor = ArgumentCaptor.forClass(List.class);
+        verify(_barRepository, times(2)).saveOpenInfoSummaries(captor.capture());
+        assertEquals(List.of(new SaveOpenInfoSummaryCommand(1L, "17:00-02:00", t1)), captor.getAllValues().get(0));
+        assertEquals(List.of(new SaveOpenInfoSummaryCommand(3L, "연중무휴", t3)), captor.getAllValues().get(1));
+    }
+
+    @Test
+    @DisplayName("한 건도 저장하지 못하면 같은 대상을 다시 읽지 않도록 멈춘다")
+    void summarizeStale_stopsWithoutProgress() throws IOException {
+        when(_barRepository.findOpenInfoSummaryTargets(anyInt()))
+                .thenReturn(List.of(target(1L, new Date()), target(2L, new Date())));
+        when(_openInfoSummaryRepository.summarize(any())).thenReturn(Map.of());
+        when(_barRepository.saveOpenInfoSummaries(any())).thenReturn(0);
+
+        var result = _service.summarizeStale();
+
+        assertTrue(result.isSuccess());
+        assertEquals(0, result.getOrThrow());
+        verify(_barRepository, times(1)).findOpenInfoSummaryTargets(anyInt());
+    }
+
+    @Test
+    @DisplayName("저장 중 예외가 나면 500 실패로 돌려준다")
+    void summarizeStale_failsOnException() throws IOException {
+        when(_barRepository.findOpenInfoSummaryTargets(anyInt())).thenReturn(List.of(target(1L, new Date())));
+        when(_openInfoSummaryRepository.summarize(any())).thenReturn(Map.of(1L, "24시간"));
+        when(_barRepository.saveOpenInfoSummaries(any())).thenThrow(new IOException("es down"));
+
+        var result = _service.summarizeStale();
+
+        assertTrue(result.isFailure());
+        assertEquals(500, result.getErrors().get(0).getCode());
+    }
+}
@@ -11,6 +11,7 @@ import com.ssafy.sulmap.core.model.command.UpdateUserProfileCommand;
 import com.ssafy.sulmap.core.model.UserModel;
 import com.ssafy.sulmap.core.model.enums.UserGender;
 import com.ssafy.sulmap.core.model.enums.UserProfileVisitVisibility;
+import com.ssafy.sulmap.core.model.query.BarClustersQuery;
 import com.ssafy.sulmap.core.model.query.NearbyBarsQuery;
 import com.ssafy.sulmap.core.repository.BarRepository;
 import com.ssafy.sulmap.core.repository.UserRepository;
@@ -35,6 +36,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -93,6 +96,31 @@ class BarServiceImplTest {
         assertFalse(result.getValue().get().isEmpty());
     }
 
+    @Test
+    @DisplayName("주변 술집 페이지 검색: 잘못된 커서는 400으로 실패")
+    void findNearbyBarsPage_invalidCursor_badRequest() throws IOException {
+        var query = createNearbyBarsQuery();
+
+        when(_barRepository.findNearbyPage(query)).thenThrow(new IllegalArgumentException("invalid cursor"));
+
+        var result = _barService.findNearbyBarsPage(query);
+
+        assertTrue(result.isFailure());
+        assertEquals(400, result.getSingleErrorOrThrow().getCode());
+    }
+
+    @Test
+    @DisplayName("클러스터 조회: 위/아래가 뒤집힌 화면이면 조회 없이 400")
+    void findBarClusters_invertedBounds_badRequest() throws IOException {
+        var query = new BarClustersQuery(37.4, 126.9, 37.6, 127.1, 12, null);
+
+        var result = _barService.findBarClusters(query);
+
+        assertTrue(result.isFailure());
+        assertEquals(400, result.getSingleErrorOrThrow().getCode());
+        verify(_barRepository, never()).findClusters(any());
+    }
+
     //find single bar by bar id
     @Test
     @DisplayName("find single bar by bar id - success")
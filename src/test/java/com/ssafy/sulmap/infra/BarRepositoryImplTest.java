@@ -8,15 +8,20 @@ import com.ssafy.sulmap.core.model.BarListItemModel;
 import com.ssafy.sulmap.core.model.BarModel;
 import com.ssafy.sulmap.core.model.query.NearbyBarsQuery;
 import com.ssafy.sulmap.infra.external.elastic.BarSearchElasticClient;
+import com.ssafy.sulmap.infra.external.elastic.NearbyTileCache;
+import com.ssafy.sulmap.infra.external.embedding.HashingTextEmbedder;
+import com.ssafy.sulmap.infra.external.embedding.PromptEmbeddingCache;
+import com.ssafy.sulmap.infra.external.embedding.TextEmbedder;
 import com.ssafy.sulmap.infra.mapper.BarMapper;
 import com.ssafy.sulmap.infra.model.BarCategoryEntity;
 import com.ssafy.sulmap.infra.model.BarEntity;
 import com.ssafy.sulmap.infra.model.BarSearchElasticEntity;
 import com.ssafy.sulmap.infra.repository.BarRepositoryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -25,6 +30,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,9 +43,25 @@ class BarRepositoryImplTest {
     @Mock
     private BarSearchElasticClient _barSearchElasticClient;
 
-    @InjectMocks
+    @Mock
+    private TextEmbedder _textEmbedder;
+
+    @Mock
+    private PromptEmbeddingCache _promptEmbeddingCache;
+
+    // find()는 기본으로 Optional.empty (캐시 대상 아님 -> ES 직접)
+    @Mock
+    private NearbyTileCache _nearbyTileCache;
+
     private BarRepositoryImpl _barRepository;
 
+    @BeforeEach
+    void setUp() {
+        // 벡터 검색 꺼짐 (primitive 설정값이 있어 @InjectMocks 대신 직접 생성)
+        _barRepository = new BarRepositoryImpl(_barMapper, _barSearchElasticClient, _textEmbedder,
+                _promptEmbeddingCache, _nearbyTileCache, false);
+    }
+
     /**
      * record/immutable(세터 없음)에서도 잘 생성되도록 Failover Introspector 구성
      * - ConstructorPropertiesArbitraryIntrospector: 생성자 기반
@@ -161,5 +184,67 @@ class BarRepositoryImplTest {
         verify(_barSearchElasticClient).findNearby(query);
         verifyNoInteractions(_barMapper);
     }
-}
 
+    @Test
+    @DisplayName("findNearby: 타일 캐시가 답하면 ES를 직접 조회하지 않는다")
+    void findNearby_tileCacheHit_skipsElastic() throws IOException {
+        // arrange
+        NearbyBarsQuery query = new NearbyBarsQuery(37.5, 127.0, 500, 10, null, null, "distance");
+        var cached = BarSearchElasticEntity.builder().id(3L).name("cached").distanceMeters(12.0).build();
+        when(_nearbyTileCache.findList(query)).thenReturn(Optional.of(List.of(cached)));
+
+        // act
+        var result = _barRepository.findNearby(query);
+
+        // assert
+        assertEquals(1, result.size());
+        assertEquals(3L, result.get(0).getId());
+        assertEquals(12.0, result.get(0).getDistanceMeters());
+        verifyNoInteractions(_barSearchElasticClient);
+    }
+
+    @Test
+    @DisplayName("findNearby: 벡터 검색이 켜져 있고 semanticText가 있으면 임베딩해서 kNN 하이브리드로 조회한다")
+    void findNearby_withSemanticText_usesQueryVector() throws IOException {
+        // arrange
+        var embedder = new HashingTextEmbedder(16);
+        var repository = new BarRepositoryImpl(_barMapper, _barSearchElasticClient, embedder,
+                new PromptEmbeddingCache(embedder, new SimpleMeterRegistry(), 100, ""), _nearbyTileCache, true);
+        NearbyBarsQuery query = new NearbyBarsQuery(37.5, 127.0, 500, 10, null, null, "distance", "하이볼 이자카야");
+        NearbyBarsQuery noText = new NearbyBarsQuery(37.5, 127.0, 500, 10, null, null, "distance", "  ");
+
+        when(_barSearchElasticClient.findNearby(eq(query), any(float[].class))).thenReturn(List.of());
+        when(_barSearchElasticClient.findNearby(noText)).thenReturn(List.of());
+
+        // act
+        repository.findNearby(query);
+        repository.findNearby(noText);
+
+        // assert
+        verify(_barSearchElasticClient).findNearby(query, embedder.embed("하이볼 이자카야"));
+        verify(_barSearchElasticClient).findNearby(noText);
+        verifyNoInteractions(_barMapper);
+    }
+
+    @Test
+    @DisplayName("findNearby: kNN 하이브리드 조회가 실패하면 거리순 조회로 폴백한다")
+    void findNearby_hybridThrows_fallsBackToDistanceOnly() throws IOException {
+        // arrange
+        var embedder = new HashingTextEmbedder(16);
+        var repository = new BarRepositoryImpl(_barMapper, _barSearchElasticClient, embedder,
+                new PromptEmbeddingCache(embedder, new SimpleMeterRegistry(), 100, ""), _nearbyTileCache, true);
+        NearbyBarsQuery query = new NearbyBarsQuery(37.5, 127.0, 500, 10, null, null, "distance", "하이볼 이자카야");
+        var bar = BarSearchElasticEntity.builder().id(7L).name("거리순").build();
+
+        when(_barSearchElasticClient.findNearby(eq(query), any(float[].class)))
+                .thenThrow(new IllegalStateException("no such field [embedding]"));
+        when(_barSearchElasticClient.findNearby(query)).thenReturn(List.of(bar));
+
+        // act
+        var result = repository.findNearby(query);
+
+        // assert
+        assertEquals(List.of(7L), result.stream().map(BarListItemModel::getId).toList());
+        verify(_barSearchElasticClient).findNearby(query);
+    }
+}
@@ -0,0 +1,127 @@
+package com.ssafy.sulmap.infra;
+
+import com.ssafy.sulmap.core.model.BarListItemModel;
+import com.ssafy.sulmap.core.model.RecommendCacheKey;
+import com.ssafy.sulmap.core.model.RecommendedBarModel;
+import com.ssafy.sulmap.core.model.enums.PreRankMode;
+import com.ssafy.sulmap.core.model.enums.UserGender;
+import com.ssafy.sulmap.core.model.query.GetRecommenedBarsQuery;
+import com.ssafy.sulmap.infra.repository.RecommendCacheRepositoryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecommendCacheRepositoryImplTest {
+
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2025, 12, 24, 20, 10, 0, 0, ZoneId.of("Asia/Seoul"));
+
+    private SimpleMeterRegistry _meterRegistry;
+    private RecommendCacheRepositoryImpl _cacheRepository;
+
+    @BeforeEach
+    void setUp() {
+        _meterRegistry = new SimpleMeterRegistry();
+        _cacheRepository = new RecommendCacheRepositoryImpl(_meterRegistry, 300, 100);
+    }
+
+    private GetRecommenedBarsQuery query(double lat, double lon, String prompt) {
+        return GetRecommenedBarsQuery.builder()
+                .lat(lat).lon(lon).userId(1L).maxDistance(1000).weatherKey("-").userPrompt(prompt)
+                .build();
+    }
+
+    private List<BarListItemModel> candidates(long... ids) {
+        return Arrays.stream(ids)
+                .<BarListItemModel>mapToObj(id -> BarListItemModel.builder().id(id).name("bar" + id)
+                        .openInfoSummary("17-02 " + id).build())
+                .toList();
+    }
+
+    @Test
+    @DisplayName("key: 같은 격자/정규화된 요청문이면 같은 키")
+    void key_sameCellAndNormalizedPrompt_equal() {
+        var a = RecommendCacheKey.of(query(37.50101, 127.03901, "조용한  이자카야!"), NOW);
+        var b = RecommendCacheKey.of(query(37.50103, 127.03905, "조용한 이자카야"), NOW.plusMinutes(30));
+
+        assertEquals(a, b);
+    }
+
+    @Test
+    @DisplayName("key: 요청문/시간대/1차 방식이 다르면 다른 키")
+    void key_differentPromptOrTimeBucket_notEqual() {
+        var base = RecommendCacheKey.of(query(37.501, 127.039, "조용한 이자카야"), NOW);
+
+        assertNotEquals(base, RecommendCacheKey.of(query(37.501, 127.039, "2차 맥주"), NOW));
+        assertNotEquals(base, RecommendCacheKey.of(query(37.501, 127.039, "조용한 이자카야"), NOW.plusHours(3)));
+
+        var local = query(37.501, 127.039, "조용한 이자카야");
+        local.setPreRankMode(PreRankMode.LOCAL);
+        assertNotEquals(base, RecommendCacheKey.of(local, NOW));
+    }
+
+    @Test
+    @DisplayName("key: 성별/연령대가 다르면 다른 키, 같은 연령대면 같은 키")
+    void key_differentDemographic_notEqual() {
+        var base = query(37.501, 127.039, "조용한 이자카야");
+        base.setUserGender(UserGender.MALE);
+        base.setUserBirthday(birthday(1993, 3, 1)); // 32세
+        var key = RecommendCacheKey.of(base, NOW);
+
+        var female = base.toBuilder().userGender(UserGender.FEMALE).build();
+        var forties = base.toBuilder().userBirthday(birthday(1983, 3, 1)).build();
+        var unknown = base.toBuilder().userGender(null).userBirthday(null).build();
+        var twenties = base.toBuilder().userId(2L).userBirthday(birthday(1996, 6, 1)).build(); // 29세 -> 20대
+
+        assertNotEquals(key, RecommendCacheKey.of(female, NOW));
+        assertNotEquals(key, RecommendCacheKey.of(forties, NOW));
+        assertNotEquals(key, RecommendCacheKey.of(unknown, NOW));
+        assertNotEquals(key, RecommendCacheKey.of(twenties, NOW));
+        assertEquals(key, RecommendCacheKey.of(base.toBuilder().userId(3L).userBirthday(birthday(1990, 1, 1)).build(), NOW));
+    }
+
+    private static Date birthday(int year, int month, int day) {
+        return Date.from(LocalDate.of(year, month, day).atStartOfDay(NOW.getZone()).toInstant());
+    }
+
+    @Test
+    @DisplayName("find: 저장된 결과를 현재 후보 정보로 다시 만들어 반환한다")
+    void find_afterSave_returnsRebuiltFromCandidates() {
+        var key = RecommendCacheKey.of(query(37.501, 127.039, "맥주"), NOW);
+        _cacheRepository.save(key, List.of(
+                RecommendedBarModel.builder().id(2L).name("old").recommendRank(1).recommendReason("r1").build(),
+                RecommendedBarModel.builder().id(1L).name("old").recommendRank(2).recommendReason("r2").build()
+        ));
+
+        var hit = _cacheRepository.find(key, candidates(1, 2, 3));
+
+        assertTrue(hit.isPresent());
+        assertEquals(List.of(2L, 1L), hit.get().stream().map(RecommendedBarModel::getId).toList());
+        assertEquals("17-02 2", hit.get().get(0).getOpenInfoSummary(), "GPT 응답과 같은 필드로 복사");
+        assertEquals("bar2", hit.get().get(0).getName());
+        assertEquals("r1", hit.get().get(0).getRecommendReason());
+        assertEquals(2, hit.get().get(1).getRecommendRank());
+    }
+
+    @Test
+    @DisplayName("find: 캐시된 술집이 현재 후보에 없으면 miss로 처리하고 무효화한다")
+    void find_missingCandidate_invalidates() {
+        var key = RecommendCacheKey.of(query(37.501, 127.039, "맥주"), NOW);
+        _cacheRepository.save(key, List.of(
+                RecommendedBarModel.builder().id(9L).recommendRank(1).recommendReason("r").build()
+        ));
+
+        assertTrue(_cacheRepository.find(key, candidates(1, 2)).isEmpty());
+        assertTrue(_cacheRepository.find(key, candidates(9)).isEmpty(), "이미 무효화됨");
+        assertEquals(1.0, _meterRegistry.get("ai.recommend.cache.stale").counter().count());
+    }
+}
@@ -0,0 +1,253 @@
+package com.ssafy.sulmap.infra.external.elastic;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonpDeserializer;
+import co.elastic.clients.json.JsonpUtils;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssafy.sulmap.core.model.enums.BarProjection;
+import com.ssafy.sulmap.core.model.query.BarClustersQuery;
+import com.ssafy.sulmap.core.model.query.NearbyBarsQuery;
+import com.ssafy.sulmap.infra.model.BarSearchDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("BarSearchElasticClient 유닛 테스트")
+class BarSearchElasticClientTest {
+
+    private static final ObjectMapper OM = new ObjectMapper();
+
+    private static final NearbyBarsQuery QUERY =
+            new NearbyBarsQuery(37.5, 127.04, 1000, 200, null, "이자카야", "distance", "사케 이자카야");
+
+    private static JsonNode json(SearchRequest request) throws Exception {
+        return OM.readTree(JsonpUtils.toJsonString(request, new JacksonJsonpMapper()));
+    }
+
+    @Test
+    @DisplayName("벡터가 없으면 기존처럼 필터 + 거리순만")
+    void nearbyRequest_withoutVector_distanceOnly() throws Exception {
+        var client = new BarSearchElasticClient(null);
+
+        JsonNode req = json(client.nearbyRequest(QUERY, null));
+
+        assertFalse(req.has("knn"));
+        assertEquals(2, req.get("sort").size());
+        assertTrue(req.get("sort").get(0).has("_geo_distance"));
+        assertEquals("asc", req.at("/sort/1/id/order").asText(), "id tiebreaker");
+        assertFalse(req.has("search_after"));
+        assertEquals(3, req.at("/query/bool/filter").size(), "geo + soft delete + category");
+    }
+
+    @Test
+    @DisplayName("LIST projection은 목록 필드만 includes, FULL은 임베딩 벡터만 excludes")
+    void nearbyRequest_projection_filtersSource() throws Exception {
+        var client = new BarSearchElasticClient(null);
+        var list = new NearbyBarsQuery(37.5, 127.04, 1000, 200, null, null, "distance", null, BarProjection.LIST);
+
+        JsonNode listReq = json(client.nearbyRequest(list, null));
+        JsonNode fullReq = json(client.nearbyRequest(QUERY, null));
+
+        List<String> includes = new ArrayList<>();
+        listReq.at("/_source/includes").forEach(n -> includes.add(n.asText()));
+        assertEquals(BarSearchElasticClient.LIST_FIELDS, includes);
+        assertFalse(includes.contains("menu"));
+        assertTrue(fullReq.at("/_source/includes").isMissingNode());
+        assertEquals("embedding", fullReq.at("/_source/excludes/0").asText());
+    }
+
+    @Test
+    @DisplayName("벡터가 있으면 같은 필터로 kNN을 걸고 _score -> 거리 순으로 정렬한다")
+    void nearbyRequest_withVector_hybridKnn() throws Exception {
+        var client = new BarSearchElasticClient(null);
+
+        JsonNode req = json(client.nearbyRequest(QUERY, new float[]{0.6f, 0.8f}));
+
+        JsonNode knn = req.get("knn").get(0);
+        assertEquals("embedding", knn.get("field").asText());
+        assertEquals(200, knn.get("k").asInt());
+        assertEquals(400, knn.get("num_candidates").asInt());
+        assertEquals(2, knn.get("query_vector").size());
+        assertEquals(3, knn.get("filter").size(), "kNN도 반경/삭제/카테고리 필터 안에서");
+
+        assertEquals(2, req.get("sort").size());
+        assertTrue(req.get("sort").get(0).has("_score"));
+        assertTrue(req.get("sort").get(1).has("_geo_distance"));
+    }
+
+    @Test
+    @DisplayName("findNearby: 거리 값은 hit.sort에서 거리 정렬 위치의 값을 쓴다")
+    void findNearby_readsDistanceFromSortValues() throws Exception {
+        var es = mock(ElasticsearchClient.class);
+        SearchResponse<BarSearchDocument> resp = SearchResponse.of(r -> r
+                .took(1)
+                .timedOut(false)
+                .shards(sh -> sh.total(1).successful(1).failed(0))
+                .hits(h -> h.hits(List.of(co.elastic.clients.elasticsearch.core.search.Hit.of(hit -> hit
+                        .index("bars")
+                        .id("doc-7")
+                        .source(BarSearchDocument.builder().id(7L).name("사케바").build())
+                        .sort(FieldValue.of(1.7), FieldValue.of(321.5)))))));
+        when(es.search(any(SearchRequest.class), eq(BarSearchDocument.class))).thenReturn(resp);
+        var client = new BarSearchElasticClient(es);
+
+        var hybrid = client.findNearby(QUERY, new float[]{1f, 0f});
+
+        assertEquals(7L, hybrid.get(0).getId());
+        assertEquals(321.5, hybrid.get(0).getDistanceMeters());
+    }
+
+    @Test
+    @DisplayName("findNearbyPage: count개를 채우면 마지막 sort 값으로 커서를 주고, 다음 요청은 search_after로 이어간다")
+    void findNearbyPage_cursorRoundTrip() throws Exception {
+        var es = mock(ElasticsearchClient.class);
+        var first = new NearbyBarsQuery(37.5, 127.04, 1000, 2, null, "이자카야", "distance", null);
+        when(es.search(any(SearchRequest.class), eq(BarSearchDocument.class)))
+                .thenReturn(response(hit(7L, 120.5), hit(9L, 130.25)))
+                .thenReturn(response(hit(11L, 300.0)));
+        var client = new BarSearchElasticClient(es);
+
+        var page1 = client.findNearbyPage(first, null);
+        assertEquals(2, page1.bars().size());
+        assertNotNull(page1.nextCursor());
+
+        var second = new NearbyBarsQuery(37.5, 127.04, 1000, 2, null, "이자카야", "distance", null,
+                BarProjection.LIST, page1.nextCursor());
+        JsonNode req = json(client.nearbyRequest(second, null));
+        assertEquals(130.25, req.at("/search_after/0").asDouble());
+        assertEquals(9L, req.at("/search_after/1").asLong());
+        assertEquals(2, req.get("size").asInt());
+        assertFalse(req.has("from"), "깊은 페이지도 from 없이 size만");
+
+        var page2 = client.findNearbyPage(second, null);
+        assertEquals(11L, page2.bars().get(0).getId());
+        assertNull(page2.nextCursor(), "count보다 적으면 마지막 페이지");
+    }
+
+    @Test
+    @DisplayName("커서는 다른 검색 조건이나 깨진 값이면 거부, kNN 하이브리드는 커서를 쓰지 않는다")
+    void nearbyRequest_rejectsForeignCursor() throws Exception {
+        var client = new BarSearchElasticClient(null);
+        var base = new NearbyBarsQuery(37.5, 127.04, 1000, 2, null, null, "distance", null);
+        String cursor = NearbyCursor.encode(base, List.of(FieldValue.of(10.0), FieldValue.of(3L)));
+
+        var moved = new NearbyBarsQuery(37.6, 127.04, 1000, 2, null, null, "distance", null, null, cursor);
+        var broken = new NearbyBarsQuery(37.5, 127.04, 1000, 2, null, null, "distance", null, null, "not-a-cursor");
+        var hybrid = new NearbyBarsQuery(37.5, 127.04, 1000, 2, null, null, "distance", "하이볼", null, cursor);
+
+        assertThrows(IllegalArgumentException.class, () -> client.nearbyRequest(moved, null));
+        assertThrows(IllegalArgumentException.class, () -> client.nearbyRequest(broken, null));
+        assertFalse(json(client.nearbyRequest(hybrid, new float[]{1f, 0f})).has("search_after"));
+    }
+
+    @Test
+    @DisplayName("클러스터: size 0, 화면 bbox + 삭제/카테고리 필터, 줌+2 geotile_grid 아래 geo_centroid")
+    void clustersRequest_aggregatesWithoutDocuments() throws Exception {
+        var client = new BarSearchElasticClient(null);
+        var query = new BarClustersQuery(37.6, 126.9, 37.4, 127.1, 12, "이자카야");
+
+        JsonNode req = json(client.clustersRequest(query));
+
+        assertEquals(0, req.get("size").asInt());
+        JsonNode filters = req.at("/query/bool/filter");
+        assertEquals(3, filters.size(), "bbox + soft delete + category");
+        assertEquals(37.6, filters.at("/0/geo_bounding_box/location/top_left/lat").asDouble());
+        assertEquals(127.1, filters.at("/0/geo_bounding_box/location/bottom_right/lon").asDouble());
+        assertEquals("deleted_at", filters.at("/1/bool/must_not/0/exists/field").asText());
+        assertEquals("이자카야", filters.at("/2/term/base_category_name/value").asText());
+
+        JsonNode grid = req.at("/aggregations/clusters/geotile_grid");
+        assertEquals("location", grid.get("field").asText());
+        assertEquals(12 + BarSearchElasticClient.CLUSTER_PRECISION_OFFSET, grid.get("precision").asInt());
+        assertEquals(126.9, grid.at("/bounds/top_left/lon").asDouble());
+        assertEquals("location", req.at("/aggregations/clusters/aggregations/centroid/geo_centroid/field").asText());
+    }
+
+    @Test
+    @DisplayName("findClusters: 칸 키/개수/무게중심을 그대로 옮긴다")
+    void findClusters_readsBuckets() throws Exception {
+        var mapper = new JacksonJsonpMapper();
+        String json = """
+                {"took":2,"timed_out":false,"_shards":{"total":1,"successful":1,"failed":0},
+                 "hits":{"hits":[]},
+                 "aggregations":{"geotile_grid#clusters":{"buckets":[
+                   {"key":"14/13968/6345","doc_count":42,
+                    "geo_centroid#centroid":{"location":{"lat":37.501,"lon":127.039},"count":42}},
+                   {"key":"14/13969/6345","doc_count":3,
+                    "geo_centroid#centroid":{"location":{"lat":37.502,"lon":127.061},"count":3}}]}}}
+                """;
+        JsonpDeserializer<Void> none = JsonpDeserializer.of(Void.class);
+        SearchResponse<Void> resp = SearchResponse.createSearchResponseDeserializer(none)
+                .deserialize(mapper.jsonProvider().createParser(new StringReader(json)), mapper);
+        var es = mock(ElasticsearchClient.class);
+        when(es.search(any(SearchRequest.class), eq(Void.class))).thenReturn(resp);
+
+        var clusters = new BarSearchElasticClient(es).findClusters(new BarClustersQuery(37.6, 126.9, 37.4, 127.1, 12, null));
+
+        assertEquals(2, clusters.size());
+        assertEquals(new BarSearchElasticClient.BarCluster("14/13968/6345", 42, 37.501, 127.039), clusters.get(0));
+        assertEquals(3, clusters.get(1).count());
+    }
+
+    private static Hit<BarSearchDocument> hit(long id, double distance) {
+        return Hit.of(h -> h
+                .index("bars")
+                .id("doc-" + id)
+                .source(BarSearchDocument.builder().id(id).build())
+                .sort(FieldValue.of(distance), FieldValue.of(id)));
+    }
+
+    @SafeVarargs
+    private static SearchResponse<BarSearchDocument> response(Hit<BarSearchDocument>... hits) {
+        return SearchResponse.of(r -> r
+                .took(1)
+                .timedOut(false)
+                .shards(sh -> sh.total(1).successful(1).failed(0))
+                .hits(h -> h.hits(List.of(hits))));
+    }
+
+    @Test
+    @DisplayName("hit _source는 BarSearchDocument로 바로 디코딩된다: menu는 원문 JSON 그대로, 날짜는 고정 포맷/epoch millis")
+    void searchHit_decodesTypedDocument() {
+        var mapper = new JacksonJsonpMapper();
+        String json = """
+                {"took":1,"timed_out":false,"_shards":{"total":1,"successful":1,"failed":0},
+                 "hits":{"hits":[{"_index":"bars","_id":"doc-1","sort":[12.5],"_source":{
+                   "id":1,"name":"역삼 이자카야","base_category_name":"이자카야","open_information":"17:00-02:00",
+                   "latitude":37.5,"longitude":127.04,"embedding":[0.1,0.2],
+                   "menu":[{"name":"하이볼","price":"9000"}],
+                   "created_at":"2025-01-02 03:04:05","updated_at":1700000000000,"deleted_at":"2025-13-01 00:00:00"}}]}}
+                """;
+        JsonpDeserializer<BarSearchDocument> source = JsonpDeserializer.of(BarSearchDocument.class);
+        SearchResponse<BarSearchDocument> resp = SearchResponse.createSearchResponseDeserializer(source)
+                .deserialize(mapper.jsonProvider().createParser(new StringReader(json)), mapper);
+
+        BarSearchDocument doc = resp.hits().hits().get(0).source();
+        assertNotNull(doc);
+        assertEquals(1L, doc.getId());
+        assertEquals("이자카야", doc.getBaseCategoryName());
+        assertEquals("[{\"name\":\"하이볼\",\"price\":\"9000\"}]", doc.getMenu());
+        assertEquals(LocalDateTime.of(2025, 1, 2, 3, 4, 5),
+                LocalDateTime.ofInstant(doc.getCreatedAt().toInstant(), ZoneId.systemDefault()));
+        assertEquals(1700000000000L, doc.getUpdatedAt().getTime());
+        assertNull(doc.getDeletedAt(), "잘못된 날짜는 예외 없이 null");
+        assertEquals("17:00-02:00", doc.toEntity(12.5).getOpenInfo());
+    }
+}
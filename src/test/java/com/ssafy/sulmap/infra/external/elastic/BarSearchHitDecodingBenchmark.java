@@ -0,0 +1,192 @@
+package com.ssafy.sulmap.infra.external.elastic;
+
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonpDeserializer;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssafy.sulmap.infra.model.BarSearchDocument;
+import com.ssafy.sulmap.infra.model.BarSearchElasticEntity;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.StringReader;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * nearby 검색 hit 디코딩: 기존(Map + asLong/asDouble/asString + menu 재직렬화 + 예외 기반 날짜 파싱)
+ * vs BarSearchDocument 직접 디코딩 (menu 원문 통과, 고정 포맷 날짜)
+ * - 같은 search 응답 JSON을 파싱부터 BarSearchElasticEntity 목록까지 측정
+ * - typedListProjection: _source를 LIST 필드로 걸렀을 때의 응답 (BarProjection.LIST)
+ *
+ * 실행: 테스트 클래스패스로 main 실행 (-prof gc 로 할당량 비교 가능)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BarSearchHitDecodingBenchmark {
+
+    @Param({"50", "200", "1000"})
+    public int hits;
+
+    private final JsonpMapper _mapper = new JacksonJsonpMapper();
+    private final ObjectMapper _objectMapper = new ObjectMapper();
+    private final JsonpDeserializer<SearchResponse<Map>> _legacyDeserializer =
+            SearchResponse.createSearchResponseDeserializer(JsonpDeserializer.of(Map.class));
+    private final JsonpDeserializer<SearchResponse<BarSearchDocument>> _typedDeserializer =
+            SearchResponse.createSearchResponseDeserializer(JsonpDeserializer.of(BarSearchDocument.class));
+    private String _json;
+    private String _listJson;
+
+    @Setup
+    public void setUp() {
+        _json = response(false);
+        _listJson = response(true);
+    }
+
+    private String response(boolean listOnly) {
+        StringBuilder sb = new StringBuilder(hits * 700);
+        sb.append("{\"took\":3,\"timed_out\":false,\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0},")
+                .append("\"hits\":{\"total\":{\"value\":").append(hits).append(",\"relation\":\"eq\"},\"hits\":[");
+        for (int i = 0; i < hits; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"_index\":\"bars\",\"_id\":\"doc-").append(i).append("\",\"_score\":null,")
+                    .append("\"_source\":{\"id\":").append(1000 + i)
+                    .append(",\"name\":\"역삼 이자카야 ").append(i).append("호점\"")
+                    .append(",\"address\":\"서울 강남구 테헤란로 ").append(i).append("\"")
+                    .append(",\"base_category_name\":\"이자카야\"")
+                    .append(",\"open_info_summary\":\"17:00-02:00 / 휴무 일 / LO 01:00\"")
+                    .append(",\"latitude\":37.50").append(i % 100).append(",\"longitude\":127.03").append(i % 100);
+            if (!listOnly) {
+                sb.append(",\"open_information\":\"매일 17:00 - 02:00 (라스트오더 01:00), 매주 일요일 휴무\"")
+                        .append(",\"menu\":[{\"name\":\"모둠 사시미\",\"price\":\"38000\"},{\"name\":\"하이볼\",\"price\":\"9000\"},{\"name\":\"나베\"}]")
+                        .append(",\"created_at\":\"2024-03-01 12:00:00\",\"updated_at\":\"2025-06-15 18:30:00\"");
+            }
+            sb.append("},\"sort\":[").append(30.0 + i * 4.5).append("]}");
+        }
+        sb.append("]}}");
+        return sb.toString();
+    }
+
+    @Benchmark
+    public List<BarSearchElasticEntity> legacyMap() {
+        SearchResponse<Map> resp = _legacyDeserializer.deserialize(
+                _mapper.jsonProvider().createParser(new StringReader(_json)), _mapper);
+        List<BarSearchElasticEntity> out = new ArrayList<>();
+        for (Hit<Map> hit : resp.hits().hits()) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> source = hit.source();
+            if (source == null) continue;
+            BarSearchElasticEntity entity = legacyEntity(source);
+            entity.setDistanceMeters(hit.sort().get(0).doubleValue());
+            out.add(entity);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<BarSearchElasticEntity> typedDocument() {
+        return decode(_json);
+    }
+
+    private List<BarSearchElasticEntity> decode(String json) {
+        SearchResponse<BarSearchDocument> resp = _typedDeserializer.deserialize(
+                _mapper.jsonProvider().createParser(new StringReader(json)), _mapper);
+        List<BarSearchElasticEntity> out = new ArrayList<>(resp.hits().hits().size());
+        for (Hit<BarSearchDocument> hit : resp.hits().hits()) {
+            if (hit.source() == null) continue;
+            out.add(hit.source().toEntity(hit.sort().get(0).doubleValue()));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<BarSearchElasticEntity> typedListProjection() {
+        return decode(_listJson);
+    }
+
+    // ===== 기존 경로 (BarSearchElasticClient의 이전 구현 그대로) =====
+
+    private BarSearchElasticEntity legacyEntity(Map<String, Object> s) {
+        BarSearchElasticEntity e = new BarSearchElasticEntity();
+        e.setId(asLong(s.get("id")));
+        e.setName(asString(s.get("name")));
+        e.setAddress(asString(s.get("address")));
+        e.setBaseCategoryName(asString(s.get("base_category_name")));
+        e.setOpenInfo(asString(s.get("open_information")));
+        e.setOpenInfoSummary(asString(s.get("open_info_summary")));
+        e.setLatitude(asDouble(s.get("latitude")));
+        e.setLongitude(asDouble(s.get("longitude")));
+        e.setMenuJsonString(toJsonString(s.get("menu")));
+        e.setCreatedAt(parseToDate(s.get("created_at")));
+        e.setUpdatedAt(parseToDate(s.get("updated_at")));
+        e.setDeletedAt(parseToDate(s.get("deleted_at")));
+        return e;
+    }
+
+    private String toJsonString(Object v) {
+        if (v == null) return null;
+        try {
+            return _objectMapper.writeValueAsString(v);
+        } catch (Exception ex) {
+            return String.valueOf(v);
+        }
+    }
+
+    private static String asString(Object v) {
+        return v == null ? null : String.valueOf(v);
+    }
+
+    private static Long asLong(Object v) {
+        if (v == null) return null;
+        if (v instanceof Number n) return n.longValue();
+        try { return Long.parseLong(String.valueOf(v)); } catch (Exception e) { return null; }
+    }
+
+    private static Double asDouble(Object v) {
+        if (v == null) return null;
+        if (v instanceof Number n) return n.doubleValue();
+        try { return Double.parseDouble(String.valueOf(v)); } catch (Exception e) { return null; }
+    }
+
+    private static final DateTimeFormatter FMT1 = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static Date parseToDate(Object v) {
+        if (v == null) return null;
+        if (v instanceof Number n) return new Date(n.longValue());
+        String s = String.valueOf(v).trim();
+        if (s.isEmpty() || "null".equalsIgnoreCase(s)) return null;
+        try {
+            return Date.from(LocalDateTime.parse(s, FMT1).atZone(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException ignore) {}
+        try {
+            return Date.from(Instant.parse(s));
+        } catch (DateTimeParseException ignore) {}
+        try {
+            return Date.from(OffsetDateTime.parse(s).toInstant());
+        } catch (Exception ignore) {}
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BarSearchHitDecodingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
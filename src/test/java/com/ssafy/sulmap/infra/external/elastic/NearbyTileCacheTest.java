@@ -0,0 +1,166 @@
+package com.ssafy.sulmap.infra.external.elastic;
+
+import com.ssafy.sulmap.core.model.enums.BarProjection;
+import com.ssafy.sulmap.core.model.query.NearbyBarsQuery;
+import com.ssafy.sulmap.infra.model.BarSearchElasticEntity;
+import com.ssafy.sulmap.infra.utils.GeoHash;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@DisplayName("NearbyTileCache 유닛 테스트")
+class NearbyTileCacheTest {
+
+    private final BarSearchElasticClient _client = mock(BarSearchElasticClient.class);
+    private final SimpleMeterRegistry _meterRegistry = new SimpleMeterRegistry();
+
+    private NearbyTileCache cache(int supersetMax) {
+        return new NearbyTileCache(_client, _meterRegistry, true, 30, 100, supersetMax);
+    }
+
+    private static BarSearchElasticEntity bar(long id, double lat, double lon) {
+        return BarSearchElasticEntity.builder().id(id).name("bar-" + id).latitude(lat).longitude(lon).build();
+    }
+
+    private static NearbyBarsQuery query(double lat, double lon, int radius, int count) {
+        return new NearbyBarsQuery(lat, lon, radius, count, null, "이자카야", null, null, BarProjection.LIST);
+    }
+
+    private double hitCount(String result) {
+        return _meterRegistry.get("cache.gets").tag("cache", "nearbyTile").tag("result", result)
+                .functionCounter().count();
+    }
+
+    @Test
+    @DisplayName("같은 셀 안 비슷한 좌표는 superset 한 번으로, 거리/반경/정렬/개수는 요청 좌표 기준으로 다시 계산")
+    void findList_sameTile_servesFromSuperset() throws Exception {
+        var near = bar(1, 37.5005, 127.0400);   // 약 55m
+        var mid = bar(2, 37.5040, 127.0400);    // 약 445m
+        var far = bar(3, 37.5200, 127.0400);    // 약 2.2km (반경 밖)
+        when(_client.findNearbyPage(any(), isNull()))
+                .thenReturn(new BarSearchElasticClient.NearbyPage(List.of(far, mid, near), null));
+        var cache = cache(500);
+
+        var first = cache.findList(query(37.5000, 127.0400, 1000, 10)).orElseThrow();
+        var panned = cache.findList(query(37.5001, 127.0401, 1000, 2)).orElseThrow();
+
+        verify(_client, times(1)).findNearbyPage(any(), isNull());
+        assertEquals(List.of(1L, 2L), first.stream().map(BarSearchElasticEntity::getId).toList());
+        assertEquals(GeoHash.distanceMeters(37.5, 127.04, 37.5005, 127.04), first.get(0).getDistanceMeters(), 1e-6);
+
+        assertEquals(List.of(1L, 2L), panned.stream().map(BarSearchElasticEntity::getId).toList());
+        assertNull(near.getDistanceMeters(), "캐시에 든 객체는 바꾸지 않는다");
+        assertEquals(1, hitCount("hit"));
+        assertEquals(1, hitCount("miss"));
+    }
+
+    @Test
+    @DisplayName("superset은 셀 중심에서 반경 + 셀 반대각선으로, 같은 필터/projection으로 읽는다")
+    void findList_loadsSupersetAroundTileCenter() throws Exception {
+        when(_client.findNearbyPage(any(), isNull())).thenReturn(new BarSearchElasticClient.NearbyPage(List.of(), null));
+
+        cache(500).findList(query(37.5000, 127.0400, 1000, 10));
+
+        var captor = ArgumentCaptor.forClass(NearbyBarsQuery.class);
+        verify(_client).findNearbyPage(captor.capture(), isNull());
+        var superset = captor.getValue();
+        var cell = GeoHash.cell(37.5, 127.04, GeoHash.precisionFor(1000, 37.5, 4, 8));
+        assertEquals(cell.centerLat(), superset.latitude());
+        assertEquals(cell.centerLon(), superset.longitude());
+        assertTrue(superset.radiusMeters() >= 1000 + cell.halfDiagonalMeters());
+        assertEquals(500, superset.count());
+        assertEquals("이자카야", superset.category());
+        assertEquals(BarProjection.LIST, superset.projection());
+    }
+
+    @Test
+    @DisplayName("cursor 다음 페이지, 거리순이 아닌 정렬은 캐시하지 않는다")
+    void uncacheableQuery_bypasses() throws Exception {
+        var cache = cache(500);
+        var withCursor = new NearbyBarsQuery(37.5, 127.04, 1000, 10, null, null, "distance", null, null, "abc");
+        var byScore = new NearbyBarsQuery(37.5, 127.04, 1000, 10, "하이볼", null, "recommended", null);
+
+        assertTrue(cache.findPage(withCursor).isEmpty());
+        assertTrue(cache.findList(byScore).isEmpty());
+        verifyNoInteractions(_client);
+        assertEquals(2, _meterRegistry.get("bars.nearby.cache.bypass").tag("reason", "query").counter().count());
+    }
+
+    @Test
+    @DisplayName("superset이 상한에 걸리면(잘렸을 수 있음) 그 셀은 캐시로 답하지 않는다")
+    void truncatedSuperset_bypasses() throws Exception {
+        when(_client.findNearbyPage(any(), isNull()))
+                .thenReturn(new BarSearchElasticClient.NearbyPage(List.of(bar(1, 37.5, 127.04), bar(2, 37.5, 127.04)), "next"));
+        var cache = cache(2);
+
+        assertTrue(cache.findList(query(37.5, 127.04, 1000, 10)).isEmpty());
+        assertTrue(cache.findPage(query(37.5, 127.04, 1000, 10)).isEmpty());
+
+        verify(_client, times(1)).findNearbyPage(any(), isNull());
+        assertEquals(2, _meterRegistry.get("bars.nearby.cache.bypass").tag("reason", "truncated").counter().count());
+    }
+
+    @Test
+    @DisplayName("목록 조회는 반경 안이 count보다 많아도 가까운 count개를 캐시로 답한다")
+    void findList_moreThanCount_servesNearest() throws Exception {
+        when(_client.findNearbyPage(any(), isNull())).thenReturn(new BarSearchElasticClient.NearbyPage(
+                List.of(bar(2, 37.5040, 127.04), bar(1, 37.5005, 127.04)), null));
+        var cache = cache(500);
+
+        var nearest = cache.findList(query(37.5, 127.04, 1000, 1)).orElseThrow();
+
+        assertEquals(List.of(1L), nearest.stream().map(BarSearchElasticEntity::getId).toList());
+    }
+
+    @Test
+    @DisplayName("페이지 조회는 superset을 읽지 않는다: 빈 셀이면 바로 ES로, 다음 페이지가 있으면(커서는 ES 정렬값) ES로")
+    void findPage_onlyFromWarmTileWithoutNextPage() throws Exception {
+        when(_client.findNearbyPage(any(), isNull())).thenReturn(new BarSearchElasticClient.NearbyPage(
+                List.of(bar(1, 37.5005, 127.04), bar(2, 37.5040, 127.04)), null));
+        var cache = cache(500);
+
+        assertTrue(cache.findPage(query(37.5, 127.04, 1000, 10)).isEmpty());
+        verifyNoInteractions(_client);
+        assertEquals(1, _meterRegistry.get("bars.nearby.cache.bypass").tag("reason", "cold").counter().count());
+
+        cache.findList(query(37.5, 127.04, 1000, 10));
+        assertTrue(cache.findPage(query(37.5, 127.04, 1000, 1)).isEmpty());
+        assertEquals(1, _meterRegistry.get("bars.nearby.cache.bypass").tag("reason", "full").counter().count());
+
+        var page = cache.findPage(query(37.5, 127.04, 1000, 10)).orElseThrow();
+        assertEquals(List.of(1L, 2L), page.bars().stream().map(BarSearchElasticEntity::getId).toList());
+        assertNull(page.nextCursor(), "반경 안 전부를 돌려줬으면 다음 페이지 없음");
+        verify(_client, times(1)).findNearbyPage(any(), isNull());
+    }
+
+    @Test
+    @DisplayName("invalidateAll 뒤에는 superset을 다시 읽는다")
+    void invalidateAll_reloads() throws Exception {
+        when(_client.findNearbyPage(any(), isNull())).thenReturn(new BarSearchElasticClient.NearbyPage(List.of(), null));
+        var cache = cache(500);
+
+        cache.findList(query(37.5, 127.04, 1000, 10));
+        cache.invalidateAll();
+        cache.findList(query(37.5, 127.04, 1000, 10));
+
+        verify(_client, times(2)).findNearbyPage(any(), isNull());
+    }
+
+    @Test
+    @DisplayName("GeoHash: 알려진 좌표의 geohash, 반경에 맞는 셀 크기")
+    void geoHash_cellAndPrecision() {
+        assertEquals("u4pruydqqvj", GeoHash.cell(57.64911, 10.40744, 11).hash());
+        assertEquals(6, GeoHash.precisionFor(1000, 37.5, 4, 8), "1km 반경 -> 약 970m x 610m 셀");
+        assertEquals(7, GeoHash.precisionFor(300, 37.5, 4, 8));
+        assertEquals(8, GeoHash.precisionFor(10, 37.5, 4, 8), "최소 셀 아래로는 내려가지 않는다");
+        assertEquals(111_195, GeoHash.distanceMeters(0, 0, 1, 0), 1);
+    }
+}
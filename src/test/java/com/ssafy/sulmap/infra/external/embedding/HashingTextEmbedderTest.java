@@ -0,0 +1,44 @@
+package com.ssafy.sulmap.infra.external.embedding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HashingTextEmbedder 유닛 테스트")
+class HashingTextEmbedderTest {
+
+    private final HashingTextEmbedder _embedder = new HashingTextEmbedder(256);
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) dot += a[i] * b[i];
+        return dot;
+    }
+
+    @Test
+    @DisplayName("같은 문장은 같은 단위 벡터, 빈 문장은 영벡터")
+    void embed_deterministicAndNormalized() {
+        float[] a = _embedder.embed("조용한 이자카야에서 사케");
+        float[] b = _embedder.embed("조용한  이자카야에서, 사케!");
+
+        assertEquals(256, a.length);
+        assertArrayEquals(a, b, "정규화 후 같은 문장");
+        assertEquals(1.0, cosine(a, a), 1e-5);
+
+        assertTrue(TextEmbedder.isZero(_embedder.embed("  ")));
+        assertTrue(TextEmbedder.isZero(_embedder.embed(null)));
+        assertEquals("hash-v1-256", _embedder.name());
+    }
+
+    @Test
+    @DisplayName("요청문과 단어가 겹치는 술집 문서가 더 가깝다 (조사가 붙어도 바이그램으로 겹친다)")
+    void embed_overlappingTermsAreCloser() {
+        float[] prompt = _embedder.embed("조용하게 사케나 하이볼 마실 이자카야에서");
+        float[] izakaya = _embedder.embed("이자카야 이자카야 스시바 사케,하이볼,모둠 사시미");
+        float[] hof = _embedder.embed("호프 호프 치킨집 생맥주,후라이드치킨");
+
+        assertTrue(cosine(prompt, izakaya) > cosine(prompt, hof) + 0.1,
+                "izakaya=" + cosine(prompt, izakaya) + ", hof=" + cosine(prompt, hof));
+    }
+}
@@ -0,0 +1,108 @@
+package com.ssafy.sulmap.infra.external.embedding;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PromptEmbeddingCache 유닛 테스트")
+class PromptEmbeddingCacheTest {
+
+    /**
+     * 호출 횟수를 세는 임베더
+     */
+    private static final class CountingEmbedder implements TextEmbedder {
+        private final HashingTextEmbedder _delegate;
+        private final AtomicInteger _calls = new AtomicInteger();
+
+        CountingEmbedder(int dims) {
+            _delegate = new HashingTextEmbedder(dims);
+        }
+
+        @Override
+        public String name() {
+            return _delegate.name();
+        }
+
+        @Override
+        public int dimensions() {
+            return _delegate.dimensions();
+        }
+
+        @Override
+        public float[] embed(String text) {
+            _calls.incrementAndGet();
+            return _delegate.embed(text);
+        }
+    }
+
+    @Test
+    @DisplayName("정규화: 공백/구두점/대소문자/분해된 한글/홀로 쓰인 자모 차이는 같은 키")
+    void normalize_collapsesVariants() {
+        String decomposed = java.text.Normalizer.normalize("조용한 이자카야", java.text.Normalizer.Form.NFD);
+
+        assertEquals("조용한 이자카야", PromptEmbeddingCache.normalize("  조용한,   이자카야!! "));
+        assertEquals("조용한 이자카야", PromptEmbeddingCache.normalize(decomposed));
+        assertEquals("조용한 이자카야", PromptEmbeddingCache.normalize("조용한 이자카야 ㅋㅋㅠㅠ"));
+        assertEquals("2차 맥주 ipa", PromptEmbeddingCache.normalize("2차  맥주, IPA"));
+        assertEquals("", PromptEmbeddingCache.normalize("ㅎㅎ"));
+    }
+
+    @Test
+    @DisplayName("정규화 결과가 같으면 한 번만 임베딩하고 hit 비율을 지표로 낸다")
+    void embed_hitsCacheForEquivalentPrompts() {
+        var embedder = new CountingEmbedder(64);
+        var registry = new SimpleMeterRegistry();
+        var cache = new PromptEmbeddingCache(embedder, registry, 100, "");
+
+        float[] first = cache.embed("2차 맥주");
+        float[] second = cache.embed(" 2차,  맥주 ㅎㅎ");
+        cache.embed("2차 맥주!");
+        cache.embed("조용한 이자카야");
+
+        assertSame(first, second);
+        assertEquals(2, embedder._calls.get());
+        assertEquals(0.5, registry.get("ai.recommend.embedding.cache.hit.ratio").gauge().value(), 1e-9);
+        assertEquals(2.0, registry.get("cache.gets").tags("cache", "promptEmbedding", "result", "hit")
+                .functionCounter().count());
+
+        assertTrue(TextEmbedder.isZero(cache.embed("ㅋㅋ")));
+        assertEquals(2, embedder._calls.get(), "빈 요청문은 임베딩하지 않는다");
+    }
+
+    @Test
+    @DisplayName("크기 상한을 넘으면 내보낸다")
+    void embed_boundedSize() {
+        var cache = new PromptEmbeddingCache(new CountingEmbedder(8), new SimpleMeterRegistry(), 10, "");
+
+        for (int i = 0; i < 100; i++) cache.embed("요청 " + i);
+
+        assertTrue(cache.size() <= 10, "size=" + cache.size());
+    }
+
+    @Test
+    @DisplayName("파일로 저장했다가 같은 임베더면 다시 읽고, 다른 임베더로 만든 파일은 무시한다")
+    void saveAndLoad_roundTrip(@TempDir Path dir) {
+        Path file = dir.resolve("cache/prompt-embeddings.bin");
+        var embedder = new CountingEmbedder(32);
+        var cache = new PromptEmbeddingCache(embedder, new SimpleMeterRegistry(), 100, file.toString());
+        float[] vector = cache.embed("조용한 이자카야");
+        cache.embed("2차 맥주");
+        cache.save();
+
+        var reloadedEmbedder = new CountingEmbedder(32);
+        var reloaded = new PromptEmbeddingCache(reloadedEmbedder, new SimpleMeterRegistry(), 100, file.toString());
+        assertArrayEquals(vector, reloaded.embed("조용한  이자카야"));
+        assertEquals(2, reloaded.size());
+        assertEquals(0, reloadedEmbedder._calls.get());
+
+        var otherModel = new PromptEmbeddingCache(new CountingEmbedder(16), new SimpleMeterRegistry(), 100,
+                file.toString());
+        assertEquals(0, otherModel.size());
+    }
+}
@@ -0,0 +1,255 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import com.ssafy.sulmap.core.model.BarListItemModel;
+import com.ssafy.sulmap.core.model.query.GetRecommenedBarsQuery;
+import com.ssafy.sulmap.infra.external.openai.OpenAiStubServer.StubResponse;
+import com.ssafy.sulmap.infra.repository.AiRecommendRepositoryImpl;
+import com.ssafy.sulmap.infra.utils.GptBatchText;
+import com.ssafy.sulmap.infra.utils.GptBatchTextBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GptCallGuard 테스트 (로컬 OpenAI 스텁 서버)")
+class GptCallGuardTest {
+
+    private static final String CTX = "CTX|g=U|a=?|ts=2025-12-19T21:00:00+09:00|w=-|md=1000|q=이자카야";
+    private static final GptBatchText BATCH = GptBatchText.legacy("B|id=1|c=호프\nB|id=2|c=이자카야\nB|id=3|c=와인바");
+
+    private OpenAiStubServer _stub;
+    private SimpleMeterRegistry _meterRegistry;
+    private ExecutorService _hedgeExecutor;
+    private final AtomicLong _clock = new AtomicLong();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        _stub = new OpenAiStubServer();
+        _meterRegistry = new SimpleMeterRegistry();
+        _hedgeExecutor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        _stub.close();
+        _hedgeExecutor.shutdownNow();
+    }
+
+    private GptCallGuard guard(Duration timeout, boolean hedge) {
+        var settings = new GptCallGuard.Settings(timeout, timeout, 4, 4, 0.5, Duration.ofSeconds(30),
+                hedge, 0.5, 3);
+        return new GptCallGuard(settings, _hedgeExecutor, _meterRegistry, _clock::get);
+    }
+
+    private GptMinorRecommendClient minorClient(GptCallGuard guard) {
+        return new GptMinorRecommendClient(_stub.client(), new GptTokenUsageRecorder(_meterRegistry), guard,
+                GptReplayStore.disabled(), GptModelRouter.fixed("gpt-5.2", _meterRegistry));
+    }
+
+    @Test
+    @DisplayName("정상 응답은 그대로 파싱된다")
+    void rank_ok() {
+        _stub.enqueue(StubResponse.ok("{\"selected\":[2,1]}"));
+
+        var out = minorClient(guard(Duration.ofSeconds(5), false)).rank(2, CTX, BATCH);
+
+        assertEquals(List.of(2L, 1L), out.selected);
+    }
+
+    @Test
+    @DisplayName("단계 타임아웃을 넘기면 응답을 기다리지 않고 실패한다")
+    void rank_slowResponse_timesOut() {
+        var client = minorClient(guard(Duration.ofMillis(300), false));
+        // SDK 첫 호출의 클래스 로딩 시간은 제외
+        _stub.enqueue(StubResponse.ok("{\"selected\":[2,1]}"));
+        client.rank(2, CTX, BATCH);
+
+        _stub.enqueue(StubResponse.ok("{\"selected\":[2,1]}").delayed(3_000));
+        long start = System.nanoTime();
+        assertThrows(RuntimeException.class, () -> client.rank(2, CTX, BATCH));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_500);
+    }
+
+    @Test
+    @DisplayName("마감이 단계 타임아웃보다 이르면 남은 시간에 끊고, 그 실패는 서킷 창에 넣지 않는다")
+    void rank_deadlineBeforeStageTimeout_clampsAndSkipsBreaker() {
+        var guard = guard(Duration.ofSeconds(5), false);
+        var client = minorClient(guard);
+        _stub.enqueue(StubResponse.ok("{\"selected\":[2,1]}"));
+        client.rank(2, CTX, BATCH);
+
+        _stub.byDefault(StubResponse.ok("{\"selected\":[2,1]}").delayed(3_000));
+        for (int i = 0; i < 4; i++) {
+            long start = System.nanoTime();
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(300);
+            assertThrows(RuntimeException.class,
+                    () -> GptCallScope.run(false, deadline, () -> client.rank(2, CTX, BATCH)));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_500);
+        }
+        assertEquals(GptCircuitBreaker.State.CLOSED, guard.state(GptStage.STAGE1));
+    }
+
+    @Test
+    @DisplayName("마감이 이미 지났으면 서버에 요청하지 않는다")
+    void rank_deadlinePassed_skipsCall() {
+        var client = minorClient(guard(Duration.ofSeconds(5), false));
+        long deadline = System.nanoTime() - 1;
+
+        assertThrows(GptDeadlineExceededException.class,
+                () -> GptCallScope.run(false, deadline, () -> client.rank(2, CTX, BATCH)));
+        assertEquals(0, _stub.requestCount());
+    }
+
+    @Test
+    @DisplayName("실패가 쌓이면 서킷이 열려 호출 없이 차단되고, open 시간이 지나면 탐침 1건으로 닫힌다")
+    void rank_failures_openCircuit() {
+        var guard = guard(Duration.ofSeconds(5), false);
+        var client = minorClient(guard);
+        _stub.byDefault(StubResponse.error(500));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(RuntimeException.class, () -> client.rank(2, CTX, BATCH));
+        }
+        assertEquals(GptCircuitBreaker.State.OPEN, guard.state(GptStage.STAGE1));
+
+        assertThrows(GptCircuitOpenException.class, () -> client.rank(2, CTX, BATCH));
+        assertEquals(4, _stub.requestCount(), "열린 동안은 서버에 요청하지 않는다");
+        assertEquals(1.0, _meterRegistry.get("ai.recommend.gpt.short_circuited").tag("stage", "stage1").counter().count());
+        assertEquals(GptCircuitBreaker.State.CLOSED, guard.state(GptStage.STAGE2), "단계별로 독립");
+
+        _clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        _stub.enqueue(StubResponse.ok("{\"selected\":[3,2]}"));
+
+        assertEquals(List.of(3L, 2L), client.rank(2, CTX, BATCH).selected);
+        assertEquals(GptCircuitBreaker.State.CLOSED, guard.state(GptStage.STAGE1));
+    }
+
+    @Test
+    @DisplayName("형식이 깨진 응답도 실패로 집계되고, 저장소는 기존 폴백 순서(입력 순서)를 쓴다")
+    void rank_malformed_countsAsFailureAndFallsBack() {
+        var guard = guard(Duration.ofSeconds(5), false);
+        var minor = minorClient(guard);
+        var recommend = new GptRecommendClient(_stub.client(), new GptTokenUsageRecorder(_meterRegistry), guard,
+                GptReplayStore.disabled(), GptModelRouter.fixed("gpt-5.2", _meterRegistry));
+        var repository = new AiRecommendRepositoryImpl(minor, recommend, _meterRegistry, 8000,
+                GptBatchTextBuilder.Encoding.LEGACY);
+        _stub.byDefault(StubResponse.malformed());
+
+        List<BarListItemModel> bars = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) bars.add(BarListItemModel.builder().id(id).name("bar" + id).build());
+        var query = GetRecommenedBarsQuery.builder().maxDistance(1000).userPrompt("이자카야").build();
+
+        for (int i = 0; i < 4; i++) {
+            var picked = repository.getMinorRecommend(bars, null, query, 2);
+            assertEquals(List.of(1L, 2L), picked.stream().map(BarListItemModel::getId).toList());
+        }
+        assertEquals(GptCircuitBreaker.State.OPEN, guard.state(GptStage.STAGE1));
+
+        // 서킷 open: 호출 없이 같은 폴백
+        var picked = repository.getMinorRecommend(bars, null, query, 2);
+        assertEquals(List.of(1L, 2L), picked.stream().map(BarListItemModel::getId).toList());
+        assertEquals(4, _stub.requestCount());
+        assertEquals(4.0, _meterRegistry.get("ai.recommend.fallback")
+                .tags("stage", "stage1", "reason", "ai_error").counter().count());
+        assertEquals(1.0, _meterRegistry.get("ai.recommend.fallback")
+                .tags("stage", "stage1", "reason", "circuit_open").counter().count());
+    }
+
+    @Test
+    @DisplayName("shadow 호출은 실패해도 서킷/모델 라우터 창에 들어가지 않고, 서킷이 열려 있으면 보내지 않는다")
+    void call_shadow_staysOutOfBreakerAndRouterWindows() {
+        var guard = guard(Duration.ofSeconds(5), false);
+        var router = GptModelRouter.fixed("gpt-5.2", _meterRegistry);
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, () -> GptCallScope.run(true, () ->
+                    guard.call(GptStage.STAGE1, options -> router.observe(GptStage.STAGE1, router.select(GptStage.STAGE1),
+                            () -> { throw new IllegalStateException("500"); }))));
+        }
+        assertEquals(GptCircuitBreaker.State.CLOSED, guard.state(GptStage.STAGE1));
+        assertNull(_meterRegistry.find("ai.recommend.gpt.model.latency").timer());
+        assertNull(_meterRegistry.find("ai.recommend.gpt.model.routed").counter());
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, () -> guard.call(GptStage.STAGE1, options -> {
+                throw new IllegalStateException("500");
+            }));
+        }
+        assertThrows(GptCircuitOpenException.class, () -> GptCallScope.run(true, () ->
+                guard.call(GptStage.STAGE1, options -> "ok")));
+    }
+
+    @Test
+    @DisplayName("HALF_OPEN 탐침이 Error로 끝나도 결과가 기록되어 서킷이 다시 열린다 (탐침 슬롯이 걸린 채 남지 않음)")
+    void call_errorDuringProbe_reopensCircuit() {
+        var guard = guard(Duration.ofSeconds(5), false);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, () -> guard.call(GptStage.STAGE1, options -> {
+                throw new IllegalStateException("500");
+            }));
+        }
+        _clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertThrows(StackOverflowError.class, () -> guard.call(GptStage.STAGE1, options -> {
+            throw new StackOverflowError();
+        }));
+        assertEquals(GptCircuitBreaker.State.OPEN, guard.state(GptStage.STAGE1));
+
+        _clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertEquals("ok", guard.call(GptStage.STAGE1, options -> "ok"), "다음 탐침은 다시 허용된다");
+        assertEquals(GptCircuitBreaker.State.CLOSED, guard.state(GptStage.STAGE1));
+    }
+
+    @Test
+    @DisplayName("스트림을 받는 쪽 실패(클라이언트 끊김)는 서킷/모델 라우터 실패로 세지 않는다")
+    void call_streamConsumerFailure_notCountedAsGptFailure() {
+        var guard = guard(Duration.ofSeconds(5), false);
+        var router = GptModelRouter.fixed("gpt-5.2", _meterRegistry);
+        var disconnect = new UncheckedIOException(new IOException("Broken pipe"));
+
+        for (int i = 0; i < 4; i++) {
+            var thrown = assertThrows(GptStreamConsumerException.class, () ->
+                    guard.call(GptStage.STAGE2_STREAM, options -> router.observe(GptStage.STAGE2_STREAM, "gpt-5.2", () -> {
+                        throw new GptStreamConsumerException(disconnect);
+                    })));
+            assertSame(disconnect, thrown.getCause());
+        }
+
+        assertEquals(GptCircuitBreaker.State.CLOSED, guard.state(GptStage.STAGE2_STREAM));
+        assertNull(_meterRegistry.find("ai.recommend.gpt.model.latency").timer(), "라우터 창에도 넣지 않는다");
+    }
+
+    @Test
+    @DisplayName("hedge: 최근 지연 백분위를 넘기면 한 번 더 보내고 먼저 성공한 응답을 쓴다")
+    void rank_hedgesSlowCall() {
+        var client = minorClient(guard(Duration.ofSeconds(10), true));
+        for (int i = 0; i < 3; i++) {
+            _stub.enqueue(StubResponse.ok("{\"selected\":[1,2]}").delayed(20));
+            client.rank(2, CTX, BATCH);
+        }
+
+        _stub.enqueue(StubResponse.ok("{\"selected\":[1,2]}").delayed(5_000));
+        _stub.enqueue(StubResponse.ok("{\"selected\":[3,1]}"));
+
+        long start = System.nanoTime();
+        var out = client.rank(2, CTX, BATCH);
+
+        assertEquals(List.of(3L, 1L), out.selected, "보조 요청 응답");
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3_000);
+        assertEquals(5, _stub.requestCount());
+        assertEquals(1.0, _meterRegistry.get("ai.recommend.gpt.hedged").tag("stage", "stage1").counter().count());
+    }
+}
@@ -0,0 +1,110 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssafy.sulmap.core.model.BarListItemModel;
+import com.ssafy.sulmap.infra.external.openai.OpenAiStubServer.StubResponse;
+import com.ssafy.sulmap.infra.utils.GptBatchTextBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GptMinorRecommendClient 테스트 (로컬 OpenAI 스텁 서버)")
+class GptMinorRecommendClientTest {
+
+    private static final String CTX = "CTX|g=U|a=?|ts=2025-12-19T21:00:00+09:00|w=-|md=1000|q=이자카야";
+
+    private OpenAiStubServer _stub;
+    private SimpleMeterRegistry _meterRegistry;
+    private GptMinorRecommendClient _client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        _stub = new OpenAiStubServer();
+        _meterRegistry = new SimpleMeterRegistry();
+        var settings = new GptCallGuard.Settings(Duration.ofSeconds(5), Duration.ofSeconds(5), 20, 10, 0.5,
+                Duration.ofSeconds(30), false, 0.95, 20);
+        _client = new GptMinorRecommendClient(_stub.client(), new GptTokenUsageRecorder(_meterRegistry),
+                new GptCallGuard(settings, null, _meterRegistry), GptReplayStore.disabled(),
+                GptModelRouter.fixed("gpt-5.2", _meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        _stub.close();
+    }
+
+    private List<BarListItemModel> bars() {
+        List<BarListItemModel> bars = new ArrayList<>();
+        for (long id = 501; id <= 505; id++) {
+            bars.add(BarListItemModel.builder().id(id).name("bar" + id).baseCategoryName("이자카야").build());
+        }
+        return bars;
+    }
+
+    @Test
+    @DisplayName("COMPACT 배치: GPT가 고른 순번을 barId로 되돌리고, 범위 밖/중복 순번은 버린 뒤 배치 순서로 채운다")
+    void rank_compact_resolvesOrdinals() {
+        var batch = GptBatchTextBuilder.buildBatch(bars(), GptBatchTextBuilder.Encoding.COMPACT);
+        _stub.enqueue(StubResponse.ok("{\"selected\":[4,99,4,2]}"));
+
+        var out = _client.rank(3, CTX, batch);
+
+        assertEquals(List.of(504L, 502L, 501L), out.selected);
+        assertEquals(1, _meterRegistry.get("ai.recommend.tokens.candidates.saved")
+                .tag("stage", "stage1").summary().count());
+        for (String reason : List.of("unknown", "duplicate")) {
+            assertEquals(1.0, _meterRegistry.get("ai.recommend.gpt.normalize.dropped")
+                    .tags("stage", "stage1", "model", "gpt-5.2", "reason", reason).counter().count(), reason);
+        }
+        assertEquals(1.0, _meterRegistry.get("ai.recommend.gpt.normalize.filled")
+                .tags("stage", "stage1", "model", "gpt-5.2").counter().count());
+    }
+
+    @Test
+    @DisplayName("LEGACY 배치: 출력은 그대로 barId로 본다")
+    void rank_legacy_usesBarIds() {
+        var batch = GptBatchTextBuilder.buildBatch(bars(), GptBatchTextBuilder.Encoding.LEGACY);
+        _stub.enqueue(StubResponse.ok("{\"selected\":[505,4]}"));
+
+        var out = _client.rank(2, CTX, batch);
+
+        assertEquals(List.of(505L, 501L), out.selected);
+        assertTrue(_meterRegistry.find("ai.recommend.tokens.candidates.saved").summaries().isEmpty());
+    }
+
+    @Test
+    @DisplayName("정적 지시는 topK/CTX와 무관하게 바이트 단위로 같고, 가변 부분은 input에만 들어간다. cached 토큰을 기록한다")
+    void rank_staticPrefixAndCachedTokens() throws Exception {
+        var batch = GptBatchTextBuilder.buildBatch(bars(), GptBatchTextBuilder.Encoding.COMPACT);
+        _stub.enqueue(StubResponse.ok("{\"selected\":[1,2,3]}", 0));
+        _stub.enqueue(StubResponse.ok("{\"selected\":[1,2]}", 80));
+
+        _client.rank(3, CTX, batch);
+        _client.rank(2, CTX.replace("q=이자카야", "q=와인바"), batch);
+
+        var om = new ObjectMapper();
+        JsonNode first = om.readTree(_stub.requestBodies().get(0));
+        JsonNode second = om.readTree(_stub.requestBodies().get(1));
+        assertEquals(first.get("instructions").asText(), second.get("instructions").asText());
+        assertEquals(GptMinorRecommendClient.COMPACT_INSTRUCTIONS, first.get("instructions").asText());
+        assertFalse(first.get("instructions").asText().contains("CTX|"));
+        assertTrue(second.get("input").asText().startsWith("[TASK] K=2:"));
+        assertEquals("sulmap-stage1-compact", second.get("prompt_cache_key").asText());
+
+        var cached = _meterRegistry.get("ai.recommend.tokens.input.cached")
+                .tags("stage", "stage1", "model", "gpt-5.2").summary();
+        assertEquals(2, cached.count());
+        assertEquals(80.0, cached.totalAmount());
+        assertEquals(80.0, _meterRegistry.get("ai.recommend.tokens.input.cached.ratio")
+                .tags("stage", "stage1", "model", "gpt-5.2").summary().max());
+    }
+}
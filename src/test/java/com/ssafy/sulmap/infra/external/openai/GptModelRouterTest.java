@@ -0,0 +1,115 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GptModelRouter 테스트")
+class GptModelRouterTest {
+
+    private static final String PRIMARY = "gpt-5.2";
+    private static final String FAST = "gpt-5-mini";
+
+    private SimpleMeterRegistry _meterRegistry;
+    private GptModelRouter _router;
+
+    @BeforeEach
+    void setUp() {
+        _meterRegistry = new SimpleMeterRegistry();
+        Map<GptStage, GptModelRouter.StageModels> models = new EnumMap<>(GptStage.class);
+        models.put(GptStage.STAGE1, new GptModelRouter.StageModels(PRIMARY, FAST));
+        models.put(GptStage.STAGE2, new GptModelRouter.StageModels(PRIMARY, ""));
+        models.put(GptStage.STAGE2_STREAM, new GptModelRouter.StageModels(PRIMARY, ""));
+        // p95 1초, 오류율 0.5, 최근 20건 중 최소 5건, 4건마다 primary 탐침
+        _router = new GptModelRouter(new GptModelRouter.Settings(models, 1_000, 0.5, 20, 5, 4), _meterRegistry);
+    }
+
+    private void observe(GptStage stage, String model, int times, long millis, boolean success) {
+        for (int i = 0; i < times; i++) {
+            _router.record(stage, model, TimeUnit.MILLISECONDS.toNanos(millis), success);
+        }
+    }
+
+    private List<String> select(GptStage stage, int times) {
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < times; i++) out.add(_router.select(stage));
+        return out;
+    }
+
+    @Test
+    @DisplayName("primary가 건강하면 primary만 쓴다 (표본 부족도 건강으로 본다)")
+    void healthyPrimary_staysOnPrimary() {
+        assertEquals(List.of(PRIMARY, PRIMARY), select(GptStage.STAGE1, 2));
+
+        observe(GptStage.STAGE1, PRIMARY, 10, 300, true);
+
+        assertTrue(select(GptStage.STAGE1, 8).stream().allMatch(PRIMARY::equals));
+    }
+
+    @Test
+    @DisplayName("primary p95가 임계를 넘으면 fallback으로 돌리되 probeEvery건마다 primary로 탐침한다")
+    void slowPrimary_shiftsToFallbackWithProbes() {
+        observe(GptStage.STAGE1, PRIMARY, 10, 3_000, true);
+
+        List<String> picked = select(GptStage.STAGE1, 8);
+
+        assertEquals(2, picked.stream().filter(PRIMARY::equals).count(), "8건 중 2건은 탐침");
+        assertEquals(6, picked.stream().filter(FAST::equals).count());
+        assertEquals(6.0, _meterRegistry.get("ai.recommend.gpt.model.routed")
+                .tags("stage", "stage1", "model", FAST, "reason", "latency").counter().count());
+        assertEquals(2.0, _meterRegistry.get("ai.recommend.gpt.model.routed")
+                .tags("stage", "stage1", "model", PRIMARY, "reason", "probe").counter().count());
+    }
+
+    @Test
+    @DisplayName("primary가 회복하면 (최근 창에서 빠른 응답이 대부분) 다시 primary로 돌아온다")
+    void recoveredPrimary_returnsToPrimary() {
+        observe(GptStage.STAGE1, PRIMARY, 10, 3_000, true);
+        assertEquals(FAST, _router.select(GptStage.STAGE1));
+
+        observe(GptStage.STAGE1, PRIMARY, 20, 200, true);
+
+        assertTrue(select(GptStage.STAGE1, 8).stream().allMatch(PRIMARY::equals));
+    }
+
+    @Test
+    @DisplayName("오류율이 임계를 넘어도 돌리지만, fallback도 실패 중이면 primary에 남는다")
+    void failingPrimary_shiftsUnlessFallbackAlsoFailing() {
+        observe(GptStage.STAGE1, PRIMARY, 6, 200, false);
+        assertEquals(FAST, _router.select(GptStage.STAGE1));
+
+        observe(GptStage.STAGE1, FAST, 6, 100, false);
+        assertTrue(select(GptStage.STAGE1, 8).stream().allMatch(PRIMARY::equals));
+    }
+
+    @Test
+    @DisplayName("fallback이 없는 단계는 느려도 전환하지 않는다")
+    void noFallback_neverShifts() {
+        observe(GptStage.STAGE2, PRIMARY, 10, 5_000, true);
+
+        assertTrue(select(GptStage.STAGE2, 8).stream().allMatch(PRIMARY::equals));
+    }
+
+    @Test
+    @DisplayName("observe는 단계/모델/결과별 지연을 기록하고 예외는 그대로 던진다")
+    void observe_recordsPerModelLatency() {
+        assertEquals("ok", _router.observe(GptStage.STAGE1, FAST, () -> "ok"));
+        assertThrows(IllegalStateException.class, () -> _router.observe(GptStage.STAGE1, FAST, () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(1, _meterRegistry.get("ai.recommend.gpt.model.latency")
+                .tags("stage", "stage1", "model", FAST, "outcome", "success").timer().count());
+        assertEquals(1, _meterRegistry.get("ai.recommend.gpt.model.latency")
+                .tags("stage", "stage1", "model", FAST, "outcome", "failure").timer().count());
+    }
+}
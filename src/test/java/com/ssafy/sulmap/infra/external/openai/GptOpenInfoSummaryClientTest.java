@@ -0,0 +1,70 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import com.ssafy.sulmap.infra.external.openai.OpenAiStubServer.StubResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GptOpenInfoSummaryClient 테스트 (로컬 OpenAI 스텁 서버)")
+class GptOpenInfoSummaryClientTest {
+
+    private OpenAiStubServer _stub;
+    private SimpleMeterRegistry _meterRegistry;
+    private GptOpenInfoSummaryClient _client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        _stub = new OpenAiStubServer();
+        _meterRegistry = new SimpleMeterRegistry();
+        _client = new GptOpenInfoSummaryClient(_stub.client(), new GptTokenUsageRecorder(_meterRegistry),
+                "local-summarizer", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        _stub.close();
+    }
+
+    @Test
+    @DisplayName("요청한 술집만 정규화된 요약으로 돌려주고, 모르는 id/빈 항목은 버린다")
+    void summarize_formatsAndDropsUnknown() {
+        Map<Long, String> openInfos = new LinkedHashMap<>();
+        openInfos.put(1L, "매일 17:00 ~ 02:00 (라스트오더 01:30) 매주 일요일 정기휴무");
+        openInfos.put(2L, "연중무휴 24시간");
+        openInfos.put(3L, "전화 문의");
+        _stub.enqueue(StubResponse.ok("{\"items\":["
+                + "{\"barId\":1,\"hours\":\"17:00-02:00\",\"closedDays\":[\"일요일\"],\"lastOrder\":\"01:30\"},"
+                + "{\"barId\":2,\"hours\":\"24시간\",\"closedDays\":[\"연중무휴\"],\"lastOrder\":\"\"},"
+                + "{\"barId\":3,\"hours\":\"\",\"closedDays\":[],\"lastOrder\":\"\"},"
+                + "{\"barId\":99,\"hours\":\"18:00-24:00\",\"closedDays\":[],\"lastOrder\":\"\"}]}"));
+
+        var out = _client.summarize(openInfos);
+
+        assertEquals(Map.of(1L, "17:00-02:00 / 휴무 일 / LO 01:30", 2L, "24시간 / 연중무휴"), out);
+        assertEquals(1, _meterRegistry.get("ai.recommend.tokens.input.estimated")
+                .tags("stage", GptOpenInfoSummaryClient.STAGE, "model", "local-summarizer").summary().count());
+    }
+
+    @Test
+    @DisplayName("format: 알 수 없는 요일/시각은 버리고 길이를 제한한다")
+    void format_normalizes() {
+        var item = new GptOpenInfoSummaryClient.Item(1L, "평일 18:00-02:00 | 주말 17:00-03:00",
+                List.of("월요일", "화", "매주", "월"), "새벽 1시");
+
+        assertEquals("평일 18:00-02:00   주말 17:00-03:00 / 휴무 월,화", GptOpenInfoSummaryClient.format(item));
+        assertNull(GptOpenInfoSummaryClient.format(new GptOpenInfoSummaryClient.Item(1L, null, null, null)));
+
+        var longHours = new GptOpenInfoSummaryClient.Item(1L, "x".repeat(80), List.of("월"), "01:00");
+        assertTrue(GptOpenInfoSummaryClient.format(longHours).length()
+                <= GptOpenInfoSummaryClient.MAX_SUMMARY_LENGTH);
+    }
+}
@@ -0,0 +1,111 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import com.ssafy.sulmap.infra.external.openai.OpenAiStubServer.StubResponse;
+import com.ssafy.sulmap.infra.utils.GptBatchText;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GptReplayStore 테스트 (기록 -> 재생)")
+class GptReplayStoreTest {
+
+    private static final String CTX_AT_9 = "CTX|g=U|a=?|ts=2025-12-19T21:00:00+09:00|w=-|md=1000|q=이자카야";
+    private static final String CTX_AT_10 = "CTX|g=U|a=?|ts=2025-12-19T22:10:00+09:00|w=-|md=1000|q=이자카야";
+    private static final GptBatchText BATCH = GptBatchText.legacy("B|id=1|c=호프\nB|id=2|c=이자카야\nB|id=3|c=와인바");
+
+    @TempDir
+    Path _dir;
+
+    private OpenAiStubServer _stub;
+    private SimpleMeterRegistry _meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        _stub = new OpenAiStubServer();
+        _meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        _stub.close();
+    }
+
+    private GptCallGuard guard(Duration timeout) {
+        var settings = new GptCallGuard.Settings(timeout, timeout, 20, 10, 0.5, Duration.ofSeconds(30),
+                false, 0.95, 20);
+        return new GptCallGuard(settings, null, _meterRegistry);
+    }
+
+    private GptMinorRecommendClient minorClient(GptReplayStore store, Duration timeout) {
+        return new GptMinorRecommendClient(_stub.client(), new GptTokenUsageRecorder(_meterRegistry), guard(timeout), store,
+                GptModelRouter.fixed("gpt-5.2", _meterRegistry));
+    }
+
+    private GptReplayStore store(GptReplayStore.Mode mode, String latency) {
+        return new GptReplayStore(mode, _dir, GptReplayLatency.parse(latency), GptReplayLatency.parse(latency));
+    }
+
+    @Test
+    @DisplayName("기록한 결과를 서버 호출 없이 재생한다 (요청 시각 ts가 달라도 같은 키)")
+    void record_thenReplay() {
+        _stub.enqueue(StubResponse.ok("{\"selected\":[3,2]}"));
+        var recorded = minorClient(store(GptReplayStore.Mode.RECORD, "none"), Duration.ofSeconds(5))
+                .rank(2, CTX_AT_9, BATCH);
+        assertEquals(List.of(3L, 2L), recorded.selected);
+        assertTrue(Files.isDirectory(_dir.resolve("stage1")));
+
+        var replayed = minorClient(store(GptReplayStore.Mode.REPLAY, "none"), Duration.ofSeconds(5))
+                .rank(2, CTX_AT_10, BATCH);
+
+        assertEquals(List.of(3L, 2L), replayed.selected);
+        assertEquals(1, _stub.requestCount(), "재생은 서버를 부르지 않는다");
+    }
+
+    @Test
+    @DisplayName("키가 없으면 default.json, 그것도 없으면 실패")
+    void replay_missingKey_usesDefault() throws Exception {
+        var client = minorClient(store(GptReplayStore.Mode.REPLAY, "none"), Duration.ofSeconds(5));
+        assertThrows(IllegalStateException.class, () -> client.rank(2, CTX_AT_9, BATCH));
+
+        Files.createDirectories(_dir.resolve("stage1"));
+        Files.writeString(_dir.resolve("stage1/default.json"), "{\"output\":{\"selected\":[2,1]}}");
+
+        assertEquals(List.of(2L, 1L), client.rank(2, CTX_AT_9, BATCH).selected);
+    }
+
+    @Test
+    @DisplayName("주입 지연이 단계 타임아웃을 넘기면 타임아웃까지만 기다리고 실패한다")
+    void replay_latencyOverTimeout_fails() throws Exception {
+        Files.createDirectories(_dir.resolve("stage1"));
+        Files.writeString(_dir.resolve("stage1/default.json"), "{\"output\":{\"selected\":[2,1]}}");
+        var client = minorClient(store(GptReplayStore.Mode.REPLAY, "fixed:5000"), Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> client.rank(2, CTX_AT_9, BATCH));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+    }
+
+    @Test
+    @DisplayName("지연 분포 문법")
+    void latency_parse() {
+        assertEquals(0, GptReplayLatency.parse("none").sampleMillis(-1));
+        assertEquals(800, GptReplayLatency.parse("fixed:800").sampleMillis(-1));
+        assertEquals(1234, GptReplayLatency.parse("recorded").sampleMillis(1234));
+        long uniform = GptReplayLatency.parse("uniform:200-300").sampleMillis(-1);
+        assertTrue(uniform >= 200 && uniform <= 300);
+        assertTrue(GptReplayLatency.parse("lognormal:800:0.5").sampleMillis(-1) > 0);
+        assertThrows(IllegalArgumentException.class, () -> GptReplayLatency.parse("gamma:1"));
+        assertThrows(IllegalArgumentException.class, () -> GptReplayLatency.parse("fixed"));
+    }
+}
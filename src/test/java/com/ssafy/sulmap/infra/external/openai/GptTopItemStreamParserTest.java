@@ -0,0 +1,47 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GptTopItemStreamParserTest {
+
+    private static final String OUTPUT = """
+            {"top":[{"barId":11,"reasons":["조용한 분위기","가까움"]},\
+            {"barId":22,"reasons":["맥주 종류 다양"],"extra":{"x":[1,2]}},\
+            {"barId":"not-a-number"},\
+            {"barId":33,"reasons":[]}]}""";
+
+    @Test
+    @DisplayName("원소가 닫히는 조각에서 바로 Item이 나온다")
+    void feed_emitsItemAsSoonAsElementCloses() throws IOException {
+        var parser = new GptTopItemStreamParser();
+
+        int firstClose = OUTPUT.indexOf("]}") + 2;
+        assertTrue(parser.feed(OUTPUT.substring(0, firstClose - 1)).isEmpty(), "아직 첫 원소가 닫히지 않음");
+
+        var first = parser.feed(OUTPUT.substring(firstClose - 1, firstClose));
+        assertEquals(1, first.size());
+        assertEquals(11L, first.get(0).barId);
+        assertEquals(List.of("조용한 분위기", "가까움"), first.get(0).reasons);
+    }
+
+    @Test
+    @DisplayName("한 글자씩 잘려 들어와도 모든 원소를 순서대로 파싱하고 깨진 원소는 건너뛴다")
+    void feed_charByChar_parsesAllValidItems() throws IOException {
+        var parser = new GptTopItemStreamParser();
+        List<Long> ids = new ArrayList<>();
+
+        for (int i = 0; i < OUTPUT.length(); i++) {
+            parser.feed(OUTPUT.substring(i, i + 1)).forEach(it -> ids.add(it.barId));
+        }
+        parser.end().forEach(it -> ids.add(it.barId));
+
+        assertEquals(List.of(11L, 22L, 33L), ids);
+    }
+}
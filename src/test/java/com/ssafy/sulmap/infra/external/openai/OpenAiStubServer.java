@@ -0,0 +1,160 @@
+package com.ssafy.sulmap.infra.external.openai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openai.client.OpenAIClient;
+import com.openai.client.okhttp.OpenAIOkHttpClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 테스트용 로컬 OpenAI Responses API 스텁 (POST /v1/responses)
+ * - 응답은 큐 순서대로, 큐가 비면 기본 응답
+ * - 느린 응답(delay), 실패(status), 형식이 깨진 응답(body)을 흉내낸다
+ */
+class OpenAiStubServer implements AutoCloseable {
+
+    private static final ObjectMapper OM = new ObjectMapper();
+
+    record StubResponse(int status, String body, long delayMillis) {
+
+        static StubResponse ok(String outputText) {
+            return ok(outputText, 0);
+        }
+
+        // usage.input_tokens_details.cached_tokens (input_tokens는 100)
+        static StubResponse ok(String outputText, int cachedTokens) {
+            return new StubResponse(200, responseJson(outputText, cachedTokens), 0);
+        }
+
+        static StubResponse error(int status) {
+            return new StubResponse(status, "{\"error\":{\"message\":\"stub error\",\"type\":\"server_error\"}}", 0);
+        }
+
+        // 200이지만 structured output이 스키마와 맞지 않음
+        static StubResponse malformed() {
+            return ok("{\"selected\": \"not-a-list\"");
+        }
+
+        StubResponse delayed(long millis) {
+            return new StubResponse(status, body, millis);
+        }
+    }
+
+    private final HttpServer _server;
+    private final ConcurrentLinkedQueue<StubResponse> _queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger _requests = new AtomicInteger();
+    private final List<String> _requestBodies = new CopyOnWriteArrayList<>();
+    private volatile StubResponse _default = StubResponse.error(500);
+
+    OpenAiStubServer() throws IOException {
+        _server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        _server.createContext("/v1/responses", this::handle);
+        _server.setExecutor(Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "openai-stub");
+            t.setDaemon(true);
+            return t;
+        }));
+        _server.start();
+    }
+
+    OpenAIClient client() {
+        return OpenAIOkHttpClient.builder()
+                .apiKey("test")
+                .baseUrl("http://127.0.0.1:" + _server.getAddress().getPort() + "/v1")
+                .maxRetries(0)
+                .build();
+    }
+
+    OpenAiStubServer enqueue(StubResponse response) {
+        _queue.add(response);
+        return this;
+    }
+
+    OpenAiStubServer byDefault(StubResponse response) {
+        _default = response;
+        return this;
+    }
+
+    int requestCount() {
+        return _requests.get();
+    }
+
+    List<String> requestBodies() {
+        return List.copyOf(_requestBodies);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        _requests.incrementAndGet();
+        _requestBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+
+        StubResponse response = _queue.poll();
+        if (response == null) response = _default;
+
+        if (response.delayMillis() > 0) {
+            try {
+                Thread.sleep(response.delayMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        try {
+            exchange.sendResponseHeaders(response.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException ignore) {
+            // 클라이언트가 타임아웃으로 먼저 끊음
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String responseJson(String outputText, int cachedTokens) {
+        try {
+            return OM.writeValueAsString(Map.of(
+                    "id", "resp_stub",
+                    "object", "response",
+                    "created_at", 1_700_000_000,
+                    "model", "gpt-5.2",
+                    "status", "completed",
+                    "output", new Object[]{Map.of(
+                            "type", "message",
+                            "id", "msg_stub",
+                            "status", "completed",
+                            "role", "assistant",
+                            "content", new Object[]{Map.of(
+                                    "type", "output_text",
+                                    "text", outputText,
+                                    "annotations", new Object[0])})},
+                    "usage", Map.of(
+                            "input_tokens", 100,
+                            "input_tokens_details", Map.of("cached_tokens", cachedTokens),
+                            "output_tokens", 10,
+                            "output_tokens_details", Map.of("reasoning_tokens", 0),
+                            "total_tokens", 110)
+            ));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        _server.stop(0);
+    }
+}
@@ -0,0 +1,114 @@
+package com.ssafy.sulmap.infra.utils;
+
+import com.ssafy.sulmap.core.model.BarListItemModel;
+import com.ssafy.sulmap.core.model.ReviewSummaryModel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BarHeuristicScorer 유닛 테스트")
+class BarHeuristicScorerTest {
+
+    // 2025-12-19 (금) 21:00
+    private static final ZonedDateTime FRIDAY_NIGHT =
+            ZonedDateTime.of(2025, 12, 19, 21, 0, 0, 0, ZoneId.of("Asia/Seoul"));
+
+    private BarListItemModel bar(long id, String category, String openInfo, double distance) {
+        return BarListItemModel.builder()
+                .id(id)
+                .name("bar" + id)
+                .baseCategoryName(category)
+                .openInformation(openInfo)
+                .distanceMeters(distance)
+                .build();
+    }
+
+    @Test
+    @DisplayName("요청문과 카테고리가 맞는 술집이 거리순보다 앞선다")
+    void rank_categoryMatchBeatsDistance() {
+        var bars = List.of(
+                bar(1, "호프", null, 50),
+                bar(2, "포장마차", null, 100),
+                bar(3, "이자카야", null, 800)
+        );
+
+        var ranked = BarHeuristicScorer.rank(bars, "조용한 이자카야", 1000, FRIDAY_NIGHT, 2);
+
+        assertEquals(2, ranked.size());
+        assertEquals(3L, ranked.get(0).getId());
+        assertEquals(1L, ranked.get(1).getId(), "나머지는 거리순");
+    }
+
+    @Test
+    @DisplayName("요청문이 비어 있으면 거리순을 유지한다")
+    void rank_emptyPrompt_keepsDistanceOrder() {
+        var bars = List.of(bar(1, "호프", null, 50), bar(2, "이자카야", null, 300));
+
+        var ranked = BarHeuristicScorer.rank(bars, "  ", 1000, FRIDAY_NIGHT, 10);
+
+        assertEquals(List.of(1L, 2L), ranked.stream().map(BarListItemModel::getId).toList());
+    }
+
+    @Test
+    @DisplayName("영업시간: 자정 넘김/새벽/정기휴무를 판단한다")
+    void openNow_parsesHours() {
+        assertEquals(Boolean.TRUE, BarHeuristicScorer.openNow("매일 18:00 - 02:00", FRIDAY_NIGHT));
+        assertEquals(Boolean.TRUE, BarHeuristicScorer.openNow("매일 18:00 - 02:00", FRIDAY_NIGHT.withHour(1)));
+        assertEquals(Boolean.FALSE, BarHeuristicScorer.openNow("11:00~15:00", FRIDAY_NIGHT));
+        assertEquals(Boolean.FALSE, BarHeuristicScorer.openNow("17:00 - 24:00, 매주 금요일 휴무", FRIDAY_NIGHT));
+        assertEquals(Boolean.TRUE, BarHeuristicScorer.openNow("24시간 영업", FRIDAY_NIGHT));
+        assertNull(BarHeuristicScorer.openNow("전화 문의", FRIDAY_NIGHT));
+    }
+
+    @Test
+    @DisplayName("영업 종료된 술집은 같은 조건의 영업 중인 술집보다 뒤로 간다")
+    void rank_closedBarRanksLower() {
+        var bars = List.of(
+                bar(1, "이자카야", "11:00~15:00", 50),
+                bar(2, "이자카야", "18:00 - 02:00", 500)
+        );
+
+        var ranked = BarHeuristicScorer.rank(bars, "이자카야", 1000, FRIDAY_NIGHT, 2);
+
+        assertEquals(2L, ranked.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("리뷰 평점이 높은 술집이 앞서고, 리뷰 수가 적으면 영향이 작다")
+    void rank_reviewStats() {
+        var bars = List.of(
+                bar(1, "이자카야", "18:00 - 02:00", 100),
+                bar(2, "이자카야", "18:00 - 02:00", 120)
+        );
+        var reviews = Map.of(2L, ReviewSummaryModel.builder().totalCount(40L).averageRating(4.6).build());
+
+        var ranked = BarHeuristicScorer.rank(bars, "이자카야", 1000, FRIDAY_NIGHT, reviews, 2);
+        assertEquals(2L, ranked.get(0).getId());
+
+        var terms = BarHeuristicScorer.parsePrompt("이자카야");
+        double many = BarHeuristicScorer.score(bars.get(1), terms, 1000, FRIDAY_NIGHT,
+                ReviewSummaryModel.builder().totalCount(40L).averageRating(5.0).build());
+        double few = BarHeuristicScorer.score(bars.get(1), terms, 1000, FRIDAY_NIGHT,
+                ReviewSummaryModel.builder().totalCount(1L).averageRating(5.0).build());
+        assertTrue(many > few);
+    }
+
+    @Test
+    @DisplayName("이유: 요청 일치 / 영업 중 / 평점 순으로 2~3개")
+    void reasons_templated() {
+        var terms = BarHeuristicScorer.parsePrompt("조용한 이자카야");
+        var reviews = ReviewSummaryModel.builder().totalCount(12L).averageRating(4.25).build();
+
+        var reasons = BarHeuristicScorer.reasons(bar(1, "이자카야", "18:00 - 02:00", 130), terms, FRIDAY_NIGHT, reviews);
+        assertEquals(List.of("요청('이자카야')에 맞는 이자카야", "지금 영업 중", "평점 4.3 (리뷰 12개)"), reasons);
+
+        var sparse = BarHeuristicScorer.reasons(bar(2, "호프", null, 80.4), terms, FRIDAY_NIGHT, null);
+        assertEquals(List.of("약 80m 거리", "후보 중 조건 무난"), sparse);
+    }
+}
@@ -0,0 +1,68 @@
+package com.ssafy.sulmap.infra.utils;
+
+import com.ssafy.sulmap.core.model.BarListItemModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 후보 B라인 생성: 기존(매 요청 sanitize + stream joining) vs 술집별 캐시 + pre-sized builder
+ *
+ * 실행: 테스트 클래스패스로 main 실행 (-prof gc 로 할당량 비교 가능)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GptBatchTextBuilderBenchmark {
+
+    @Param({"100", "200"})
+    public int bars;
+
+    private List<BarListItemModel> _models;
+
+    @Setup
+    public void setUp() {
+        _models = new ArrayList<>(bars);
+        for (long id = 1; id <= bars; id++) {
+            _models.add(BarListItemModel.builder()
+                    .id(id)
+                    .name("역삼 이자카야 " + id + "호점")
+                    .baseCategoryName("이자카야")
+                    .openInformation("매일 17:00 - 02:00 (라스트오더 01:00), 매주 일요일 휴무\n주차 불가")
+                    .menuJsonString("[{\"name\":\"모둠 사시미\",\"price\":\"38000\"},{\"name\":\"하이볼\",\"price\":\"9000\"},{\"name\":\"나베\"}]")
+                    .updatedAt(new Date(1_700_000_000_000L + id))
+                    .build());
+        }
+        // 캐시 워밍 (운영에서는 같은 동네 후보가 반복해서 들어옴)
+        GptBatchTextBuilder.buildBatchLines(_models);
+    }
+
+    @Benchmark
+    public String legacyStreamJoining() {
+        return _models.stream()
+                .map(GptBatchTextBuilder::buildOneBarLine)
+                .filter(s -> !s.isBlank())
+                .collect(Collectors.joining("\n"));
+    }
+
+    @Benchmark
+    public String cachedPreSized() {
+        return GptBatchTextBuilder.buildBatchLines(_models);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GptBatchTextBuilderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
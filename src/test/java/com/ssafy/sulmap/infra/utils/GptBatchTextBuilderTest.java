@@ -0,0 +1,180 @@
+package com.ssafy.sulmap.infra.utils;
+
+import com.ssafy.sulmap.core.model.BarListItemModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GptBatchTextBuilder 유닛 테스트")
+class GptBatchTextBuilderTest {
+
+    private BarListItemModel bar(long id, String name, long updatedAt) {
+        return BarListItemModel.builder()
+                .id(id)
+                .name(name)
+                .baseCategoryName("이자카야")
+                .openInformation("매일 17:00 - 02:00")
+                .menuJsonString("[{\"name\":\"하이볼\"}]")
+                .updatedAt(new Date(updatedAt))
+                .build();
+    }
+
+    @Test
+    @DisplayName("캐시를 거친 배치 텍스트는 라인을 매번 만든 결과와 같다")
+    void buildBatchLines_sameAsJoiningFreshLines() {
+        List<BarListItemModel> bars = new ArrayList<>();
+        for (long id = 900_001; id <= 900_050; id++) bars.add(bar(id, "bar|" + id, 1_000L));
+        bars.add(null);
+        bars.add(BarListItemModel.builder().name("no id").build());
+
+        String expected = bars.stream()
+                .map(GptBatchTextBuilder::buildOneBarLine)
+                .filter(s -> !s.isBlank())
+                .collect(Collectors.joining("\n"));
+
+        assertEquals(expected, GptBatchTextBuilder.buildBatchLines(bars));
+        assertEquals(expected, GptBatchTextBuilder.buildBatchLines(bars), "두번째(캐시 hit)도 동일");
+    }
+
+    @Test
+    @DisplayName("updatedAt이 바뀌면 라인을 다시 만든다")
+    void cachedBarLine_invalidatedByUpdatedAt() {
+        var before = bar(900_100, "옛이름", 1_000L);
+        var after = bar(900_100, "새이름", 2_000L);
+        var sameVersion = bar(900_100, "새이름(미반영)", 2_000L);
+
+        assertTrue(GptBatchTextBuilder.cachedBarLine(before).contains("|n=옛이름"));
+        assertTrue(GptBatchTextBuilder.cachedBarLine(after).contains("|n=새이름"));
+        assertSame(GptBatchTextBuilder.cachedBarLine(after), GptBatchTextBuilder.cachedBarLine(sameVersion));
+    }
+
+    @Test
+    @DisplayName("GptBarLineCache 빈: 설정한 크기의 캐시로 바꾸고 hit/miss 지표를 남긴다")
+    void gptBarLineCache_installsInstrumentedCache() {
+        var registry = new SimpleMeterRegistry();
+        new GptBarLineCache(registry, 1_000);
+        var bar = bar(900_200, "지표", 1_000L);
+
+        GptBatchTextBuilder.cachedBarLine(bar);
+        GptBatchTextBuilder.cachedBarLine(bar);
+
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "gptBarLine", "result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "gptBarLine", "result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("오프라인 영업정보 요약이 있으면 원문 대신 쓰고, 요약이 바뀌면 라인을 다시 만든다")
+    void cachedBarLine_prefersOpenInfoSummary() {
+        var raw = bar(900_150, "요약전", 1_000L);
+        var summarized = raw.toBuilder().openInfoSummary("17:00-02:00 / 휴무 일").build();
+        var resummarized = raw.toBuilder().openInfoSummary("17:00-03:00").build();
+
+        assertTrue(GptBatchTextBuilder.cachedBarLine(raw).contains("|oi=매일 17:00 - 02:00|"));
+        assertTrue(GptBatchTextBuilder.cachedBarLine(summarized).contains("|oi=17:00-02:00 / 휴무 일|"));
+        assertTrue(GptBatchTextBuilder.cachedBarLine(resummarized).contains("|oi=17:00-03:00|"));
+    }
+
+    @Test
+    @DisplayName("토큰 예산/배치 크기/배치 수 상한에 맞춰 입력 순서대로 나눈다")
+    void splitByTokenBudget_packsInOrder() {
+        List<BarListItemModel> bars = new ArrayList<>();
+        for (long id = 900_201; id <= 900_230; id++) bars.add(bar(id, "bar" + id, 1_000L));
+        int perBar = GptBatchTextBuilder.estimateBatchTokens(List.of(bars.get(0)));
+
+        // 예산상 7개씩
+        var byBudget = GptBatchTextBuilder.splitByTokenBudget(bars, perBar * 7 + 1, 100, 10);
+        assertEquals(5, byBudget.size());
+        assertEquals(7, byBudget.get(0).size());
+        assertEquals(2, byBudget.get(4).size());
+        assertEquals(900_201L, byBudget.get(0).get(0).getId());
+
+        // 예산은 넉넉하고 배치 크기 상한 10
+        assertEquals(3, GptBatchTextBuilder.splitByTokenBudget(bars, 1_000_000, 10, 10).size());
+
+        // 배치 수 상한: 앞쪽(가까운) 후보만
+        var capped = GptBatchTextBuilder.splitByTokenBudget(bars, perBar * 7 + 1, 100, 2);
+        assertEquals(2, capped.size());
+        assertEquals(900_214L, capped.get(1).get(6).getId());
+    }
+
+    @Test
+    @DisplayName("COMPACT: 반복되는 카테고리/영업정보 구절/메뉴는 사전 코드로, id는 순번으로 바꾸고 barId로 되돌린다")
+    void buildCompactBatch_dictionaryAndOrdinals() {
+        List<BarListItemModel> bars = new ArrayList<>();
+        for (long id = 900_301; id <= 900_310; id++) {
+            bars.add(BarListItemModel.builder()
+                    .id(id)
+                    .name("역삼 " + id)
+                    .baseCategoryName(id % 2 == 0 ? "이자카야" : "요리주점")
+                    .openInformation("매일 17:00 - 02:00, 일요일 휴무")
+                    .menuJsonString("[{\"name\":\"하이볼\",\"price\":\"9000\"},{\"name\":\"모둠 사시미\"},{\"name\":\"하이볼\"}]")
+                    .updatedAt(new Date(1_000L))
+                    .build());
+        }
+        bars.add(BarListItemModel.builder().id(900_399L).name("혼자").baseCategoryName("와인바").build());
+
+        var batch = GptBatchTextBuilder.buildCompactBatch(bars);
+        List<String> lines = batch.text().lines().toList();
+
+        assertTrue(lines.contains("D|C1=요리주점"));
+        assertTrue(lines.contains("D|C2=이자카야"));
+        assertTrue(lines.contains("D|O1=매일 17:00 - 02:00"));
+        assertTrue(lines.contains("D|O2=일요일 휴무"));
+        assertTrue(lines.contains("D|M1=하이볼,모둠 사시미"), "메뉴는 이름만, 술집 안 중복 제거");
+        assertTrue(lines.contains("B|1|C1|O1,O2|역삼 900301|M1"), lines.toString());
+        // 한 번만 나온 값은 그대로
+        assertEquals("B|11|와인바|-|혼자|-", lines.get(lines.size() - 1));
+
+        assertEquals(900_301L, batch.toBarId(1));
+        assertEquals(900_399L, batch.toBarId(11));
+        assertNull(batch.toBarId(12));
+        assertNull(batch.toBarId(900_301));
+        assertTrue(batch.tokens() < batch.legacyTokens());
+        assertEquals(GptBatchTextBuilder.estimateBatchTokens(bars), batch.legacyTokens());
+    }
+
+    @Test
+    @DisplayName("COMPACT: 실제 분포에 가까운 후보 100개에서 LEGACY 대비 토큰이 30% 이상 준다")
+    void buildCompactBatch_savesTokens() {
+        String[] categories = {"이자카야", "요리주점", "호프", "와인바", "칵테일바"};
+        String[] openInfos = {"매일 17:00 - 02:00 (라스트오더 01:00), 매주 일요일 휴무", "매일 18:00 - 24:00", "24시간 영업"};
+        List<BarListItemModel> bars = new ArrayList<>();
+        for (long i = 0; i < 100; i++) {
+            bars.add(BarListItemModel.builder()
+                    .id(900_500 + i)
+                    .name("역삼 " + categories[(int) (i % 5)] + " " + i + "호점")
+                    .baseCategoryName(categories[(int) (i % 5)])
+                    .openInformation(openInfos[(int) (i % 3)])
+                    .menuJsonString(i % 2 == 0
+                            ? "[{\"name\":\"모둠 사시미\",\"price\":\"38000\"},{\"name\":\"하이볼\",\"price\":\"9000\"}]"
+                            : "[{\"name\":\"생맥주\",\"price\":\"5000\"},{\"name\":\"치킨\"}]")
+                    .updatedAt(new Date(1_000L))
+                    .build());
+        }
+
+        var legacy = GptBatchTextBuilder.buildBatch(bars, GptBatchTextBuilder.Encoding.LEGACY);
+        var compact = GptBatchTextBuilder.buildBatch(bars, GptBatchTextBuilder.Encoding.COMPACT);
+
+        assertEquals(0, legacy.savedTokens());
+        assertEquals(legacy.tokens(), compact.legacyTokens());
+        assertTrue(compact.savedTokens() * 100 >= legacy.tokens() * 30,
+                "legacy=" + legacy.tokens() + ", compact=" + compact.tokens());
+    }
+
+    @Test
+    @DisplayName("토큰 추정: 한글은 글자당, 영숫자는 4자당 1토큰")
+    void estimate_roughTokenCount() {
+        assertEquals(0, GptTokenEstimator.estimate(""));
+        assertEquals(4, GptTokenEstimator.estimate("이자카야"));
+        assertEquals(2, GptTokenEstimator.estimate("highball"));
+        // B | id = 123 | n = 호프  -> 1+1+1+1+1+1+1+1+2
+        assertEquals(10, GptTokenEstimator.estimate("B|id=123|n=호프"));
+    }
+}
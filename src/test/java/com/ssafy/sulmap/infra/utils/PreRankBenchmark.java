@@ -0,0 +1,131 @@
+package com.ssafy.sulmap.infra.utils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssafy.sulmap.core.model.BarListItemModel;
+import com.ssafy.sulmap.core.model.query.GetRecommenedBarsQuery;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.*;
+
+/**
+ * 로컬 pre-rank(LOCAL/HYBRID) vs 기록된 GPT 1차 선택 비교.
+ * - 지연: 로컬은 직접 측정(p50/p99), GPT는 fixture에 기록된 값
+ * - 토큰: LOCAL은 0, HYBRID는 줄어든 배치 텍스트 길이 비율로 입력 토큰 추정
+ * - 겹침: GPT 1차 선택 중 로컬 결과(LOCAL 40개 / HYBRID 후보 100개)에 들어간 비율
+ *
+ * 실행: 테스트 클래스패스로 main 실행. 인자로 fixture 디렉터리를 주면 그 안의 *.json을 사용
+ * (기본: classpath:fixtures/stage1/*.json)
+ */
+public class PreRankBenchmark {
+
+    private static final int STAGE2_MAX = 40;
+    private static final int BATCH_SIZE = 100;
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 2_000;
+
+    private static final ObjectMapper OM = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    public static void main(String[] args) throws IOException {
+        List<Resource> resources = args.length > 0 ? fromDirectory(Path.of(args[0])) : fromClasspath();
+        if (resources.isEmpty()) {
+            System.out.println("no fixtures found");
+            return;
+        }
+
+        System.out.printf("%-32s %-7s %12s %12s %10s %8s%n", "fixture", "mode", "p50", "p99", "inTokens", "overlap");
+        for (Resource resource : resources) {
+            Stage1Fixture fx;
+            try (InputStream in = resource.getInputStream()) {
+                fx = OM.readValue(in, Stage1Fixture.class);
+            }
+            run(fx);
+        }
+    }
+
+    private static void run(Stage1Fixture fx) {
+        var query = fx.query();
+        var candidates = fx.candidates();
+        var requestTime = ZonedDateTime.parse(fx.requestTime());
+        Set<Long> gptSelected = new HashSet<>(fx.gpt().selected());
+
+        // GPT 1차 (기록값)
+        System.out.printf("%-32s %-7s %10dms %12s %10d %7.1f%%%n", fx.name(), "GPT",
+                fx.gpt().latencyMs(), "-", fx.gpt().inputTokens(), 100.0);
+
+        // LOCAL: 로컬 점수 상위 40개가 곧 2차 풀
+        long[] local = measure(() -> BarHeuristicScorer.rank(candidates, query.getUserPrompt(), query.getMaxDistance(),
+                requestTime, STAGE2_MAX));
+        var localPicked = BarHeuristicScorer.rank(candidates, query.getUserPrompt(), query.getMaxDistance(),
+                requestTime, STAGE2_MAX);
+        System.out.printf("%-32s %-7s %10dus %10dus %10d %7.1f%%%n", "", "LOCAL",
+                local[0] / 1_000, local[1] / 1_000, 0, overlap(localPicked, gptSelected));
+
+        // HYBRID: 로컬로 100개까지 줄인 뒤 GPT 1차 한 배치 (GPT 지연은 배치 하나 분량이 추가됨)
+        long[] hybrid = measure(() -> BarHeuristicScorer.rank(candidates, query.getUserPrompt(), query.getMaxDistance(),
+                requestTime, BATCH_SIZE));
+        var shortlist = BarHeuristicScorer.rank(candidates, query.getUserPrompt(), query.getMaxDistance(),
+                requestTime, BATCH_SIZE);
+        double lineRatio = (double) GptBatchTextBuilder.buildBatchLines(shortlist).length()
+                / GptBatchTextBuilder.buildBatchLines(candidates).length();
+        System.out.printf("%-32s %-7s %10dus %10dus %10d %7.1f%% (recall of GPT picks in shortlist)%n", "", "HYBRID",
+                hybrid[0] / 1_000, hybrid[1] / 1_000, Math.round(fx.gpt().inputTokens() * lineRatio),
+                overlap(shortlist, gptSelected));
+    }
+
+    // {p50, p99} ns
+    private static long[] measure(Runnable task) {
+        for (int i = 0; i < WARMUP; i++) task.run();
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return new long[]{samples[ITERATIONS / 2], samples[(int) (ITERATIONS * 0.99)]};
+    }
+
+    private static double overlap(List<BarListItemModel> picked, Set<Long> gptSelected) {
+        if (gptSelected.isEmpty()) return 0;
+        long hit = picked.stream().map(BarListItemModel::getId).filter(gptSelected::contains).count();
+        return hit * 100.0 / gptSelected.size();
+    }
+
+    private static List<Resource> fromClasspath() throws IOException {
+        return List.of(new PathMatchingResourcePatternResolver().getResources("classpath:fixtures/stage1/*.json"));
+    }
+
+    private static List<Resource> fromDirectory(Path dir) throws IOException {
+        try (var files = Files.list(dir)) {
+            return files.filter(p -> p.toString().endsWith(".json"))
+                    .sorted()
+                    .<Resource>map(FileSystemResource::new)
+                    .toList();
+        }
+    }
+
+    /**
+     * 기록된 1차 추천 한 건
+     * - candidates: 거리순 후보 (BarListItemModel 필드명)
+     * - gpt.selected: 배치 순서대로 합친 GPT 1차 선택 id
+     */
+    record Stage1Fixture(
+            String name,
+            String note,
+            String requestTime,
+            GetRecommenedBarsQuery query,
+            List<BarListItemModel> candidates,
+            GptStage1 gpt
+    ) {}
+
+    record GptStage1(List<Long> selected, long latencyMs, long inputTokens, long outputTokens) {}
+}